@@ -1,153 +1,150 @@
 package uk.co.blogspot.rafaelzig.core.algorithm;
 
-import java.util.concurrent.ForkJoinPool;
-import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
 
-import org.apache.commons.lang3.ArrayUtils;
-import org.moeaframework.core.Initialization;
+import org.moeaframework.core.FrameworkException;
 import org.moeaframework.core.Problem;
 import org.moeaframework.core.Solution;
 import org.moeaframework.core.variable.BinaryVariable;
 
+import uk.co.blogspot.rafaelzig.core.datastructure.ConcurrentArchive;
+import uk.co.blogspot.rafaelzig.core.datastructure.template.ProblemTemplate;
+import uk.co.blogspot.rafaelzig.core.parsing.IncrementalEvaluation;
+
 /**
  * Class responsible for generating all permutations, with repetitions, of
- * solutions of a binary valued problem.
+ * solutions of a binary valued problem. The index of each permutation is the
+ * binary number it represents, where the first variable is the most
+ * significant bit. If the problem is given as a ProblemTemplate whose
+ * evaluations are incremental, permutations are instead enumerated in the
+ * order of the reflected Gray code, so that consecutive permutations differ
+ * by a single variable and only the expressions depending on it are evaluated
+ * again.
  *
  * @author Rafael da Silva Costa - BSc Computer Science 3rd Year
  *
  */
-class BinaryBruteForceInitialization extends RecursiveTask<Solution[]> implements
-		Initialization
+class BinaryBruteForceInitialization implements CandidateSpace
 {
-	/**
-	 * Generated serial version.
-	 */
-	private static final long	serialVersionUID	= 2709261090543619534L;
-
 	/**
 	 * Binary valued problem.
 	 */
-	private final Problem		problem;
+	private final Problem	problem;
 
 	/**
-	 * Initial cursor to be checked.
+	 * Greatest number of variables whose permutations can be indexed.
 	 */
-	private final int			start;
+	private static final int	MAX_VARIABLES	= Long.SIZE - 2;
 
 	/**
-	 * Number of iterations to be performed.
-	 */
-	private final int			length;
-
-	/**
-	 * Limit of permutations to be calculated at one time.
-	 */
-	private final int			threshold			= 65536;
-
-	/**
-	 * Constructs a new instance with the specified problem and initialised
-	 * values for cursor and length.
+	 * Constructs a new instance with the specified problem, which generates
+	 * every permutation of its variables.
 	 *
 	 * @param problem
+	 *            : Binary-valued problem.
+	 * @throws FrameworkException
+	 *             If the number of permutations cannot be indexed.
 	 */
 	BinaryBruteForceInitialization(Problem problem)
 	{
-		this(problem, 0, (int) Math.pow(2, problem.getNumberOfVariables()));
-	}
+		if (problem.getNumberOfVariables() > MAX_VARIABLES)
+		{
+			throw new FrameworkException("too many candidate solutions");
+		}
 
-	/**
-	 * Constructs a new instance with the specified problem, initial cursor and
-	 * max cursor.
-	 *
-	 * @param problem
-	 *            : Binary-valued problem.
-	 * @param start
-	 *            : Initial cursor to be checked.
-	 * @param length
-	 *            : Number of iterations to be performed.
-	 */
-	BinaryBruteForceInitialization(Problem problem, int start, int length)
-	{
 		this.problem = problem;
-		this.start = start;
-		this.length = length;
 	}
 
 	@Override
-	protected Solution[] compute()
+	public long enumerate(long from, long to, Consumer<Solution[]> evaluator,
+			ConcurrentArchive archive)
 	{
-		if (length < threshold)
+		if (!(problem instanceof ProblemTemplate) || from >= to)
 		{
-			return computeDirectly();
+			return CandidateSpace.super.enumerate(from, to, evaluator, archive);
 		}
 
-		return splitTask();
-	}
-
-	/**
-	 * Computes the permutations directly.
-	 *
-	 * @return
-	 */
-	private Solution[] computeDirectly()
-	{
-		final Solution[] solutions = new Solution[length];
+		final ProblemTemplate template = (ProblemTemplate) problem;
+		final int numberOfVariables = problem.getNumberOfVariables();
+		Solution solution = problem.newSolution();
+		final long code = from ^ from >>> 1;
 
-		for (int i = start; i < start + length; i++)
+		for (int j = 0; j < numberOfVariables; j++)
 		{
-			final String binaryString = Long.toBinaryString(i);
-			final Solution solution = problem.newSolution();
+			final BinaryVariable binary = (BinaryVariable) solution.getVariable(j);
+			binary.set(0, (code >>> numberOfVariables - 1 - j & 1) == 1);
+		}
 
-			final int target = problem.getNumberOfVariables() - binaryString.length();
+		final IncrementalEvaluation evaluation = template.evaluateIncrementally(solution);
 
-			for (int j = problem.getNumberOfVariables() - 1; j >= target; j--)
+		if (evaluation == null)
+		{
+			return CandidateSpace.super.enumerate(from, to, evaluator, archive);
+		}
+
+		for (long i = from; i < to; i++)
+		{
+			if (i > from)
 			{
+				// The Gray codes of consecutive indexes differ by the bit of
+				// the lowest one set in the latter
+				final int j = numberOfVariables - 1 - Long.numberOfTrailingZeros(i);
 				final BinaryVariable binary = (BinaryVariable) solution.getVariable(j);
-				binary.set(
-						0,
-						binaryString.charAt(j - problem.getNumberOfVariables()
-								+ binaryString.length()) == '0' ? false : true);
-				solution.setVariable(j, binary);
+				binary.set(0, !binary.get(0));
+				evaluation.set(j, binary.get(0) ? 1.0 : 0.0);
 			}
 
-			for (int j = problem.getNumberOfVariables() - binaryString.length() - 1; j >= 0; j--)
+			template.evaluate(solution, evaluation);
+
+			// The solution is only copied once the archive keeps it
+			if (archive.add(solution, i))
 			{
-				final BinaryVariable binary = (BinaryVariable) solution.getVariable(j);
-				binary.set(0, false);
-				solution.setVariable(j, binary);
+				solution = solution.copy();
 			}
-
-			solutions[i % length] = solution;
 		}
 
-		return solutions;
+		return to - from;
 	}
 
 	@Override
-	public Solution[] initialize()
+	public long size()
 	{
-		return new ForkJoinPool().invoke(this);
+		return 1L << problem.getNumberOfVariables();
 	}
 
-	/**
-	 * Splits the task in two separate threads and returns the resulting
-	 * permutations found by the two.
-	 *
-	 * @return Solution array containing the combined permutations found by the
-	 *         two threads.
-	 */
-	private Solution[] splitTask()
+	@Override
+	public CandidateStream stream(long from, long to)
 	{
-		final int split = length / 2;
-		final BinaryBruteForceInitialization left = new BinaryBruteForceInitialization(
-				problem, start, split);
-		final BinaryBruteForceInitialization right = new BinaryBruteForceInitialization(
-				problem, start + split, length - split);
+		return new CandidateStream()
+		{
+			/**
+			 * Next permutation to be generated.
+			 */
+			private long	cursor	= from;
 
-		left.fork();
-		final Solution[] rightSolutions = right.compute();
-		final Solution[] leftSolutions = left.join();
+			@Override
+			public Solution[] next(int count)
+			{
+				final Solution[] solutions = new Solution[(int) Math.min(count, to
+						- cursor)];
+				final int numberOfVariables = problem.getNumberOfVariables();
+
+				for (int i = 0; i < solutions.length; i++, cursor++)
+				{
+					final Solution solution = problem.newSolution();
+
+					for (int j = 0; j < numberOfVariables; j++)
+					{
+						final BinaryVariable binary = (BinaryVariable) solution
+								.getVariable(j);
+						binary.set(0, (cursor >>> numberOfVariables - 1 - j & 1) == 1);
+					}
 
-		return ArrayUtils.addAll(leftSolutions, rightSolutions);
+					solutions[i] = solution;
+				}
+
+				return solutions;
+			}
+		};
 	}
-}
\ No newline at end of file
+}
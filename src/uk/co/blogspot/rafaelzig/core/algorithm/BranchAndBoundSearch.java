@@ -0,0 +1,402 @@
+package uk.co.blogspot.rafaelzig.core.algorithm;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.moeaframework.algorithm.AbstractAlgorithm;
+import org.moeaframework.core.FrameworkException;
+import org.moeaframework.core.NondominatedPopulation;
+import org.moeaframework.core.Solution;
+import org.moeaframework.core.Variable;
+import org.moeaframework.core.variable.BinaryVariable;
+import org.moeaframework.core.variable.RealVariable;
+
+import uk.co.blogspot.rafaelzig.core.datastructure.template.ProblemTemplate;
+
+/**
+ * Class responsible for evaluating and returning the Pareto optimal set of the
+ * same grid as brute force search, by means of branch and bound. Boxes of the
+ * grid are bisected recursively, and a box is discarded once interval
+ * arithmetic proves all of its solutions to be infeasible, or the lowest
+ * objectives they may take to be dominated by a feasible solution of the
+ * archive. Boxes are bisected along the first variable taking several values,
+ * so that the remaining solutions are evaluated in increasing order of their
+ * index in the grid, as brute force evaluates a grid of mixed variables. The
+ * result is therefore the same, including which of the solutions with equal
+ * objectives is kept.
+ *
+ * @author Rafael da Silva Costa - BSc Computer Science 3rd Year
+ */
+class BranchAndBoundSearch extends AbstractAlgorithm
+{
+	/**
+	 * Number of solutions below which a box is enumerated directly rather
+	 * than bisected.
+	 */
+	private static final long				LEAF_SIZE	= 64;
+
+	/**
+	 * The problem being solved.
+	 */
+	private final ProblemTemplate			template;
+
+	/**
+	 * Array containing the lower bounds of the grid of each variable.
+	 */
+	private final double[]					min;
+
+	/**
+	 * Array containing the increments of the grid of each variable.
+	 */
+	private final double[]					increment;
+
+	/**
+	 * Array containing the number of values of the grid of each variable.
+	 */
+	private final long[]					counts;
+
+	/**
+	 * The archive of non-dominated solutions.
+	 */
+	private final NondominatedPopulation	archive;
+
+	/**
+	 * Number of solutions evaluated.
+	 */
+	private long							evaluations;
+
+	/**
+	 * Whether a box has been discarded for being proven infeasible.
+	 */
+	private boolean							skipped;
+
+	/**
+	 * Constructs a new branch and bound search procedure for the given
+	 * problem, over the grid with the specified bounds and increments.
+	 *
+	 * @param problem
+	 *            the problem being solved
+	 * @param min
+	 *            the lower bounds of the grid of each variable
+	 * @param max
+	 *            the upper bounds of the grid of each variable
+	 * @param increment
+	 *            the increments of the grid of each variable
+	 * @param archive
+	 *            the archive of non-dominated solutions
+	 * @throws FrameworkException
+	 *             If the number of solutions of the grid cannot be indexed.
+	 */
+	BranchAndBoundSearch(ProblemTemplate problem, double[] min, double[] max,
+			double[] increment, NondominatedPopulation archive)
+	{
+		super(problem);
+		template = problem;
+		this.min = min;
+		this.increment = increment;
+		this.archive = archive;
+		counts = new long[min.length];
+
+		long size = 1;
+
+		for (int i = 0; i < min.length; i++)
+		{
+			counts[i] = MixedVariableBruteForceInitialization.getCount(min[i], max[i],
+					increment[i]);
+
+			try
+			{
+				size = Math.multiplyExact(size, counts[i]);
+			}
+			catch (final ArithmeticException e)
+			{
+				throw new FrameworkException("too many candidate solutions", e);
+			}
+		}
+	}
+
+	/**
+	 * Searches the box spanning the specified steps along the grid of each
+	 * variable, bisecting it unless it is small enough or can be discarded.
+	 *
+	 * @param first
+	 *            : First step of each variable, inclusive.
+	 * @param last
+	 *            : Last step of each variable, inclusive.
+	 * @param skipInfeasible
+	 *            : Whether boxes proven to be infeasible are discarded.
+	 */
+	private void branch(long[] first, long[] last, boolean skipInfeasible)
+	{
+		long size = 1;
+		int split = -1;
+
+		for (int i = 0; i < first.length; i++)
+		{
+			size *= last[i] - first[i] + 1;
+
+			if (split < 0 && last[i] > first[i])
+			{
+				split = i;
+			}
+		}
+
+		if (size <= LEAF_SIZE)
+		{
+			enumerate(first, last);
+			return;
+		}
+
+		final double[] lower = new double[first.length];
+		final double[] upper = new double[first.length];
+
+		for (int i = 0; i < first.length; i++)
+		{
+			lower[i] = getValue(i, first[i]);
+			upper[i] = getValue(i, last[i]);
+		}
+
+		if (skipInfeasible && template.isInfeasible(lower, upper))
+		{
+			skipped = true;
+			return;
+		}
+
+		if (isDominated(template.getObjectiveBounds(lower, upper)))
+		{
+			return;
+		}
+
+		final long middle = first[split] + (last[split] - first[split]) / 2;
+		final long[] lowerLast = last.clone();
+		final long[] upperFirst = first.clone();
+		lowerLast[split] = middle;
+		upperFirst[split] = middle + 1;
+
+		branch(first, lowerLast, skipInfeasible);
+		branch(upperFirst, last, skipInfeasible);
+	}
+
+	/**
+	 * Evaluates every solution of the box spanning the specified steps along
+	 * the grid of each variable, in increasing order of index, and adds them
+	 * to the archive.
+	 *
+	 * @param first
+	 *            : First step of each variable, inclusive.
+	 * @param last
+	 *            : Last step of each variable, inclusive.
+	 */
+	private void enumerate(long[] first, long[] last)
+	{
+		final List<Solution> solutions = new ArrayList<>();
+		final long[] digits = first.clone();
+
+		do
+		{
+			final Solution solution = template.newSolution();
+
+			for (int i = 0; i < digits.length; i++)
+			{
+				setValue(solution.getVariable(i), getValue(i, digits[i]));
+			}
+
+			solutions.add(solution);
+		}
+		while (advance(digits, first, last));
+
+		final Solution[] batch = solutions.toArray(new Solution[solutions.size()]);
+		template.evaluateAll(batch, 0, batch.length);
+		archive.addAll(batch);
+		evaluations += batch.length;
+	}
+
+	@Override
+	public NondominatedPopulation getResult()
+	{
+		return archive;
+	}
+
+	/**
+	 * Returns the value of the specified variable after the specified number
+	 * of steps along its grid.
+	 *
+	 * @param variable
+	 *            : Index of the variable.
+	 * @param step
+	 *            : Number of steps taken.
+	 * @return Value of the variable.
+	 */
+	private double getValue(int variable, long step)
+	{
+		return min[variable] + step * increment[variable];
+	}
+
+	/**
+	 * Advances the specified steps to the next solution of the box, where the
+	 * last variable is the least significant digit.
+	 *
+	 * @param digits
+	 *            : Steps taken along the grid of each variable.
+	 * @param first
+	 *            : First step of each variable, inclusive.
+	 * @param last
+	 *            : Last step of each variable, inclusive.
+	 * @return True if the steps were advanced, false if they were those of
+	 *         the last solution.
+	 */
+	private static boolean advance(long[] digits, long[] first, long[] last)
+	{
+		for (int i = digits.length - 1; i >= 0; i--)
+		{
+			if (digits[i] < last[i])
+			{
+				digits[i]++;
+				return true;
+			}
+
+			digits[i] = first[i];
+		}
+
+		return false;
+	}
+
+	@Override
+	protected void initialize()
+	{
+		super.initialize();
+		iterate();
+	}
+
+	/**
+	 * Returns whether every solution whose objectives lie within the specified
+	 * bounds is dominated by a feasible solution of the archive, which is the
+	 * case if the lowest objectives they may take are. If an objective fails
+	 * throughout, the solutions are invalidated and keep objectives of zero.
+	 *
+	 * @param bounds
+	 *            : Lower and upper bounds of each objective, which are null for
+	 *            those whose evaluation fails throughout.
+	 * @return True if the solutions are dominated, false otherwise.
+	 */
+	private boolean isDominated(double[][] bounds)
+	{
+		final double[] ideal = new double[bounds.length];
+
+		for (int i = 0; i < bounds.length; i++)
+		{
+			if (bounds[i] == null)
+			{
+				return isDominated(new double[bounds.length]);
+			}
+
+			ideal[i] = bounds[i][0];
+		}
+
+		return isDominated(ideal);
+	}
+
+	/**
+	 * Returns whether the specified objectives, and therefore any greater
+	 * ones, are dominated by a feasible solution of the archive.
+	 *
+	 * @param objectives
+	 *            : Objectives to be compared.
+	 * @return True if the objectives are dominated, false otherwise.
+	 */
+	private boolean isDominated(double[] objectives)
+	{
+		for (final Solution solution : archive)
+		{
+			if (solution.violatesConstraints())
+			{
+				continue;
+			}
+
+			boolean better = false;
+			boolean worse = false;
+
+			for (int i = 0; i < objectives.length && !worse; i++)
+			{
+				better |= solution.getObjective(i) < objectives[i];
+				worse = solution.getObjective(i) > objectives[i];
+			}
+
+			if (better && !worse)
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Returns whether the archive contains a feasible solution.
+	 *
+	 * @return True if a solution of the archive violates no constraint, false
+	 *         otherwise.
+	 */
+	private boolean isFeasible()
+	{
+		for (final Solution solution : archive)
+		{
+			if (!solution.violatesConstraints())
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	@Override
+	protected void iterate()
+	{
+		final long[] first = new long[counts.length];
+		final long[] last = new long[counts.length];
+
+		for (int i = 0; i < counts.length; i++)
+		{
+			if (counts[i] == 0)
+			{
+				return;
+			}
+
+			last[i] = counts[i] - 1;
+		}
+
+		branch(first, last, true);
+
+		// As with brute force, infeasible solutions are only required if no
+		// feasible one was found
+		if (skipped && !isFeasible())
+		{
+			archive.clear();
+			branch(first, last, false);
+		}
+
+		numberOfEvaluations += (int) Math.min(Integer.MAX_VALUE, evaluations);
+		evaluations = 0;
+	}
+
+	/**
+	 * Sets the specified variable to the specified value.
+	 *
+	 * @param variable
+	 *            : Binary or real variable.
+	 * @param value
+	 *            : Value of the variable.
+	 */
+	private static void setValue(Variable variable, double value)
+	{
+		if (variable instanceof BinaryVariable)
+		{
+			((BinaryVariable) variable).set(0, value != 0);
+		}
+		else
+		{
+			((RealVariable) variable).setValue(value);
+		}
+	}
+}
@@ -0,0 +1,480 @@
+package uk.co.blogspot.rafaelzig.core.algorithm;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+import org.moeaframework.core.FrameworkException;
+import org.moeaframework.core.NondominatedPopulation;
+import org.moeaframework.core.Solution;
+
+import uk.co.blogspot.rafaelzig.core.datastructure.NondominatedArchive;
+import uk.co.blogspot.rafaelzig.core.datastructure.NondominatedSorting;
+import uk.co.blogspot.rafaelzig.core.datastructure.template.ProblemTemplate;
+import uk.co.blogspot.rafaelzig.core.parsing.Operations;
+
+/**
+ * Class responsible for distributing the ranges of candidate solutions of a
+ * brute force search among worker processes, which are started on this host
+ * or already listening on other hosts, as described by {@link BruteForceWorker}.
+ * Each range is split into shards, which are handed out to the workers as they
+ * become idle, and the archives of the shards are merged in order of index,
+ * therefore the result is the same as that of a search within this process.
+ * A shard given to a worker which fails, or which neither replies nor sends
+ * a heartbeat for a while, is handed out again to the remaining workers, and
+ * enumerated within this process if none remains.
+ *
+ * @author Rafael da Silva Costa - BSc Computer Science 3rd Year
+ *
+ */
+class BruteForceCoordinator
+{
+	/**
+	 * Connection to a worker process.
+	 */
+	private final class Connection
+	{
+		/**
+		 * Socket connected to the worker.
+		 */
+		private final Socket			socket;
+
+		/**
+		 * Stream of the requests to the worker.
+		 */
+		private final DataOutputStream	output;
+
+		/**
+		 * Stream of the replies of the worker.
+		 */
+		private final DataInputStream	input;
+
+		/**
+		 * Process of the worker, or null if it runs on another host.
+		 */
+		private final Process			process;
+
+		/**
+		 * Constructs a new instance of Connection to the worker listening on
+		 * the specified address, sending it the problem and properties of the
+		 * search.
+		 *
+		 * @param address
+		 *            : Address of the worker.
+		 * @param process
+		 *            : Process of the worker, or null if it runs on another
+		 *            host.
+		 * @throws IOException
+		 *             If the worker cannot be reached.
+		 */
+		private Connection(InetSocketAddress address, Process process)
+				throws IOException
+		{
+			this.process = process;
+			socket = new Socket();
+
+			try
+			{
+				socket.connect(address, CONNECT_TIMEOUT);
+				socket.setSoTimeout(REPLY_TIMEOUT);
+				output = new DataOutputStream(new BufferedOutputStream(socket
+						.getOutputStream()));
+				BruteForceWorker.writeText(output, json);
+				BruteForceWorker.writeText(output, properties);
+				output.flush();
+				input = new DataInputStream(new BufferedInputStream(socket
+						.getInputStream()));
+			}
+			catch (final IOException e)
+			{
+				socket.close();
+				throw e;
+			}
+		}
+
+		/**
+		 * Closes the connection, which stops a worker started by this
+		 * coordinator.
+		 */
+		private void close()
+		{
+			try
+			{
+				socket.close();
+			}
+			catch (final IOException e)
+			{
+				// The worker is abandoned regardless
+			}
+
+			if (process != null)
+			{
+				process.destroy();
+			}
+		}
+
+		/**
+		 * Enumerates the shards of the specified range taken from the
+		 * specified queue until it is empty, returning a shard to the queue
+		 * and closing the connection if the worker fails.
+		 *
+		 * @param stage
+		 *            : Stage of the search.
+		 * @param cells
+		 *            : Solutions whose cells are refined by the stage, or null
+		 *            if the stage enumerates the grid.
+		 * @param from
+		 *            : Index of the first solution of the range, inclusive.
+		 * @param to
+		 *            : Index of the last solution of the range, exclusive.
+		 * @param shardSize
+		 *            : Number of solutions of each shard.
+		 * @param queue
+		 *            : Indexes of the shards yet to be enumerated.
+		 * @param archives
+		 *            : Array containing the archive of each shard.
+		 * @param evaluations
+		 *            : Number of solutions evaluated by all workers.
+		 * @return True if the worker is still connected, false otherwise.
+		 */
+		private boolean serve(int stage, List<Solution> cells, long from, long to,
+				long shardSize, Queue<Integer> queue, NondominatedPopulation[] archives,
+				LongAdder evaluations)
+		{
+			for (Integer shard; (shard = queue.poll()) != null;)
+			{
+				final long start = from + shard * shardSize;
+
+				try
+				{
+					output.writeInt(stage);
+					BruteForceWorker.writeSolutions(output, cells);
+					output.writeLong(start);
+					output.writeLong(Math.min(to, start + shardSize));
+					output.flush();
+
+					// Each heartbeat restarts the timeout of the reply
+					int message = input.readInt();
+
+					while (message == BruteForceWorker.HEARTBEAT)
+					{
+						message = input.readInt();
+					}
+
+					if (message != BruteForceWorker.REPLY)
+					{
+						throw new IOException("Unexpected message: " + message);
+					}
+
+					final List<Solution> solutions = BruteForceWorker.readSolutions(input,
+							problem);
+					evaluations.add(input.readLong());
+
+					archives[shard] = new NondominatedArchive(solutions);
+				}
+				catch (final IOException | RuntimeException e)
+				{
+					queue.add(shard);
+					close();
+					return false;
+				}
+			}
+
+			return true;
+		}
+	}
+
+	/**
+	 * Number of shards each worker is given on average, so that workers
+	 * finishing early may take shards of the others.
+	 */
+	private static final int		SHARDS_PER_WORKER	= 4;
+
+	/**
+	 * Time allowed to connect to a worker, in milliseconds.
+	 */
+	private static final int		CONNECT_TIMEOUT		= 10000;
+
+	/**
+	 * Time allowed between the messages of a worker enumerating a shard, in
+	 * milliseconds, after which its shard is handed out again.
+	 */
+	private static final int		REPLY_TIMEOUT		= BruteForceWorker.HEARTBEAT_INTERVAL * 6;
+
+	/**
+	 * Problem being solved.
+	 */
+	private final ProblemTemplate	problem;
+
+	/**
+	 * JSON text describing the problem being solved.
+	 */
+	private final String			json;
+
+	/**
+	 * Properties of the search enumerated by the workers, as text.
+	 */
+	private final String			properties;
+
+	/**
+	 * Number of worker processes started on this host.
+	 */
+	private final int				processes;
+
+	/**
+	 * Addresses of the workers listening on other hosts, as host:port.
+	 */
+	private final String[]			hosts;
+
+	/**
+	 * Connections to the workers, or null until the first range is
+	 * distributed.
+	 */
+	private List<Connection>		connections;
+
+	/**
+	 * Threads waiting for the replies of the workers.
+	 */
+	private ExecutorService			threads;
+
+	/**
+	 * Constructs a new instance of BruteForceCoordinator distributing the
+	 * search of the specified problem with the specified properties.
+	 *
+	 * @param problem
+	 *            : Problem being solved.
+	 * @param properties
+	 *            : Properties of the search enumerated by the workers, which
+	 *            must not distribute it again.
+	 * @param processes
+	 *            : Number of worker processes started on this host.
+	 * @param hosts
+	 *            : Addresses of the workers listening on other hosts, as
+	 *            host:port.
+	 */
+	BruteForceCoordinator(ProblemTemplate problem, Properties properties, int processes,
+			String[] hosts)
+	{
+		this.problem = problem;
+		json = Operations.toJson(problem);
+
+		final StringWriter writer = new StringWriter();
+
+		try
+		{
+			properties.store(writer, null);
+		}
+		catch (final IOException e)
+		{
+			throw new FrameworkException(e);
+		}
+
+		this.properties = writer.toString();
+		this.processes = processes;
+		this.hosts = hosts;
+	}
+
+	/**
+	 * Closes the connections to the workers, which stops those started by
+	 * this coordinator. Workers are connected again should another range be
+	 * distributed.
+	 */
+	void close()
+	{
+		if (connections != null)
+		{
+			connections.forEach(Connection::close);
+			threads.shutdown();
+			connections = null;
+			threads = null;
+		}
+	}
+
+	/**
+	 * Starts the worker processes on this host and connects to every worker,
+	 * leaving out those which cannot be reached.
+	 */
+	private void connect()
+	{
+		connections = new ArrayList<>();
+		final String java = Paths.get(System.getProperty("java.home"), "bin", "java")
+				.toString();
+
+		for (int i = 0; i < processes; i++)
+		{
+			Process process = null;
+
+			try
+			{
+				process = new ProcessBuilder(java, "-cp", System
+						.getProperty("java.class.path"), BruteForceWorker.class.getName())
+						.redirectError(ProcessBuilder.Redirect.INHERIT).start();
+
+				// The worker announces the port it listens on
+				final String port = new BufferedReader(new InputStreamReader(process
+						.getInputStream(), StandardCharsets.UTF_8)).readLine();
+				connections.add(new Connection(new InetSocketAddress(InetAddress
+						.getLoopbackAddress(), Integer.parseInt(String.valueOf(port).trim())),
+						process));
+			}
+			catch (final IOException | NumberFormatException e)
+			{
+				if (process != null)
+				{
+					process.destroy();
+				}
+			}
+		}
+
+		for (final String host : hosts)
+		{
+			final int separator = host.lastIndexOf(':');
+
+			try
+			{
+				connections.add(new Connection(new InetSocketAddress(host.substring(0,
+						separator).trim(), Integer.parseInt(host.substring(separator + 1)
+						.trim())), null));
+			}
+			catch (final IOException | IllegalArgumentException
+					| StringIndexOutOfBoundsException e)
+			{
+				// The remaining workers take its shards
+			}
+		}
+
+		threads = Executors.newCachedThreadPool(runnable ->
+		{
+			final Thread thread = new Thread(runnable, "Brute force coordinator");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Enumerates the specified range of the candidate solutions of the
+	 * specified stage by means of the workers, returning the archive of the
+	 * range.
+	 *
+	 * @param stage
+	 *            : Stage of the search.
+	 * @param cells
+	 *            : Solutions whose cells are refined by the stage, or null if
+	 *            the stage enumerates the grid.
+	 * @param from
+	 *            : Index of the first solution, inclusive.
+	 * @param to
+	 *            : Index of the last solution, exclusive.
+	 * @param evaluations
+	 *            : Number of solutions evaluated by the search, which is
+	 *            increased by those evaluated by the workers.
+	 * @param local
+	 *            : Enumerates a range within this process, given the indexes
+	 *            of its first and last solutions, should no worker remain.
+	 * @return Archive of the non-dominated solutions of the range.
+	 * @throws FrameworkException
+	 *             If the thread of the search has been interrupted.
+	 */
+	NondominatedPopulation enumerate(int stage, List<Solution> cells, long from,
+			long to, LongAdder evaluations,
+			BiFunction<Long, Long, NondominatedPopulation> local)
+	{
+		if (connections == null)
+		{
+			connect();
+		}
+
+		final long shardSize = Math.max(CandidateSpace.BATCH_SIZE, (to - from - 1)
+				/ (Math.max(1, connections.size()) * SHARDS_PER_WORKER) + 1);
+		final int shards = (int) ((to - from - 1) / shardSize + 1);
+		final NondominatedPopulation[] archives = new NondominatedPopulation[shards];
+		final Queue<Integer> queue = new ConcurrentLinkedQueue<>();
+
+		for (int i = 0; i < shards; i++)
+		{
+			queue.add(i);
+		}
+
+		// Shards returned by failing workers are handed out again
+		while (!queue.isEmpty() && !connections.isEmpty())
+		{
+			final List<Callable<Boolean>> tasks = new ArrayList<>();
+
+			for (final Connection connection : connections)
+			{
+				tasks.add(() -> connection.serve(stage, cells, from, to, shardSize, queue,
+						archives, evaluations));
+			}
+
+			try
+			{
+				final List<Future<Boolean>> replies = threads.invokeAll(tasks);
+				final List<Connection> alive = new ArrayList<>();
+
+				for (int i = 0; i < replies.size(); i++)
+				{
+					if (replies.get(i).get())
+					{
+						alive.add(connections.get(i));
+					}
+				}
+
+				connections = alive;
+			}
+			catch (final InterruptedException | ExecutionException e)
+			{
+				close();
+				Thread.currentThread().interrupt();
+				throw new FrameworkException("search interrupted", e);
+			}
+		}
+
+		final List<Solution> solutions = new ArrayList<>();
+
+		for (int i = 0; i < shards; i++)
+		{
+			if (archives[i] == null)
+			{
+				final long start = from + i * shardSize;
+				archives[i] = local.apply(start, Math.min(to, start + shardSize));
+			}
+
+			archives[i].forEach(solutions::add);
+		}
+
+		// Solutions outside the first front would be rejected or removed
+		return new NondominatedArchive(NondominatedSorting.getFront(solutions));
+	}
+
+	/**
+	 * Returns the number of workers the search is distributed among.
+	 *
+	 * @return Number of workers.
+	 */
+	int size()
+	{
+		return processes + hosts.length;
+	}
+}
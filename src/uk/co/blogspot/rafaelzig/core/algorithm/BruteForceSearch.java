@@ -1,45 +1,457 @@
 package uk.co.blogspot.rafaelzig.core.algorithm;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
 import org.moeaframework.algorithm.AbstractAlgorithm;
-import org.moeaframework.core.Initialization;
+import org.moeaframework.core.FrameworkException;
 import org.moeaframework.core.NondominatedPopulation;
-import org.moeaframework.core.Population;
 import org.moeaframework.core.Problem;
+import org.moeaframework.core.Solution;
+
+import uk.co.blogspot.rafaelzig.core.datastructure.ConcurrentArchive;
+import uk.co.blogspot.rafaelzig.core.datastructure.EpsilonGridArchive;
+import uk.co.blogspot.rafaelzig.core.datastructure.NondominatedArchive;
+import uk.co.blogspot.rafaelzig.core.datastructure.template.ProblemTemplate;
 
 /**
  * Class responsible for evaluating and returning the Pareto optimal set by
- * means of brute force search.
+ * means of brute force search. The range of indexes of the candidate
+ * solutions is split among the threads of a work-stealing pool, where each
+ * range is generated, evaluated and added directly to an archive shared by
+ * every thread, at the positions of the indexes of its solutions, so that the
+ * result does not depend on the order the ranges complete in. The memory
+ * required is therefore proportional to the size of the Pareto optimal
+ * set rather than to that of the domain. If checkpoints are enabled, the
+ * candidate solutions are enumerated in consecutive segments, after each of
+ * which the progress may be stored, so that an interrupted search resumes
+ * from the last segment stored with the same result as an uninterrupted one.
+ * The ranges may also be distributed among worker processes, in which case
+ * the archives of the workers are merged in the same order.
  *
  * @author Rafael da Silva Costa - BSc Computer Science 3rd Year
  */
 class BruteForceSearch extends AbstractAlgorithm
 {
 	/**
-	 * The initialization routine used to generate the solutions.
+	 * Task enumerating a range of candidate solutions, which is split in two
+	 * until it is small enough to be enumerated directly.
+	 */
+	private final class EnumerationTask extends RecursiveAction
+	{
+		/**
+		 * Generated serial version.
+		 */
+		private static final long		serialVersionUID	= -2512383718047212432L;
+
+		/**
+		 * Candidate solutions being enumerated.
+		 */
+		private final CandidateSpace	space;
+
+		/**
+		 * Archive shared by the tasks the non-dominated solutions are added
+		 * to.
+		 */
+		private final ConcurrentArchive	archive;
+
+		/**
+		 * Index of the first solution, inclusive.
+		 */
+		private final long				from;
+
+		/**
+		 * Index of the last solution, exclusive.
+		 */
+		private final long				to;
+
+		/**
+		 * Number of solutions below which a range is enumerated directly.
+		 */
+		private final long				threshold;
+
+		/**
+		 * Constructs a new instance of EnumerationTask for the specified range
+		 * of candidate solutions.
+		 *
+		 * @param space
+		 *            : Candidate solutions being enumerated.
+		 * @param archive
+		 *            : Archive shared by the tasks the non-dominated solutions
+		 *            are added to.
+		 * @param from
+		 *            : Index of the first solution, inclusive.
+		 * @param to
+		 *            : Index of the last solution, exclusive.
+		 * @param threshold
+		 *            : Number of solutions below which a range is enumerated
+		 *            directly.
+		 */
+		private EnumerationTask(CandidateSpace space, ConcurrentArchive archive,
+				long from, long to, long threshold)
+		{
+			this.space = space;
+			this.archive = archive;
+			this.from = from;
+			this.to = to;
+			this.threshold = threshold;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (to - from <= threshold)
+			{
+				computeDirectly();
+				return;
+			}
+
+			final long split = from + (to - from) / 2;
+			invokeAll(new EnumerationTask(space, archive, from, split, threshold),
+					new EnumerationTask(space, archive, split, to, threshold));
+		}
+
+		/**
+		 * Generates, evaluates and archives the solutions of the range.
+		 */
+		private void computeDirectly()
+		{
+			evaluations.add(space.enumerate(from, to, BruteForceSearch.this::evaluateBatch,
+					archive));
+		}
+	}
+
+	/**
+	 * Maximum number of solutions of a range enumerated directly.
+	 */
+	private static final long				MAX_RANGE_SIZE		= 16
+																* CandidateSpace.BATCH_SIZE;
+
+	/**
+	 * Number of ranges each thread of the pool is given on average, so that
+	 * threads finishing early may steal work from the others.
+	 */
+	private static final int				RANGES_PER_THREAD	= 8;
+
+	/**
+	 * Number of evenly spread slices of the candidate solutions which are
+	 * timed to estimate the time taken by the search.
 	 */
-	private final Initialization			generator;
+	private static final int				SAMPLE_SLICES		= 16;
+
+	/**
+	 * Number of times the sample is enumerated to estimate the time taken by
+	 * the search.
+	 */
+	private static final int				SAMPLE_ROUNDS		= 4;
+
+	/**
+	 * Stage enumerating the candidate solutions of the generator.
+	 */
+	private static final int				GENERATOR			= 0;
+
+	/**
+	 * Stage enumerating the candidate solutions of the fallback.
+	 */
+	private static final int				FALLBACK			= 1;
+
+	/**
+	 * Stage refining the cells of the non-dominated solutions for the first
+	 * time, which is followed by one stage for each further refinement.
+	 */
+	private static final int				REFINEMENT			= 2;
+
+	/**
+	 * The candidate solutions to be enumerated.
+	 */
+	private final CandidateSpace			generator;
+
+	/**
+	 * The candidate solutions including every solution, utilised when the
+	 * generator skips infeasible solutions and no feasible one is found, or
+	 * null if the generator skips none.
+	 */
+	private final CandidateSpace			fallback;
 
 	/**
 	 * The archive of non-dominated solutions.
 	 */
 	private final NondominatedPopulation	archive;
 
+	/**
+	 * The increments of the grid of each variable whose cells are refined,
+	 * which are zero for the variables not refined, or null if no cell is
+	 * refined.
+	 */
+	private final double[]					increment;
+
+	/**
+	 * The number of times the cells of the non-dominated solutions are
+	 * refined.
+	 */
+	private final int						refinements;
+
+	/**
+	 * The store of the checkpoints of the search, or null if checkpoints are
+	 * disabled.
+	 */
+	private final CheckpointStore			checkpoints;
+
+	/**
+	 * The coordinator of the worker processes the search is distributed
+	 * among, or null if the search runs within this process.
+	 */
+	private final BruteForceCoordinator		coordinator;
+
+	/**
+	 * Number of solutions evaluated by all tasks.
+	 */
+	private final LongAdder					evaluations			= new LongAdder();
+
 	/**
 	 * Constructs a new brute force search procedure for the given problem.
 	 *
 	 * @param problem
 	 *            the problem being solved
 	 * @param generator
-	 *            the initialization routine used to generate solutions
+	 *            the candidate solutions to be enumerated
 	 * @param archive
 	 *            the archive of non-dominated solutions
 	 */
-	BruteForceSearch(Problem problem, Initialization generator,
+	BruteForceSearch(Problem problem, CandidateSpace generator,
 			NondominatedPopulation archive)
+	{
+		this(problem, generator, null, archive);
+	}
+
+	/**
+	 * Constructs a new brute force search procedure for the given problem,
+	 * whose generator skips solutions proven to be infeasible.
+	 *
+	 * @param problem
+	 *            the problem being solved
+	 * @param generator
+	 *            the candidate solutions to be enumerated
+	 * @param fallback
+	 *            the candidate solutions including every solution, used if
+	 *            no feasible solution is found
+	 * @param archive
+	 *            the archive of non-dominated solutions
+	 */
+	BruteForceSearch(Problem problem, CandidateSpace generator,
+			CandidateSpace fallback, NondominatedPopulation archive)
+	{
+		this(problem, generator, fallback, archive, null, 0, null, null);
+	}
+
+	/**
+	 * Constructs a new brute force search procedure for the given problem,
+	 * which refines the grid within the cells of the non-dominated solutions
+	 * the specified number of times, halving its increments each time.
+	 *
+	 * @param problem
+	 *            the problem being solved
+	 * @param generator
+	 *            the candidate solutions to be enumerated
+	 * @param fallback
+	 *            the candidate solutions including every solution, used if
+	 *            no feasible solution is found, or null
+	 * @param archive
+	 *            the archive of non-dominated solutions
+	 * @param increment
+	 *            the increments of the grid of each variable, which are zero
+	 *            for the variables not refined
+	 * @param refinements
+	 *            the number of times the cells are refined
+	 * @param checkpoints
+	 *            the store of the checkpoints of the search, or null if
+	 *            checkpoints are disabled
+	 * @param coordinator
+	 *            the coordinator of the worker processes the search is
+	 *            distributed among, or null if it runs within this process
+	 */
+	BruteForceSearch(Problem problem, CandidateSpace generator,
+			CandidateSpace fallback, NondominatedPopulation archive,
+			double[] increment, int refinements, CheckpointStore checkpoints,
+			BruteForceCoordinator coordinator)
 	{
 		super(problem);
 		this.generator = generator;
+		this.fallback = fallback;
 		this.archive = archive;
+		this.increment = increment;
+		this.refinements = refinements;
+		this.checkpoints = checkpoints;
+		this.coordinator = coordinator;
+	}
+
+	/**
+	 * Returns the number of solutions evaluated since it was last returned.
+	 *
+	 * @return Number of solutions evaluated.
+	 */
+	long drainEvaluations()
+	{
+		return evaluations.sumThenReset();
+	}
+
+	/**
+	 * Enumerates the specified range of the candidate solutions of the
+	 * specified stage on behalf of a coordinator, returning the archive of the
+	 * range rather than adding it to the archive of this search.
+	 *
+	 * @param stage
+	 *            : Stage of the search enumerating the candidate solutions.
+	 * @param cells
+	 *            : Solutions whose cells are refined by the stage, or null if
+	 *            the stage enumerates the grid.
+	 * @param from
+	 *            : Index of the first solution, inclusive.
+	 * @param to
+	 *            : Index of the last solution, exclusive.
+	 * @return Archive of the non-dominated solutions of the range.
+	 */
+	NondominatedPopulation enumerate(int stage, List<Solution> cells, long from, long to)
+	{
+		final CandidateSpace space = getSpace(stage, cells);
+		return enumerate(space, from, to, getThreshold(space));
+	}
+
+	/**
+	 * Enumerates the specified range of the specified candidate solutions
+	 * with the common pool if the problem is a ProblemTemplate, whose tasks
+	 * add the solutions to a single archive, or directly by the calling thread
+	 * otherwise, as other problems may not be safe to evaluate from several
+	 * threads.
+	 *
+	 * @param space
+	 *            : Candidate solutions to be enumerated.
+	 * @param from
+	 *            : Index of the first solution, inclusive.
+	 * @param to
+	 *            : Index of the last solution, exclusive.
+	 * @param threshold
+	 *            : Number of solutions below which a range is enumerated
+	 *            directly.
+	 * @return Archive of the non-dominated solutions of the range.
+	 */
+	private NondominatedArchive enumerate(CandidateSpace space, long from, long to,
+			long threshold)
+	{
+		final ConcurrentArchive result = new ConcurrentArchive();
+		final EnumerationTask task = new EnumerationTask(space, result, from, to,
+				threshold);
+
+		if (problem instanceof ProblemTemplate)
+		{
+			ForkJoinPool.commonPool().invoke(task);
+		}
+		else
+		{
+			task.computeDirectly();
+		}
+
+		return result.getArchive();
+	}
+
+	/**
+	 * Estimates the time taken to enumerate every candidate solution of the
+	 * generator, from the time taken to enumerate evenly spread slices of them.
+	 * The slices are enumerated several times and the fastest time is kept, as
+	 * the first times include warming up evaluation. The sample is discarded
+	 * rather than archived, and the estimate is an upper bound if the
+	 * generator skips solutions proven to be infeasible. A ProblemTemplate is
+	 * sampled through an uncached copy with constraint statistics of its own,
+	 * so that the sample is neither cached nor counted by those reported.
+	 *
+	 * @return Estimated time in seconds.
+	 */
+	double estimateTime()
+	{
+		final long size = generator.size();
+		final long sliceSize = CandidateSpace.BATCH_SIZE / SAMPLE_SLICES;
+
+		if (size <= 2 * CandidateSpace.BATCH_SIZE)
+		{
+			return 0.0;
+		}
+
+		final Problem sample = problem instanceof ProblemTemplate ? new ProblemTemplate(
+				(ProblemTemplate) problem,
+				((ProblemTemplate) problem).getConstraintStatistics() != null) : problem;
+		long fastest = Long.MAX_VALUE;
+
+		for (int round = 0; round < SAMPLE_ROUNDS; round++)
+		{
+			final long start = System.nanoTime();
+
+			for (int i = 0; i < SAMPLE_SLICES; i++)
+			{
+				final long from = Math.min(size - sliceSize, size / SAMPLE_SLICES * i);
+				generator.enumerate(from, from + sliceSize,
+						solutions -> evaluateBatch(sample, solutions),
+						new ConcurrentArchive());
+			}
+
+			fastest = Math.min(fastest, System.nanoTime() - start);
+		}
+
+		final double seconds = fastest / 1e9;
+		return seconds / CandidateSpace.BATCH_SIZE * size / getParallelism();
+	}
+
+	/**
+	 * Evaluates the specified batch of solutions, as a single batch if the
+	 * problem is a ProblemTemplate.
+	 *
+	 * @param solutions
+	 *            : Solutions to be evaluated.
+	 */
+	private void evaluateBatch(Solution[] solutions)
+	{
+		evaluateBatch(problem, solutions);
+	}
+
+	/**
+	 * Evaluates the specified batch of solutions of the specified problem, as
+	 * a single batch if the problem is a ProblemTemplate.
+	 *
+	 * @param problem
+	 *            : Problem the solutions are evaluated by.
+	 * @param solutions
+	 *            : Solutions to be evaluated.
+	 */
+	private static void evaluateBatch(Problem problem, Solution[] solutions)
+	{
+		if (problem instanceof ProblemTemplate)
+		{
+			((ProblemTemplate) problem).evaluateAll(solutions, 0, solutions.length);
+		}
+		else
+		{
+			for (final Solution solution : solutions)
+			{
+				problem.evaluate(solution);
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of threads the candidate solutions are enumerated
+	 * by, which are those of the common pool only if the problem is a
+	 * ProblemTemplate, as other problems may not be safe to evaluate from
+	 * several threads.
+	 *
+	 * @return Number of threads.
+	 */
+	private int getParallelism()
+	{
+		return problem instanceof ProblemTemplate ? ForkJoinPool
+				.getCommonPoolParallelism() : 1;
 	}
 
 	@Override
@@ -48,6 +460,48 @@ class BruteForceSearch extends AbstractAlgorithm
 		return archive;
 	}
 
+	/**
+	 * Returns the candidate solutions enumerated by the specified stage.
+	 *
+	 * @param stage
+	 *            : Stage of the search.
+	 * @param cells
+	 *            : Solutions whose cells are refined by the stage, or null if
+	 *            the stage enumerates the grid.
+	 * @return Candidate solutions of the stage.
+	 */
+	private CandidateSpace getSpace(int stage, List<Solution> cells)
+	{
+		if (stage == GENERATOR)
+		{
+			return generator;
+		}
+		else if (stage == FALLBACK)
+		{
+			return fallback;
+		}
+
+		// Each refinement halves the increments of the previous grid, which
+		// is exact in binary floating point
+		final double divisor = Math.scalb(1.0, stage - REFINEMENT + 1);
+		return new GridRefinementSpace(cells, Arrays.stream(increment).map(
+				x -> x / divisor).toArray());
+	}
+
+	/**
+	 * Returns the number of solutions below which a range of the specified
+	 * candidate solutions is enumerated directly by a thread.
+	 *
+	 * @param space
+	 *            : Candidate solutions to be enumerated.
+	 * @return Number of solutions.
+	 */
+	private long getThreshold(CandidateSpace space)
+	{
+		return Math.max(CandidateSpace.BATCH_SIZE, Math.min(MAX_RANGE_SIZE, space.size()
+				/ (RANGES_PER_THREAD * getParallelism())));
+	}
+
 	@Override
 	protected void initialize()
 	{
@@ -55,11 +509,223 @@ class BruteForceSearch extends AbstractAlgorithm
 		iterate();
 	}
 
+	/**
+	 * Returns whether the archive contains a feasible solution.
+	 *
+	 * @return True if a solution of the archive violates no constraint, false
+	 *         otherwise.
+	 */
+	private boolean isFeasible()
+	{
+		for (final Solution solution : archive)
+		{
+			if (!solution.violatesConstraints())
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
 	@Override
 	protected void iterate()
 	{
-		final Population solutions = new Population(generator.initialize());
-		evaluateAll(solutions);
-		archive.addAll(solutions);
+		final Checkpoint checkpoint = checkpoints == null ? null : checkpoints.load();
+		int stage = GENERATOR;
+		long cursor = 0;
+		List<Solution> cells = null;
+
+		if (checkpoint != null)
+		{
+			// The grid the archive was bounded by is restored before its solutions
+			if (archive instanceof EpsilonGridArchive && checkpoint.getEpsilon() != null)
+			{
+				((EpsilonGridArchive) archive).setEpsilon(checkpoint.getEpsilon());
+			}
+
+			archive.addAll(checkpoint.getArchive());
+			evaluations.add(checkpoint.getEvaluations());
+			stage = checkpoint.getStage();
+			cursor = checkpoint.getCursor();
+			cells = checkpoint.getCells();
+		}
+
+		try
+		{
+			resume(stage, cursor, cells);
+		}
+		finally
+		{
+			if (coordinator != null)
+			{
+				coordinator.close();
+			}
+
+			if (checkpoints != null)
+			{
+				checkpoints.close();
+			}
+		}
+
+		if (checkpoints != null)
+		{
+			checkpoints.delete();
+		}
+
+		numberOfEvaluations += (int) Math.min(Integer.MAX_VALUE,
+				evaluations.sumThenReset());
+	}
+
+	/**
+	 * Refines the grid within the cells of the non-dominated solutions, where
+	 * each refinement halves the increments of the previous grid and searches
+	 * the cells of the solutions archived so far. Only a fraction of the
+	 * solutions of a uniform grid with the finest increments is therefore
+	 * evaluated.
+	 *
+	 * @param first
+	 *            : Refinement to be resumed, which is 0 unless resuming from a
+	 *            checkpoint.
+	 * @param cursor
+	 *            : Index of the next candidate solution of the refinement to be
+	 *            resumed.
+	 * @param cells
+	 *            : Solutions whose cells are refined by the refinement to be
+	 *            resumed, or null if they are those of the archive.
+	 */
+	private void refine(int first, long cursor, List<Solution> cells)
+	{
+		for (int i = first; i < refinements && !archive.isEmpty(); i++)
+		{
+			List<Solution> solutions = cells;
+
+			if (i > first || solutions == null)
+			{
+				solutions = new ArrayList<>(archive.size());
+				archive.forEach(solutions::add);
+			}
+
+			search(REFINEMENT + i, i == first ? cursor : 0, solutions);
+		}
+	}
+
+	/**
+	 * Searches every stage from the specified one onwards, resuming the
+	 * specified stage from the specified index.
+	 *
+	 * @param stage
+	 *            : Stage to be resumed, which is the generator unless resuming
+	 *            from a checkpoint.
+	 * @param cursor
+	 *            : Index of the next candidate solution of the stage.
+	 * @param cells
+	 *            : Solutions whose cells are refined by the stage, or null if
+	 *            the stage enumerates the grid.
+	 */
+	private void resume(int stage, long cursor, List<Solution> cells)
+	{
+		if (stage == GENERATOR)
+		{
+			search(GENERATOR, cursor, null);
+			cursor = 0;
+
+			// Skipped solutions are dominated by any feasible one, therefore
+			// they are only required if none was found
+			if (fallback != null && !isFeasible())
+			{
+				archive.clear();
+				stage = FALLBACK;
+			}
+		}
+
+		if (stage == FALLBACK)
+		{
+			search(FALLBACK, cursor, null);
+			cursor = 0;
+		}
+
+		refine(Math.max(0, stage - REFINEMENT), cursor, cells);
+	}
+
+	/**
+	 * Enumerates the candidate solutions of the specified stage from the
+	 * specified index onwards, adding the non-dominated ones to the archive.
+	 * If checkpoints are enabled, the solutions are enumerated in segments
+	 * keeping every thread busy, after each of which a checkpoint is offered
+	 * once due, and the search stops if its thread has been interrupted.
+	 *
+	 * @param stage
+	 *            : Stage of the search.
+	 * @param cursor
+	 *            : Index of the first solution to be enumerated.
+	 * @param cells
+	 *            : Solutions whose cells are refined by the stage, or null if
+	 *            the stage enumerates the grid.
+	 * @throws FrameworkException
+	 *             If the thread of the search has been interrupted.
+	 */
+	private void search(int stage, long cursor, List<Solution> cells)
+	{
+		final CandidateSpace space = getSpace(stage, cells);
+		final long size = space.size();
+
+		if (cursor >= size)
+		{
+			return;
+		}
+
+		final long threshold = getThreshold(space);
+
+		// A grid archive depends on the order it is given solutions, therefore it
+		// is given those of each segment whether or not checkpoints are stored
+		final long segment = checkpoints == null && !(archive instanceof EpsilonGridArchive)
+				? size : threshold * RANGES_PER_THREAD * getParallelism()
+						* (coordinator == null ? 1 : coordinator.size());
+
+		for (long from = cursor; from < size;)
+		{
+			final long to = from + Math.min(segment, size - from);
+
+			final NondominatedPopulation result;
+
+			if (coordinator == null)
+			{
+				result = enumerate(space, from, to, threshold);
+			}
+			else
+			{
+				// Ranges left by failing workers are enumerated here instead
+				result = coordinator.enumerate(stage, cells, from, to, evaluations,
+						(start, end) -> enumerate(space, start, end, threshold));
+			}
+
+			// Solutions of earlier segments precede those of later ones
+			archive.addAll(result);
+			from = to;
+
+			if (checkpoints == null)
+			{
+				continue;
+			}
+
+			final boolean interrupted = Thread.interrupted();
+
+			if (interrupted || checkpoints.isDue())
+			{
+				final List<Solution> solutions = new ArrayList<>(archive.size());
+				archive.forEach(solutions::add);
+				checkpoints.offer(stage, to, solutions, cells, evaluations.sum(),
+						archive instanceof EpsilonGridArchive ? ((EpsilonGridArchive) archive)
+								.getEpsilon() : null);
+			}
+
+			// The checkpoint is written once the store is closed
+			if (interrupted)
+			{
+				Thread.currentThread().interrupt();
+				throw new FrameworkException("search interrupted");
+			}
+		}
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,402 @@
+package uk.co.blogspot.rafaelzig.core.algorithm;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.moeaframework.core.NondominatedPopulation;
+import org.moeaframework.core.Solution;
+import org.moeaframework.core.Variable;
+import org.moeaframework.core.variable.BinaryVariable;
+import org.moeaframework.core.variable.RealVariable;
+import org.moeaframework.util.TypedProperties;
+
+import uk.co.blogspot.rafaelzig.core.datastructure.enumeration.Parameter;
+import uk.co.blogspot.rafaelzig.core.datastructure.template.ProblemTemplate;
+import uk.co.blogspot.rafaelzig.core.parsing.Operations;
+
+/**
+ * Worker process enumerating shards of a brute force search on behalf of a
+ * {@link BruteForceCoordinator}. The worker listens on the port given as its
+ * argument, and announces the port on the first line of its standard output.
+ * A worker started on another host is given a port and serves coordinators
+ * one after another, while a worker given no port, as started by a
+ * coordinator on its own host, listens on any free port of the loopback
+ * address and exits once its coordinator disconnects.
+ * <p>
+ * Only plain data is exchanged, therefore nothing received is deserialised
+ * into arbitrary objects. A coordinator sends the JSON text describing the
+ * problem and the properties of the search as text once connected, followed
+ * by any number of shards, each made of the stage of the search, the
+ * solutions whose cells are refined by the stage and the range of indexes of
+ * the shard. While enumerating a shard, the worker sends a heartbeat at
+ * regular intervals, and then replies with the solutions of its archive and
+ * the number of solutions evaluated. Solutions are sent as the values of
+ * their variables, objectives and constraints. Should anything fail, the
+ * worker disconnects and the coordinator hands out the shard again.
+ *
+ * @author Rafael da Silva Costa - BSc Computer Science 3rd Year
+ *
+ */
+public final class BruteForceWorker
+{
+	/**
+	 * Message sent while a shard is being enumerated.
+	 */
+	static final int	HEARTBEAT			= 0;
+
+	/**
+	 * Message preceding the reply to a shard.
+	 */
+	static final int	REPLY				= 1;
+
+	/**
+	 * Interval between heartbeats, in milliseconds.
+	 */
+	static final int	HEARTBEAT_INTERVAL	= 10000;
+
+	/**
+	 * Greatest number of bytes of the text read.
+	 */
+	private static final int	MAX_TEXT_LENGTH		= 1 << 26;
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private BruteForceWorker()
+	{
+	}
+
+	/**
+	 * Listens for coordinators on the specified port.
+	 *
+	 * @param args
+	 *            : Port to listen on, or none to listen on any free port of
+	 *            the loopback address and serve a single coordinator.
+	 * @throws IOException
+	 *             If the port cannot be listened on.
+	 */
+	public static void main(String[] args) throws IOException
+	{
+		final int port = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+
+		try (ServerSocket server = port == 0 ? new ServerSocket(0, 0, InetAddress
+				.getLoopbackAddress()) : new ServerSocket(port))
+		{
+			System.out.println(server.getLocalPort());
+			System.out.flush();
+
+			// Nothing else is read from the standard output by a coordinator
+			System.setOut(System.err);
+
+			do
+			{
+				try (Socket socket = server.accept())
+				{
+					serve(socket);
+				}
+			}
+			while (port != 0);
+		}
+	}
+
+	/**
+	 * Reads solutions of the specified problem written by
+	 * {@link #writeSolutions(DataOutput, List)}.
+	 *
+	 * @param input
+	 *            : Input to be read.
+	 * @param problem
+	 *            : Problem from which the solutions belong.
+	 * @return List of the solutions, or null if none was written.
+	 * @throws IOException
+	 *             If the input cannot be read or does not match the problem.
+	 */
+	static List<Solution> readSolutions(DataInput input, ProblemTemplate problem)
+			throws IOException
+	{
+		final int size = input.readInt();
+
+		if (size <= 0)
+		{
+			return size < 0 ? null : new ArrayList<>();
+		}
+
+		final int variables = input.readInt();
+		final int objectives = input.readInt();
+		final int constraints = input.readInt();
+		final Solution template = problem.newSolution();
+
+		if (variables != template.getNumberOfVariables() || objectives < 0
+				|| constraints < 0)
+		{
+			throw new IOException("Solutions do not match the problem");
+		}
+
+		final List<Solution> solutions = new ArrayList<>(Math.min(size, 1024));
+
+		for (int i = 0; i < size; i++)
+		{
+			final Solution solution = new Solution(variables, objectives, constraints);
+
+			for (int j = 0; j < variables; j++)
+			{
+				final Variable variable = template.getVariable(j).copy();
+
+				if (variable instanceof RealVariable)
+				{
+					((RealVariable) variable).setValue(input.readDouble());
+				}
+				else
+				{
+					final BinaryVariable binary = (BinaryVariable) variable;
+
+					for (int k = 0; k < binary.getNumberOfBits(); k++)
+					{
+						binary.set(k, input.readBoolean());
+					}
+				}
+
+				solution.setVariable(j, variable);
+			}
+
+			for (int j = 0; j < objectives; j++)
+			{
+				solution.setObjective(j, input.readDouble());
+			}
+
+			for (int j = 0; j < constraints; j++)
+			{
+				solution.setConstraint(j, input.readDouble());
+			}
+
+			solutions.add(solution);
+		}
+
+		return solutions;
+	}
+
+	/**
+	 * Reads text written by {@link #writeText(DataOutput, String)}.
+	 *
+	 * @param input
+	 *            : Input to be read.
+	 * @return Text read.
+	 * @throws IOException
+	 *             If the input cannot be read, or the text is too long.
+	 */
+	static String readText(DataInput input) throws IOException
+	{
+		final int length = input.readInt();
+
+		if (length < 0 || length > MAX_TEXT_LENGTH)
+		{
+			throw new IOException("Invalid text length: " + length);
+		}
+
+		final byte[] bytes = new byte[length];
+		input.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Sends a heartbeat to the coordinator through the specified output,
+	 * unless it has disconnected.
+	 *
+	 * @param output
+	 *            : Output to the coordinator.
+	 */
+	private static void sendHeartbeat(DataOutputStream output)
+	{
+		synchronized (output)
+		{
+			try
+			{
+				output.writeInt(HEARTBEAT);
+				output.flush();
+			}
+			catch (final IOException e)
+			{
+				// The next reply fails as well
+			}
+		}
+	}
+
+	/**
+	 * Enumerates the shards sent by the coordinator connected to the specified
+	 * socket until it disconnects.
+	 *
+	 * @param socket
+	 *            : Socket connected to the coordinator.
+	 */
+	private static void serve(Socket socket)
+	{
+		final ScheduledExecutorService heartbeats = Executors
+				.newSingleThreadScheduledExecutor(runnable ->
+				{
+					final Thread thread = new Thread(runnable, "Brute force heartbeat");
+					thread.setDaemon(true);
+					return thread;
+				});
+
+		try
+		{
+			final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+					socket.getOutputStream()));
+			final DataInputStream input = new DataInputStream(new BufferedInputStream(
+					socket.getInputStream()));
+
+			ProblemTemplate problem = Operations.parseProblem(readText(input));
+			final Properties properties = new Properties();
+			properties.load(new StringReader(readText(input)));
+
+			if (new TypedProperties(properties).getInt(Parameter.FEASIBILITY_FIRST
+					.getCode(), 0) == 1)
+			{
+				problem = new ProblemTemplate(problem, true);
+			}
+
+			final BruteForceSearch search = (BruteForceSearch) new CustomAlgorithms()
+					.getAlgorithm("BruteForce", properties, problem);
+
+			while (true)
+			{
+				final int stage = input.readInt();
+				final List<Solution> cells = readSolutions(input, problem);
+				final long from = input.readLong();
+				final long to = input.readLong();
+				final ScheduledFuture<?> heartbeat = heartbeats.scheduleAtFixedRate(
+						() -> sendHeartbeat(output), HEARTBEAT_INTERVAL,
+						HEARTBEAT_INTERVAL, TimeUnit.MILLISECONDS);
+				final NondominatedPopulation archive;
+
+				try
+				{
+					archive = search.enumerate(stage, cells, from, to);
+				}
+				finally
+				{
+					heartbeat.cancel(false);
+				}
+
+				final List<Solution> solutions = new ArrayList<>(archive.size());
+				archive.forEach(solutions::add);
+
+				synchronized (output)
+				{
+					output.writeInt(REPLY);
+					writeSolutions(output, solutions);
+					output.writeLong(search.drainEvaluations());
+					output.flush();
+				}
+			}
+		}
+		catch (final IOException | RuntimeException e)
+		{
+			// The coordinator disconnected, or hands out the shard again
+		}
+		finally
+		{
+			heartbeats.shutdownNow();
+		}
+	}
+
+	/**
+	 * Writes the specified solutions, which must share the same numbers of
+	 * variables, objectives and constraints, as the values of their
+	 * variables, objectives and constraints.
+	 *
+	 * @param output
+	 *            : Output to be written to.
+	 * @param solutions
+	 *            : Solutions to be written, or null if there are none.
+	 * @throws IOException
+	 *             If the output cannot be written to, or a variable is
+	 *             neither real nor binary.
+	 */
+	static void writeSolutions(DataOutput output, List<Solution> solutions)
+			throws IOException
+	{
+		if (solutions == null || solutions.isEmpty())
+		{
+			output.writeInt(solutions == null ? -1 : 0);
+			return;
+		}
+
+		final Solution first = solutions.get(0);
+		output.writeInt(solutions.size());
+		output.writeInt(first.getNumberOfVariables());
+		output.writeInt(first.getNumberOfObjectives());
+		output.writeInt(first.getNumberOfConstraints());
+
+		for (final Solution solution : solutions)
+		{
+			for (int i = 0; i < solution.getNumberOfVariables(); i++)
+			{
+				final Variable variable = solution.getVariable(i);
+
+				if (variable instanceof RealVariable)
+				{
+					output.writeDouble(((RealVariable) variable).getValue());
+				}
+				else if (variable instanceof BinaryVariable)
+				{
+					final BinaryVariable binary = (BinaryVariable) variable;
+
+					for (int j = 0; j < binary.getNumberOfBits(); j++)
+					{
+						output.writeBoolean(binary.get(j));
+					}
+				}
+				else
+				{
+					throw new IOException("Unsupported variable: " + variable);
+				}
+			}
+
+			for (final double objective : solution.getObjectives())
+			{
+				output.writeDouble(objective);
+			}
+
+			for (final double constraint : solution.getConstraints())
+			{
+				output.writeDouble(constraint);
+			}
+		}
+	}
+
+	/**
+	 * Writes the specified text as its number of bytes followed by its bytes
+	 * in UTF-8.
+	 *
+	 * @param output
+	 *            : Output to be written to.
+	 * @param text
+	 *            : Text to be written.
+	 * @throws IOException
+	 *             If the output cannot be written to.
+	 */
+	static void writeText(DataOutput output, String text) throws IOException
+	{
+		final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		output.writeInt(bytes.length);
+		output.write(bytes);
+	}
+}
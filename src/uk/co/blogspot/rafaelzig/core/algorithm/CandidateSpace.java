@@ -0,0 +1,77 @@
+package uk.co.blogspot.rafaelzig.core.algorithm;
+
+import java.util.function.Consumer;
+
+import org.moeaframework.core.Solution;
+
+import uk.co.blogspot.rafaelzig.core.datastructure.ConcurrentArchive;
+
+/**
+ * Interface representing the candidate solutions of a brute force search,
+ * which are numbered by a flat index so that ranges of them may be enumerated
+ * independently of each other.
+ *
+ * @author Rafael da Silva Costa - BSc Computer Science 3rd Year
+ *
+ */
+interface CandidateSpace
+{
+	/**
+	 * Number of solutions generated and evaluated together as a batch.
+	 */
+	int	BATCH_SIZE	= 4096;
+
+	/**
+	 * Generates, evaluates and archives the candidate solutions within the
+	 * specified range of indexes. By default they are streamed and evaluated
+	 * a batch at a time, in increasing order of index. Each solution is added
+	 * to the archive at the position of its index, therefore several ranges
+	 * may be enumerated into the same archive at once.
+	 *
+	 * @param from
+	 *            : Index of the first solution, inclusive.
+	 * @param to
+	 *            : Index of the last solution, exclusive.
+	 * @param evaluator
+	 *            : Function evaluating a batch of solutions.
+	 * @param archive
+	 *            : Archive the non-dominated solutions are added to.
+	 * @return Number of solutions evaluated.
+	 */
+	default long enumerate(long from, long to, Consumer<Solution[]> evaluator,
+			ConcurrentArchive archive)
+	{
+		final CandidateStream stream = stream(from, to);
+		long evaluations = 0;
+		Solution[] solutions = stream.next(BATCH_SIZE);
+
+		while (solutions.length > 0)
+		{
+			evaluator.accept(solutions);
+			archive.addAll(solutions, from + evaluations);
+			evaluations += solutions.length;
+			solutions = stream.next(BATCH_SIZE);
+		}
+
+		return evaluations;
+	}
+
+	/**
+	 * Returns the number of candidate solutions.
+	 *
+	 * @return Number of candidate solutions.
+	 */
+	long size();
+
+	/**
+	 * Returns a stream generating the candidate solutions within the
+	 * specified range of indexes, in increasing order of index.
+	 *
+	 * @param from
+	 *            : Index of the first solution, inclusive.
+	 * @param to
+	 *            : Index of the last solution, exclusive.
+	 * @return Stream generating the solutions of the range.
+	 */
+	CandidateStream stream(long from, long to);
+}
@@ -0,0 +1,24 @@
+package uk.co.blogspot.rafaelzig.core.algorithm;
+
+import org.moeaframework.core.Solution;
+
+/**
+ * Interface representing a generator of a range of the candidate solutions of
+ * a brute force search, which generates them in chunks of bounded size so
+ * that they are never stored all at once.
+ *
+ * @author Rafael da Silva Costa - BSc Computer Science 3rd Year
+ *
+ */
+interface CandidateStream
+{
+	/**
+	 * Generates the next candidate solutions, in the order of enumeration.
+	 *
+	 * @param count
+	 *            : Maximum number of solutions to be generated.
+	 * @return Array containing the next solutions, which is empty once all of
+	 *         them have been generated.
+	 */
+	Solution[] next(int count);
+}
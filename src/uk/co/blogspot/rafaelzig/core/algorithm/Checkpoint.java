@@ -0,0 +1,164 @@
+package uk.co.blogspot.rafaelzig.core.algorithm;
+
+import java.io.Serializable;
+import java.util.List;
+
+import org.moeaframework.core.Solution;
+
+/**
+ * Class representing the progress of a brute force search, from which an
+ * interrupted search resumes. The candidate solutions of each stage of the
+ * search are enumerated in order of index, therefore the progress is that of
+ * the stage being searched and the index of its next candidate, along with
+ * the archive of the candidates already enumerated. Instances of this class
+ * are immutable.
+ *
+ * @author Rafael da Silva Costa - BSc Computer Science 3rd Year
+ *
+ */
+class Checkpoint implements Serializable
+{
+	/**
+	 * Generated serial version.
+	 */
+	private static final long		serialVersionUID	= 4781236589203647101L;
+
+	/**
+	 * Description of the problem and configuration of the search.
+	 */
+	private final String			key;
+
+	/**
+	 * Stage of the search being enumerated.
+	 */
+	private final int				stage;
+
+	/**
+	 * Index of the next candidate solution of the stage.
+	 */
+	private final long				cursor;
+
+	/**
+	 * Solutions of the archive, in the order they were archived.
+	 */
+	private final List<Solution>	archive;
+
+	/**
+	 * Solutions whose cells are refined by the stage, or null if the stage
+	 * enumerates the grid.
+	 */
+	private final List<Solution>	cells;
+
+	/**
+	 * Number of solutions evaluated so far.
+	 */
+	private final long				evaluations;
+
+	/**
+	 * Epsilon values of the grid of the archive, or null if the archive is
+	 * not bounded by a grid or its epsilon values have not been derived yet.
+	 */
+	private final double[]			epsilon;
+
+	/**
+	 * Constructs a new instance of Checkpoint with the specified progress.
+	 *
+	 * @param key
+	 *            : Description of the problem and configuration of the search.
+	 * @param stage
+	 *            : Stage of the search being enumerated.
+	 * @param cursor
+	 *            : Index of the next candidate solution of the stage.
+	 * @param archive
+	 *            : Solutions of the archive, in the order they were archived.
+	 * @param cells
+	 *            : Solutions whose cells are refined by the stage, or null if
+	 *            the stage enumerates the grid.
+	 * @param evaluations
+	 *            : Number of solutions evaluated so far.
+	 * @param epsilon
+	 *            : Epsilon values of the grid of the archive, or null if there
+	 *            are none.
+	 */
+	Checkpoint(String key, int stage, long cursor, List<Solution> archive,
+			List<Solution> cells, long evaluations, double[] epsilon)
+	{
+		this.key = key;
+		this.stage = stage;
+		this.cursor = cursor;
+		this.archive = archive;
+		this.cells = cells;
+		this.evaluations = evaluations;
+		this.epsilon = epsilon;
+	}
+
+	/**
+	 * Returns the solutions of the archive, in the order they were archived.
+	 *
+	 * @return List of the solutions of the archive.
+	 */
+	List<Solution> getArchive()
+	{
+		return archive;
+	}
+
+	/**
+	 * Returns the solutions whose cells are refined by the stage.
+	 *
+	 * @return List of the solutions, or null if the stage enumerates the grid.
+	 */
+	List<Solution> getCells()
+	{
+		return cells;
+	}
+
+	/**
+	 * Returns the index of the next candidate solution of the stage.
+	 *
+	 * @return Index of the next candidate solution.
+	 */
+	long getCursor()
+	{
+		return cursor;
+	}
+
+	/**
+	 * Returns the epsilon values of the grid of the archive.
+	 *
+	 * @return Epsilon value of each objective, or null if there are none.
+	 */
+	double[] getEpsilon()
+	{
+		return epsilon;
+	}
+
+	/**
+	 * Returns the number of solutions evaluated so far.
+	 *
+	 * @return Number of solutions evaluated.
+	 */
+	long getEvaluations()
+	{
+		return evaluations;
+	}
+
+	/**
+	 * Returns the description of the problem and configuration of the search.
+	 *
+	 * @return Description of the search.
+	 */
+	String getKey()
+	{
+		return key;
+	}
+
+	/**
+	 * Returns the stage of the search being enumerated.
+	 *
+	 * @return Stage of the search.
+	 */
+	int getStage()
+	{
+		return stage;
+	}
+}
@@ -0,0 +1,275 @@
+package uk.co.blogspot.rafaelzig.core.algorithm;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.moeaframework.core.Solution;
+
+/**
+ * Class responsible for storing the checkpoints of a brute force search in a
+ * file named after the digest of the problem and configuration of the search,
+ * so that a search with the same problem and configuration resumes from it.
+ * Checkpoints are written by a background thread, which only writes the
+ * latest one offered, therefore enumeration is never stalled by writing.
+ * Files are replaced atomically, so that a crash while writing leaves the
+ * previous checkpoint intact.
+ *
+ * @author Rafael da Silva Costa - BSc Computer Science 3rd Year
+ *
+ */
+class CheckpointStore
+{
+	/**
+	 * Name of the directory checkpoints are stored in.
+	 */
+	private static final String					DIRECTORY	= "checkpoints";
+
+	/**
+	 * Description of the problem and configuration of the search.
+	 */
+	private final String						key;
+
+	/**
+	 * File the checkpoints are stored in.
+	 */
+	private final Path							file;
+
+	/**
+	 * File each checkpoint is written to before it replaces the stored one.
+	 */
+	private final Path							temporary;
+
+	/**
+	 * Minimum time between checkpoints, in nanoseconds.
+	 */
+	private final long							interval;
+
+	/**
+	 * Time the last checkpoint was offered, in nanoseconds.
+	 */
+	private long								last		= System.nanoTime();
+
+	/**
+	 * Latest checkpoint offered which has not been written yet.
+	 */
+	private final AtomicReference<Checkpoint>	pending		= new AtomicReference<>();
+
+	/**
+	 * Background thread writing the checkpoints.
+	 */
+	private final ExecutorService				writer;
+
+	/**
+	 * Constructs a new instance of CheckpointStore for the search with the
+	 * specified description, which stores a checkpoint at most once per the
+	 * specified interval.
+	 *
+	 * @param key
+	 *            : Description of the problem and configuration of the search.
+	 * @param seconds
+	 *            : Minimum time between checkpoints, in seconds.
+	 */
+	CheckpointStore(String key, double seconds)
+	{
+		this.key = key;
+		file = Paths.get(DIRECTORY, digest(key) + ".chk");
+		temporary = file.resolveSibling(file.getFileName() + ".tmp");
+		interval = (long) (seconds * 1e9);
+		writer = Executors.newSingleThreadExecutor(runnable ->
+		{
+			final Thread thread = new Thread(runnable, "Checkpoint writer");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Writes the latest checkpoint offered and stops the background thread,
+	 * once the search has either completed or been interrupted. The thread
+	 * is waited for even if the calling thread is interrupted, whose
+	 * interrupted status is then restored.
+	 */
+	void close()
+	{
+		writer.execute(this::drain);
+		writer.shutdown();
+		boolean interrupted = false;
+		boolean waiting = true;
+
+		// The writer is waited for even if interrupted, lest it write later
+		while (waiting)
+		{
+			try
+			{
+				writer.awaitTermination(1, TimeUnit.MINUTES);
+				waiting = false;
+			}
+			catch (final InterruptedException e)
+			{
+				interrupted = true;
+			}
+		}
+
+		if (interrupted)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Deletes the stored checkpoint, once the search has completed and the
+	 * store has been closed.
+	 */
+	void delete()
+	{
+		try
+		{
+			Files.deleteIfExists(file);
+
+			// A checkpoint whose writing failed is left over
+			Files.deleteIfExists(temporary);
+		}
+		catch (final IOException e)
+		{
+			// The checkpoint is ignored by any other search
+		}
+	}
+
+	/**
+	 * Returns the hexadecimal SHA-256 digest of the specified text.
+	 *
+	 * @param text
+	 *            : Text to be digested.
+	 * @return Digest of the text.
+	 */
+	private static String digest(String text)
+	{
+		try
+		{
+			final StringBuilder builder = new StringBuilder();
+
+			for (final byte b : MessageDigest.getInstance("SHA-256").digest(
+					text.getBytes(StandardCharsets.UTF_8)))
+			{
+				builder.append(String.format("%02x", b));
+			}
+
+			return builder.toString();
+		}
+		catch (final NoSuchAlgorithmException e)
+		{
+			return Integer.toHexString(text.hashCode());
+		}
+	}
+
+	/**
+	 * Writes the latest checkpoint offered, unless it has been written
+	 * already.
+	 */
+	private void drain()
+	{
+		final Checkpoint checkpoint = pending.getAndSet(null);
+
+		if (checkpoint == null)
+		{
+			return;
+		}
+
+		try
+		{
+			Files.createDirectories(file.getParent());
+
+			try (ObjectOutputStream output = new ObjectOutputStream(Files
+					.newOutputStream(temporary)))
+			{
+				output.writeObject(checkpoint);
+			}
+
+			Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (final IOException e)
+		{
+			// The previous checkpoint is kept
+		}
+	}
+
+	/**
+	 * Returns the stored checkpoint of the search.
+	 *
+	 * @return Checkpoint of the search, or null if none can be read.
+	 */
+	Checkpoint load()
+	{
+		if (!Files.isRegularFile(file))
+		{
+			return null;
+		}
+
+		try (ObjectInputStream input = new ObjectInputStream(Files.newInputStream(file)))
+		{
+			final Checkpoint checkpoint = (Checkpoint) input.readObject();
+			return key.equals(checkpoint.getKey()) ? checkpoint : null;
+		}
+		catch (final IOException | ClassNotFoundException | ClassCastException e)
+		{
+			return null;
+		}
+	}
+
+	/**
+	 * Returns whether a checkpoint is due, as the interval has elapsed since
+	 * the last one was offered.
+	 *
+	 * @return True if a checkpoint is due, false otherwise.
+	 */
+	boolean isDue()
+	{
+		return System.nanoTime() - last >= interval;
+	}
+
+	/**
+	 * Offers a checkpoint of the specified progress to be written in the
+	 * background, replacing any checkpoint offered earlier which has not been
+	 * written yet. The lists given are not modified afterwards.
+	 *
+	 * @param stage
+	 *            : Stage of the search being enumerated.
+	 * @param cursor
+	 *            : Index of the next candidate solution of the stage.
+	 * @param archive
+	 *            : Solutions of the archive, in the order they were archived.
+	 * @param cells
+	 *            : Solutions whose cells are refined by the stage, or null if
+	 *            the stage enumerates the grid.
+	 * @param evaluations
+	 *            : Number of solutions evaluated so far.
+	 * @param epsilon
+	 *            : Epsilon values of the grid of the archive, or null if there
+	 *            are none.
+	 */
+	void offer(int stage, long cursor, List<Solution> archive, List<Solution> cells,
+			long evaluations, double[] epsilon)
+	{
+		last = System.nanoTime();
+
+		if (pending.getAndSet(new Checkpoint(key, stage, cursor, archive, cells,
+				evaluations, epsilon)) == null)
+		{
+			writer.execute(this::drain);
+		}
+	}
+}
@@ -1,10 +1,13 @@
 package uk.co.blogspot.rafaelzig.core.algorithm;
 
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
 
 import org.moeaframework.core.Algorithm;
 import org.moeaframework.core.FrameworkException;
-import org.moeaframework.core.Initialization;
 import org.moeaframework.core.NondominatedPopulation;
 import org.moeaframework.core.Problem;
 import org.moeaframework.core.Solution;
@@ -15,6 +18,11 @@ import org.moeaframework.core.variable.BinaryVariable;
 import org.moeaframework.core.variable.RealVariable;
 import org.moeaframework.util.TypedProperties;
 
+import uk.co.blogspot.rafaelzig.core.datastructure.EpsilonGridArchive;
+import uk.co.blogspot.rafaelzig.core.datastructure.NondominatedArchive;
+import uk.co.blogspot.rafaelzig.core.datastructure.enumeration.Parameter;
+import uk.co.blogspot.rafaelzig.core.datastructure.template.ProblemTemplate;
+
 /**
  * Custom algorithm provider which handles creation and instantiation of the
  * corresponding algorithms.
@@ -24,6 +32,31 @@ import org.moeaframework.util.TypedProperties;
  */
 public class CustomAlgorithms extends AlgorithmProvider
 {
+	/**
+	 * Maximum number of candidate solutions brute force may enumerate, unless
+	 * specified otherwise.
+	 */
+	private static final double	DEFAULT_MAX_CANDIDATES	= 1e10;
+
+	/**
+	 * Maximum time in seconds brute force is estimated to take, unless
+	 * specified otherwise.
+	 */
+	private static final double	DEFAULT_MAX_SECONDS		= 3600;
+
+	/**
+	 * Increment of the grid of REAL variables whose number of values is not
+	 * specified.
+	 */
+	private static final double	DEFAULT_INCREMENT		= 0.015625;
+
+	/**
+	 * Property listing the workers brute force is distributed among on other
+	 * hosts, as comma-separated host:port addresses of running instances of
+	 * {@link BruteForceWorker}.
+	 */
+	static final String			WORKER_HOSTS			= "workerHosts";
+
 	/**
 	 * Constructs the custom algorithm provider.
 	 */
@@ -32,6 +65,48 @@ public class CustomAlgorithms extends AlgorithmProvider
 		super();
 	}
 
+	/**
+	 * Checks the specified brute force search against the budget of the
+	 * specified properties, which limits the number of candidate solutions and
+	 * the time the search is estimated to take.
+	 *
+	 * @param search
+	 *            : Brute force search to be checked.
+	 * @param generator
+	 *            : Candidate solutions enumerated by the search.
+	 * @param properties
+	 *            : Properties of the algorithm.
+	 * @throws FrameworkException
+	 *             If the search exceeds the budget.
+	 */
+	private void checkBudget(BruteForceSearch search, CandidateSpace generator,
+			TypedProperties properties)
+	{
+		final double maxCandidates = properties.getDouble(
+				Parameter.MAX_CANDIDATES.getCode(), DEFAULT_MAX_CANDIDATES);
+		final double maxSeconds = properties.getDouble(Parameter.MAX_SECONDS.getCode(),
+				DEFAULT_MAX_SECONDS);
+
+		if (generator.size() > maxCandidates)
+		{
+			throw new FrameworkException(String.format(
+					"%d candidate solutions exceed the budget of %.0f", generator.size(),
+					maxCandidates));
+		}
+
+		if (maxSeconds > 0)
+		{
+			final double seconds = search.estimateTime();
+
+			if (seconds > maxSeconds)
+			{
+				throw new FrameworkException(String.format(
+						"estimated time of %.0f s exceeds the budget of %.0f s", seconds,
+						maxSeconds));
+			}
+		}
+	}
+
 	/**
 	 * Returns {@code true} if all decision variables are assignment-compatible
 	 * with the specified type; {@code false} otherwise.
@@ -69,6 +144,10 @@ public class CustomAlgorithms extends AlgorithmProvider
 			{
 				return newBruteForceSearch(typedProperties, problem);
 			}
+			else if (name.equalsIgnoreCase("BranchAndBound"))
+			{
+				return newBranchAndBoundSearch(typedProperties, problem);
+			}
 			else if (name.equalsIgnoreCase("SuperMOEA"))
 			{
 				return newSuperMOEA(typedProperties, problem); // TODO
@@ -84,9 +163,153 @@ public class CustomAlgorithms extends AlgorithmProvider
 		}
 	}
 
+	/**
+	 * Returns the grid of values taken by each variable of the specified
+	 * problem, according to the types given by the specified properties.
+	 *
+	 * @param properties
+	 *            : Properties of the algorithm.
+	 * @param problem
+	 *            : Problem whose variables take the values of the grid.
+	 * @return Array containing the lower bounds, upper bounds and increments
+	 *         of the grid of each variable, in that order.
+	 */
+	private double[][] getGrid(TypedProperties properties, Problem problem)
+	{
+		final double[] min = new double[problem.getNumberOfVariables()];
+		final double[] max = new double[problem.getNumberOfVariables()];
+		final double[] increment = new double[problem.getNumberOfVariables()];
+
+		final Solution tmp = problem.newSolution();
+		final String[] types = getTypes(properties);
+
+		for (int i = 0; i < problem.getNumberOfVariables(); i++)
+		{
+			switch (types[i])
+			{
+				case "BINARY":
+					min[i] = 0;
+					max[i] = 1;
+					increment[i] = 1.0;
+					break;
+				case "INTEGER":
+					min[i] = ((RealVariable) tmp.getVariable(i)).getLowerBound();
+					max[i] = Math.floor(((RealVariable) tmp.getVariable(i))
+							.getUpperBound());
+					increment[i] = 1.0;
+					break;
+				case "REAL":
+					min[i] = ((RealVariable) tmp.getVariable(i)).getLowerBound();
+					max[i] = ((RealVariable) tmp.getVariable(i)).getUpperBound();
+					increment[i] = getIncrement(properties, i, min[i], max[i]);
+					break;
+			}
+		}
+
+		return new double[][] { min, max, increment };
+	}
+
+	/**
+	 * Returns the increment of the grid of the specified REAL variable, which
+	 * spreads the number of values given by the specified properties evenly
+	 * over its bounds. The properties may give a single number for every
+	 * variable or one number per variable, and variables given no number or a
+	 * number below two keep the default increment.
+	 *
+	 * @param properties
+	 *            : Properties of the algorithm.
+	 * @param index
+	 *            : Index of the variable.
+	 * @param min
+	 *            : Lower bound of the variable.
+	 * @param max
+	 *            : Upper bound of the variable.
+	 * @return Increment of the grid of the variable.
+	 */
+	private double getIncrement(TypedProperties properties, int index, double min,
+			double max)
+	{
+		final int[] points = properties.getIntArray(Parameter.GRID_POINTS.getCode(),
+				new int[0]);
+
+		final int count = points.length == 1 ? points[0] : index < points.length
+				? points[index] : 0;
+
+		if (count < 2 || !(max > min))
+		{
+			return DEFAULT_INCREMENT;
+		}
+
+		return (max - min) / (count - 1);
+	}
+
+	/**
+	 * Returns the types of the variables given by the specified properties.
+	 *
+	 * @param properties
+	 *            : Properties of the algorithm.
+	 * @return Array containing the type of each variable.
+	 */
+	private String[] getTypes(TypedProperties properties)
+	{
+		return properties.getStringArray(
+				uk.co.blogspot.rafaelzig.core.datastructure.enumeration.Algorithm.BruteForce
+						.name(), new String[0]);
+	}
+
+	/**
+	 * Instantiates and returns the archive of a brute force search with the
+	 * specified properties, which keeps a single solution within each epsilon
+	 * box if epsilon values or a maximum number of solutions are specified.
+	 *
+	 * @param properties
+	 *            : Properties of the algorithm.
+	 * @return Archive of non-dominated solutions.
+	 */
+	private NondominatedPopulation newArchive(TypedProperties properties)
+	{
+		final double[] epsilon = properties.getDoubleArray(Parameter.EPSILON.getCode(),
+				null);
+		final int maxSolutions = properties.getInt(Parameter.MAX_SOLUTIONS.getCode(), 0);
+
+		if (epsilon == null && maxSolutions <= 0)
+		{
+			return new NondominatedArchive();
+		}
+
+		return new EpsilonGridArchive(epsilon, maxSolutions);
+	}
+
+	/**
+	 * Instantiates and returns a branch and bound algorithm to be used by the
+	 * specified problem, which searches the same grid as brute force.
+	 *
+	 * @param properties
+	 *            : Properties of the algorithm.
+	 * @param problem
+	 *            : Problem to be solved.
+	 * @return Branch and bound algorithm.
+	 * @throws FrameworkException
+	 *             If the problem is not a ProblemTemplate, whose objectives
+	 *             and constraints can be enclosed.
+	 */
+	private Algorithm newBranchAndBoundSearch(TypedProperties properties,
+			Problem problem)
+	{
+		if (!(problem instanceof ProblemTemplate))
+		{
+			throw new FrameworkException("problem cannot be enclosed");
+		}
+
+		final double[][] grid = getGrid(properties, problem);
+		return new BranchAndBoundSearch((ProblemTemplate) problem, grid[0], grid[1],
+				grid[2], new NondominatedArchive());
+	}
+
 	/**
 	 * Instantiates and returns a brute force algorithm to be used by the
-	 * specified problem.
+	 * specified problem, provided that it is within the budget of the
+	 * specified properties.
 	 *
 	 * @param properties
 	 * @param problem
@@ -94,64 +317,140 @@ public class CustomAlgorithms extends AlgorithmProvider
 	 */
 	private Algorithm newBruteForceSearch(TypedProperties properties, Problem problem)
 	{
-		Initialization generator;
+		CandidateSpace generator;
+		CandidateSpace fallback = null;
+		final double[] refined = new double[problem.getNumberOfVariables()];
 
 		if (checkType(BinaryVariable.class, problem))
 		{
-			if (problem.getNumberOfVariables() >= 20)
-			{
-				throw new FrameworkException("too many decision variables");
-			}
-
 			generator = new BinaryBruteForceInitialization(problem);
 		}
 		else
 		{
-			if (problem.getNumberOfVariables() >= 8)
+			final double[][] grid = getGrid(properties, problem);
+			final double[] min = grid[0];
+			final double[] max = grid[1];
+			final double[] increment = grid[2];
+			final String[] types = getTypes(properties);
+
+			for (int i = 0; i < problem.getNumberOfVariables(); i++)
 			{
-				throw new FrameworkException("too many decision variables");
+				if (types[i].equals("REAL"))
+				{
+					refined[i] = increment[i];
+				}
 			}
-			else
+
+			generator = new MixedVariableBruteForceInitialization(problem, min, max,
+					increment);
+
+			// Infeasible permutations are skipped if they can be proven so
+			if (problem instanceof ProblemTemplate
+					&& problem.getNumberOfConstraints() > 0)
 			{
-				final double[] min = new double[problem.getNumberOfVariables()];
-				final double[] max = new double[problem.getNumberOfVariables()];
-				final double[] increment = new double[problem.getNumberOfVariables()];
+				fallback = generator;
+				generator = new MixedVariableBruteForceInitialization(
+						(ProblemTemplate) problem, min, max, increment);
+			}
+		}
 
-				final Solution tmp = problem.newSolution();
-				final String[] types = properties
-						.getStringArray(
-								uk.co.blogspot.rafaelzig.core.datastructure.enumeration.Algorithm.BruteForce
-										.name(), new String[0]);
+		final BruteForceSearch search = new BruteForceSearch(problem, generator,
+				fallback, newArchive(properties), refined, properties.getInt(
+						Parameter.GRID_REFINEMENTS.getCode(), 0), newCheckpointStore(
+						properties, problem), newCoordinator(properties, problem));
+		checkBudget(search, generator, properties);
+		return search;
+	}
 
-				for (int i = 0; i < problem.getNumberOfVariables(); i++)
-				{
-					switch (types[i])
-					{
-						case "BINARY":
-							min[i] = 0;
-							max[i] = 1;
-							increment[i] = 1.0;
-							break;
-						case "INTEGER":
-							min[i] = ((RealVariable) tmp.getVariable(i)).getLowerBound();
-							max[i] = Math.floor(((RealVariable) tmp.getVariable(i))
-									.getUpperBound());
-							increment[i] = 1.0;
-							break;
-						case "REAL":
-							min[i] = ((RealVariable) tmp.getVariable(i)).getLowerBound();
-							max[i] = ((RealVariable) tmp.getVariable(i)).getUpperBound();
-							increment[i] = 0.015625;
-							break;
-					}
-				}
+	/**
+	 * Instantiates and returns the store of the checkpoints of a brute force
+	 * search of the specified problem with the specified properties, which
+	 * resumes any search of the same problem and configuration. The budget and
+	 * interval of checkpoints are not part of the configuration, so that they
+	 * may be changed when resuming.
+	 *
+	 * @param properties
+	 *            : Properties of the algorithm.
+	 * @param problem
+	 *            : Problem being solved.
+	 * @return Store of the checkpoints, or null if checkpoints are disabled.
+	 */
+	private CheckpointStore newCheckpointStore(TypedProperties properties,
+			Problem problem)
+	{
+		final double interval = properties.getDouble(
+				Parameter.CHECKPOINT_INTERVAL.getCode(), 0);
 
-				generator = new MixedVariableBruteForceInitialization(problem, min, max,
-						increment);
+		if (interval <= 0)
+		{
+			return null;
+		}
+
+		final StringBuilder key = new StringBuilder(problem.getName()).append('\n');
+
+		if (problem instanceof ProblemTemplate)
+		{
+			key.append(((ProblemTemplate) problem).getProblemDetails()).append('\n');
+		}
+
+		final Set<String> ignored = new HashSet<>(Arrays.asList(
+				Parameter.CHECKPOINT_INTERVAL.getCode(), Parameter.MAX_CANDIDATES.getCode(),
+				Parameter.MAX_SECONDS.getCode(), Parameter.MAX_SOLUTIONS.getCode(),
+				Parameter.WORKERS.getCode(), WORKER_HOSTS));
+
+		for (final String name : new TreeSet<>(properties.getProperties()
+				.stringPropertyNames()))
+		{
+			if (!ignored.contains(name))
+			{
+				key.append(name).append('=').append(properties.getString(name, ""))
+						.append('\n');
 			}
 		}
 
-		return new BruteForceSearch(problem, generator, new NondominatedPopulation());
+		// The capacity of the archive is keyed even if absent, as it bounds the
+		// solutions kept
+		key.append(Parameter.MAX_SOLUTIONS.getCode()).append('=').append(
+				properties.getInt(Parameter.MAX_SOLUTIONS.getCode(), 0)).append('\n');
+
+		return new CheckpointStore(key.toString(), interval);
+	}
+
+	/**
+	 * Instantiates and returns the coordinator of the workers a brute force
+	 * search of the specified problem is distributed among, according to the
+	 * specified properties. The workers enumerate the search with the same
+	 * properties, except that they neither distribute it again, nor store
+	 * checkpoints, nor estimate its time again.
+	 *
+	 * @param properties
+	 *            : Properties of the algorithm.
+	 * @param problem
+	 *            : Problem being solved.
+	 * @return Coordinator of the workers, or null if the search is not
+	 *         distributed.
+	 */
+	private BruteForceCoordinator newCoordinator(TypedProperties properties,
+			Problem problem)
+	{
+		final int processes = properties.getInt(Parameter.WORKERS.getCode(), 0);
+		final String[] hosts = properties.getStringArray(WORKER_HOSTS, new String[0]);
+
+		// Only problems given as a ProblemTemplate can be sent to the workers
+		if (!(problem instanceof ProblemTemplate) || processes <= 0 && hosts.length == 0)
+		{
+			return null;
+		}
+
+		final Properties shared = new Properties();
+		shared.putAll(properties.getProperties());
+		shared.remove(Parameter.WORKERS.getCode());
+		shared.remove(WORKER_HOSTS);
+		shared.remove(Parameter.CHECKPOINT_INTERVAL.getCode());
+		shared.setProperty(Parameter.MAX_SECONDS.getCode(), "0");
+
+		return new BruteForceCoordinator((ProblemTemplate) problem, shared, Math.max(0,
+				processes), hosts);
 	}
 
 	/**
@@ -166,4 +465,25 @@ public class CustomAlgorithms extends AlgorithmProvider
 		// TODO Auto-generated method stub
 		return null;
 	}
+
+	/**
+	 * Refines the specified result of an algorithm by moving each of its
+	 * solutions along the direction of steepest common descent of the
+	 * objectives, computed by automatic differentiation with respect to the
+	 * decision variables of type REAL, while the moved solution dominates the
+	 * original one.
+	 *
+	 * @param problem
+	 *            : Problem which has been solved.
+	 * @param result
+	 *            : Result of the algorithm.
+	 * @param steps
+	 *            : Maximum number of steps applied to each solution.
+	 * @return Non-dominated set of the refined solutions.
+	 */
+	public static NondominatedPopulation refine(ProblemTemplate problem,
+			NondominatedPopulation result, int steps)
+	{
+		return new GradientRefinement(problem, steps).refine(result);
+	}
 }
\ No newline at end of file
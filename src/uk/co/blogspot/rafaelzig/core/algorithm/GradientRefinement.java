@@ -0,0 +1,316 @@
+package uk.co.blogspot.rafaelzig.core.algorithm;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.moeaframework.core.NondominatedPopulation;
+import org.moeaframework.core.Solution;
+import org.moeaframework.core.comparator.ParetoDominanceComparator;
+import org.moeaframework.core.variable.RealVariable;
+
+import uk.co.blogspot.rafaelzig.core.datastructure.NondominatedArchive;
+import uk.co.blogspot.rafaelzig.core.datastructure.NondominatedSorting;
+import uk.co.blogspot.rafaelzig.core.datastructure.template.ProblemTemplate;
+
+/**
+ * Class responsible for refining a set of solutions by means of gradient
+ * descent on the decision variables of type REAL. Each step moves a solution
+ * along the direction of steepest common descent of all objectives, which is
+ * the opposite of the shortest convex combination of their gradients, and is
+ * only accepted if the moved solution dominates the original one.
+ *
+ * @author Rafael da Silva Costa - BSc Computer Science 3rd Year
+ *
+ */
+class GradientRefinement
+{
+	/**
+	 * Length of the first step of each line search, relative to the ranges of
+	 * the variables.
+	 */
+	private static final double						INITIAL_STEP			= 0.1;
+
+	/**
+	 * Number of times the step of each line search is halved before giving
+	 * up.
+	 */
+	private static final int						LINE_SEARCH_STEPS		= 20;
+
+	/**
+	 * Number of iterations utilised to find the shortest convex combination
+	 * of the gradients.
+	 */
+	private static final int						COMBINATION_ITERATIONS	= 100;
+
+	/**
+	 * Norm below which a solution is considered to be Pareto stationary.
+	 */
+	private static final double						TOLERANCE				= 1e-12;
+
+	/**
+	 * The comparator utilised to accept steps.
+	 */
+	private final ParetoDominanceComparator			comparator				= new ParetoDominanceComparator();
+
+	/**
+	 * The problem being solved.
+	 */
+	private final ProblemTemplate					problem;
+
+	/**
+	 * Maximum number of steps applied to each solution.
+	 */
+	private final int								steps;
+
+	/**
+	 * Constructs a new instance of GradientRefinement for the specified
+	 * problem.
+	 *
+	 * @param problem
+	 *            : Problem being solved.
+	 * @param steps
+	 *            : Maximum number of steps applied to each solution.
+	 */
+	GradientRefinement(ProblemTemplate problem, int steps)
+	{
+		this.problem = problem;
+		this.steps = steps;
+	}
+
+	/**
+	 * Returns the dot product of the specified vectors.
+	 *
+	 * @param a
+	 *            : First vector.
+	 * @param b
+	 *            : Second vector.
+	 * @return Dot product of both vectors.
+	 */
+	private static double dot(double[] a, double[] b)
+	{
+		double result = 0.0;
+
+		for (int i = 0; i < a.length; i++)
+		{
+			result += a[i] * b[i];
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the direction of steepest common descent of the objectives at
+	 * the specified solution, in coordinates relative to the ranges of the
+	 * variables.
+	 *
+	 * @param solution
+	 *            : Solution to be moved.
+	 * @param reals
+	 *            : Indexes of the variables of type REAL.
+	 * @return Unit direction of descent, or null if the solution is Pareto
+	 *         stationary or cannot be differentiated.
+	 */
+	private double[] getDirection(Solution solution, int[] reals)
+	{
+		final double[][] gradients = problem.getGradients(solution);
+
+		if (gradients == null)
+		{
+			return null;
+		}
+
+		final double[][] scaled = new double[problem.getNumberOfObjectives()][reals.length];
+
+		for (int i = 0; i < scaled.length; i++)
+		{
+			for (int j = 0; j < reals.length; j++)
+			{
+				final RealVariable variable = (RealVariable) solution.getVariable(reals[j]);
+				scaled[i][j] = gradients[i][j]
+						* (variable.getUpperBound() - variable.getLowerBound());
+
+				if (!Double.isFinite(scaled[i][j]))
+				{
+					return null;
+				}
+			}
+		}
+
+		final double[] combination = getShortestCombination(scaled);
+		final double norm = Math.sqrt(dot(combination, combination));
+
+		if (norm < TOLERANCE)
+		{
+			return null;
+		}
+
+		for (int j = 0; j < combination.length; j++)
+		{
+			combination[j] /= -norm;
+		}
+
+		return combination;
+	}
+
+	/**
+	 * Returns the shortest convex combination of the specified vectors, which
+	 * is found by means of the Frank-Wolfe algorithm.
+	 *
+	 * @param vectors
+	 *            : Vectors to be combined.
+	 * @return Shortest convex combination of the vectors.
+	 */
+	private static double[] getShortestCombination(double[][] vectors)
+	{
+		final double[] result = new double[vectors[0].length];
+
+		for (final double[] vector : vectors)
+		{
+			for (int j = 0; j < result.length; j++)
+			{
+				result[j] += vector[j] / vectors.length;
+			}
+		}
+
+		for (int iteration = 0; iteration < COMBINATION_ITERATIONS; iteration++)
+		{
+			double[] vertex = vectors[0];
+
+			for (final double[] vector : vectors)
+			{
+				if (dot(vector, result) < dot(vertex, result))
+				{
+					vertex = vector;
+				}
+			}
+
+			final double[] difference = new double[result.length];
+
+			for (int j = 0; j < result.length; j++)
+			{
+				difference[j] = result[j] - vertex[j];
+			}
+
+			final double denominator = dot(difference, difference);
+
+			if (denominator == 0.0)
+			{
+				break;
+			}
+
+			final double gamma = Math.min(1.0, dot(result, difference) / denominator);
+
+			if (gamma < TOLERANCE)
+			{
+				break;
+			}
+
+			for (int j = 0; j < result.length; j++)
+			{
+				result[j] -= gamma * difference[j];
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Refines each of the specified solutions.
+	 *
+	 * @param population
+	 *            : Solutions to be refined.
+	 * @return Non-dominated set of the refined solutions.
+	 */
+	NondominatedPopulation refine(NondominatedPopulation population)
+	{
+		final List<Solution> refined = new ArrayList<>(population.size());
+
+		for (final Solution solution : population)
+		{
+			refined.add(refine(solution));
+		}
+
+		// Solutions outside the first front would be rejected or removed
+		return new NondominatedArchive(NondominatedSorting.getFront(refined));
+	}
+
+	/**
+	 * Refines the specified solution, until it is Pareto stationary, no step
+	 * is accepted or the maximum number of steps is reached.
+	 *
+	 * @param solution
+	 *            : Solution to be refined.
+	 * @return Refined solution, which is either the specified one or a
+	 *         solution dominating it.
+	 */
+	private Solution refine(Solution solution)
+	{
+		final int[] reals = problem.getRealVariables();
+		Solution current = solution;
+
+		for (int step = 0; step < steps && reals.length > 0; step++)
+		{
+			final double[] direction = getDirection(current, reals);
+
+			if (direction == null)
+			{
+				break;
+			}
+
+			final Solution next = search(current, direction, reals);
+
+			if (next == null)
+			{
+				break;
+			}
+
+			current = next;
+		}
+
+		return current;
+	}
+
+	/**
+	 * Searches along the specified direction for a solution dominating the
+	 * specified one, halving the step until one is found.
+	 *
+	 * @param solution
+	 *            : Solution to be moved.
+	 * @param direction
+	 *            : Direction of descent, relative to the ranges of the
+	 *            variables.
+	 * @param reals
+	 *            : Indexes of the variables of type REAL.
+	 * @return Solution dominating the specified one, or null if none was
+	 *         found.
+	 */
+	private Solution search(Solution solution, double[] direction, int[] reals)
+	{
+		double length = INITIAL_STEP;
+
+		for (int i = 0; i < LINE_SEARCH_STEPS; i++, length /= 2.0)
+		{
+			final Solution candidate = solution.copy();
+
+			for (int j = 0; j < reals.length; j++)
+			{
+				final RealVariable variable = (RealVariable) candidate
+						.getVariable(reals[j]);
+				final double value = variable.getValue() + length * direction[j]
+						* (variable.getUpperBound() - variable.getLowerBound());
+
+				variable.setValue(Math.max(variable.getLowerBound(),
+						Math.min(variable.getUpperBound(), value)));
+			}
+
+			problem.evaluate(candidate);
+
+			if (comparator.compare(candidate, solution) < 0)
+			{
+				return candidate;
+			}
+		}
+
+		return null;
+	}
+}
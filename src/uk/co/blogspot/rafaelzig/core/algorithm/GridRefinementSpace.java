@@ -0,0 +1,172 @@
+package uk.co.blogspot.rafaelzig.core.algorithm;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.moeaframework.core.FrameworkException;
+import org.moeaframework.core.Solution;
+import org.moeaframework.core.variable.RealVariable;
+
+/**
+ * Class responsible for generating the candidate solutions of a refined grid
+ * within the cells surrounding a set of solutions of a problem with mixed
+ * variables. Each refined variable of a solution is moved by up to one
+ * increment of the refined grid in either direction, which halves the
+ * increment of the grid the solution was found on, while the remaining
+ * variables keep their values. Candidates are indexed by their solution
+ * followed by the steps taken along each refined variable, in a radix of
+ * three.
+ *
+ * @author Rafael da Silva Costa - BSc Computer Science 3rd Year
+ *
+ */
+class GridRefinementSpace implements CandidateSpace
+{
+	/**
+	 * Number of values each refined variable takes within a cell.
+	 */
+	private static final int		STEPS	= 3;
+
+	/**
+	 * Solutions whose cells are refined.
+	 */
+	private final Solution[]		solutions;
+
+	/**
+	 * Array containing the increments of the refined grid for each variable,
+	 * which are zero for the variables not refined.
+	 */
+	private final double[]			increment;
+
+	/**
+	 * Indexes of the refined variables.
+	 */
+	private final int[]				refined;
+
+	/**
+	 * Number of candidates generated within the cell of each solution.
+	 */
+	private final long				cellSize;
+
+	/**
+	 * Constructs a new instance with the specified solutions and increments
+	 * of the refined grid.
+	 *
+	 * @param solutions
+	 *            : Solutions whose cells are refined.
+	 * @param increment
+	 *            : Array containing the increments of the refined grid for
+	 *            each variable, which are zero for the variables not refined.
+	 * @throws FrameworkException
+	 *             If the number of candidates cannot be indexed.
+	 */
+	GridRefinementSpace(List<Solution> solutions, double[] increment)
+	{
+		this.solutions = solutions.toArray(new Solution[solutions.size()]);
+		this.increment = increment;
+
+		final List<Integer> refined = new ArrayList<>();
+
+		for (int i = 0; i < increment.length; i++)
+		{
+			if (increment[i] > 0)
+			{
+				refined.add(i);
+			}
+		}
+
+		this.refined = refined.stream().mapToInt(Integer::intValue).toArray();
+
+		long cellSize = 1;
+
+		try
+		{
+			for (int i = 0; i < this.refined.length; i++)
+			{
+				cellSize = Math.multiplyExact(cellSize, STEPS);
+			}
+
+			Math.multiplyExact(cellSize, this.solutions.length);
+		}
+		catch (final ArithmeticException e)
+		{
+			throw new FrameworkException("too many candidate solutions", e);
+		}
+
+		this.cellSize = cellSize;
+	}
+
+	@Override
+	public long size()
+	{
+		return cellSize * solutions.length;
+	}
+
+	@Override
+	public CandidateStream stream(long from, long to)
+	{
+		return new CandidateStream()
+		{
+			/**
+			 * Next candidate to be generated.
+			 */
+			private long	cursor	= from;
+
+			@Override
+			public Solution[] next(int count)
+			{
+				final List<Solution> candidates = new ArrayList<>(count);
+
+				for (; candidates.size() < count && cursor < to; cursor++)
+				{
+					final Solution candidate = generate(cursor);
+
+					if (candidate != null)
+					{
+						candidates.add(candidate);
+					}
+				}
+
+				return candidates.toArray(new Solution[candidates.size()]);
+			}
+		};
+	}
+
+	/**
+	 * Generates the candidate with the specified index, unless it is the
+	 * solution of its cell itself or lies outside the bounds of a variable.
+	 *
+	 * @param index
+	 *            : Index of the candidate.
+	 * @return Candidate solution, or null if it is not to be evaluated.
+	 */
+	private Solution generate(long index)
+	{
+		long steps = index % cellSize;
+
+		// The middle step of every variable leaves the solution unchanged
+		if (steps == (cellSize - 1) / 2)
+		{
+			return null;
+		}
+
+		final Solution candidate = solutions[(int) (index / cellSize)].copy();
+
+		for (int i = refined.length - 1; i >= 0; i--)
+		{
+			final RealVariable var = (RealVariable) candidate.getVariable(refined[i]);
+			final double value = var.getValue() + (steps % STEPS - 1)
+					* increment[refined[i]];
+
+			if (value < var.getLowerBound() || value > var.getUpperBound())
+			{
+				return null;
+			}
+
+			var.setValue(value);
+			steps /= STEPS;
+		}
+
+		return candidate;
+	}
+}
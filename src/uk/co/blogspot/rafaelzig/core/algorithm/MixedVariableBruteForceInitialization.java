@@ -1,36 +1,164 @@
 package uk.co.blogspot.rafaelzig.core.algorithm;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
-import org.moeaframework.core.Initialization;
+import org.moeaframework.core.FrameworkException;
 import org.moeaframework.core.Problem;
 import org.moeaframework.core.Solution;
 import org.moeaframework.core.variable.RealVariable;
 
+import uk.co.blogspot.rafaelzig.core.datastructure.template.ProblemTemplate;
+
 /**
  * Class responsible for generating all permutations, with repetitions, of
- * solutions of a problem with mixed variables.
+ * solutions of a problem with mixed variables. Each variable takes the values
+ * of a grid from its lower bound up to its upper bound, and permutations are
+ * indexed as the numbers whose digits are the steps taken along each grid, in
+ * a mixed radix where the first variable is the most significant digit. If the
+ * problem is given as a ProblemTemplate, the permutations sharing their first
+ * variables are skipped once interval arithmetic proves all of them to be
+ * infeasible.
  *
  * @author Rafael da Silva Costa - BSc Computer Science 3rd Year
  *
  */
-class MixedVariableBruteForceInitialization implements Initialization
+class MixedVariableBruteForceInitialization implements CandidateSpace
 {
 	/**
-	 * Problem with mixed variables.
+	 * Stream generating a range of permutations by advancing the digits of
+	 * the current one as an odometer.
 	 */
-	private final Problem			problem;
+	private final class Odometer implements CandidateStream
+	{
+		/**
+		 * Array containing the steps taken along the grid of each variable by
+		 * the current permutation.
+		 */
+		private final long[]	digits	= new long[counts.length];
 
-	/**
-	 * List to be used to store permutations of solutions found.
-	 */
-	private final List<Solution>	solutions;
+		/**
+		 * Index of the last permutation, exclusive.
+		 */
+		private final long		to;
+
+		/**
+		 * Index of the current permutation.
+		 */
+		private long			index;
+
+		/**
+		 * Index of the first variable whose value changed since the current
+		 * permutation was last checked for infeasibility.
+		 */
+		private int				changed;
+
+		/**
+		 * Constructs a new instance of Odometer generating the specified
+		 * range of permutations.
+		 *
+		 * @param from
+		 *            : Index of the first permutation, inclusive.
+		 * @param to
+		 *            : Index of the last permutation, exclusive.
+		 */
+		private Odometer(long from, long to)
+		{
+			this.to = to;
+			index = from;
+
+			for (int i = 0; i < digits.length; i++)
+			{
+				digits[i] = from / strides[i] % counts[i];
+			}
+		}
+
+		/**
+		 * Advances the permutation to the next one which shares no values of
+		 * the variables up to the specified cursor with the current one.
+		 *
+		 * @param cursor
+		 *            : Index of the variable to be incremented.
+		 */
+		private void advance(int cursor)
+		{
+			index -= index % strides[cursor];
+
+			for (int i = cursor + 1; i < digits.length; i++)
+			{
+				digits[i] = 0;
+			}
+
+			for (int i = cursor; i >= 0; i--)
+			{
+				index += strides[i];
+
+				if (++digits[i] < counts[i])
+				{
+					changed = Math.min(changed, i);
+					return;
+				}
+
+				index -= strides[i] * counts[i];
+				digits[i] = 0;
+			}
+
+			index = Long.MAX_VALUE;
+		}
+
+		@Override
+		public Solution[] next(int count)
+		{
+			final List<Solution> solutions = new ArrayList<>(count);
+
+			while (solutions.size() < count && skipInfeasible())
+			{
+				final Solution solution = problem.newSolution();
+
+				for (int j = 0; j < digits.length; j++)
+				{
+					final RealVariable var = (RealVariable) solution.getVariable(j);
+					var.setValue(getValue(j, digits[j]));
+				}
+
+				solutions.add(solution);
+				changed = digits.length - 1;
+				advance(digits.length - 1);
+			}
+
+			return solutions.toArray(new Solution[solutions.size()]);
+		}
+
+		/**
+		 * Advances the permutation past those proven to be infeasible,
+		 * checking the values of the variables which changed since the last
+		 * check.
+		 *
+		 * @return True if a permutation remains to be generated, false
+		 *         otherwise.
+		 */
+		private boolean skipInfeasible()
+		{
+			while (index < to && template != null && changed < digits.length - 1)
+			{
+				if (isInfeasible(digits, changed))
+				{
+					advance(changed);
+				}
+				else
+				{
+					changed++;
+				}
+			}
+
+			return index < to;
+		}
+	}
 
 	/**
-	 * Array containing the current permutation of variables.
+	 * Problem with mixed variables.
 	 */
-	private final double[]			current;
+	private final Problem			problem;
 
 	/**
 	 * Array containing the lower bounds of the variables of this problem.
@@ -48,15 +176,35 @@ class MixedVariableBruteForceInitialization implements Initialization
 	 */
 	private final double[]			increment;
 
+	/**
+	 * Array containing the number of values taken by each of the variables of
+	 * this problem.
+	 */
+	private final long[]			counts;
+
+	/**
+	 * Array containing the difference between the indexes of permutations
+	 * which differ by one step of each variable.
+	 */
+	private final long[]			strides;
+
+	/**
+	 * Number of permutations.
+	 */
+	private final long				size;
+
+	/**
+	 * Problem utilised to prove permutations infeasible, or null if no
+	 * permutation is to be skipped.
+	 */
+	private final ProblemTemplate	template;
+
 	/**
 	 * Constructs a new instance with the specified problem, lower bounds and
-	 * upper bounds and increment of variables, and initialises a new array to
-	 * be used to hold the current permutation.
+	 * upper bounds and increment of variables.
 	 *
 	 * @param problem
 	 *            : Problem with mixed variables.
-	 * @param solutions
-	 *            : List to be used to store permutations of solutions found.
 	 * @param min
 	 *            : Array containing the lower bounds of the variables of this
 	 *            problem.
@@ -70,19 +218,39 @@ class MixedVariableBruteForceInitialization implements Initialization
 	MixedVariableBruteForceInitialization(Problem problem, double[] min, double[] max,
 			double[] increment)
 	{
-		this(problem, new LinkedList<>(), min, max, increment, new double[problem
-				.getNumberOfVariables()]);
+		this(problem, min, max, increment, null);
+	}
+
+	/**
+	 * Constructs a new instance with the specified problem, lower bounds and
+	 * upper bounds and increment of variables, which skips the permutations
+	 * proven to be infeasible.
+	 *
+	 * @param problem
+	 *            : Problem with mixed variables.
+	 * @param min
+	 *            : Array containing the lower bounds of the variables of this
+	 *            problem.
+	 * @param max
+	 *            : Array containing the upper bounds of the variables of this
+	 *            problem.
+	 * @param increment
+	 *            : Array containing the increments to be used for each of the
+	 *            variable of this problem.
+	 */
+	MixedVariableBruteForceInitialization(ProblemTemplate problem, double[] min,
+			double[] max, double[] increment)
+	{
+		this(problem, min, max, increment, problem);
 	}
 
 	/**
-	 * * Constructs a new instance with the specified problem, list to be used
-	 * to store solutions generated, lower bounds and upper bounds and increment
-	 * of variables and current permutation.
+	 * Constructs a new instance with the specified problem, lower bounds and
+	 * upper bounds and increment of variables, and the problem utilised to
+	 * prove permutations infeasible.
 	 *
 	 * @param problem
 	 *            : Problem with mixed variables.
-	 * @param solutions
-	 *            : List to be used to store permutations of solutions found.
 	 * @param min
 	 *            : Array containing the lower bounds of the variables of this
 	 *            problem.
@@ -92,57 +260,129 @@ class MixedVariableBruteForceInitialization implements Initialization
 	 * @param increment
 	 *            : Array containing the increments to be used for each of the
 	 *            variable of this problem.
-	 * @param current
-	 *            : Array containing the current permutation of variables.
+	 * @param template
+	 *            : Problem utilised to prove permutations infeasible, or null
+	 *            if no permutation is to be skipped.
+	 * @throws FrameworkException
+	 *             If the number of permutations cannot be indexed.
 	 */
-	MixedVariableBruteForceInitialization(Problem problem, List<Solution> solutions,
-			double[] min, double[] max, double[] increment, double[] current)
+	private MixedVariableBruteForceInitialization(Problem problem, double[] min,
+			double[] max, double[] increment, ProblemTemplate template)
 	{
 		this.problem = problem;
 		this.min = min;
 		this.max = max;
 		this.increment = increment;
-		this.solutions = solutions;
-		this.current = current;
-	}
+		this.template = template;
+		counts = new long[min.length];
+		strides = new long[min.length];
 
-	@Override
-	public Solution[] initialize()
-	{
-		recurse(0);
-		return solutions.toArray(new Solution[solutions.size()]);
+		long size = 1;
+
+		for (int i = min.length - 1; i >= 0; i--)
+		{
+			counts[i] = getCount(min[i], max[i], increment[i]);
+			strides[i] = size;
+
+			try
+			{
+				size = Math.multiplyExact(size, counts[i]);
+			}
+			catch (final ArithmeticException e)
+			{
+				throw new FrameworkException("too many candidate solutions", e);
+			}
+		}
+
+		this.size = size;
 	}
 
 	/**
-	 * Performs another recursion of the algorithm starting at the specified
-	 * cursor.
+	 * Returns the number of values of the grid with the specified lower
+	 * bound, upper bound and increment, which are the multiples of the
+	 * increment added to the lower bound that do not exceed the upper bound.
 	 *
-	 * @param cursor
-	 *            : Current cursor to be used during the iteration.
+	 * @param min
+	 *            : Lower bound of the grid.
+	 * @param max
+	 *            : Upper bound of the grid.
+	 * @param increment
+	 *            : Increment of the grid.
+	 * @return Number of values of the grid.
 	 */
-	private void recurse(int cursor)
+	static long getCount(double min, double max, double increment)
 	{
-		for (double i = min[cursor]; i <= max[cursor]; i += increment[cursor])
+		if (!(min <= max))
 		{
-			current[cursor] = i;
+			return 0;
+		}
 
-			if (cursor == current.length - 1)
-			{
-				final Solution solution = problem.newSolution();
+		long count = (long) Math.floor((max - min) / increment) + 1;
 
-				for (int j = 0; j < current.length; j++)
-				{
-					final RealVariable var = (RealVariable) solution.getVariable(j);
-					var.setValue(current[j]);
-					solution.setVariable(j, var);
-				}
+		// Corrects the rounding of the division
+		while (count > 0 && min + (count - 1) * increment > max)
+		{
+			count--;
+		}
 
-				solutions.add(solution);
+		while (min + count * increment <= max)
+		{
+			count++;
+		}
 
-				continue;
-			}
+		return count;
+	}
+
+	/**
+	 * Returns the value of the specified variable after the specified number
+	 * of steps along its grid, which is computed exactly rather than by
+	 * accumulating the increments.
+	 *
+	 * @param variable
+	 *            : Index of the variable.
+	 * @param step
+	 *            : Number of steps taken.
+	 * @return Value of the variable.
+	 */
+	private double getValue(int variable, long step)
+	{
+		return min[variable] + step * increment[variable];
+	}
 
-			recurse(cursor + 1);
+	/**
+	 * Returns whether all permutations sharing the specified values of the
+	 * variables up to the specified cursor are proven to be infeasible, as
+	 * the box spanned by the remaining variables is.
+	 *
+	 * @param digits
+	 *            : Steps taken along the grid of each variable.
+	 * @param cursor
+	 *            : Index of the last variable whose value is set.
+	 * @return True if all permutations are infeasible, false otherwise.
+	 */
+	private boolean isInfeasible(long[] digits, int cursor)
+	{
+		final double[] lower = min.clone();
+		final double[] upper = max.clone();
+
+		for (int i = 0; i <= cursor; i++)
+		{
+			lower[i] = getValue(i, digits[i]);
+			upper[i] = lower[i];
 		}
+
+		return template.isInfeasible(lower, upper);
+	}
+
+	@Override
+	public long size()
+	{
+		return size;
+	}
+
+	@Override
+	public CandidateStream stream(long from, long to)
+	{
+		return new Odometer(from, to);
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,284 @@
+package uk.co.blogspot.rafaelzig.core.datastructure;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.moeaframework.core.NondominatedPopulation;
+import org.moeaframework.core.Solution;
+
+/**
+ * Benchmark of the insert throughput of {@link NondominatedArchive} against
+ * that of NondominatedPopulation, for archives of 10^3 to 10^6 solutions.
+ * A NondominatedArchive is filled with solutions spread over a simplex, and
+ * a NondominatedPopulation is given the solutions it keeps without comparing
+ * them, after which the same probes are added to both archives. Probes are
+ * spread over the same simplex moved slightly towards or away from the
+ * origin, therefore each one either dominates a few solutions archived or is
+ * dominated by some, keeping the size of the archives roughly constant. The
+ * archives are then checked to hold the same solutions in the same order.
+ * Before that, both are checked to agree on edge cases, such as solutions
+ * with infinite objectives.
+ * <p>
+ * The arguments given are the numbers of objectives to be benchmarked, which
+ * are 2, 3 and 5 by default.
+ *
+ * @author Rafael da Silva Costa - BSc Computer Science 3rd Year
+ *
+ */
+public final class ArchiveBenchmark
+{
+	/**
+	 * NondominatedPopulation which may be filled without comparing solutions,
+	 * as filling it otherwise takes time quadratic in its size.
+	 */
+	private static final class FilledPopulation extends NondominatedPopulation
+	{
+		/**
+		 * Adds the specified solutions, which must be mutually non-dominated.
+		 *
+		 * @param solutions
+		 *            : Solutions to be added.
+		 */
+		private void fill(Iterable<Solution> solutions)
+		{
+			solutions.forEach(this::forceAddWithoutCheck);
+		}
+	}
+
+	/**
+	 * Sizes of the archives benchmarked.
+	 */
+	private static final int[]	SIZES	= { 1000, 10000, 100000, 1000000 };
+
+	/**
+	 * Number of probes added to each archive.
+	 */
+	private static final int	PROBES	= 1000;
+
+	/**
+	 * Greatest relative distance of a probe from the front.
+	 */
+	private static final double	SHIFT	= 1e-3;
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private ArchiveBenchmark()
+	{
+	}
+
+	/**
+	 * Returns whether a NondominatedArchive and a NondominatedPopulation keep
+	 * the same solutions in the same order on edge cases of the specified
+	 * number of objectives: solutions sharing an infinite first objective
+	 * followed by one dominating them, and more solutions than a leaf of the
+	 * tree holds whose objectives are all infinite.
+	 *
+	 * @param objectives
+	 *            : Number of objectives.
+	 * @return True if the archives agree on every edge case, false otherwise.
+	 */
+	private static boolean isSameOnEdgeCases(int objectives)
+	{
+		final List<List<Solution>> cases = new ArrayList<>();
+		List<Solution> solutions = new ArrayList<>();
+
+		for (int i = 0; i < 3; i++)
+		{
+			solutions.add(newSolution(objectives, Double.POSITIVE_INFINITY, 1.0));
+		}
+
+		solutions.add(newSolution(objectives, 5.0, 1.0));
+		cases.add(solutions);
+		solutions = new ArrayList<>();
+
+		for (int i = 0; i < 30; i++)
+		{
+			solutions.add(newSolution(objectives, Double.POSITIVE_INFINITY,
+					Double.POSITIVE_INFINITY));
+		}
+
+		cases.add(solutions);
+
+		for (final List<Solution> list : cases)
+		{
+			if (!isSame(new NondominatedArchive(list), new NondominatedPopulation(list)))
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns whether the specified archives hold the same solutions in the
+	 * same order.
+	 *
+	 * @param first
+	 *            : First archive.
+	 * @param second
+	 *            : Second archive.
+	 * @return True if the archives are the same, false otherwise.
+	 */
+	private static boolean isSame(NondominatedPopulation first,
+			NondominatedPopulation second)
+	{
+		if (first.size() != second.size())
+		{
+			return false;
+		}
+
+		final Iterator<Solution> iterator = second.iterator();
+
+		for (final Solution solution : first)
+		{
+			if (solution != iterator.next())
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Runs the benchmark for each archive size and number of objectives.
+	 *
+	 * @param args
+	 *            : Numbers of objectives to be benchmarked.
+	 */
+	public static void main(String[] args)
+	{
+		final int[] objectives = args.length == 0 ? new int[] { 2, 3, 5 }
+				: new int[args.length];
+
+		for (int i = 0; i < args.length; i++)
+		{
+			objectives[i] = Integer.parseInt(args[i]);
+		}
+
+		System.out.printf("%-10s %-10s %-20s %-20s %-23s %s%n", "Objectives", "Size",
+				"Fill (inserts/s)", "Archive (inserts/s)", "Population (inserts/s)",
+				"Same front");
+
+		for (final int count : objectives)
+		{
+			System.out.printf("%-10d %-10s %s%n", count, "Edge cases",
+					isSameOnEdgeCases(count));
+
+			for (final int size : SIZES)
+			{
+				run(count, size);
+			}
+		}
+	}
+
+	/**
+	 * Returns a solution of the specified number of objectives, whose first
+	 * objective is the specified value and whose other objectives are the
+	 * other specified value.
+	 *
+	 * @param objectives
+	 *            : Number of objectives.
+	 * @param first
+	 *            : First objective.
+	 * @param rest
+	 *            : Other objectives.
+	 * @return Solution of the specified objectives.
+	 */
+	private static Solution newSolution(int objectives, double first, double rest)
+	{
+		final Solution solution = new Solution(0, objectives);
+
+		for (int i = 0; i < objectives; i++)
+		{
+			solution.setObjective(i, i == 0 ? first : rest);
+		}
+
+		return solution;
+	}
+
+	/**
+	 * Returns a solution of the specified number of objectives, whose
+	 * objectives are spread uniformly over the simplex and sum to the
+	 * specified scale.
+	 *
+	 * @param random
+	 *            : Source of randomness.
+	 * @param objectives
+	 *            : Number of objectives.
+	 * @param scale
+	 *            : Sum of the objectives.
+	 * @return Solution on the simplex.
+	 */
+	private static Solution newSolution(Random random, int objectives, double scale)
+	{
+		final Solution solution = new Solution(0, objectives);
+		final double[] values = new double[objectives];
+		double sum = 0.0;
+
+		for (int i = 0; i < objectives; i++)
+		{
+			values[i] = -Math.log(1.0 - random.nextDouble());
+			sum += values[i];
+		}
+
+		for (int i = 0; i < objectives; i++)
+		{
+			solution.setObjective(i, values[i] / sum * scale);
+		}
+
+		return solution;
+	}
+
+	/**
+	 * Benchmarks archives of the specified size and number of objectives,
+	 * printing the throughput of filling a NondominatedArchive and of adding
+	 * the probes to both archives.
+	 *
+	 * @param objectives
+	 *            : Number of objectives.
+	 * @param size
+	 *            : Number of solutions of the front.
+	 */
+	private static void run(int objectives, int size)
+	{
+		final Random random = new Random(size * 31L + objectives);
+		final List<Solution> front = new ArrayList<>(size);
+
+		for (int i = 0; i < size; i++)
+		{
+			front.add(newSolution(random, objectives, 1.0));
+		}
+
+		final List<Solution> probes = new ArrayList<>(PROBES);
+
+		for (int i = 0; i < PROBES; i++)
+		{
+			final double shift = (2.0 * random.nextDouble() - 1.0) * SHIFT;
+			probes.add(newSolution(random, objectives, 1.0 + shift));
+		}
+
+		final NondominatedArchive archive = new NondominatedArchive();
+		long start = System.nanoTime();
+		archive.addAll(front);
+		final double fill = size / ((System.nanoTime() - start) / 1e9);
+
+		final FilledPopulation population = new FilledPopulation();
+		population.fill(archive);
+
+		start = System.nanoTime();
+		archive.addAll(probes);
+		final double archiveRate = PROBES / ((System.nanoTime() - start) / 1e9);
+
+		start = System.nanoTime();
+		population.addAll(probes);
+		final double populationRate = PROBES / ((System.nanoTime() - start) / 1e9);
+
+		System.out.printf("%-10d %-10d %-20.0f %-20.0f %-23.0f %s%n", objectives, size,
+				fill, archiveRate, populationRate, isSame(archive, population));
+	}
+}
@@ -0,0 +1,405 @@
+package uk.co.blogspot.rafaelzig.core.datastructure;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.moeaframework.core.Solution;
+
+/**
+ * Archive of non-dominated solutions which several threads may add
+ * solutions to at once. Each solution is added along with its position in
+ * the order the solutions would be added by a single thread, such as the
+ * index of a candidate solution, and is archived into one of several
+ * stripes, each one locked separately, therefore threads rarely wait for one
+ * another. A solution is only compared with the solutions of its stripe,
+ * and the stripes are merged in order of position once the archive is
+ * requested, so that the archive does not depend on which thread added which
+ * solution, as long as no solutions duplicating each other are removed along
+ * the way.
+ * <p>
+ * The solutions archived so far may be read at any time without waiting for
+ * the threads adding solutions, as each stripe publishes a copy of its
+ * solutions once one is requested, and the copies published are merged.
+ *
+ * @author Rafael da Silva Costa - BSc Computer Science 3rd Year
+ *
+ */
+public class ConcurrentArchive
+{
+	/**
+	 * Copy of the solutions of a stripe, along with their positions.
+	 * Instances of this class are immutable.
+	 */
+	private static final class Copy
+	{
+		/**
+		 * Copy without any solution.
+		 */
+		private static final Copy	EMPTY		= new Copy(new Solution[0], new long[0]);
+
+		/**
+		 * Solutions of the stripe.
+		 */
+		private final Solution[]	solutions;
+
+		/**
+		 * Positions of the solutions.
+		 */
+		private final long[]		positions;
+
+		/**
+		 * Constructs a new instance of Copy with the specified solutions.
+		 *
+		 * @param solutions
+		 *            : Solutions of the stripe.
+		 * @param positions
+		 *            : Positions of the solutions.
+		 */
+		private Copy(Solution[] solutions, long[] positions)
+		{
+			this.solutions = solutions;
+			this.positions = positions;
+		}
+	}
+
+	/**
+	 * Stripe of the archive, holding the solutions added by the threads which
+	 * have locked it.
+	 */
+	private static final class Stripe
+	{
+		/**
+		 * Lock of the stripe.
+		 */
+		private final ReentrantLock			lock		= new ReentrantLock();
+
+		/**
+		 * Solutions of the stripe.
+		 */
+		private final NondominatedArchive	archive		= new NondominatedArchive();
+
+		/**
+		 * Copy of the solutions of the stripe last published.
+		 */
+		private volatile Copy				published	= Copy.EMPTY;
+
+		/**
+		 * Whether the solutions of the stripe have changed since they were
+		 * last published.
+		 */
+		private volatile boolean			modified;
+
+		/**
+		 * Whether a copy of the solutions has been requested since they were
+		 * last published.
+		 */
+		private volatile boolean			requested;
+
+		/**
+		 * Publishes a copy of the solutions of the stripe, which must be
+		 * locked.
+		 */
+		private void publish()
+		{
+			final Solution[] solutions = new Solution[archive.size()];
+			final long[] positions = new long[solutions.length];
+
+			for (int i = 0; i < solutions.length; i++)
+			{
+				solutions[i] = archive.get(i);
+				positions[i] = archive.getPosition(i);
+			}
+
+			published = new Copy(solutions, positions);
+			modified = false;
+			requested = false;
+		}
+
+		/**
+		 * Releases the lock of the stripe, having published its solutions if
+		 * a copy of them has been requested.
+		 */
+		private void unlock()
+		{
+			if (requested && modified)
+			{
+				publish();
+			}
+
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Stripes of the archive, whose number is a power of two.
+	 */
+	private final Stripe[]	stripes;
+
+	/**
+	 * Constructs a new empty instance of ConcurrentArchive, with two stripes
+	 * for each processor available.
+	 */
+	public ConcurrentArchive()
+	{
+		stripes = new Stripe[Integer.highestOneBit(Runtime.getRuntime()
+				.availableProcessors()) * 2];
+
+		for (int i = 0; i < stripes.length; i++)
+		{
+			stripes[i] = new Stripe();
+		}
+	}
+
+	/**
+	 * Adds the specified solution at the specified position.
+	 *
+	 * @param solution
+	 *            : Solution to be added.
+	 * @param position
+	 *            : Position of the solution, which must differ from that of
+	 *            any other solution added.
+	 * @return True if the solution is archived by its stripe, false if it is
+	 *         dominated or duplicated by a solution of its stripe.
+	 */
+	public boolean add(Solution solution, long position)
+	{
+		final Stripe stripe = lock();
+
+		try
+		{
+			final boolean added = stripe.archive.add(solution, position);
+			stripe.modified |= added;
+			return added;
+		}
+		finally
+		{
+			stripe.unlock();
+		}
+	}
+
+	/**
+	 * Adds the specified solutions at consecutive positions, locking a single
+	 * stripe once.
+	 *
+	 * @param solutions
+	 *            : Solutions to be added.
+	 * @param position
+	 *            : Position of the first solution, which is followed by those
+	 *            of the others.
+	 */
+	public void addAll(Solution[] solutions, long position)
+	{
+		final Stripe stripe = lock();
+
+		try
+		{
+			for (int i = 0; i < solutions.length; i++)
+			{
+				stripe.modified |= stripe.archive.add(solutions[i], position + i);
+			}
+		}
+		finally
+		{
+			stripe.unlock();
+		}
+	}
+
+	/**
+	 * Removes every solution of the archive.
+	 */
+	public void clear()
+	{
+		for (final Stripe stripe : stripes)
+		{
+			stripe.lock.lock();
+
+			try
+			{
+				stripe.archive.clear();
+				stripe.publish();
+			}
+			finally
+			{
+				stripe.lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Returns the non-dominated solutions of the archive, in order of
+	 * position. Each stripe is locked in turn while its solutions are copied,
+	 * therefore the result only includes every solution added if no solution
+	 * is being added.
+	 *
+	 * @return Archive of the non-dominated solutions.
+	 */
+	public NondominatedArchive getArchive()
+	{
+		final List<Copy> copies = new ArrayList<>(stripes.length);
+
+		for (final Stripe stripe : stripes)
+		{
+			stripe.lock.lock();
+
+			try
+			{
+				if (stripe.modified)
+				{
+					stripe.publish();
+				}
+
+				copies.add(stripe.published);
+			}
+			finally
+			{
+				stripe.lock.unlock();
+			}
+		}
+
+		return merge(copies);
+	}
+
+	/**
+	 * Returns whether no solution has been archived.
+	 *
+	 * @return True if the archive is empty, false otherwise.
+	 */
+	public boolean isEmpty()
+	{
+		for (final Stripe stripe : stripes)
+		{
+			stripe.lock.lock();
+
+			try
+			{
+				if (!stripe.archive.isEmpty())
+				{
+					return false;
+				}
+			}
+			finally
+			{
+				stripe.lock.unlock();
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Locks the stripe of the calling thread, or the next one which is not
+	 * locked should it be locked by another thread.
+	 *
+	 * @return Stripe locked.
+	 */
+	private Stripe lock()
+	{
+		final int home = (int) Thread.currentThread().getId();
+
+		for (int i = 0; i < stripes.length; i++)
+		{
+			final Stripe stripe = stripes[home + i & stripes.length - 1];
+
+			if (stripe.lock.tryLock())
+			{
+				return stripe;
+			}
+		}
+
+		final Stripe stripe = stripes[home & stripes.length - 1];
+		stripe.lock.lock();
+		return stripe;
+	}
+
+	/**
+	 * Merges the specified copies of the solutions of the stripes in order of
+	 * position, only adding the solutions of the first front of the copies,
+	 * as the others would be rejected or removed.
+	 *
+	 * @param copies
+	 *            : Copy of the solutions of each stripe.
+	 * @return Archive of the non-dominated solutions.
+	 */
+	private static NondominatedArchive merge(List<Copy> copies)
+	{
+		final List<Solution> all = new ArrayList<>();
+		final List<Long> order = new ArrayList<>();
+
+		for (final Copy copy : copies)
+		{
+			for (int i = 0; i < copy.solutions.length; i++)
+			{
+				all.add(copy.solutions[i]);
+				order.add(copy.positions[i]);
+			}
+		}
+
+		final Integer[] indexes = new Integer[all.size()];
+		Arrays.setAll(indexes, i -> i);
+		Arrays.sort(indexes, Comparator.comparing(order::get));
+
+		final List<Solution> sorted = new ArrayList<>(indexes.length);
+
+		for (final int index : indexes)
+		{
+			sorted.add(all.get(index));
+		}
+
+		final int[] ranks = NondominatedSorting.rank(sorted);
+		final NondominatedArchive archive = new NondominatedArchive();
+
+		for (int i = 0; i < indexes.length; i++)
+		{
+			if (ranks == null || ranks[i] == 0)
+			{
+				archive.add(sorted.get(i), order.get(indexes[i]));
+			}
+		}
+
+		return archive;
+	}
+
+	/**
+	 * Returns the non-dominated solutions archived so far, in order of
+	 * position, without waiting for the threads adding solutions. The
+	 * solutions of a stripe being added to are those it last published, and
+	 * it publishes them again once the thread adding to it is done.
+	 *
+	 * @return Unmodifiable list of the non-dominated solutions.
+	 */
+	public List<Solution> snapshot()
+	{
+		final List<Copy> copies = new ArrayList<>(stripes.length);
+
+		for (final Stripe stripe : stripes)
+		{
+			if (stripe.modified)
+			{
+				stripe.requested = true;
+
+				// An idle stripe is published here instead
+				if (stripe.lock.tryLock())
+				{
+					try
+					{
+						stripe.publish();
+					}
+					finally
+					{
+						stripe.lock.unlock();
+					}
+				}
+			}
+
+			copies.add(stripe.published);
+		}
+
+		final List<Solution> result = new ArrayList<>();
+		merge(copies).forEach(result::add);
+		return Collections.unmodifiableList(result);
+	}
+}
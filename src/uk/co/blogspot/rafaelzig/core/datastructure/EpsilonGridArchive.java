@@ -0,0 +1,368 @@
+package uk.co.blogspot.rafaelzig.core.datastructure;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.moeaframework.core.Settings;
+import org.moeaframework.core.Solution;
+import org.moeaframework.core.comparator.DominanceComparator;
+import org.moeaframework.core.comparator.ParetoDominanceComparator;
+
+/**
+ * Archive of non-dominated solutions keeping at most one solution within
+ * each box of a grid over the objectives, whose sides are the epsilon values
+ * of the objectives. The box of a solution added is looked up in a hash
+ * table, therefore a solution is rejected at once unless it dominates the
+ * solution representing its box, and only solutions reaching an empty box
+ * are compared with the rest of the archive. The first solution reaching a
+ * box represents it until a solution dominating it is added.
+ * <p>
+ * The archive holds at most the specified number of solutions. Once a
+ * solution added exceeds it, the epsilon values are doubled and the solutions
+ * archived are added again in order, until they fit. If no epsilon values
+ * are specified, they are first set to the range of each objective divided by
+ * the maximum number of solutions. Boxes are bounded by multiples of the
+ * epsilon values, therefore objectives of opposite signs never share a box,
+ * and once doubling can merge no more boxes only the solutions archived first
+ * are kept, up to the maximum number.
+ *
+ * @author Rafael da Silva Costa - BSc Computer Science 3rd Year
+ *
+ */
+public class EpsilonGridArchive extends NondominatedArchive
+{
+	/**
+	 * Box of the grid, given by the index of the interval of each objective.
+	 */
+	private static final class Box
+	{
+		/**
+		 * Index of the interval of each objective.
+		 */
+		private final long[]	indexes;
+
+		/**
+		 * Constructs a new instance of Box with the specified indexes.
+		 *
+		 * @param indexes
+		 *            : Index of the interval of each objective.
+		 */
+		private Box(long[] indexes)
+		{
+			this.indexes = indexes;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			return obj instanceof Box && Arrays.equals(indexes, ((Box) obj).indexes);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return Arrays.hashCode(indexes);
+		}
+	}
+
+	/**
+	 * Comparator deciding whether a solution replaces the one representing its
+	 * box.
+	 */
+	private static final DominanceComparator	DOMINANCE	= new ParetoDominanceComparator();
+
+	/**
+	 * Solution representing each box occupied.
+	 */
+	private final Map<Box, Solution>			boxes		= new HashMap<>();
+
+	/**
+	 * Maximum number of solutions archived.
+	 */
+	private final int							capacity;
+
+	/**
+	 * Epsilon value of each objective, the last one applying to any further
+	 * objective, or null until the archive first exceeds its capacity.
+	 */
+	private double[]							epsilon;
+
+	/**
+	 * Constructs a new empty instance of EpsilonGridArchive with the specified
+	 * epsilon values and maximum number of solutions.
+	 *
+	 * @param epsilon
+	 *            : Epsilon value of each objective, the last one applying to
+	 *            any further objective, or null if they are to be derived
+	 *            from the solutions once the archive exceeds its capacity.
+	 * @param capacity
+	 *            : Maximum number of solutions archived, or 0 if the number
+	 *            of solutions is not limited.
+	 */
+	public EpsilonGridArchive(double[] epsilon, int capacity)
+	{
+		super();
+		this.epsilon = epsilon == null || epsilon.length == 0 ? null : epsilon.clone();
+		this.capacity = capacity > 0 ? capacity : Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Constructs a new instance of EpsilonGridArchive with the specified
+	 * epsilon values and maximum number of solutions, adding the specified
+	 * solutions in order.
+	 *
+	 * @param epsilon
+	 *            : Epsilon value of each objective, the last one applying to
+	 *            any further objective, or null if they are to be derived
+	 *            from the solutions once the archive exceeds its capacity.
+	 * @param capacity
+	 *            : Maximum number of solutions archived, or 0 if the number
+	 *            of solutions is not limited.
+	 * @param solutions
+	 *            : Solutions to be added.
+	 */
+	public EpsilonGridArchive(double[] epsilon, int capacity,
+			Iterable<? extends Solution> solutions)
+	{
+		this(epsilon, capacity);
+		addAll(solutions);
+	}
+
+	@Override
+	public boolean add(Solution solution)
+	{
+		if (!archive(solution))
+		{
+			return false;
+		}
+		else if (size() <= capacity)
+		{
+			return true;
+		}
+
+		coarsen();
+		return boxes.get(getBox(solution)) == solution;
+	}
+
+	/**
+	 * Adds the specified solution unless the solution representing its box is
+	 * not dominated by it, without regard to the capacity of the archive.
+	 *
+	 * @param solution
+	 *            : Solution to be added.
+	 * @return True if the solution is archived, false otherwise.
+	 */
+	private boolean archive(Solution solution)
+	{
+		if (epsilon == null)
+		{
+			return super.add(solution);
+		}
+
+		final Box box = getBox(solution);
+		final Solution representative = boxes.get(box);
+
+		if (representative != null && DOMINANCE.compare(solution, representative) >= 0)
+		{
+			return false;
+		}
+
+		// The representative dominated is removed along with its box
+		if (!super.add(solution))
+		{
+			return false;
+		}
+
+		boxes.put(box, solution);
+		return true;
+	}
+
+	@Override
+	public void clear()
+	{
+		super.clear();
+		boxes.clear();
+	}
+
+	/**
+	 * Doubles the epsilon values, or derives them from the solutions archived
+	 * if there are none yet, and adds the solutions archived again in order
+	 * until the archive no longer exceeds its capacity. If doubling can merge
+	 * no more boxes, the solutions archived first are kept instead.
+	 */
+	private void coarsen()
+	{
+		final List<Solution> solutions = new ArrayList<>(size());
+		forEach(solutions::add);
+
+		do
+		{
+			if (epsilon == null)
+			{
+				epsilon = deriveEpsilon(solutions);
+			}
+			else if (isSaturated(solutions))
+			{
+				clear();
+
+				for (int i = 0; i < solutions.size() && size() < capacity; i++)
+				{
+					archive(solutions.get(i));
+				}
+
+				return;
+			}
+			else
+			{
+				for (int i = 0; i < epsilon.length; i++)
+				{
+					epsilon[i] *= 2.0;
+				}
+			}
+
+			clear();
+			solutions.forEach(this::archive);
+		}
+		while (size() > capacity);
+	}
+
+	/**
+	 * Returns the epsilon values dividing the range of each objective of the
+	 * specified solutions into as many intervals as the archive may hold
+	 * solutions. Objectives whose range is empty or undefined are given the
+	 * smallest epsilon value distinguishing solutions.
+	 *
+	 * @param solutions
+	 *            : Solutions archived.
+	 * @return Epsilon value of each objective.
+	 */
+	private double[] deriveEpsilon(List<Solution> solutions)
+	{
+		final double[] result = new double[solutions.get(0).getNumberOfObjectives()];
+
+		for (int i = 0; i < result.length; i++)
+		{
+			double min = Double.POSITIVE_INFINITY;
+			double max = Double.NEGATIVE_INFINITY;
+
+			for (final Solution solution : solutions)
+			{
+				final double objective = solution.getObjective(i);
+
+				if (!Double.isInfinite(objective) && !Double.isNaN(objective))
+				{
+					min = Math.min(min, objective);
+					max = Math.max(max, objective);
+				}
+			}
+
+			final double range = (max - min) / capacity;
+			result[i] = range > Settings.EPS ? range : Settings.EPS;
+		}
+
+		return result;
+	}
+
+	@Override
+	protected boolean forceAddWithoutCheck(Solution solution)
+	{
+		if (epsilon != null)
+		{
+			boxes.putIfAbsent(getBox(solution), solution);
+		}
+
+		return super.forceAddWithoutCheck(solution);
+	}
+
+	/**
+	 * Returns the box of the grid containing the specified solution.
+	 *
+	 * @param solution
+	 *            : Solution whose box is returned.
+	 * @return Box of the solution.
+	 */
+	private Box getBox(Solution solution)
+	{
+		final long[] indexes = new long[solution.getNumberOfObjectives()];
+
+		for (int i = 0; i < indexes.length; i++)
+		{
+			indexes[i] = (long) Math.floor(solution.getObjective(i)
+					/ epsilon[Math.min(i, epsilon.length - 1)]);
+		}
+
+		return new Box(indexes);
+	}
+
+	/**
+	 * Returns whether doubling the epsilon values would merge no boxes of the
+	 * specified solutions, as every finite objective already lies within one
+	 * epsilon value of zero, in the box either side of it.
+	 *
+	 * @param solutions
+	 *            : Solutions archived.
+	 * @return True if no boxes would be merged, false otherwise.
+	 */
+	private boolean isSaturated(List<Solution> solutions)
+	{
+		for (final Solution solution : solutions)
+		{
+			for (int i = 0; i < solution.getNumberOfObjectives(); i++)
+			{
+				final double objective = solution.getObjective(i);
+				final double side = epsilon[Math.min(i, epsilon.length - 1)];
+
+				if (Double.isFinite(objective) && Math.abs(objective) >= side)
+				{
+					return false;
+				}
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns the epsilon values currently in use, which are derived or
+	 * doubled as the archive exceeds its capacity.
+	 *
+	 * @return Copy of the epsilon value of each objective, or null if none
+	 *         has been specified or derived yet.
+	 */
+	public double[] getEpsilon()
+	{
+		return epsilon == null ? null : epsilon.clone();
+	}
+
+	@Override
+	void removed(Solution solution)
+	{
+		if (epsilon != null)
+		{
+			boxes.remove(getBox(solution), solution);
+		}
+	}
+
+	/**
+	 * Sets the epsilon values in use, such as those of an archive being
+	 * restored, which must be empty.
+	 *
+	 * @param epsilon
+	 *            : Epsilon value of each objective, the last one applying to
+	 *            any further objective.
+	 * @throws IllegalStateException
+	 *             If the archive is not empty.
+	 */
+	public void setEpsilon(double[] epsilon)
+	{
+		if (!isEmpty())
+		{
+			throw new IllegalStateException("archive is not empty");
+		}
+
+		this.epsilon = epsilon == null || epsilon.length == 0 ? null : epsilon.clone();
+	}
+}
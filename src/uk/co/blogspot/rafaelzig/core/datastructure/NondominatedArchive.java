@@ -0,0 +1,1143 @@
+package uk.co.blogspot.rafaelzig.core.datastructure;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+import org.moeaframework.core.NondominatedPopulation;
+import org.moeaframework.core.Settings;
+import org.moeaframework.core.Solution;
+import org.moeaframework.core.comparator.AggregateConstraintComparator;
+import org.moeaframework.core.comparator.DominanceComparator;
+
+/**
+ * Archive of non-dominated solutions keeping the same solutions, in the same
+ * order, as a NondominatedPopulation with the default dominance comparator,
+ * while only comparing each solution added with the solutions it may be
+ * dominated by, dominate or duplicate. Solutions of two objectives are kept
+ * sorted by their first objective, the second one then being sorted in
+ * reverse, and solutions of more objectives are indexed by an ND-Tree, whose
+ * nodes bound the objectives of the solutions below them so that whole
+ * branches are skipped. Solutions with undefined or infinite objectives are
+ * compared with every solution of the archive instead, as their dominance is
+ * not ordered and their distances are undefined.
+ * <p>
+ * The solutions archived must not be modified, as their objectives are
+ * indexed once added.
+ *
+ * @author Rafael da Silva Costa - BSc Computer Science 3rd Year
+ *
+ */
+public class NondominatedArchive extends NondominatedPopulation
+{
+	/**
+	 * Solution kept by the archive, linked to those archived before and after
+	 * it.
+	 */
+	private static final class Entry
+	{
+		/**
+		 * Solution archived.
+		 */
+		private final Solution	solution;
+
+		/**
+		 * Objectives of the solution.
+		 */
+		private final double[]	objectives;
+
+		/**
+		 * Position of the solution in the order the solutions are considered
+		 * to have been added.
+		 */
+		private long			order;
+
+		/**
+		 * Solution archived before this one, or null if it is the first.
+		 */
+		private Entry			previous;
+
+		/**
+		 * Solution archived after this one, or null if it is the last.
+		 */
+		private Entry			next;
+
+		/**
+		 * Leaf of the tree containing the solution, or null if the solution is
+		 * not indexed by a tree.
+		 */
+		private Node			leaf;
+
+		/**
+		 * Constructs a new instance of Entry for the specified solution.
+		 *
+		 * @param solution
+		 *            : Solution archived.
+		 * @param order
+		 *            : Position of the solution in the order the solutions
+		 *            are considered to have been added.
+		 */
+		private Entry(Solution solution, long order)
+		{
+			this.solution = solution;
+			this.order = order;
+			objectives = solution.getObjectives();
+		}
+	}
+
+	/**
+	 * Node of the ND-Tree, bounding the objectives of the solutions below it
+	 * by an ideal and a nadir point. The bounds are widened as solutions are
+	 * added, but left as they are when solutions are removed, therefore they
+	 * may be loose but are never crossed.
+	 */
+	private static final class Node
+	{
+		/**
+		 * Lowest value of each objective of the solutions below the node.
+		 */
+		private final double[]	ideal;
+
+		/**
+		 * Highest value of each objective of the solutions below the node.
+		 */
+		private final double[]	nadir;
+
+		/**
+		 * Parent of the node, or null if it is the root.
+		 */
+		private Node			parent;
+
+		/**
+		 * Children of the node, or null if it is a leaf.
+		 */
+		private List<Node>		children;
+
+		/**
+		 * Solutions of the node, or null if it is not a leaf.
+		 */
+		private List<Entry>		entries		= new ArrayList<>(MAX_LEAF_SIZE + 1);
+
+		/**
+		 * Constructs a new instance of Node as a leaf bounding the specified
+		 * objectives.
+		 *
+		 * @param parent
+		 *            : Parent of the node, or null if it is the root.
+		 * @param objectives
+		 *            : Objectives of the first solution of the node.
+		 */
+		private Node(Node parent, double[] objectives)
+		{
+			this.parent = parent;
+			ideal = objectives.clone();
+			nadir = objectives.clone();
+		}
+
+		/**
+		 * Adds the specified solution to the leaf.
+		 *
+		 * @param entry
+		 *            : Solution to be added.
+		 */
+		private void add(Entry entry)
+		{
+			widen(entry.objectives);
+			entries.add(entry);
+			entry.leaf = this;
+		}
+
+		/**
+		 * Returns the squared distance between the specified objectives and
+		 * the midpoint of the bounds of the node.
+		 *
+		 * @param objectives
+		 *            : Objectives of a solution.
+		 * @return Squared distance.
+		 */
+		private double distance(double[] objectives)
+		{
+			double sum = 0.0;
+
+			for (int i = 0; i < objectives.length; i++)
+			{
+				final double difference = objectives[i] - (ideal[i] + nadir[i]) / 2;
+				sum += difference * difference;
+			}
+
+			return sum;
+		}
+
+		/**
+		 * Returns whether no solution is below the node.
+		 *
+		 * @return True if the node is empty, false otherwise.
+		 */
+		private boolean isEmpty()
+		{
+			return children == null ? entries.isEmpty() : children.isEmpty();
+		}
+
+		/**
+		 * Widens the bounds of the node to include the specified objectives.
+		 *
+		 * @param objectives
+		 *            : Objectives of a solution.
+		 */
+		private void widen(double[] objectives)
+		{
+			for (int i = 0; i < objectives.length; i++)
+			{
+				ideal[i] = Math.min(ideal[i], objectives[i]);
+				nadir[i] = Math.max(nadir[i], objectives[i]);
+			}
+		}
+	}
+
+	/**
+	 * Maximum number of solutions of a leaf of the tree, beyond which it is
+	 * split.
+	 */
+	private static final int					MAX_LEAF_SIZE	= 20;
+
+	/**
+	 * Greatest difference of an objective between two solutions which may be
+	 * closer than the distance below which they duplicate each other, leaving
+	 * a margin for rounding.
+	 */
+	private static final double					MARGIN			= 2 * Settings.EPS;
+
+	/**
+	 * Comparator of the constraint violations of solutions, which takes
+	 * precedence over their objectives.
+	 */
+	private static final DominanceComparator	CONSTRAINTS		= new AggregateConstraintComparator();
+
+	/**
+	 * First solution archived, or null if the archive is empty.
+	 */
+	private Entry								head;
+
+	/**
+	 * Last solution archived, or null if the archive is empty.
+	 */
+	private Entry								tail;
+
+	/**
+	 * Number of solutions archived.
+	 */
+	private int									size;
+
+	/**
+	 * Position given to the next solution added, which follows the position
+	 * of every solution added so far.
+	 */
+	private long								order;
+
+	/**
+	 * Number of objectives of the solutions indexed, or 0 if the archive is
+	 * empty.
+	 */
+	private int									objectives;
+
+	/**
+	 * Whether each solution added is compared with every solution archived,
+	 * as they are no longer indexed.
+	 */
+	private boolean								exhaustive;
+
+	/**
+	 * Solutions of two objectives keyed by their first objective.
+	 */
+	private final TreeMap<Double, Entry>		front			= new TreeMap<>();
+
+	/**
+	 * Root of the tree indexing solutions of more objectives, or null if none
+	 * is indexed.
+	 */
+	private Node								root;
+
+	/**
+	 * Solutions archived by index, or null until requested after the archive
+	 * has changed.
+	 */
+	private List<Entry>							positions;
+
+	/**
+	 * Solutions dominated by the solution being added.
+	 */
+	private final List<Entry>					dominated		= new ArrayList<>();
+
+	/**
+	 * Solutions duplicated by the solution being added.
+	 */
+	private final List<Entry>					duplicates		= new ArrayList<>();
+
+	/**
+	 * Nodes of the tree yet to be visited.
+	 */
+	private final Deque<Node>					nodes			= new ArrayDeque<>();
+
+	/**
+	 * Constructs a new empty instance of NondominatedArchive.
+	 */
+	public NondominatedArchive()
+	{
+		super();
+	}
+
+	/**
+	 * Constructs a new instance of NondominatedArchive adding the specified
+	 * solutions in order.
+	 *
+	 * @param solutions
+	 *            : Solutions to be added.
+	 */
+	public NondominatedArchive(Iterable<? extends Solution> solutions)
+	{
+		this();
+		addAll(solutions);
+	}
+
+	@Override
+	public boolean add(Solution solution)
+	{
+		return add(solution, order);
+	}
+
+	/**
+	 * Adds the specified solution as if it had been added at the specified
+	 * position of the order the solutions are added in, rather than after
+	 * every solution added so far. Solutions which would have been rejected
+	 * had they been added after it are removed, therefore solutions added in
+	 * any order with their positions are archived as if they had been added
+	 * in order of position, unless solutions duplicating each other are
+	 * removed along the way. The solutions are still iterated in the order
+	 * they were added.
+	 *
+	 * @param solution
+	 *            : Solution to be added.
+	 * @param position
+	 *            : Position of the solution, which must differ from that of
+	 *            any other solution added.
+	 * @return True if the solution is archived, false otherwise.
+	 */
+	boolean add(Solution solution, long position)
+	{
+		final Entry entry = new Entry(solution, position);
+
+		if (exhaustive || head != null && !isIndexable(solution))
+		{
+			return addExhaustively(entry);
+		}
+
+		if (head != null)
+		{
+			// The solutions archived share the same constraint violation
+			final int flag = CONSTRAINTS.compare(solution, head.solution);
+
+			if (flag > 0)
+			{
+				return false;
+			}
+			else if (flag < 0)
+			{
+				clear();
+			}
+		}
+
+		if (head == null)
+		{
+			if (!isIndexable(solution) || solution.getNumberOfObjectives() < 2)
+			{
+				exhaustive = true;
+				return addExhaustively(entry);
+			}
+
+			objectives = solution.getNumberOfObjectives();
+		}
+
+		dominated.clear();
+		duplicates.clear();
+
+		final boolean rejected = objectives == 2 ? classifyFront(entry)
+				: classifyTree(entry);
+
+		if (rejected || !resolve(entry))
+		{
+			return false;
+		}
+
+		link(entry);
+
+		if (objectives == 2)
+		{
+			front.put(getKey(entry.objectives[0]), entry);
+		}
+		else
+		{
+			insert(entry);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Adds the specified solution by comparing it with every solution
+	 * archived, in order.
+	 *
+	 * @param entry
+	 *            : Solution to be added.
+	 * @return True if the solution is archived, false otherwise.
+	 */
+	private boolean addExhaustively(Entry entry)
+	{
+		if (!exhaustive)
+		{
+			// The index is dropped for good
+			exhaustive = true;
+			front.clear();
+			root = null;
+		}
+
+		final boolean last = entry.order >= order;
+		dominated.clear();
+		duplicates.clear();
+
+		for (Entry other = head; other != null;)
+		{
+			final Entry next = other.next;
+			final int flag = getComparator().compare(entry.solution, other.solution);
+
+			if (flag > 0)
+			{
+				return false;
+			}
+			else if (flag < 0 && last)
+			{
+				remove(other);
+			}
+			else if (flag < 0)
+			{
+				dominated.add(other);
+			}
+			else if (distance(entry.solution, other.solution) < Settings.EPS)
+			{
+				if (last)
+				{
+					return false;
+				}
+
+				duplicates.add(other);
+			}
+
+			other = next;
+		}
+
+		if (!resolve(entry))
+		{
+			return false;
+		}
+
+		link(entry);
+		return true;
+	}
+
+	/**
+	 * Classifies the solutions archived with respect to the specified
+	 * solution of two objectives, collecting those it dominates and those it
+	 * duplicates. The solutions archived with a lower first objective have a
+	 * higher second one, therefore the only one which may dominate the
+	 * solution is that with the highest first objective not above that of
+	 * the solution, and those it dominates follow.
+	 *
+	 * @param entry
+	 *            : Solution being added.
+	 * @return True if the solution is dominated or duplicated by a solution
+	 *         archived, false otherwise.
+	 */
+	private boolean classifyFront(Entry entry)
+	{
+		final double x = entry.objectives[0];
+		final double y = entry.objectives[1];
+		final Double key = getKey(x);
+		final Map.Entry<Double, Entry> floor = front.floorEntry(key);
+
+		if (floor != null && compare(entry.objectives, floor.getValue().objectives) > 0)
+		{
+			return true;
+		}
+
+		for (Map.Entry<Double, Entry> lower = front.lowerEntry(key); lower != null
+				&& x - lower.getKey() <= MARGIN; lower = front.lowerEntry(lower.getKey()))
+		{
+			collectDuplicate(entry, lower.getValue());
+		}
+
+		for (Map.Entry<Double, Entry> higher = front.ceilingEntry(key); higher != null;
+				higher = front.higherEntry(higher.getKey()))
+		{
+			if (compare(entry.objectives, higher.getValue().objectives) < 0)
+			{
+				dominated.add(higher.getValue());
+			}
+			else if (higher.getKey() - x <= MARGIN)
+			{
+				collectDuplicate(entry, higher.getValue());
+			}
+			else
+			{
+				break;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Classifies the solutions indexed by the tree with respect to the
+	 * specified solution, collecting those it dominates and those it
+	 * duplicates. Nodes whose bounds cannot contain a solution dominating,
+	 * dominated by or duplicating the solution are skipped, and the search
+	 * stops as soon as a node is found whose nadir point dominates the
+	 * solution, as every solution of the node then dominates it.
+	 *
+	 * @param entry
+	 *            : Solution being added.
+	 * @return True if the solution is dominated or duplicated by a solution
+	 *         archived, false otherwise.
+	 */
+	private boolean classifyTree(Entry entry)
+	{
+		final double[] point = entry.objectives;
+		nodes.clear();
+
+		if (root != null)
+		{
+			nodes.push(root);
+		}
+
+		while (!nodes.isEmpty())
+		{
+			final Node node = nodes.pop();
+
+			if (compare(point, node.nadir) > 0)
+			{
+				return true;
+			}
+			else if (!covers(node.ideal, point, MARGIN) && !covers(point, node.nadir, MARGIN))
+			{
+				continue;
+			}
+			else if (node.children != null)
+			{
+				node.children.forEach(nodes::push);
+				continue;
+			}
+
+			for (final Entry other : node.entries)
+			{
+				final int flag = compare(point, other.objectives);
+
+				if (flag > 0)
+				{
+					return true;
+				}
+				else if (flag < 0)
+				{
+					dominated.add(other);
+				}
+				else
+				{
+					collectDuplicate(entry, other);
+				}
+			}
+		}
+
+		return false;
+	}
+
+	@Override
+	public void clear()
+	{
+		head = null;
+		tail = null;
+		size = 0;
+		objectives = 0;
+		exhaustive = false;
+		front.clear();
+		root = null;
+		positions = null;
+	}
+
+	/**
+	 * Collects the specified solution archived if it duplicates the specified
+	 * solution being added, where neither dominates the other.
+	 *
+	 * @param entry
+	 *            : Solution being added.
+	 * @param other
+	 *            : Solution archived.
+	 */
+	private void collectDuplicate(Entry entry, Entry other)
+	{
+		for (int i = 0; i < objectives; i++)
+		{
+			if (Math.abs(entry.objectives[i] - other.objectives[i]) > MARGIN)
+			{
+				return;
+			}
+		}
+
+		if (distance(entry.solution, other.solution) < Settings.EPS)
+		{
+			duplicates.add(other);
+		}
+	}
+
+	/**
+	 * Compares the specified objectives by Pareto dominance.
+	 *
+	 * @param first
+	 *            : Objectives of the first solution.
+	 * @param second
+	 *            : Objectives of the second solution.
+	 * @return -1 if the first solution dominates the second one, 1 if it is
+	 *         dominated by the second one, 0 otherwise.
+	 */
+	private static int compare(double[] first, double[] second)
+	{
+		boolean better = false;
+		boolean worse = false;
+
+		for (int i = 0; i < first.length; i++)
+		{
+			if (first[i] < second[i])
+			{
+				better = true;
+			}
+			else if (first[i] > second[i])
+			{
+				worse = true;
+			}
+
+			if (better && worse)
+			{
+				return 0;
+			}
+		}
+
+		return better ? -1 : worse ? 1 : 0;
+	}
+
+	@Override
+	public boolean contains(Solution solution)
+	{
+		return indexOf(solution) >= 0;
+	}
+
+	/**
+	 * Returns whether each objective of the first point exceeds that of the
+	 * second point by no more than the specified margin.
+	 *
+	 * @param first
+	 *            : First point.
+	 * @param second
+	 *            : Second point.
+	 * @param margin
+	 *            : Margin of each objective.
+	 * @return True if the first point covers the second one, false otherwise.
+	 */
+	private static boolean covers(double[] first, double[] second, double margin)
+	{
+		for (int i = 0; i < first.length; i++)
+		{
+			if (first[i] - second[i] > margin)
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	@Override
+	protected boolean forceAddWithoutCheck(Solution solution)
+	{
+		if (!exhaustive)
+		{
+			exhaustive = true;
+			front.clear();
+			root = null;
+		}
+
+		link(new Entry(solution, order));
+		return true;
+	}
+
+	@Override
+	public Solution get(int index)
+	{
+		return getEntries().get(index).solution;
+	}
+
+	/**
+	 * Returns the key of the specified first objective, where negative zero
+	 * equals positive zero as it does in comparisons.
+	 *
+	 * @param objective
+	 *            : First objective of a solution.
+	 * @return Key of the objective.
+	 */
+	private static Double getKey(double objective)
+	{
+		return objective + 0.0;
+	}
+
+	/**
+	 * Returns the position of the solution at the specified index, in the
+	 * order the solutions are considered to have been added.
+	 *
+	 * @param index
+	 *            : Index of the solution.
+	 * @return Position of the solution.
+	 */
+	long getPosition(int index)
+	{
+		return getEntries().get(index).order;
+	}
+
+	/**
+	 * Returns the solutions archived by index.
+	 *
+	 * @return List of the solutions archived.
+	 */
+	private List<Entry> getEntries()
+	{
+		if (positions == null)
+		{
+			positions = new ArrayList<>(size);
+
+			for (Entry entry = head; entry != null; entry = entry.next)
+			{
+				positions.add(entry);
+			}
+		}
+
+		return positions;
+	}
+
+	@Override
+	public int indexOf(Solution solution)
+	{
+		int index = 0;
+
+		for (Entry entry = head; entry != null; entry = entry.next)
+		{
+			if (entry.solution == solution)
+			{
+				return index;
+			}
+
+			index++;
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Inserts the specified solution into the leaf of the tree whose bounds
+	 * are closest to it, splitting the leaf if it becomes too large.
+	 *
+	 * @param entry
+	 *            : Solution to be inserted.
+	 */
+	private void insert(Entry entry)
+	{
+		if (root == null)
+		{
+			root = new Node(null, entry.objectives);
+			root.add(entry);
+			return;
+		}
+
+		Node node = root;
+
+		while (node.children != null)
+		{
+			node.widen(entry.objectives);
+			Node closest = null;
+
+			for (final Node child : node.children)
+			{
+				if (closest == null || child.distance(entry.objectives) < closest
+						.distance(entry.objectives))
+				{
+					closest = child;
+				}
+			}
+
+			node = closest;
+		}
+
+		node.add(entry);
+
+		if (node.entries.size() > MAX_LEAF_SIZE)
+		{
+			split(node);
+		}
+	}
+
+	@Override
+	public boolean isEmpty()
+	{
+		return head == null;
+	}
+
+	/**
+	 * Returns whether the specified solution may be indexed along with the
+	 * solutions archived, which requires its objectives to be finite.
+	 *
+	 * @param solution
+	 *            : Solution to be added.
+	 * @return True if the solution may be indexed, false otherwise.
+	 */
+	private boolean isIndexable(Solution solution)
+	{
+		if (head != null && solution.getNumberOfObjectives() != objectives)
+		{
+			return false;
+		}
+
+		for (int i = 0; i < solution.getNumberOfObjectives(); i++)
+		{
+			if (!Double.isFinite(solution.getObjective(i)))
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	@Override
+	public Iterator<Solution> iterator()
+	{
+		return new Iterator<Solution>()
+		{
+			/**
+			 * Solution returned by the next call to next.
+			 */
+			private Entry	next	= head;
+
+			/**
+			 * Solution returned by the last call to next, or null if it has
+			 * been removed.
+			 */
+			private Entry	last;
+
+			@Override
+			public boolean hasNext()
+			{
+				return next != null;
+			}
+
+			@Override
+			public Solution next()
+			{
+				if (next == null)
+				{
+					throw new NoSuchElementException();
+				}
+
+				last = next;
+				next = next.next;
+				return last.solution;
+			}
+
+			@Override
+			public void remove()
+			{
+				if (last == null)
+				{
+					throw new IllegalStateException();
+				}
+
+				NondominatedArchive.this.remove(last);
+				last = null;
+			}
+		};
+	}
+
+	/**
+	 * Links the specified solution after the last one archived.
+	 *
+	 * @param entry
+	 *            : Solution to be linked.
+	 */
+	private void link(Entry entry)
+	{
+		order = Math.max(order, entry.order + 1);
+		entry.previous = tail;
+
+		if (tail == null)
+		{
+			head = entry;
+		}
+		else
+		{
+			tail.next = entry;
+		}
+
+		tail = entry;
+		size++;
+		positions = null;
+	}
+
+	/**
+	 * Removes the specified solution from the archive and its index.
+	 *
+	 * @param entry
+	 *            : Solution to be removed.
+	 */
+	private void remove(Entry entry)
+	{
+		if (entry.previous == null)
+		{
+			head = entry.next;
+		}
+		else
+		{
+			entry.previous.next = entry.next;
+		}
+
+		if (entry.next == null)
+		{
+			tail = entry.previous;
+		}
+		else
+		{
+			entry.next.previous = entry.previous;
+		}
+
+		size--;
+		positions = null;
+		removed(entry.solution);
+
+		if (exhaustive)
+		{
+			return;
+		}
+		else if (objectives == 2)
+		{
+			front.remove(getKey(entry.objectives[0]));
+			return;
+		}
+
+		// Empty nodes are pruned, so that every node bounds some solution
+		Node node = entry.leaf;
+		node.entries.remove(entry);
+
+		while (node != null && node.isEmpty())
+		{
+			if (node.parent == null)
+			{
+				root = null;
+			}
+			else
+			{
+				node.parent.children.remove(node);
+			}
+
+			node = node.parent;
+		}
+	}
+
+	@Override
+	public void remove(int index)
+	{
+		remove(getEntries().get(index));
+	}
+
+	@Override
+	public boolean remove(Solution solution)
+	{
+		for (Entry entry = head; entry != null; entry = entry.next)
+		{
+			if (entry.solution == solution)
+			{
+				remove(entry);
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Called once the specified solution has been removed from the archive,
+	 * whether it was removed explicitly or dominated by a solution added.
+	 *
+	 * @param solution
+	 *            : Solution removed.
+	 */
+	void removed(Solution solution)
+	{
+	}
+
+	/**
+	 * Removes the solutions archived which would have been rejected or
+	 * removed, had the specified solution been added at its position, given
+	 * the solutions it dominates and those it duplicates. Solutions preceding
+	 * it are compared with it in order until one duplicates it, while those
+	 * following it are compared with it as they are added.
+	 *
+	 * @param entry
+	 *            : Solution being added, which is dominated by no solution
+	 *            archived.
+	 * @return True if the solution is to be archived, false otherwise.
+	 */
+	private boolean resolve(Entry entry)
+	{
+		long first = Long.MAX_VALUE;
+
+		for (final Entry duplicate : duplicates)
+		{
+			if (duplicate.order < entry.order)
+			{
+				first = Math.min(first, duplicate.order);
+			}
+		}
+
+		for (final Entry solution : dominated)
+		{
+			if (solution.order < first)
+			{
+				remove(solution);
+			}
+		}
+
+		if (first < Long.MAX_VALUE)
+		{
+			return false;
+		}
+
+		// Duplicates following the solution would have been rejected
+		duplicates.forEach(this::remove);
+		return true;
+	}
+
+	@Override
+	public int size()
+	{
+		return size;
+	}
+
+	@Override
+	public void sort(Comparator<? super Solution> comparator)
+	{
+		final List<Entry> entries = new ArrayList<>(getEntries());
+		entries.sort((first, second) -> comparator.compare(first.solution,
+				second.solution));
+
+		head = null;
+		tail = null;
+		size = 0;
+
+		for (final Entry entry : entries)
+		{
+			entry.order = order;
+			entry.next = null;
+			link(entry);
+		}
+	}
+
+	/**
+	 * Splits the specified leaf of the tree into one leaf more than the
+	 * number of objectives. Each new leaf is seeded with the solution
+	 * furthest on average from the seeds chosen so far, the first one being
+	 * furthest from the other solutions, and the remaining solutions are
+	 * added to the leaf whose bounds are closest.
+	 *
+	 * @param leaf
+	 *            : Leaf to be split.
+	 */
+	private void split(Node leaf)
+	{
+		final List<Entry> remaining = new ArrayList<>(leaf.entries);
+		final List<Entry> seeds = new ArrayList<>();
+		leaf.entries = null;
+		leaf.children = new ArrayList<>(objectives + 1);
+
+		while (leaf.children.size() <= objectives)
+		{
+			final List<Entry> references = seeds.isEmpty() ? remaining : seeds;
+			Entry furthest = null;
+			double furthestDistance = -1.0;
+
+			for (final Entry entry : remaining)
+			{
+				double sum = 0.0;
+
+				for (final Entry reference : references)
+				{
+					double squares = 0.0;
+
+					for (int i = 0; i < objectives; i++)
+					{
+						final double difference = entry.objectives[i]
+								- reference.objectives[i];
+						squares += difference * difference;
+					}
+
+					sum += Math.sqrt(squares);
+				}
+
+				if (sum > furthestDistance)
+				{
+					furthest = entry;
+					furthestDistance = sum;
+				}
+			}
+
+			remaining.remove(furthest);
+			seeds.add(furthest);
+			final Node child = new Node(leaf, furthest.objectives);
+			child.add(furthest);
+			leaf.children.add(child);
+		}
+
+		for (final Entry entry : remaining)
+		{
+			Node closest = null;
+
+			for (final Node child : leaf.children)
+			{
+				if (closest == null || child.distance(entry.objectives) < closest
+						.distance(entry.objectives))
+				{
+					closest = child;
+				}
+			}
+
+			closest.add(entry);
+		}
+	}
+
+	@Override
+	public void truncate(int size, Comparator<? super Solution> comparator)
+	{
+		sort(comparator);
+
+		while (this.size > size)
+		{
+			remove(tail);
+		}
+	}
+}
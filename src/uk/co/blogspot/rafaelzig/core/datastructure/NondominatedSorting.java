@@ -0,0 +1,593 @@
+package uk.co.blogspot.rafaelzig.core.datastructure;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.moeaframework.core.FastNondominatedSorting;
+import org.moeaframework.core.Population;
+import org.moeaframework.core.Solution;
+
+/**
+ * Non-dominated sorting assigning the same ranks and crowding distances as
+ * FastNondominatedSorting with the default dominance comparator, without
+ * comparing every pair of solutions. The solutions of each level of
+ * constraint violation are sorted lexicographically by their objectives, so
+ * that a solution may only be dominated by the solutions preceding it, and
+ * are then ranked by a sweep keeping the last solution of each front for
+ * two objectives, in O(N log N), by divide and conquer over the first
+ * objective for three objectives, in O(N log^2 N), and by efficient
+ * non-dominated sort with binary search of the fronts otherwise. Solutions
+ * with identical objectives are ranked one after another, as they are by
+ * FastNondominatedSorting, whereas solutions whose objectives only differ by
+ * less than Settings.EPS are ranked as any other solutions.
+ * <p>
+ * Solutions with undefined or infinite objectives, undefined constraint
+ * violations or different numbers of objectives are sorted by
+ * FastNondominatedSorting instead, as their dominance is not ordered, and
+ * identical infinite objectives are not told apart as duplicates by it.
+ *
+ * @author Rafael da Silva Costa - BSc Computer Science 3rd Year
+ *
+ */
+public class NondominatedSorting extends FastNondominatedSorting
+{
+	/**
+	 * Fenwick tree of the greatest rank of the points whose index of third
+	 * coordinate does not exceed a given index.
+	 */
+	private static final class Fenwick
+	{
+		/**
+		 * Greatest rank of each range of the tree, or -1 if it holds no
+		 * point.
+		 */
+		private final int[]	tree;
+
+		/**
+		 * Constructs a new empty instance of Fenwick for the specified number
+		 * of indexes.
+		 *
+		 * @param size
+		 *            : Number of indexes.
+		 */
+		private Fenwick(int size)
+		{
+			tree = new int[size + 1];
+			Arrays.fill(tree, -1);
+		}
+
+		/**
+		 * Returns the greatest rank of the points whose index does not exceed
+		 * the specified index.
+		 *
+		 * @param index
+		 *            : Index of the third coordinate of a point.
+		 * @return Greatest rank, or -1 if there is no such point.
+		 */
+		private int get(int index)
+		{
+			int result = -1;
+
+			for (int i = index + 1; i > 0; i -= i & -i)
+			{
+				result = Math.max(result, tree[i]);
+			}
+
+			return result;
+		}
+
+		/**
+		 * Raises the greatest rank of the points of the specified index to the
+		 * specified rank.
+		 *
+		 * @param index
+		 *            : Index of the third coordinate of a point.
+		 * @param rank
+		 *            : Rank of the point.
+		 */
+		private void raise(int index, int rank)
+		{
+			for (int i = index + 1; i < tree.length; i += i & -i)
+			{
+				tree[i] = Math.max(tree[i], rank);
+			}
+		}
+
+		/**
+		 * Removes the ranks raised for the points of the specified index.
+		 *
+		 * @param index
+		 *            : Index of the third coordinate of a point.
+		 */
+		private void reset(int index)
+		{
+			for (int i = index + 1; i < tree.length; i += i & -i)
+			{
+				tree[i] = -1;
+			}
+		}
+	}
+
+	/**
+	 * Constructs a new instance of NondominatedSorting with the default
+	 * dominance comparator.
+	 */
+	public NondominatedSorting()
+	{
+		super();
+	}
+
+	/**
+	 * Compares the specified points in lexicographic order, where negative
+	 * zero equals positive zero as it does in comparisons.
+	 *
+	 * @param first
+	 *            : First point.
+	 * @param second
+	 *            : Second point.
+	 * @return Negative if the first point precedes the second one, positive
+	 *         if it follows it, zero if they are equal.
+	 */
+	private static int compare(double[] first, double[] second)
+	{
+		for (int i = 0; i < first.length; i++)
+		{
+			if (first[i] < second[i])
+			{
+				return -1;
+			}
+			else if (first[i] > second[i])
+			{
+				return 1;
+			}
+		}
+
+		return 0;
+	}
+
+	/**
+	 * Ranks the specified range of points of three coordinates, sorted
+	 * lexicographically, by ranking its first half, raising the best rank
+	 * dominating each point of its second half from those of the first half,
+	 * and ranking its second half.
+	 *
+	 * @param second
+	 *            : Index of the second coordinate of each point.
+	 * @param third
+	 *            : Index of the third coordinate of each point.
+	 * @param from
+	 *            : Index of the first point of the range, inclusive.
+	 * @param to
+	 *            : Index of the last point of the range, exclusive.
+	 * @param ranks
+	 *            : Rank of each point.
+	 * @param best
+	 *            : Greatest rank of the points dominating each point found so
+	 *            far, or -1 if none has been found.
+	 * @param tree
+	 *            : Tree of the greatest ranks by third coordinate, which is
+	 *            empty.
+	 */
+	private static void divide(int[] second, int[] third, int from, int to,
+			int[] ranks, int[] best, Fenwick tree)
+	{
+		if (to - from == 1)
+		{
+			ranks[from] = best[from] + 1;
+			return;
+		}
+
+		final int middle = from + to >>> 1;
+		divide(second, third, from, middle, ranks, best, tree);
+
+		// Each half is sorted by second coordinate, packed above the point
+		final long[] left = new long[middle - from];
+		final long[] right = new long[to - middle];
+
+		for (int i = from; i < to; i++)
+		{
+			if (i < middle)
+			{
+				left[i - from] = (long) second[i] << Integer.SIZE | i;
+			}
+			else
+			{
+				right[i - middle] = (long) second[i] << Integer.SIZE | i;
+			}
+		}
+
+		Arrays.sort(left);
+		Arrays.sort(right);
+
+		// Points of the first half precede those of the second one by their
+		// first coordinate, therefore they dominate those they do not exceed
+		// by the other two
+		int next = 0;
+
+		for (final long key : right)
+		{
+			final int point = (int) key;
+
+			while (next < left.length
+					&& (int) (left[next] >>> Integer.SIZE) <= second[point])
+			{
+				final int other = (int) left[next++];
+				tree.raise(third[other], ranks[other]);
+			}
+
+			best[point] = Math.max(best[point], tree.get(third[point]));
+		}
+
+		for (int i = 0; i < next; i++)
+		{
+			tree.reset(third[(int) left[i]]);
+		}
+
+		divide(second, third, middle, to, ranks, best, tree);
+	}
+
+	@Override
+	public void evaluate(Population population)
+	{
+		final List<Solution> solutions = new ArrayList<>(population.size());
+		population.forEach(solutions::add);
+		final int[] ranks = rank(solutions);
+
+		if (ranks == null)
+		{
+			super.evaluate(population);
+			return;
+		}
+
+		final List<Population> fronts = new ArrayList<>();
+
+		for (int i = 0; i < ranks.length; i++)
+		{
+			while (fronts.size() <= ranks[i])
+			{
+				fronts.add(new Population());
+			}
+
+			fronts.get(ranks[i]).add(solutions.get(i));
+			solutions.get(i).setAttribute(RANK_ATTRIBUTE, ranks[i]);
+		}
+
+		fronts.forEach(this::updateCrowdingDistance);
+	}
+
+	/**
+	 * Returns the solutions of the first front of the specified solutions, in
+	 * the same order. Every other solution is dominated by another solution,
+	 * or duplicates a solution preceding it, therefore it would be rejected or
+	 * removed if the solutions were added to a non-dominated population in
+	 * order.
+	 *
+	 * @param solutions
+	 *            : Solutions to be sorted.
+	 * @return Solutions of the first front, or every solution if they cannot
+	 *         be sorted without comparing every pair of solutions.
+	 */
+	public static List<Solution> getFront(List<? extends Solution> solutions)
+	{
+		final int[] ranks = rank(solutions);
+		final List<Solution> front = new ArrayList<>();
+
+		for (int i = 0; i < solutions.size(); i++)
+		{
+			if (ranks == null || ranks[i] == 0)
+			{
+				front.add(solutions.get(i));
+			}
+		}
+
+		return front;
+	}
+
+	/**
+	 * Returns the index of the specified coordinate of each of the specified
+	 * points among the distinct values of the coordinate, where equal values
+	 * share the same index.
+	 *
+	 * @param points
+	 *            : Points whose coordinates are indexed.
+	 * @param coordinate
+	 *            : Coordinate to be indexed.
+	 * @return Index of the coordinate of each point.
+	 */
+	private static int[] index(double[][] points, int coordinate)
+	{
+		final double[] values = new double[points.length];
+
+		for (int i = 0; i < values.length; i++)
+		{
+			values[i] = points[i][coordinate];
+		}
+
+		Arrays.sort(values);
+		final int[] indexes = new int[points.length];
+
+		for (int i = 0; i < indexes.length; i++)
+		{
+			int low = 0;
+			int high = values.length;
+
+			// The first value not less than the coordinate is shared by any
+			// value equal to it, including zeros of either sign
+			while (low < high)
+			{
+				final int middle = low + high >>> 1;
+
+				if (values[middle] < points[i][coordinate])
+				{
+					low = middle + 1;
+				}
+				else
+				{
+					high = middle;
+				}
+			}
+
+			indexes[i] = low;
+		}
+
+		return indexes;
+	}
+
+	/**
+	 * Returns whether the specified point is dominated by a point of the
+	 * specified front, all of which precede it in lexicographic order. The
+	 * front is searched from its last point, as it is the closest one.
+	 *
+	 * @param front
+	 *            : Points of the front.
+	 * @param point
+	 *            : Point being ranked.
+	 * @return True if the point is dominated, false otherwise.
+	 */
+	private static boolean isDominated(List<double[]> front, double[] point)
+	{
+		for (int i = front.size() - 1; i >= 0; i--)
+		{
+			final double[] other = front.get(i);
+			boolean dominates = true;
+
+			// The first objective of the front never exceeds that of the point
+			for (int j = 1; j < point.length && dominates; j++)
+			{
+				dominates = other[j] <= point[j];
+			}
+
+			if (dominates)
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Returns the rank of each of the specified solutions, where the
+	 * solutions violating their constraints the least are ranked by their
+	 * objectives first, and the solutions of each further level of constraint
+	 * violation are ranked after those of the previous level.
+	 *
+	 * @param solutions
+	 *            : Solutions to be ranked.
+	 * @return Rank of each solution, starting from 0, or null if a solution
+	 *         has undefined or infinite objectives or an undefined constraint
+	 *         violation, or the solutions have different numbers of
+	 *         objectives.
+	 */
+	static int[] rank(List<? extends Solution> solutions)
+	{
+		final int[] ranks = new int[solutions.size()];
+		final Map<Double, List<Integer>> levels = new TreeMap<>();
+
+		for (int i = 0; i < ranks.length; i++)
+		{
+			final Solution solution = solutions.get(i);
+
+			if (solution.getNumberOfObjectives() != solutions.get(0)
+					.getNumberOfObjectives())
+			{
+				return null;
+			}
+
+			double violation = 0.0;
+
+			for (int j = 0; j < solution.getNumberOfConstraints(); j++)
+			{
+				violation += Math.abs(solution.getConstraint(j));
+			}
+
+			if (Double.isNaN(violation))
+			{
+				return null;
+			}
+
+			levels.computeIfAbsent(violation, key -> new ArrayList<>()).add(i);
+		}
+
+		int offset = 0;
+
+		for (final List<Integer> level : levels.values())
+		{
+			final double[][] points = new double[level.size()][];
+
+			for (int i = 0; i < points.length; i++)
+			{
+				points[i] = solutions.get(level.get(i)).getObjectives();
+
+				for (final double objective : points[i])
+				{
+					if (!Double.isFinite(objective))
+					{
+						return null;
+					}
+				}
+			}
+
+			int last = 0;
+			final int[] levelRanks = rank(points);
+
+			for (int i = 0; i < points.length; i++)
+			{
+				ranks[level.get(i)] = offset + levelRanks[i];
+				last = Math.max(last, levelRanks[i]);
+			}
+
+			offset += last + 1;
+		}
+
+		return ranks;
+	}
+
+	/**
+	 * Returns the rank of each of the specified points, none of which has
+	 * undefined or infinite coordinates. A point is ranked after every point dominating it
+	 * and every identical point preceding it.
+	 *
+	 * @param points
+	 *            : Points to be ranked, all of the same dimension.
+	 * @return Rank of each point, starting from 0.
+	 */
+	static int[] rank(double[][] points)
+	{
+		final Integer[] indexes = new Integer[points.length];
+		Arrays.setAll(indexes, i -> i);
+
+		// The sort is stable, therefore identical points keep their order
+		Arrays.sort(indexes, (first, second) -> compare(points[first], points[second]));
+
+		final double[][] sorted = new double[points.length][];
+
+		for (int i = 0; i < sorted.length; i++)
+		{
+			sorted[i] = points[indexes[i]];
+		}
+
+		final int[] sortedRanks;
+
+		if (sorted.length == 0)
+		{
+			sortedRanks = new int[0];
+		}
+		else if (sorted[0].length == 2)
+		{
+			sortedRanks = sweep(sorted);
+		}
+		else if (sorted[0].length == 3)
+		{
+			sortedRanks = new int[sorted.length];
+			final int[] best = new int[sorted.length];
+			Arrays.fill(best, -1);
+			divide(index(sorted, 1), index(sorted, 2), 0, sorted.length, sortedRanks,
+					best, new Fenwick(sorted.length));
+		}
+		else
+		{
+			sortedRanks = search(sorted);
+		}
+
+		final int[] ranks = new int[points.length];
+
+		for (int i = 0; i < ranks.length; i++)
+		{
+			ranks[indexes[i]] = sortedRanks[i];
+		}
+
+		return ranks;
+	}
+
+	/**
+	 * Ranks the specified points, sorted lexicographically, by efficient
+	 * non-dominated sort, where the front of each point is found by binary
+	 * search, as a point dominated by a front is dominated by every front
+	 * preceding it.
+	 *
+	 * @param points
+	 *            : Points sorted lexicographically.
+	 * @return Rank of each point.
+	 */
+	private static int[] search(double[][] points)
+	{
+		final int[] ranks = new int[points.length];
+		final List<List<double[]>> fronts = new ArrayList<>();
+
+		for (int i = 0; i < points.length; i++)
+		{
+			int low = 0;
+			int high = fronts.size();
+
+			while (low < high)
+			{
+				final int middle = low + high >>> 1;
+
+				if (isDominated(fronts.get(middle), points[i]))
+				{
+					low = middle + 1;
+				}
+				else
+				{
+					high = middle;
+				}
+			}
+
+			if (low == fronts.size())
+			{
+				fronts.add(new ArrayList<>());
+			}
+
+			fronts.get(low).add(points[i]);
+			ranks[i] = low;
+		}
+
+		return ranks;
+	}
+
+	/**
+	 * Ranks the specified points of two coordinates, sorted lexicographically,
+	 * by keeping the second coordinate of the last point of each front, which
+	 * is the least of the front and increases from one front to the next.
+	 *
+	 * @param points
+	 *            : Points sorted lexicographically.
+	 * @return Rank of each point.
+	 */
+	private static int[] sweep(double[][] points)
+	{
+		final int[] ranks = new int[points.length];
+		final double[] last = new double[points.length];
+		int fronts = 0;
+
+		for (int i = 0; i < points.length; i++)
+		{
+			int low = 0;
+			int high = fronts;
+
+			while (low < high)
+			{
+				final int middle = low + high >>> 1;
+
+				if (last[middle] <= points[i][1])
+				{
+					low = middle + 1;
+				}
+				else
+				{
+					high = middle;
+				}
+			}
+
+			last[low] = points[i][1];
+			ranks[i] = low;
+			fronts = Math.max(fronts, low + 1);
+		}
+
+		return ranks;
+	}
+}
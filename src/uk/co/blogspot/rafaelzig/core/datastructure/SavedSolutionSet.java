@@ -10,15 +10,21 @@ public class SavedSolutionSet
 {
 
 	private final ProblemTemplate	problem;
-	private final List<Solution>	solutions;
+	private SolutionStore			store;
 	private final String			algorithm;
 	private final long				elapsed;
 
-	public SavedSolutionSet(ProblemTemplate problem, List<Solution> solutions,
+	/**
+	 * Solutions of a set saved before solutions were stored by column, which
+	 * are moved into the store once it is requested.
+	 */
+	private List<Solution>			solutions;
+
+	public SavedSolutionSet(ProblemTemplate problem, SolutionStore store,
 			String algorithm, long elapsed)
 	{
 		this.problem = problem;
-		this.solutions = solutions;
+		this.store = store;
 		this.algorithm = algorithm;
 		this.elapsed = elapsed;
 	}
@@ -48,10 +54,16 @@ public class SavedSolutionSet
 	}
 
 	/**
-	 * @return the result
+	 * @return the store
 	 */
-	public List<Solution> getSolutions()
+	public SolutionStore getStore()
 	{
-		return solutions;
+		if (store == null && solutions != null)
+		{
+			store = new SolutionStore(problem, solutions);
+			solutions = null;
+		}
+
+		return store;
 	}
 }
@@ -0,0 +1,244 @@
+package uk.co.blogspot.rafaelzig.core.datastructure;
+
+import java.util.List;
+
+import org.moeaframework.core.Solution;
+import org.moeaframework.core.Variable;
+import org.moeaframework.core.variable.BinaryVariable;
+import org.moeaframework.core.variable.EncodingUtils;
+
+import uk.co.blogspot.rafaelzig.core.datastructure.template.ProblemTemplate;
+import uk.co.blogspot.rafaelzig.core.datastructure.template.VariableTemplate;
+
+/**
+ * Set of solutions of a problem stored by column, holding a single array of
+ * primitive values for each variable and for each objective, along with the
+ * constraint violation of each solution and a bit set of the feasible ones.
+ * A solution therefore takes a few bytes per value instead of the objects
+ * making up a Solution object, which are only built again on request.
+ * <p>
+ * Variables are stored as the values they decode to, and objectives as they
+ * were evaluated, that is negated if they are maximised. Only the sum of the
+ * magnitudes of the constraints of a solution is stored.
+ *
+ * @author Rafael da Silva Costa - BSc Computer Science 3rd Year
+ *
+ */
+public class SolutionStore
+{
+	/**
+	 * Number of solutions stored.
+	 */
+	private final int			size;
+
+	/**
+	 * Values of each variable, indexed by variable and then by solution.
+	 */
+	private final double[][]	variables;
+
+	/**
+	 * Evaluations of each objective, indexed by objective and then by
+	 * solution.
+	 */
+	private final double[][]	objectives;
+
+	/**
+	 * Constraint violation of each solution.
+	 */
+	private final double[]		violations;
+
+	/**
+	 * Bit set of the feasible solutions, 64 solutions to each word.
+	 */
+	private final long[]		feasible;
+
+	/**
+	 * Constructs a new instance of SolutionStore with the specified solutions
+	 * of the specified problem.
+	 *
+	 * @param problem
+	 *            : Problem from which the solutions belong.
+	 * @param solutions
+	 *            : Solutions to be stored.
+	 */
+	public SolutionStore(ProblemTemplate problem, List<? extends Solution> solutions)
+	{
+		final VariableTemplate[] templates = problem.getVariables();
+
+		size = solutions.size();
+		variables = new double[templates.length][size];
+		objectives = new double[problem.getNumberOfObjectives()][size];
+		violations = new double[size];
+		feasible = new long[(size + 63) >>> 6];
+
+		for (int row = 0; row < size; row++)
+		{
+			final Solution solution = solutions.get(row);
+
+			for (int col = 0; col < variables.length; col++)
+			{
+				final Variable variable = solution.getVariable(col);
+
+				switch (templates[col].getType())
+				{
+					case BINARY:
+						variables[col][row] = EncodingUtils
+								.decode((BinaryVariable) variable);
+						break;
+					case INTEGER:
+						variables[col][row] = EncodingUtils.getInt(variable);
+						break;
+					case REAL:
+						variables[col][row] = EncodingUtils.getReal(variable);
+						break;
+				}
+			}
+
+			for (int col = 0; col < objectives.length; col++)
+			{
+				objectives[col][row] = solution.getObjective(col);
+			}
+
+			for (int i = 0; i < solution.getNumberOfConstraints(); i++)
+			{
+				violations[row] += Math.abs(solution.getConstraint(i));
+			}
+
+			if (violations[row] == 0.0)
+			{
+				feasible[row >>> 6] |= 1L << row;
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of objectives of the solutions stored.
+	 *
+	 * @return Number of objectives.
+	 */
+	public int getNumberOfObjectives()
+	{
+		return objectives.length;
+	}
+
+	/**
+	 * Returns the number of variables of the solutions stored.
+	 *
+	 * @return Number of variables.
+	 */
+	public int getNumberOfVariables()
+	{
+		return variables.length;
+	}
+
+	/**
+	 * Returns the evaluation of the specified objective of the specified
+	 * solution.
+	 *
+	 * @param row
+	 *            : Index of the solution.
+	 * @param objective
+	 *            : Index of the objective.
+	 * @return Evaluation of the objective, negated if it is maximised.
+	 */
+	public double getObjective(int row, int objective)
+	{
+		return objectives[objective][row];
+	}
+
+	/**
+	 * Builds and returns the specified solution as a Solution object of the
+	 * specified problem. Its first constraint, if any, is set to its
+	 * constraint violation and the others to zero.
+	 *
+	 * @param problem
+	 *            : Problem from which the solutions belong.
+	 * @param row
+	 *            : Index of the solution.
+	 * @return Solution object of the solution.
+	 */
+	public Solution getSolution(ProblemTemplate problem, int row)
+	{
+		final VariableTemplate[] templates = problem.getVariables();
+		final Solution solution = problem.newSolution();
+
+		for (int col = 0; col < variables.length; col++)
+		{
+			final Variable variable = solution.getVariable(col);
+
+			switch (templates[col].getType())
+			{
+				case BINARY:
+					EncodingUtils.encode((long) variables[col][row],
+							(BinaryVariable) variable);
+					break;
+				case INTEGER:
+					EncodingUtils.setInt(variable, (int) variables[col][row]);
+					break;
+				case REAL:
+					EncodingUtils.setReal(variable, variables[col][row]);
+					break;
+			}
+		}
+
+		for (int col = 0; col < objectives.length; col++)
+		{
+			solution.setObjective(col, objectives[col][row]);
+		}
+
+		if (solution.getNumberOfConstraints() > 0)
+		{
+			solution.setConstraint(0, violations[row]);
+		}
+
+		return solution;
+	}
+
+	/**
+	 * Returns the value of the specified variable of the specified solution.
+	 *
+	 * @param row
+	 *            : Index of the solution.
+	 * @param variable
+	 *            : Index of the variable.
+	 * @return Value the variable decodes to.
+	 */
+	public double getVariable(int row, int variable)
+	{
+		return variables[variable][row];
+	}
+
+	/**
+	 * Returns the constraint violation of the specified solution.
+	 *
+	 * @param row
+	 *            : Index of the solution.
+	 * @return Sum of the magnitudes of the constraints of the solution.
+	 */
+	public double getViolation(int row)
+	{
+		return violations[row];
+	}
+
+	/**
+	 * Returns whether the specified solution satisfies all constraints.
+	 *
+	 * @param row
+	 *            : Index of the solution.
+	 * @return True if the solution is feasible, false otherwise.
+	 */
+	public boolean isFeasible(int row)
+	{
+		return (feasible[row >>> 6] & 1L << row) != 0;
+	}
+
+	/**
+	 * Returns the number of solutions stored.
+	 *
+	 * @return Number of solutions.
+	 */
+	public int size()
+	{
+		return size;
+	}
+}
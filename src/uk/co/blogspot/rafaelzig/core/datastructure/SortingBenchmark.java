@@ -0,0 +1,208 @@
+package uk.co.blogspot.rafaelzig.core.datastructure;
+
+import java.util.Random;
+
+import org.moeaframework.core.FastNondominatedSorting;
+import org.moeaframework.core.Population;
+import org.moeaframework.core.Solution;
+
+/**
+ * Benchmark of the time taken by {@link NondominatedSorting} against that of
+ * FastNondominatedSorting, for populations of 10^3 to 10^4 solutions. The
+ * objectives of the solutions are drawn uniformly from a grid over the unit
+ * hypercube, so that the population spreads over many fronts and some
+ * solutions are identical. Each population is sorted several times by both,
+ * keeping the fastest time, after which the ranks assigned are checked to be
+ * the same. Before that, both are checked to agree on populations with
+ * infinite objectives.
+ * <p>
+ * The arguments given are the numbers of objectives to be benchmarked, which
+ * are 2, 3 and 5 by default.
+ *
+ * @author Rafael da Silva Costa - BSc Computer Science 3rd Year
+ *
+ */
+public final class SortingBenchmark
+{
+	/**
+	 * Sizes of the populations benchmarked.
+	 */
+	private static final int[]	SIZES	= { 1000, 3000, 10000 };
+
+	/**
+	 * Number of values of each objective.
+	 */
+	private static final int	VALUES	= 1000;
+
+	/**
+	 * Number of times each population is sorted.
+	 */
+	private static final int	ROUNDS	= 3;
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private SortingBenchmark()
+	{
+	}
+
+	/**
+	 * Returns whether the solutions of the specified population have been
+	 * assigned the specified ranks.
+	 *
+	 * @param population
+	 *            : Population sorted.
+	 * @param ranks
+	 *            : Rank of each solution.
+	 * @return True if the ranks are the same, false otherwise.
+	 */
+	private static boolean isSame(Population population, Object[] ranks)
+	{
+		for (int i = 0; i < ranks.length; i++)
+		{
+			if (!ranks[i].equals(population.get(i).getAttribute(
+					FastNondominatedSorting.RANK_ATTRIBUTE)))
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns whether FastNondominatedSorting and {@link NondominatedSorting}
+	 * assign the same ranks to a population of the specified number of
+	 * objectives made of identical solutions with infinite objectives,
+	 * solutions sharing an infinite first objective and a finite solution.
+	 *
+	 * @param objectives
+	 *            : Number of objectives.
+	 * @return True if the ranks are the same, false otherwise.
+	 */
+	private static boolean isSameOnEdgeCases(int objectives)
+	{
+		final Population population = new Population();
+
+		for (int i = 0; i < 9; i++)
+		{
+			final Solution solution = new Solution(0, objectives);
+
+			for (int j = 0; j < objectives; j++)
+			{
+				final boolean infinite = i < 3 || j == 0 && i < 6;
+				solution.setObjective(j, infinite ? Double.POSITIVE_INFINITY : i % 2);
+			}
+
+			population.add(solution);
+		}
+
+		new FastNondominatedSorting().evaluate(population);
+		final Object[] ranks = new Object[population.size()];
+
+		for (int i = 0; i < ranks.length; i++)
+		{
+			ranks[i] = population.get(i).getAttribute(
+					FastNondominatedSorting.RANK_ATTRIBUTE);
+		}
+
+		new NondominatedSorting().evaluate(population);
+		return isSame(population, ranks);
+	}
+
+	/**
+	 * Runs the benchmark for each population size and number of objectives.
+	 *
+	 * @param args
+	 *            : Numbers of objectives to be benchmarked.
+	 */
+	public static void main(String[] args)
+	{
+		final int[] objectives = args.length == 0 ? new int[] { 2, 3, 5 }
+				: new int[args.length];
+
+		for (int i = 0; i < args.length; i++)
+		{
+			objectives[i] = Integer.parseInt(args[i]);
+		}
+
+		System.out.printf("%-10s %-10s %-12s %-12s %s%n", "Objectives", "Size",
+				"Fast (ms)", "Sorting (ms)", "Same ranks");
+
+		for (final int count : objectives)
+		{
+			System.out.printf("%-10d %-10s %s%n", count, "Edge cases",
+					isSameOnEdgeCases(count));
+
+			for (final int size : SIZES)
+			{
+				run(count, size);
+			}
+		}
+	}
+
+	/**
+	 * Benchmarks populations of the specified size and number of objectives,
+	 * printing the fastest time taken to sort them by each.
+	 *
+	 * @param objectives
+	 *            : Number of objectives.
+	 * @param size
+	 *            : Number of solutions of the population.
+	 */
+	private static void run(int objectives, int size)
+	{
+		final Random random = new Random(size * 31L + objectives);
+		final Population population = new Population();
+
+		for (int i = 0; i < size; i++)
+		{
+			final Solution solution = new Solution(0, objectives);
+
+			for (int j = 0; j < objectives; j++)
+			{
+				solution.setObjective(j, random.nextInt(VALUES) / (double) VALUES);
+			}
+
+			population.add(solution);
+		}
+
+		final double fast = time(new FastNondominatedSorting(), population);
+		final Object[] ranks = new Object[size];
+
+		for (int i = 0; i < size; i++)
+		{
+			ranks[i] = population.get(i).getAttribute(
+					FastNondominatedSorting.RANK_ATTRIBUTE);
+		}
+
+		final double sorting = time(new NondominatedSorting(), population);
+
+		System.out.printf("%-10d %-10d %-12.1f %-12.1f %s%n", objectives, size, fast,
+				sorting, isSame(population, ranks));
+	}
+
+	/**
+	 * Returns the fastest time taken by the specified sorting to sort the
+	 * specified population.
+	 *
+	 * @param sorting
+	 *            : Non-dominated sorting to be timed.
+	 * @param population
+	 *            : Population to be sorted.
+	 * @return Time in milliseconds.
+	 */
+	private static double time(FastNondominatedSorting sorting, Population population)
+	{
+		long fastest = Long.MAX_VALUE;
+
+		for (int round = 0; round < ROUNDS; round++)
+		{
+			final long start = System.nanoTime();
+			sorting.evaluate(population);
+			fastest = Math.min(fastest, System.nanoTime() - start);
+		}
+
+		return fastest / 1e6;
+	}
+}
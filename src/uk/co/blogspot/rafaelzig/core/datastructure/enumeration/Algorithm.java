@@ -20,7 +20,9 @@ public enum Algorithm implements DescriptiveEnum
 			new Type[] { Type.REAL, Type.INTEGER, Type.BINARY },
 			new Parameter[] { Parameter.POPULATION_SIZE, Parameter.EPSILON,
 					Parameter.SBX_RATE, Parameter.SBX_DISTRIBUTION_INDEX,
-					Parameter.PM_RATE, Parameter.PM_DISTRIBUTION_INDEX }),
+					Parameter.PM_RATE, Parameter.PM_DISTRIBUTION_INDEX,
+					Parameter.REFINEMENT_STEPS, Parameter.FEASIBILITY_FIRST,
+					Parameter.CACHE_SIZE, Parameter.MAX_SOLUTIONS }),
 	NSGAII(
 			"NSGA-II",
 			"<html>NSGA-II is one of the most widely used MOEAs and was introduced in the following paper:<br><br>"
@@ -29,7 +31,9 @@ public enum Algorithm implements DescriptiveEnum
 			new Type[] { Type.REAL, Type.INTEGER, Type.BINARY },
 			new Parameter[] { Parameter.POPULATION_SIZE, Parameter.SBX_RATE,
 					Parameter.SBX_DISTRIBUTION_INDEX, Parameter.PM_RATE,
-					Parameter.PM_DISTRIBUTION_INDEX }),
+					Parameter.PM_DISTRIBUTION_INDEX, Parameter.REFINEMENT_STEPS,
+					Parameter.FEASIBILITY_FIRST, Parameter.CACHE_SIZE,
+					Parameter.MAX_SOLUTIONS }),
 	NSGAIII(
 			"NSGA-III",
 			"<html>NSGA-III is the many-objective successor to NSGA-II, using reference<br>"
@@ -40,7 +44,9 @@ public enum Algorithm implements DescriptiveEnum
 			new Type[] { Type.REAL, Type.INTEGER, Type.BINARY },
 			new Parameter[] { Parameter.POPULATION_SIZE, Parameter.DIVISIONS,
 					Parameter.SBX_RATE, Parameter.SBX_DISTRIBUTION_INDEX,
-					Parameter.PM_RATE, Parameter.PM_DISTRIBUTION_INDEX }),
+					Parameter.PM_RATE, Parameter.PM_DISTRIBUTION_INDEX,
+					Parameter.REFINEMENT_STEPS, Parameter.FEASIBILITY_FIRST,
+					Parameter.CACHE_SIZE, Parameter.MAX_SOLUTIONS }),
 	eNSGAII(
 			"e-NSGA-II",
 			"<html>e-NSGA-II is an extension of NSGA-II that uses an e-dominance archive<br>"
@@ -54,7 +60,9 @@ public enum Algorithm implements DescriptiveEnum
 					Parameter.PM_RATE, Parameter.PM_DISTRIBUTION_INDEX,
 					Parameter.INJECTION_RATE, Parameter.WINDOW_SIZE,
 					Parameter.MAX_WINDOW_SIZE, Parameter.MINIMUM_POPULATION_SIZE,
-					Parameter.MAXIMUM_POPULATION_SIZE }),
+					Parameter.MAXIMUM_POPULATION_SIZE, Parameter.REFINEMENT_STEPS,
+					Parameter.FEASIBILITY_FIRST, Parameter.CACHE_SIZE,
+					Parameter.MAX_SOLUTIONS }),
 	MOEAD(
 			"MOEA/D",
 			"<html>MOEA/D is a relatively new optimization algorithm based on the concept of decomposing<br>"
@@ -70,7 +78,9 @@ public enum Algorithm implements DescriptiveEnum
 			new Parameter[] { Parameter.POPULATION_SIZE, Parameter.DE_CROSSOVER_RATE,
 					Parameter.DE_STEP_SIZE, Parameter.PM_RATE,
 					Parameter.PM_DISTRIBUTION_INDEX, Parameter.NEIGHBORHOOD_SIZE,
-					Parameter.DELTA, Parameter.ETA, Parameter.UPDATE_UTILITY }),
+					Parameter.DELTA, Parameter.ETA, Parameter.UPDATE_UTILITY,
+					Parameter.REFINEMENT_STEPS, Parameter.FEASIBILITY_FIRST,
+					Parameter.CACHE_SIZE, Parameter.MAX_SOLUTIONS }),
 	GDE3(
 			"GDE3",
 			"<html>GDE3 is the extension of differential evolution for multiobjective<br>"
@@ -79,7 +89,9 @@ public enum Algorithm implements DescriptiveEnum
 					+ "KanGAL Report Number 2005013.<html>",
 			new Type[] { Type.REAL, Type.INTEGER },
 			new Parameter[] { Parameter.POPULATION_SIZE, Parameter.DE_CROSSOVER_RATE,
-					Parameter.DE_STEP_SIZE }),
+					Parameter.DE_STEP_SIZE, Parameter.REFINEMENT_STEPS,
+					Parameter.FEASIBILITY_FIRST, Parameter.CACHE_SIZE,
+					Parameter.MAX_SOLUTIONS }),
 	Random(
 			"Random",
 			"<html>The random search algorithm simply randomly generates new solutions uniformly<br>"
@@ -88,7 +100,9 @@ public enum Algorithm implements DescriptiveEnum
 					+ "optimization algorithm can not beat random search, then continued use of that optimization<br>"
 					+ "algorithm should be questioned.<html>",
 			new Type[] { Type.REAL, Type.INTEGER, Type.BINARY },
-			new Parameter[] { Parameter.POPULATION_SIZE, Parameter.EPSILON }),
+			new Parameter[] { Parameter.POPULATION_SIZE, Parameter.EPSILON,
+					Parameter.REFINEMENT_STEPS, Parameter.FEASIBILITY_FIRST,
+					Parameter.CACHE_SIZE, Parameter.MAX_SOLUTIONS }),
 	ABYSS(
 			"AbYSS",
 			"<html>AbYSS is a hybrid scatter search algorithm that uses genetic algorithm<br>"
@@ -98,7 +112,9 @@ public enum Algorithm implements DescriptiveEnum
 			new Type[] { Type.REAL, Type.INTEGER },
 			new Parameter[] { Parameter.POPULATION_SIZE, Parameter.ARCHIVE_SIZE,
 					Parameter.REF_SET1_SIZE, Parameter.REF_SET2_SIZE,
-					Parameter.IMPROVEMENT_ROUNDS }),
+					Parameter.IMPROVEMENT_ROUNDS, Parameter.REFINEMENT_STEPS,
+					Parameter.FEASIBILITY_FIRST, Parameter.CACHE_SIZE,
+					Parameter.MAX_SOLUTIONS }),
 	CellDE(
 			"CellDE",
 			"<html>CellDE is a hybrid cellular genetic algorithm (meaning mating only occurs among neighbors)<br>"
@@ -108,7 +124,9 @@ public enum Algorithm implements DescriptiveEnum
 			new Type[] { Type.REAL, Type.INTEGER },
 			new Parameter[] { Parameter.POPULATION_SIZE, Parameter.ARCHIVE_SIZE,
 					Parameter.FEEDBACK, Parameter.DE_CROSSOVER_RATE,
-					Parameter.DE_STEP_SIZE }),
+					Parameter.DE_STEP_SIZE, Parameter.REFINEMENT_STEPS,
+					Parameter.FEASIBILITY_FIRST, Parameter.CACHE_SIZE,
+					Parameter.MAX_SOLUTIONS }),
 	DENSEA(
 			"DENSEA",
 			"<html>DENSEA is the duplicate elimination non-domination sorting<br>"
@@ -118,7 +136,9 @@ public enum Algorithm implements DescriptiveEnum
 					+ "(American Institute of Aeronautics and Astronautics) Aerospace Sciences Meeting<br>"
 					+ "and Exhibit, AIAA2006-1474, 2006.<html>",
 			new Type[] { Type.REAL, Type.INTEGER, Type.BINARY },
-			new Parameter[] { Parameter.POPULATION_SIZE }),
+			new Parameter[] { Parameter.POPULATION_SIZE, Parameter.REFINEMENT_STEPS,
+					Parameter.FEASIBILITY_FIRST, Parameter.CACHE_SIZE,
+					Parameter.MAX_SOLUTIONS }),
 	FastPGA(
 			"FastPGA",
 			"<html>FastPGA is a genetic algorithm that uses adaptive population sizing to solve time<br>"
@@ -128,7 +148,9 @@ public enum Algorithm implements DescriptiveEnum
 			new Type[] { Type.REAL, Type.INTEGER, Type.BINARY },
 			new Parameter[] { Parameter.MAX_POP_SIZE, Parameter.INITIAL_POPULATION_SIZE,
 					Parameter.A, Parameter.B, Parameter.C, Parameter.D,
-					Parameter.TERMINATION }),
+					Parameter.TERMINATION, Parameter.REFINEMENT_STEPS,
+					Parameter.FEASIBILITY_FIRST, Parameter.CACHE_SIZE,
+					Parameter.MAX_SOLUTIONS }),
 	IBEA(
 			"IBEA",
 			"<html>IBEA is a indicator-based MOEA that uses the hypervolume performance indicator as a<br>"
@@ -137,7 +159,9 @@ public enum Algorithm implements DescriptiveEnum
 					+ "In Parallel Problem Solving from Nature (PPSN VIII), Lecture Notes in Computer Science,<br>"
 					+ "pages 832842, Berlin / Heidelberg, Springer, 2004.<html>",
 			new Type[] { Type.REAL, Type.INTEGER, Type.BINARY },
-			new Parameter[] { Parameter.POPULATION_SIZE, Parameter.ARCHIVE_SIZE }),
+			new Parameter[] { Parameter.POPULATION_SIZE, Parameter.ARCHIVE_SIZE,
+					Parameter.REFINEMENT_STEPS, Parameter.FEASIBILITY_FIRST,
+					Parameter.CACHE_SIZE, Parameter.MAX_SOLUTIONS }),
 	MOCell(
 			"MOCell",
 			"<html>MOCell is the multiobjective version of a cellular genetic<br>"
@@ -147,7 +171,9 @@ public enum Algorithm implements DescriptiveEnum
 					+ "Strategies for Optimization, Granada, Spain, 25-36, 2006.<html>",
 			new Type[] { Type.REAL, Type.INTEGER, Type.BINARY },
 			new Parameter[] { Parameter.POPULATION_SIZE, Parameter.ARCHIVE_SIZE,
-					Parameter.FEEDBACK }),
+					Parameter.FEEDBACK, Parameter.REFINEMENT_STEPS,
+					Parameter.FEASIBILITY_FIRST, Parameter.CACHE_SIZE,
+					Parameter.MAX_SOLUTIONS }),
 	MOCHC(
 			"MOCHC",
 			"<html>MOCHC is a genetic algorithm that combines a conservative selection strategy<br>"
@@ -160,7 +186,9 @@ public enum Algorithm implements DescriptiveEnum
 			new Type[] { Type.BINARY },
 			new Parameter[] { Parameter.INITIAL_CONVERGENCE_COUNT,
 					Parameter.PRESERVED_POPULATION, Parameter.CONVERGENCE_VALUE,
-					Parameter.POPULATION_SIZE, Parameter.HUX_RATE, Parameter.BF_RATE }),
+					Parameter.POPULATION_SIZE, Parameter.HUX_RATE, Parameter.BF_RATE,
+					Parameter.FEASIBILITY_FIRST, Parameter.CACHE_SIZE,
+					Parameter.MAX_SOLUTIONS }),
 	OMOPSO(
 			"OMOPSO",
 			"<html>OMOPSO is a multiobjective particle swarm optimization algorithm that includes<br>"
@@ -172,7 +200,9 @@ public enum Algorithm implements DescriptiveEnum
 			new Type[] { Type.REAL, Type.INTEGER },
 			new Parameter[] { Parameter.POPULATION_SIZE, Parameter.ARCHIVE_SIZE,
 					Parameter.MUTATION_PROBABILITY, Parameter.PERTURBATION_INDEX,
-					Parameter.EPSILON }),
+					Parameter.EPSILON, Parameter.REFINEMENT_STEPS,
+					Parameter.FEASIBILITY_FIRST, Parameter.CACHE_SIZE,
+					Parameter.MAX_SOLUTIONS }),
 	PAES(
 			"PAES",
 			"<html>PAES is a multiobjective version of evolution strategy. PAES tends to<br>"
@@ -182,7 +212,9 @@ public enum Algorithm implements DescriptiveEnum
 					+ "Algorithm for Multiobjective Optimization.\" Proceedings of the 1999 Congress on<br>"
 					+ "Evolutionary Computation, Piscataway, NJ, 98-105, 1999.<html>",
 			new Type[] { Type.REAL, Type.INTEGER },
-			new Parameter[] { Parameter.ARCHIVE_SIZE, Parameter.BISECTIONS }),
+			new Parameter[] { Parameter.ARCHIVE_SIZE, Parameter.BISECTIONS,
+					Parameter.REFINEMENT_STEPS, Parameter.FEASIBILITY_FIRST,
+					Parameter.CACHE_SIZE, Parameter.MAX_SOLUTIONS }),
 	PESA2(
 			"PESA-II",
 			"<html>PESA-II is another multiobjective evolutionary algorithm<br>"
@@ -193,7 +225,9 @@ public enum Algorithm implements DescriptiveEnum
 					+ "Evolutionary Computation Conference, 283-290, 2001.<html>",
 			new Type[] { Type.REAL, Type.INTEGER, Type.BINARY },
 			new Parameter[] { Parameter.POPULATION_SIZE, Parameter.ARCHIVE_SIZE,
-					Parameter.BISECTIONS }),
+					Parameter.BISECTIONS, Parameter.REFINEMENT_STEPS,
+					Parameter.FEASIBILITY_FIRST, Parameter.CACHE_SIZE,
+					Parameter.MAX_SOLUTIONS }),
 	SMPSO(
 			"SMPSO",
 			"<html>SMPSO is a multiobjective particle swarm optimization algorithm<br>"
@@ -202,7 +236,9 @@ public enum Algorithm implements DescriptiveEnum
 					+ "2009 IEEE Symposium on Computational Intelligence in Multicriteria Decision-Making, 6673, 2009.<html>",
 			new Type[] { Type.REAL, Type.INTEGER },
 			new Parameter[] { Parameter.POPULATION_SIZE, Parameter.ARCHIVE_SIZE,
-					Parameter.PM_RATE, Parameter.PM_DISTRIBUTION_INDEX }),
+					Parameter.PM_RATE, Parameter.PM_DISTRIBUTION_INDEX,
+					Parameter.REFINEMENT_STEPS, Parameter.FEASIBILITY_FIRST,
+					Parameter.CACHE_SIZE, Parameter.MAX_SOLUTIONS }),
 	SMSEMOA(
 			"SMSEMOA",
 			"<html>SMSEMOA is an indicator-based MOEA that uses the volume of the dominated<br>"
@@ -210,7 +246,9 @@ public enum Algorithm implements DescriptiveEnum
 					+ "Beume, N., et al. \"SMS-EMOA: Multiobjective selection based on dominated hypervolume.\"<br>"
 					+ "European Journal of Operational Research, 181(3):1653-1669, 2007.<html>",
 			new Type[] { Type.REAL, Type.INTEGER, Type.BINARY },
-			new Parameter[] { Parameter.POPULATION_SIZE, Parameter.OFFSET }),
+			new Parameter[] { Parameter.POPULATION_SIZE, Parameter.OFFSET,
+					Parameter.REFINEMENT_STEPS, Parameter.FEASIBILITY_FIRST,
+					Parameter.CACHE_SIZE, Parameter.MAX_SOLUTIONS }),
 	SPEA2(
 			"SPEA2",
 			"<html>SPEA2 is an older but popular benchmark MOEA that uses the so-called \"strength-based\"<br>"
@@ -218,7 +256,9 @@ public enum Algorithm implements DescriptiveEnum
 					+ "Zitzler, E., et al. \"SPEA2: Improving the Strength Pareto Evolutionary Algorithm For<br>"
 					+ "Multiobjective Optimization. CIMNE, Barcelona, Spain, 2002.<html>",
 			new Type[] { Type.REAL, Type.INTEGER, Type.BINARY },
-			new Parameter[] { Parameter.POPULATION_SIZE, Parameter.ARCHIVE_SIZE }),
+			new Parameter[] { Parameter.POPULATION_SIZE, Parameter.ARCHIVE_SIZE,
+					Parameter.REFINEMENT_STEPS, Parameter.FEASIBILITY_FIRST,
+					Parameter.CACHE_SIZE, Parameter.MAX_SOLUTIONS }),
 
 	BruteForce(
 			"Brute Force",
@@ -226,7 +266,20 @@ public enum Algorithm implements DescriptiveEnum
 					+ "problem-solving technique that consists of systematically enumerating all possible candidates<br>"
 					+ "for the solution and checking whether each candidate satisfies the problem's statement.<html>",
 			new Type[] { Type.INTEGER, Type.REAL, Type.BINARY },
-			new Parameter[] {});
+			new Parameter[] { Parameter.REFINEMENT_STEPS, Parameter.FEASIBILITY_FIRST,
+					Parameter.MAX_CANDIDATES, Parameter.MAX_SECONDS,
+					Parameter.GRID_POINTS, Parameter.GRID_REFINEMENTS,
+					Parameter.CHECKPOINT_INTERVAL, Parameter.WORKERS, Parameter.EPSILON,
+					Parameter.MAX_SOLUTIONS }),
+
+	BranchAndBound(
+			"Branch and Bound",
+			"<html>Branch and bound finds the same solutions as brute force on the same grid, by recursively<br>"
+					+ "bisecting the domain of the variables and discarding the regions which interval arithmetic<br>"
+					+ "proves to be infeasible or dominated by the solutions found so far.<html>",
+			new Type[] { Type.INTEGER, Type.REAL, Type.BINARY },
+			new Parameter[] { Parameter.REFINEMENT_STEPS, Parameter.FEASIBILITY_FIRST,
+					Parameter.GRID_POINTS, Parameter.MAX_SOLUTIONS });
 
 	/**
 	 * Display value of algorithm.
@@ -289,6 +342,18 @@ public enum Algorithm implements DescriptiveEnum
 		return description;
 	}
 
+	/**
+	 * Returns whether the algorithm is exact, evaluating every solution of a
+	 * grid or proving it dominated, in which case it is run once for a single
+	 * iteration.
+	 *
+	 * @return True if the algorithm is exact, false otherwise.
+	 */
+	public boolean isExact()
+	{
+		return this == BruteForce || this == BranchAndBound;
+	}
+
 	/**
 	 * Returns the compatible parameters with algorithm.
 	 *
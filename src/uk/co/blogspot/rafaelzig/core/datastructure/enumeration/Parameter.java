@@ -235,6 +235,66 @@ public enum Parameter implements DescriptiveEnum
 			"The number of bisections in the adaptive grid archive.",
 			0,
 			Integer.MAX_VALUE),
+	REFINEMENT_STEPS(
+			"refinementSteps",
+			"Refinement Steps",
+			"The number of gradient-based refinement steps applied to each solution of the final result.",
+			0,
+			Integer.MAX_VALUE),
+	FEASIBILITY_FIRST(
+			"feasibilityFirst",
+			"Feasibility First",
+			"If 1, constraints are evaluated first and the objectives of infeasible solutions are skipped.",
+			0,
+			1),
+	CACHE_SIZE(
+			"cacheSize",
+			"Cache Size",
+			"The number of evaluations of INTEGER and BINARY solutions kept to avoid evaluating duplicates, 0 disables the cache.",
+			0,
+			Integer.MAX_VALUE),
+	MAX_CANDIDATES(
+			"maxCandidates",
+			"Max Candidates",
+			"The maximum number of candidate solutions brute force may enumerate.",
+			1.0,
+			Double.MAX_VALUE),
+	MAX_SECONDS(
+			"maxSeconds",
+			"Max Seconds",
+			"The maximum time in seconds brute force is estimated to take, 0 disables the estimate.",
+			0.0,
+			Double.MAX_VALUE),
+	GRID_POINTS(
+			"gridPoints",
+			"Grid Points",
+			"The number of values each REAL variable takes in the brute force grid.",
+			2,
+			Integer.MAX_VALUE),
+	GRID_REFINEMENTS(
+			"gridRefinements",
+			"Grid Refinements",
+			"The number of times brute force halves the grid of REAL variables around the non-dominated solutions.",
+			0,
+			Integer.MAX_VALUE),
+	CHECKPOINT_INTERVAL(
+			"checkpointInterval",
+			"Checkpoint Interval",
+			"The number of seconds between checkpoints of brute force, from which an interrupted search resumes, 0 disables checkpoints.",
+			0,
+			Integer.MAX_VALUE),
+	WORKERS(
+			"workers",
+			"Workers",
+			"The number of worker processes on this host brute force is distributed among, 0 searches within this process.",
+			0,
+			Integer.MAX_VALUE),
+	MAX_SOLUTIONS(
+			"maxSolutions",
+			"Max Solutions",
+			"The maximum number of solutions of the result, whose epsilon values are doubled until it fits, 0 keeps every solution.",
+			0,
+			Integer.MAX_VALUE),
 	OFFSET("offset", "Offset", "Offset", 0.0, Double.MAX_VALUE);
 
 	/**
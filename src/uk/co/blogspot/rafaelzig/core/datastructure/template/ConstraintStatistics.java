@@ -0,0 +1,184 @@
+package uk.co.blogspot.rafaelzig.core.datastructure.template;
+
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Class counting how often each constraint of a problem is evaluated and
+ * violated when constraints are evaluated before the objectives. The
+ * constraints are evaluated in increasing order of their estimated cost per
+ * violation, which is updated periodically from the counts, so that the
+ * cheapest constraints which most often reject a solution are evaluated first.
+ * Instances of this class may be shared between threads.
+ *
+ * @author Rafael da Silva Costa - BSc Computer Science 3rd Year
+ *
+ */
+public class ConstraintStatistics
+{
+	/**
+	 * Number of solutions evaluated between updates of the order of the
+	 * constraints.
+	 */
+	private static final int	UPDATE_INTERVAL	= 1024;
+
+	/**
+	 * Estimated cost of evaluating each constraint.
+	 */
+	private final int[]			costs;
+
+	/**
+	 * Number of times each constraint has been evaluated.
+	 */
+	private final LongAdder[]	evaluations;
+
+	/**
+	 * Number of times each constraint has been violated, preventing the
+	 * evaluation of the remaining constraints and the objectives.
+	 */
+	private final LongAdder[]	violations;
+
+	/**
+	 * Number of solutions evaluated.
+	 */
+	private final AtomicLong	solutions		= new AtomicLong();
+
+	/**
+	 * Indexes of the constraints in the order they are evaluated.
+	 */
+	private volatile int[]		order;
+
+	/**
+	 * Constructs a new instance of ConstraintStatistics for constraints with
+	 * the specified estimated costs, which are initially evaluated in
+	 * increasing order of cost.
+	 *
+	 * @param costs
+	 *            : Estimated cost of evaluating each constraint.
+	 */
+	ConstraintStatistics(int[] costs)
+	{
+		this.costs = costs;
+		evaluations = new LongAdder[costs.length];
+		violations = new LongAdder[costs.length];
+
+		for (int i = 0; i < costs.length; i++)
+		{
+			evaluations[i] = new LongAdder();
+			violations[i] = new LongAdder();
+		}
+
+		order = sort(IntStream.of(costs).asDoubleStream().toArray());
+	}
+
+	/**
+	 * Returns the number of times the specified constraint has been evaluated.
+	 *
+	 * @param index
+	 *            : Index of the constraint.
+	 * @return Number of evaluations of the constraint.
+	 */
+	public long getEvaluations(int index)
+	{
+		return evaluations[index].sum();
+	}
+
+	/**
+	 * Returns the number of constraints being counted.
+	 *
+	 * @return Number of constraints.
+	 */
+	public int getNumberOfConstraints()
+	{
+		return costs.length;
+	}
+
+	/**
+	 * Returns the indexes of the constraints in the order they are to be
+	 * evaluated.
+	 *
+	 * @return Array containing the indexes of the constraints, which must not
+	 *         be modified.
+	 */
+	int[] getOrder()
+	{
+		return order;
+	}
+
+	/**
+	 * Returns the number of times the specified constraint has been violated,
+	 * short-circuiting the evaluation of the solution.
+	 *
+	 * @param index
+	 *            : Index of the constraint.
+	 * @return Number of violations of the constraint.
+	 */
+	public long getShortCircuits(int index)
+	{
+		return violations[index].sum();
+	}
+
+	/**
+	 * Records the outcome of an evaluation of the specified constraint.
+	 *
+	 * @param index
+	 *            : Index of the constraint.
+	 * @param violated
+	 *            : Whether the constraint was violated.
+	 */
+	void record(int index, boolean violated)
+	{
+		evaluations[index].increment();
+
+		if (violated)
+		{
+			violations[index].increment();
+		}
+	}
+
+	/**
+	 * Records the evaluation of a solution, updating the order of the
+	 * constraints once every UPDATE_INTERVAL solutions. The rate of violation
+	 * of each constraint is smoothed, so that constraints which have not been
+	 * violated yet are still ordered by cost.
+	 */
+	void update()
+	{
+		if (solutions.incrementAndGet() % UPDATE_INTERVAL == 0)
+		{
+			order = sort(IntStream.range(0, costs.length).mapToDouble(
+					i -> costs[i] * (evaluations[i].sum() + 2.0)
+							/ (violations[i].sum() + 1.0)).toArray());
+		}
+	}
+
+	/**
+	 * Returns the indexes of the constraints sorted by the specified keys.
+	 *
+	 * @param keys
+	 *            : Key of each constraint.
+	 * @return Array containing the sorted indexes of the constraints.
+	 */
+	private static int[] sort(double[] keys)
+	{
+		return IntStream.range(0, keys.length).boxed()
+				.sorted(Comparator.comparingDouble(i -> keys[i]))
+				.mapToInt(Integer::intValue).toArray();
+	}
+
+	@Override
+	public String toString()
+	{
+		final StringBuilder builder = new StringBuilder();
+
+		for (int i = 0; i < costs.length; i++)
+		{
+			builder.append("c(" + (i + 1) + "): " + getShortCircuits(i) + " of "
+					+ getEvaluations(i) + " evaluations short-circuited\n");
+		}
+
+		return builder.toString();
+	}
+}
@@ -0,0 +1,220 @@
+package uk.co.blogspot.rafaelzig.core.datastructure.template;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.moeaframework.core.PRNG;
+import org.moeaframework.core.Solution;
+import org.moeaframework.core.operator.RandomInitialization;
+
+import uk.co.blogspot.rafaelzig.core.parsing.Operations;
+
+/**
+ * Benchmark of the throughput of {@link ProblemTemplate#evaluate(Solution)}
+ * on 1 to N threads, where N is the number of processors available or 4 if
+ * there are fewer, so that contention between threads shows even on a
+ * single processor. The same random solutions of a saved problem are split
+ * evenly among the threads and evaluated several times, keeping the fastest
+ * time, once a first sweep over every number of threads has warmed up
+ * evaluation. The speedup over a single thread is then printed, and the
+ * evaluations are checked to be the same as those of a single thread.
+ * <p>
+ * The arguments given are the names of the saved problems to be
+ * benchmarked, which are Cones and Fonseca by default.
+ *
+ * @author Rafael da Silva Costa - BSc Computer Science 3rd Year
+ *
+ */
+public final class EvaluationBenchmark
+{
+	/**
+	 * Number of solutions evaluated by each round.
+	 */
+	private static final int	SOLUTIONS	= 200000;
+
+	/**
+	 * Number of times the solutions are evaluated for each number of threads.
+	 */
+	private static final int	ROUNDS		= 5;
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private EvaluationBenchmark()
+	{
+	}
+
+	/**
+	 * Returns the objectives followed by the constraints of each of the
+	 * specified solutions.
+	 *
+	 * @param solutions
+	 *            : Solutions evaluated.
+	 * @return Evaluations of each solution.
+	 */
+	private static double[][] getEvaluations(Solution[] solutions)
+	{
+		final double[][] result = new double[solutions.length][];
+
+		for (int i = 0; i < solutions.length; i++)
+		{
+			final double[] objectives = solutions[i].getObjectives();
+			final double[] constraints = solutions[i].getConstraints();
+
+			result[i] = Arrays.copyOf(objectives, objectives.length + constraints.length);
+			System.arraycopy(constraints, 0, result[i], objectives.length,
+					constraints.length);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Runs the benchmark for each problem and number of threads.
+	 *
+	 * @param args
+	 *            : Names of the saved problems to be benchmarked.
+	 * @throws InterruptedException
+	 *             If the benchmark is interrupted.
+	 * @throws ExecutionException
+	 *             If an evaluation fails.
+	 */
+	public static void main(String[] args) throws InterruptedException,
+			ExecutionException
+	{
+		final String[] names = args.length == 0 ? new String[] { "Cones", "Fonseca" }
+				: args;
+		final int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+		System.out.printf("%-16s %-10s %-16s %-10s %s%n", "Problem", "Threads",
+				"Evaluations/s", "Speedup", "Same results");
+
+		for (final String name : names)
+		{
+			final ProblemTemplate problem = Operations.loadProblems().get(name);
+
+			if (problem == null)
+			{
+				System.out.printf("%-16s not found%n", name);
+				continue;
+			}
+
+			run(problem, threads);
+		}
+	}
+
+	/**
+	 * Benchmarks the specified problem on 1 to the specified number of
+	 * threads, printing the throughput and speedup for each.
+	 *
+	 * @param problem
+	 *            : Problem whose solutions are evaluated.
+	 * @param threads
+	 *            : Greatest number of threads.
+	 * @throws InterruptedException
+	 *             If the benchmark is interrupted.
+	 * @throws ExecutionException
+	 *             If an evaluation fails.
+	 */
+	private static void run(ProblemTemplate problem, int threads)
+			throws InterruptedException, ExecutionException
+	{
+		PRNG.setSeed(SOLUTIONS);
+		final Solution[] solutions = new RandomInitialization(problem, SOLUTIONS)
+				.initialize();
+		double single = 0.0;
+		double[][] expected = null;
+
+		// A first sweep warms up evaluation, whose compilation would otherwise
+		// be timed on a single thread
+		for (int count = 1; count <= threads; count++)
+		{
+			time(problem, solutions, count);
+		}
+
+		for (int count = 1; count <= threads; count++)
+		{
+			final double seconds = time(problem, solutions, count);
+			final double[][] evaluations = getEvaluations(solutions);
+
+			if (count == 1)
+			{
+				single = seconds;
+				expected = evaluations;
+			}
+
+			System.out.printf("%-16s %-10d %-16.0f %-10.2f %s%n", problem.getName(),
+					count, SOLUTIONS / seconds, single / seconds, Arrays.deepEquals(
+							expected, evaluations));
+		}
+	}
+
+	/**
+	 * Returns the fastest time taken by the specified number of threads to
+	 * evaluate the specified solutions, each one evaluating a contiguous slice
+	 * of them.
+	 *
+	 * @param problem
+	 *            : Problem whose solutions are evaluated.
+	 * @param solutions
+	 *            : Solutions to be evaluated.
+	 * @param threads
+	 *            : Number of threads.
+	 * @return Time in seconds.
+	 * @throws InterruptedException
+	 *             If the benchmark is interrupted.
+	 * @throws ExecutionException
+	 *             If an evaluation fails.
+	 */
+	private static double time(ProblemTemplate problem, Solution[] solutions,
+			int threads) throws InterruptedException, ExecutionException
+	{
+		final ExecutorService pool = Executors.newFixedThreadPool(threads);
+		final List<Callable<Void>> slices = new ArrayList<>(threads);
+
+		for (int i = 0; i < threads; i++)
+		{
+			final int from = (int) ((long) solutions.length * i / threads);
+			final int to = (int) ((long) solutions.length * (i + 1) / threads);
+
+			slices.add(() ->
+			{
+				for (int j = from; j < to; j++)
+				{
+					problem.evaluate(solutions[j]);
+				}
+
+				return null;
+			});
+		}
+
+		long fastest = Long.MAX_VALUE;
+
+		try
+		{
+			for (int round = 0; round < ROUNDS; round++)
+			{
+				final long start = System.nanoTime();
+
+				for (final Future<Void> future : pool.invokeAll(slices))
+				{
+					future.get();
+				}
+
+				fastest = Math.min(fastest, System.nanoTime() - start);
+			}
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+
+		return fastest / 1e9;
+	}
+}
@@ -0,0 +1,252 @@
+package uk.co.blogspot.rafaelzig.core.datastructure.template;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.moeaframework.core.Solution;
+
+/**
+ * Class storing the evaluations of solutions keyed by the decoded values of
+ * their decision variables, so that solutions which have already been
+ * evaluated are not evaluated again. The number of evaluations stored is
+ * bounded, the oldest ones being evicted according to the chosen policy.
+ * Entries are distributed among several segments, each one locked separately,
+ * therefore instances of this class may be shared between threads.
+ *
+ * @author Rafael da Silva Costa - BSc Computer Science 3rd Year
+ *
+ */
+public class EvaluationCache
+{
+	/**
+	 * Enum Type representing the policies by which evaluations are evicted
+	 * once the cache is full.
+	 */
+	public enum Eviction
+	{
+		/**
+		 * Evicts the evaluation which has been stored or found the longest
+		 * time ago.
+		 */
+		LEAST_RECENTLY_USED,
+
+		/**
+		 * Evicts the evaluation which has been stored the longest time ago.
+		 */
+		INSERTION_ORDER
+	}
+
+	/**
+	 * Key of the cache, holding the decoded values of the decision variables
+	 * of a solution.
+	 */
+	private static final class Key
+	{
+		/**
+		 * Decoded values of the decision variables.
+		 */
+		private final double[]	values;
+
+		/**
+		 * Hash code of the values, which is computed once.
+		 */
+		private final int		hash;
+
+		/**
+		 * Constructs a new instance of Key for the specified values.
+		 *
+		 * @param values
+		 *            : Decoded values of the decision variables.
+		 */
+		private Key(double[] values)
+		{
+			this.values = values;
+			hash = Arrays.hashCode(values);
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			return obj instanceof Key && Arrays.equals(values, ((Key) obj).values);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return hash;
+		}
+	}
+
+	/**
+	 * Number of segments the entries are distributed among.
+	 */
+	private static final int						SEGMENTS	= 16;
+
+	/**
+	 * Segments of the cache, each one mapping keys to the objectives and
+	 * constraints of the evaluated solutions.
+	 */
+	private final Map<Key, double[][]>[]			segments;
+
+	/**
+	 * Number of evaluations found in the cache.
+	 */
+	private final LongAdder							hits		= new LongAdder();
+
+	/**
+	 * Number of evaluations not found in the cache.
+	 */
+	private final LongAdder							misses		= new LongAdder();
+
+	/**
+	 * Number of evaluations evicted from the cache.
+	 */
+	private final LongAdder							evictions	= new LongAdder();
+
+	/**
+	 * Constructs a new instance of EvaluationCache storing up to the specified
+	 * number of evaluations.
+	 *
+	 * @param capacity
+	 *            : Maximum number of evaluations stored.
+	 * @param eviction
+	 *            : Policy by which evaluations are evicted.
+	 */
+	public EvaluationCache(int capacity, Eviction eviction)
+	{
+		final int segmentCapacity = Math.max(1, (capacity + SEGMENTS - 1) / SEGMENTS);
+		@SuppressWarnings("unchecked")
+		final Map<Key, double[][]>[] maps = (Map<Key, double[][]>[]) new Map<?, ?>[SEGMENTS];
+		segments = maps;
+
+		for (int i = 0; i < SEGMENTS; i++)
+		{
+			segments[i] = new LinkedHashMap<Key, double[][]>(16, 0.75f,
+					eviction == Eviction.LEAST_RECENTLY_USED)
+			{
+				private static final long	serialVersionUID	= 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Key, double[][]> eldest)
+				{
+					if (size() > segmentCapacity)
+					{
+						evictions.increment();
+						return true;
+					}
+
+					return false;
+				}
+			};
+		}
+	}
+
+	/**
+	 * Returns the number of evaluations evicted from this cache.
+	 *
+	 * @return Number of evictions.
+	 */
+	public long getEvictions()
+	{
+		return evictions.sum();
+	}
+
+	/**
+	 * Returns the number of evaluations found in this cache.
+	 *
+	 * @return Number of hits.
+	 */
+	public long getHits()
+	{
+		return hits.sum();
+	}
+
+	/**
+	 * Returns the number of evaluations not found in this cache.
+	 *
+	 * @return Number of misses.
+	 */
+	public long getMisses()
+	{
+		return misses.sum();
+	}
+
+	/**
+	 * Returns the segment holding the specified key.
+	 *
+	 * @param key
+	 *            : Key to be located.
+	 * @return Segment holding the key.
+	 */
+	private Map<Key, double[][]> getSegment(Key key)
+	{
+		// Spreads the high bits, as the hash codes of doubles vary little
+		// in their low bits
+		final int hash = key.hash ^ key.hash >>> 16;
+		return segments[hash & SEGMENTS - 1];
+	}
+
+	/**
+	 * Stores the objectives and constraints of the specified solution, which
+	 * has just been evaluated, in this cache.
+	 *
+	 * @param variables
+	 *            : Decoded values of the decision variables of the solution.
+	 * @param solution
+	 *            : Solution which has been evaluated.
+	 */
+	void put(double[] variables, Solution solution)
+	{
+		final Key key = new Key(variables);
+		final Map<Key, double[][]> segment = getSegment(key);
+		final double[][] evaluation = { solution.getObjectives(),
+				solution.getConstraints() };
+
+		synchronized (segment)
+		{
+			segment.put(key, evaluation);
+		}
+	}
+
+	/**
+	 * Restores the objectives and constraints of the specified solution from
+	 * this cache, if they have been stored.
+	 *
+	 * @param variables
+	 *            : Decoded values of the decision variables of the solution.
+	 * @param solution
+	 *            : Solution to be evaluated.
+	 * @return True if the evaluation was found, false otherwise.
+	 */
+	boolean restore(double[] variables, Solution solution)
+	{
+		final Key key = new Key(variables);
+		final Map<Key, double[][]> segment = getSegment(key);
+		final double[][] evaluation;
+
+		synchronized (segment)
+		{
+			evaluation = segment.get(key);
+		}
+
+		if (evaluation == null)
+		{
+			misses.increment();
+			return false;
+		}
+
+		hits.increment();
+		solution.setObjectives(evaluation[0]);
+		solution.setConstraints(evaluation[1]);
+		return true;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "Evaluation cache: " + getHits() + " hits, " + getMisses() + " misses, "
+				+ getEvictions() + " evictions\n";
+	}
+}
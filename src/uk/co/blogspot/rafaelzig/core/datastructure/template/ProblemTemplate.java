@@ -12,10 +12,10 @@ import org.moeaframework.core.variable.EncodingUtils;
 
 import uk.co.blogspot.rafaelzig.core.datastructure.template.Constraint.ConstraintOperator;
 import uk.co.blogspot.rafaelzig.core.datastructure.template.VariableTemplate.Type;
+import uk.co.blogspot.rafaelzig.core.parsing.CompiledProblem;
+import uk.co.blogspot.rafaelzig.core.parsing.IncrementalEvaluation;
 import uk.co.blogspot.rafaelzig.core.parsing.Operations;
 
-import com.fathzer.soft.javaluator.StaticVariableSet;
-
 /**
  * Class representing a customised multi-objective optimisation problem.
  *
@@ -44,16 +44,78 @@ public class ProblemTemplate implements Problem
 	 */
 	private final String				name;
 
+	/**
+	 * Parsed expressions of the objectives and constraints of the problem,
+	 * which are not serialised.
+	 */
+	private transient volatile CompiledProblem	compiled;
+
+	/**
+	 * Counts of the evaluations of each constraint, which are only kept when
+	 * constraints are evaluated before the objectives and are otherwise null.
+	 */
+	private final transient ConstraintStatistics	statistics;
+
+	/**
+	 * Evaluations of previously evaluated solutions, which are only kept for
+	 * pure problems whose variables are all of type INTEGER or BINARY and are
+	 * otherwise null.
+	 */
+	private final transient EvaluationCache		cache;
+
 	/**
 	 * Constructs a new instance of ProblemTemplate taking its values from the
-	 * provided ProblemTemplate object.
+	 * provided ProblemTemplate object, including its parsed expressions.
 	 *
 	 * @param problem
 	 *            : ProblemTemplate object to take the values from.
 	 */
 	public ProblemTemplate(ProblemTemplate problem)
 	{
-		this(problem.name, problem.variables, problem.objectives, problem.constraints);
+		this(problem.name, problem.variables, problem.objectives, problem.constraints,
+				problem.getCompiled(), problem.statistics, problem.cache);
+	}
+
+	/**
+	 * Constructs a new instance of ProblemTemplate taking its values from the
+	 * provided ProblemTemplate object, which evaluates the constraints of each
+	 * solution before its objectives if specified. Constraints are then
+	 * evaluated in increasing order of their estimated cost per violation,
+	 * stopping at the first one violated, and the objectives of infeasible
+	 * solutions are set to positive infinity without being evaluated.
+	 *
+	 * @param problem
+	 *            : ProblemTemplate object to take the values from.
+	 * @param feasibilityFirst
+	 *            : Whether constraints are evaluated before the objectives.
+	 */
+	public ProblemTemplate(ProblemTemplate problem, boolean feasibilityFirst)
+	{
+		this(problem, feasibilityFirst, null);
+	}
+
+	/**
+	 * Constructs a new instance of ProblemTemplate taking its values from the
+	 * provided ProblemTemplate object, which evaluates the constraints of each
+	 * solution before its objectives if specified, and stores its evaluations
+	 * in the specified cache. The cache is ignored unless all variables of the
+	 * problem are of type INTEGER or BINARY and none of its expressions calls
+	 * random(), as the evaluations could not be reused otherwise.
+	 *
+	 * @param problem
+	 *            : ProblemTemplate object to take the values from.
+	 * @param feasibilityFirst
+	 *            : Whether constraints are evaluated before the objectives.
+	 * @param cache
+	 *            : Cache of evaluations, or null if none is to be used.
+	 */
+	public ProblemTemplate(ProblemTemplate problem, boolean feasibilityFirst,
+			EvaluationCache cache)
+	{
+		this(problem.name, problem.variables, problem.objectives, problem.constraints,
+				problem.getCompiled(), feasibilityFirst ? new ConstraintStatistics(
+						problem.getCompiled().getCosts()) : null, problem
+						.isCacheable() ? cache : null);
 	}
 
 	/**
@@ -109,6 +171,34 @@ public class ProblemTemplate implements Problem
 	 */
 	public ProblemTemplate(String name, VariableTemplate[] variables,
 			Objective[] objectives, Constraint[] constraints)
+	{
+		this(name, variables, objectives, constraints, new CompiledProblem(variables,
+				objectives, constraints), null, null);
+	}
+
+	/**
+	 * Constructs a new instance of ProblemTemplate with the provided name,
+	 * variables, objectives, constraints and their parsed expressions.
+	 *
+	 * @param name
+	 *            : User-friendly name of the problem.
+	 * @param variables
+	 *            : Decision variables of the problem.
+	 * @param objectives
+	 *            : Objectives of the problem.
+	 * @param constraints
+	 *            : Constraints of the problem.
+	 * @param compiled
+	 *            : Parsed expressions of the objectives and constraints.
+	 * @param statistics
+	 *            : Counts of the evaluations of each constraint, or null if
+	 *            the objectives are evaluated first.
+	 * @param cache
+	 *            : Cache of evaluations, or null if none is used.
+	 */
+	private ProblemTemplate(String name, VariableTemplate[] variables,
+			Objective[] objectives, Constraint[] constraints, CompiledProblem compiled,
+			ConstraintStatistics statistics, EvaluationCache cache)
 	{
 		super();
 
@@ -116,6 +206,9 @@ public class ProblemTemplate implements Problem
 		this.variables = variables;
 		this.objectives = objectives;
 		this.constraints = constraints;
+		this.compiled = compiled;
+		this.statistics = statistics;
+		this.cache = cache;
 	}
 
 	@Override
@@ -127,14 +220,84 @@ public class ProblemTemplate implements Problem
 	@Override
 	public void evaluate(Solution solution)
 	{
-		final StaticVariableSet<Double> varValues = getVariableValues(solution);
+		final CompiledProblem compiled = getCompiled();
+
+		if (cache == null)
+		{
+			evaluate(solution, compiled);
+			return;
+		}
+
+		final double[] variables = compiled.decodeVariables(solution);
+
+		if (!cache.restore(variables, solution))
+		{
+			evaluate(solution, compiled);
+			cache.put(variables, solution);
+		}
+	}
+
+	/**
+	 * Stores the results of the specified incremental evaluation in the
+	 * specified solution, which are the same as those of evaluating the
+	 * solution if the evaluation is of the values of its variables. The
+	 * objectives of an invalid solution are reset to zero, as the solution may
+	 * have held those of another one.
+	 *
+	 * @param solution
+	 *            : Solution object to store the results in.
+	 * @param evaluation
+	 *            : Incremental evaluation of the variables of the solution.
+	 */
+	public void evaluate(Solution solution, IncrementalEvaluation evaluation)
+	{
+		for (int i = 0; i < getNumberOfObjectives(); i++)
+		{
+			if (Double.isNaN(evaluation.getResult(i)))
+			{
+				for (int j = 0; j < getNumberOfObjectives(); j++)
+				{
+					solution.setObjective(j, 0.0);
+				}
+
+				invalidate(solution);
+				return;
+			}
+		}
 
-		final double[] objectiveEvaluations = getObjectiveEvaluations(varValues);
+		for (int i = 0; i < getNumberOfObjectives(); i++)
+		{
+			solution.setObjective(i, objectives[i].isMaximisation() ? -evaluation
+					.getResult(i) : evaluation.getResult(i));
+		}
 
-		if (objectiveEvaluations != null)
+		for (int i = 0; i < getNumberOfConstraints(); i++)
 		{
-			solution.setObjectives(objectiveEvaluations);
-			solution.setConstraints(getConstraintEvaluations(varValues));
+			solution.setConstraint(i, getViolation(i, evaluation
+					.getResult(getNumberOfObjectives() + 2 * i), evaluation
+					.getResult(getNumberOfObjectives() + 2 * i + 1)));
+		}
+	}
+
+	/**
+	 * Evaluates the specified solution, storing the results in it.
+	 *
+	 * @param solution
+	 *            : Solution object to be evaluated.
+	 * @param compiled
+	 *            : Parsed expressions of this problem.
+	 */
+	private void evaluate(Solution solution, CompiledProblem compiled)
+	{
+		final double[] values = compiled.decode(solution);
+
+		if (statistics != null && getNumberOfConstraints() > 0)
+		{
+			evaluateFeasibilityFirst(solution, compiled, values);
+		}
+		else if (evaluateObjectives(solution, compiled, values))
+		{
+			evaluateConstraints(solution, compiled, values);
 		}
 		else
 		{
@@ -143,53 +306,256 @@ public class ProblemTemplate implements Problem
 	}
 
 	/**
-	 * Evaluates and returns the constraints for this problem.
+	 * Evaluates the constraints of this problem, storing the results in the
+	 * specified solution.
 	 *
 	 * @param solution
-	 *            : Current solution being evaluated.
+	 *            : Solution object to store the results in.
+	 * @param compiled
+	 *            : Parsed expressions of this problem.
 	 * @param values
 	 *            : Values for the variables being used.
-	 * @return Array containing the results of the constraint evaluations.
 	 */
-	private double[] getConstraintEvaluations(StaticVariableSet<Double> values)
+	private void evaluateConstraints(Solution solution, CompiledProblem compiled,
+			double[] values)
 	{
-		final double[] constraintEvaluations = new double[getNumberOfConstraints()];
+		for (int i = 0; i < getNumberOfConstraints(); i++)
+		{
+			solution.setConstraint(i, getViolation(i,
+					Operations.evaluate(compiled.getLhs(i), values),
+					Operations.evaluate(compiled.getRhs(i), values)));
+		}
+	}
+
+	/**
+	 * Evaluates the specified range of solutions as a batch, where each
+	 * expression is evaluated for all solutions at once over the values of the
+	 * decision variables stored by column. The results are the same as those
+	 * of evaluating each solution in turn, although they are not cached, as the
+	 * solutions of a batch are expected to be distinct.
+	 *
+	 * @param solutions
+	 *            : Solution objects to be evaluated.
+	 * @param from
+	 *            : Index of the first solution, inclusive.
+	 * @param to
+	 *            : Index of the last solution, exclusive.
+	 */
+	public void evaluateAll(Solution[] solutions, int from, int to)
+	{
+		// Solutions are evaluated in turn so that each one may short-circuit
+		if (statistics != null && getNumberOfConstraints() > 0)
+		{
+			for (int j = from; j < to; j++)
+			{
+				evaluate(solutions[j]);
+			}
+
+			return;
+		}
+
+		final CompiledProblem compiled = getCompiled();
+		final int length = to - from;
+		final double[][] columns = compiled.decode(solutions, from, to);
+		final double[][] objectiveEvaluations = new double[getNumberOfObjectives()][];
+		final double[][] lhsEvaluations = new double[getNumberOfConstraints()][];
+		final double[][] rhsEvaluations = new double[getNumberOfConstraints()][];
+
+		for (int i = 0; i < getNumberOfObjectives(); i++)
+		{
+			objectiveEvaluations[i] = Operations.evaluate(compiled.getObjective(i),
+					columns, length);
+		}
 
 		for (int i = 0; i < getNumberOfConstraints(); i++)
 		{
-			final ConstraintOperator operator = constraints[i].getOperator();
-			final double evaluatedLhs = Operations.evaluate(constraints[i].getLhs(),
-					values);
-			final double evaluatedRhs = Operations.evaluate(constraints[i].getRhs(),
-					values);
+			lhsEvaluations[i] = Operations.evaluate(compiled.getLhs(i), columns, length);
+			rhsEvaluations[i] = Operations.evaluate(compiled.getRhs(i), columns, length);
+		}
+
+		for (int j = 0; j < length; j++)
+		{
+			final Solution solution = solutions[from + j];
+			boolean valid = true;
 
-			if (operator == ConstraintOperator.LESS_OR_EQUAL
-					&& evaluatedLhs <= evaluatedRhs
-					|| operator == ConstraintOperator.NOT_EQUAL
-					&& evaluatedLhs != evaluatedRhs
-					|| operator == ConstraintOperator.GREATER_OR_EQUAL
-					&& evaluatedLhs >= evaluatedRhs)
+			for (int i = 0; i < getNumberOfObjectives() && valid; i++)
 			{
-				constraintEvaluations[i] = 0.0;
+				valid = !Double.isNaN(objectiveEvaluations[i][j]);
 			}
-			else if (operator == ConstraintOperator.LESS_OR_EQUAL
-					&& evaluatedLhs >= evaluatedRhs
-					|| operator == ConstraintOperator.GREATER_OR_EQUAL
-					&& evaluatedLhs <= evaluatedRhs)
+
+			if (!valid)
 			{
-				constraintEvaluations[i] = evaluatedLhs - evaluatedRhs;
-				// Assign the difference for constraint violation
+				invalidate(solution);
+				continue;
 			}
-			else
-			// (operator == ConstraintOperator.NOT_EQUAL && evaluatedLhs ==
-			// evaluatedRhs)
+
+			for (int i = 0; i < getNumberOfObjectives(); i++)
+			{
+				solution.setObjective(i, objectives[i].isMaximisation()
+						? -objectiveEvaluations[i][j] : objectiveEvaluations[i][j]);
+			}
+
+			for (int i = 0; i < getNumberOfConstraints(); i++)
+			{
+				solution.setConstraint(i, getViolation(i, lhsEvaluations[i][j],
+						rhsEvaluations[i][j]));
+			}
+		}
+	}
+
+	/**
+	 * Evaluates the constraints of this problem in the order given by the
+	 * statistics, stopping at the first violated one, and evaluates the
+	 * objectives only if all constraints are satisfied. The objectives of an
+	 * infeasible solution are set to positive infinity, which is the worst
+	 * value of any objective, and the constraints following the violated one
+	 * are left satisfied, therefore infeasible solutions are ranked by the
+	 * violation of that constraint alone.
+	 *
+	 * @param solution
+	 *            : Solution object to store the results in.
+	 * @param compiled
+	 *            : Parsed expressions of this problem.
+	 * @param values
+	 *            : Values for the variables being used.
+	 */
+	private void evaluateFeasibilityFirst(Solution solution, CompiledProblem compiled,
+			double[] values)
+	{
+		final double[] constraintEvaluations = new double[getNumberOfConstraints()];
+		boolean feasible = true;
+
+		for (final int i : statistics.getOrder())
+		{
+			constraintEvaluations[i] = getViolation(i,
+					Operations.evaluate(compiled.getLhs(i), values),
+					Operations.evaluate(compiled.getRhs(i), values));
+			feasible = constraintEvaluations[i] == 0.0;
+			statistics.record(i, !feasible);
+
+			if (!feasible)
+			{
+				break;
+			}
+		}
+
+		statistics.update();
+		solution.setConstraints(constraintEvaluations);
+
+		if (!feasible)
+		{
+			for (int i = 0; i < getNumberOfObjectives(); i++)
+			{
+				solution.setObjective(i, Double.POSITIVE_INFINITY);
+			}
+		}
+		else if (!evaluateObjectives(solution, compiled, values))
+		{
+			invalidate(solution);
+		}
+	}
+
+	/**
+	 * Returns a new incremental evaluation of this problem for the values of
+	 * the variables of the specified solution, whose results may be updated as
+	 * one variable changes at a time. Evaluations are not incremental if the
+	 * constraints are evaluated feasibility first, or if any expression calls
+	 * random(), as the results of unchanged expressions could not be kept.
+	 *
+	 * @param solution
+	 *            : Solution object to take the values from.
+	 * @return Incremental evaluation of the variables of the solution, or null
+	 *         if evaluations of this problem are not incremental.
+	 */
+	public IncrementalEvaluation evaluateIncrementally(Solution solution)
+	{
+		final CompiledProblem compiled = getCompiled();
+
+		if (statistics != null || !compiled.isPure())
+		{
+			return null;
+		}
+
+		return compiled.evaluateIncrementally(compiled.decodeVariables(solution));
+	}
+
+	/**
+	 * Evaluates the objective functions of this problem, storing the results in
+	 * the specified solution only if all of them could be evaluated.
+	 *
+	 * @param solution
+	 *            : Solution object to store the results in.
+	 * @param compiled
+	 *            : Parsed expressions of this problem.
+	 * @param values
+	 *            : Values for the variables being used.
+	 * @return True if all objectives could be evaluated, false otherwise.
+	 */
+	private boolean evaluateObjectives(Solution solution, CompiledProblem compiled,
+			double[] values)
+	{
+		final double[] objectiveEvaluations = new double[getNumberOfObjectives()];
+
+		for (int i = 0; i < getNumberOfObjectives(); i++)
+		{
+			objectiveEvaluations[i] = Operations.evaluate(compiled.getObjective(i),
+					values);
+
+			if (Double.isNaN(objectiveEvaluations[i]))
+			{
+				return false;
+			}
+
+			if (objectives[i].isMaximisation())
 			{
-				constraintEvaluations[i] = 1; // Assign a fixed value for
-				// constraint violation
+				objectiveEvaluations[i] = -objectiveEvaluations[i];
 			}
 		}
 
-		return constraintEvaluations;
+		solution.setObjectives(objectiveEvaluations);
+		return true;
+	}
+
+	/**
+	 * Returns the cache of evaluations of this problem.
+	 *
+	 * @return EvaluationCache object of this problem, or null if evaluations
+	 *         are not cached.
+	 */
+	public EvaluationCache getEvaluationCache()
+	{
+		return cache;
+	}
+
+	/**
+	 * Returns the parsed expressions of this problem, parsing them if this
+	 * problem was deserialised without having its constructor invoked.
+	 *
+	 * @return Parsed expressions of this problem.
+	 */
+	private CompiledProblem getCompiled()
+	{
+		CompiledProblem result = compiled;
+
+		if (result == null)
+		{
+			result = new CompiledProblem(variables, objectives, constraints);
+			compiled = result;
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the counts of the evaluations of each constraint of this
+	 * problem.
+	 *
+	 * @return ConstraintStatistics object of this problem, or null if the
+	 *         objectives are evaluated before the constraints.
+	 */
+	public ConstraintStatistics getConstraintStatistics()
+	{
+		return statistics;
 	}
 
 	/**
@@ -227,38 +593,155 @@ public class ProblemTemplate implements Problem
 	}
 
 	/**
-	 * Evaluates and returns the objective functions for the specified solution.
+	 * Returns the value of the violation of the specified constraint for the
+	 * specified evaluations of its sides, which is zero if it is satisfied.
 	 *
-	 * @param solution
+	 * @param index
+	 *            : Index of the constraint.
+	 * @param evaluatedLhs
+	 *            : Result of the evaluation of the left-hand side.
+	 * @param evaluatedRhs
+	 *            : Result of the evaluation of the right-hand side.
+	 * @return Value of the violation of the constraint.
+	 */
+	private double getViolation(int index, double evaluatedLhs, double evaluatedRhs)
+	{
+		final ConstraintOperator operator = constraints[index].getOperator();
+
+		if (operator == ConstraintOperator.LESS_OR_EQUAL && evaluatedLhs <= evaluatedRhs
+				|| operator == ConstraintOperator.NOT_EQUAL
+				&& evaluatedLhs != evaluatedRhs
+				|| operator == ConstraintOperator.GREATER_OR_EQUAL
+				&& evaluatedLhs >= evaluatedRhs)
+		{
+			return 0.0;
+		}
+		else if (operator == ConstraintOperator.LESS_OR_EQUAL
+				&& evaluatedLhs >= evaluatedRhs
+				|| operator == ConstraintOperator.GREATER_OR_EQUAL
+				&& evaluatedLhs <= evaluatedRhs)
+		{
+			// Assign the difference for constraint violation
+			return evaluatedLhs - evaluatedRhs;
+		}
+		else
+		// (operator == ConstraintOperator.NOT_EQUAL && evaluatedLhs ==
+		// evaluatedRhs)
+		{
+			return 1; // Assign a fixed value for constraint violation
+		}
+	}
+
+
+	/**
+	 * Returns the gradients of the objectives and constraints of this problem
+	 * for the specified solution, with respect to the decision variables of
+	 * type REAL. The gradients of maximised objectives are negated, as their
+	 * evaluations are, and the gradient of a constraint is that of the
+	 * difference between its sides.
 	 *
 	 * @param solution
-	 *            : Current solution being evaluated.
-	 * @param values
-	 *            : Values for the variables being used.
-	 * @return Array containing the results of the objective evaluations.
+	 *            : Solution object to take the values from.
+	 * @return Array containing the gradients of the objectives followed by
+	 *         those of the constraints, where the partial derivatives are in
+	 *         the order of getRealVariables(), or null if the solution cannot
+	 *         be evaluated.
 	 */
-	private double[] getObjectiveEvaluations(StaticVariableSet<Double> varValues)
+	public double[][] getGradients(Solution solution)
 	{
-		final double[] objectiveEvaluations = new double[getNumberOfObjectives()];
+		final double[][] derivatives = getCompiled().differentiate(solution);
+		final double[][] gradients = new double[getNumberOfObjectives()
+				+ getNumberOfConstraints()][];
 
 		for (int i = 0; i < getNumberOfObjectives(); i++)
 		{
-			final String expression = objectives[i].getExpression();
+			if (derivatives[i] == null)
+			{
+				return null;
+			}
 
-			objectiveEvaluations[i] = Operations.evaluate(expression, varValues);
+			gradients[i] = derivatives[i].clone();
 
-			if (Double.isNaN(objectiveEvaluations[i]))
+			if (objectives[i].isMaximisation())
+			{
+				for (int j = 0; j < gradients[i].length; j++)
+				{
+					gradients[i][j] = -gradients[i][j];
+				}
+			}
+		}
+
+		for (int i = 0; i < getNumberOfConstraints(); i++)
+		{
+			final double[] lhs = derivatives[getNumberOfObjectives() + 2 * i];
+			final double[] rhs = derivatives[getNumberOfObjectives() + 2 * i + 1];
+
+			if (lhs == null || rhs == null)
 			{
 				return null;
 			}
 
-			if (objectives[i].isMaximisation())
+			gradients[getNumberOfObjectives() + i] = new double[lhs.length];
+
+			for (int j = 0; j < lhs.length; j++)
 			{
-				objectiveEvaluations[i] = -objectiveEvaluations[i];
+				gradients[getNumberOfObjectives() + i][j] = lhs[j] - rhs[j];
+			}
+		}
+
+		return gradients;
+	}
+
+	/**
+	 * Returns the lower bounds of the decision variables of this problem, as
+	 * they are decoded for evaluation.
+	 *
+	 * @return Array containing the lower bound of each variable.
+	 */
+	public double[] getLowerBounds()
+	{
+		final double[] bounds = new double[getNumberOfVariables()];
+
+		for (int i = 0; i < getNumberOfVariables(); i++)
+		{
+			bounds[i] = variables[i].getLowerBound().doubleValue();
+		}
+
+		return bounds;
+	}
+
+	/**
+	 * Returns enclosures of the evaluations of the objectives of this problem
+	 * for all solutions whose variables lie within the specified box. The
+	 * enclosures of maximised objectives are negated, as their evaluations
+	 * are.
+	 *
+	 * @param lower
+	 *            : Lower bounds of the decision variables.
+	 * @param upper
+	 *            : Upper bounds of the decision variables.
+	 * @return Array containing the lower and upper bounds of each objective,
+	 *         where the bounds of an objective whose evaluation fails
+	 *         throughout the box are null.
+	 */
+	public double[][] getObjectiveBounds(double[] lower, double[] upper)
+	{
+		final double[][] enclosures = getCompiled().enclose(lower, upper);
+		final double[][] bounds = new double[getNumberOfObjectives()][];
+
+		for (int i = 0; i < getNumberOfObjectives(); i++)
+		{
+			if (enclosures[i] != null && objectives[i].isMaximisation())
+			{
+				bounds[i] = new double[] { -enclosures[i][1], -enclosures[i][0] };
+			}
+			else
+			{
+				bounds[i] = enclosures[i];
 			}
 		}
 
-		return objectiveEvaluations;
+		return bounds;
 	}
 
 	/**
@@ -322,6 +805,35 @@ public class ProblemTemplate implements Problem
 		return types;
 	}
 
+	/**
+	 * Returns the indexes of the decision variables of type REAL, in the order
+	 * of the partial derivatives returned by getGradients().
+	 *
+	 * @return Array containing the indexes of the REAL variables.
+	 */
+	public int[] getRealVariables()
+	{
+		return getCompiled().getRealVariables();
+	}
+
+	/**
+	 * Returns the upper bounds of the decision variables of this problem, as
+	 * they are decoded for evaluation.
+	 *
+	 * @return Array containing the upper bound of each variable.
+	 */
+	public double[] getUpperBounds()
+	{
+		final double[] bounds = new double[getNumberOfVariables()];
+
+		for (int i = 0; i < getNumberOfVariables(); i++)
+		{
+			bounds[i] = variables[i].getUpperBound().doubleValue();
+		}
+
+		return bounds;
+	}
+
 	/**
 	 * Returns the variable templates of this problem.
 	 *
@@ -351,68 +863,94 @@ public class ProblemTemplate implements Problem
 	}
 
 	/**
-	 * Returns the values for each of the variables for the provided solution.
+	 * Invalidates the specified solution by setting all constraints to positive
+	 * infinity.
 	 *
 	 * @param solution
-	 *            : Solution object to take the values from.
-	 * @return StaticVariableSet object containing the values for each of the
-	 *         variables of this problem.
+	 *            : Solution to be invalidated.
 	 */
-	private StaticVariableSet<Double> getVariableValues(Solution solution)
+	private void invalidate(Solution solution)
 	{
-		final StaticVariableSet<Double> values = new StaticVariableSet<>();
+		final double[] constraintEvaluations = new double[getNumberOfConstraints()];
 
-		for (int i = 0; i < getNumberOfVariables(); i++)
+		for (int i = 0; i < getNumberOfConstraints(); i++)
 		{
-			final Variable x = solution.getVariable(i);
-			double value;
-
-			switch (variables[i].getType())
-			{
-				case BINARY:
-				{
-					value = EncodingUtils.getBoolean(x) ? 1.0 : 0.0;
-					break;
-				}
-				case INTEGER:
-				{
-					value = EncodingUtils.getInt(x);
-					break;
-				}
-				case REAL:
-				{
-					value = EncodingUtils.getReal(x);
-					break;
-				}
-				default:
-				{
-					value = 0.0;
-				}
-			}
-
-			values.set("x" + (i + 1), value);
+			constraintEvaluations[i] = Double.POSITIVE_INFINITY;
 		}
 
-		return values;
+		solution.setConstraints(constraintEvaluations);
 	}
 
 	/**
-	 * Invalidates the specified solution by setting all constraints to positive
-	 * infinity.
+	 * Returns whether the evaluations of this problem may be cached, which is
+	 * the case if all of its variables are of type INTEGER or BINARY, so that
+	 * solutions are likely to be evaluated more than once, and all of its
+	 * expressions are pure.
 	 *
-	 * @param solution
-	 *            : Solution to be invalidated.
+	 * @return True if evaluations may be cached, false otherwise.
 	 */
-	private void invalidate(Solution solution)
+	private boolean isCacheable()
 	{
-		final double[] constraintEvaluations = new double[getNumberOfConstraints()];
+		return !getTypes().contains(Type.REAL) && getCompiled().isPure();
+	}
+
+	/**
+	 * Returns whether every solution whose variables lie within the specified
+	 * box is proven to be infeasible, as one of the constraints is violated or
+	 * one of the objectives fails for all of them. A box for which false is
+	 * returned may still contain no feasible solution.
+	 *
+	 * @param lower
+	 *            : Lower bounds of the decision variables.
+	 * @param upper
+	 *            : Upper bounds of the decision variables.
+	 * @return True if the box contains no feasible solution, false otherwise.
+	 */
+	public boolean isInfeasible(double[] lower, double[] upper)
+	{
+		// Solutions of unconstrained problems are never infeasible
+		if (getNumberOfConstraints() == 0)
+		{
+			return false;
+		}
+
+		final double[][] enclosures = getCompiled().enclose(lower, upper);
+
+		for (int i = 0; i < getNumberOfObjectives(); i++)
+		{
+			if (enclosures[i] == null)
+			{
+				return true;
+			}
+		}
 
 		for (int i = 0; i < getNumberOfConstraints(); i++)
 		{
-			constraintEvaluations[i] = Double.POSITIVE_INFINITY;
+			final double[] lhs = enclosures[getNumberOfObjectives() + 2 * i];
+			final double[] rhs = enclosures[getNumberOfObjectives() + 2 * i + 1];
+
+			// Inequalities are violated when either side fails, whereas a
+			// failed side is never equal to the other one
+			switch (constraints[i].getOperator())
+			{
+				case LESS_OR_EQUAL:
+					if (lhs == null || rhs == null || lhs[0] > rhs[1])
+					{
+						return true;
+					}
+					break;
+				case GREATER_OR_EQUAL:
+					if (lhs == null || rhs == null || lhs[1] < rhs[0])
+					{
+						return true;
+					}
+					break;
+				default:
+					break;
+			}
 		}
 
-		solution.setConstraints(constraintEvaluations);
+		return false;
 	}
 
 	@Override
@@ -0,0 +1,741 @@
+package uk.co.blogspot.rafaelzig.core.parsing;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.IntStream;
+
+import org.moeaframework.core.Solution;
+import org.moeaframework.core.Variable;
+import org.moeaframework.core.variable.EncodingUtils;
+
+import uk.co.blogspot.rafaelzig.core.datastructure.template.Constraint;
+import uk.co.blogspot.rafaelzig.core.datastructure.template.Objective;
+import uk.co.blogspot.rafaelzig.core.datastructure.template.VariableTemplate;
+import uk.co.blogspot.rafaelzig.core.datastructure.template.VariableTemplate.Type;
+
+/**
+ * Class containing the parsed expressions of the objectives and constraints of
+ * an optimisation problem, these are parsed and simplified once and reused for
+ * every evaluation. Variables are resolved to indexes into an array of values, which
+ * is decoded from each solution into a buffer owned by the calling thread.
+ * Instances of this class may therefore be shared between threads.
+ *
+ * @author Rafael da Silva Costa - BSc Computer Science 3rd Year
+ *
+ */
+public class CompiledProblem
+{
+	/**
+	 * Functions decoding the value of each decision variable, chosen according
+	 * to the type of the variable.
+	 */
+	private final ToDoubleFunction<Variable>[]	decoders;
+
+	/**
+	 * Indexes of the decision variables of type REAL, which are those that
+	 * expressions are differentiated with respect to.
+	 */
+	private final int[]							reals;
+
+	/**
+	 * Buffer of each thread, which holds the decoded values of the decision
+	 * variables followed by the values of the shared sub-expressions.
+	 */
+	private final ThreadLocal<double[]>			values;
+
+	/**
+	 * Sub-expressions shared by several expressions of the problem, in the
+	 * order they must be evaluated.
+	 */
+	private final Expression[]					shared;
+
+	/**
+	 * Parsed expressions of the objectives.
+	 */
+	private final Expression[]					objectives;
+
+	/**
+	 * Parsed left-hand side expressions of the constraints.
+	 */
+	private final Expression[]					lhs;
+
+	/**
+	 * Parsed right-hand side expressions of the constraints.
+	 */
+	private final Expression[]					rhs;
+
+	/**
+	 * Array containing, for each decision variable, the indexes of the shared
+	 * sub-expressions depending on it, in the order they must be evaluated.
+	 */
+	private final int[][]						sharedDependents;
+
+	/**
+	 * Array containing, for each decision variable, the indexes of the
+	 * objectives followed by the sides of each constraint depending on it.
+	 */
+	private final int[][]						dependents;
+
+	/**
+	 * Constructs a new instance of CompiledProblem parsing the expressions of
+	 * the specified objectives and constraints.
+	 *
+	 * @param variables
+	 *            : Decision variables of the problem.
+	 * @param objectives
+	 *            : Objectives of the problem.
+	 * @param constraints
+	 *            : Constraints of the problem.
+	 */
+	public CompiledProblem(VariableTemplate[] variables, Objective[] objectives,
+			Constraint[] constraints)
+	{
+		@SuppressWarnings("unchecked")
+		final ToDoubleFunction<Variable>[] functions = (ToDoubleFunction<Variable>[])
+				new ToDoubleFunction<?>[variables.length];
+		decoders = functions;
+
+		for (int i = 0; i < variables.length; i++)
+		{
+			decoders[i] = getDecoder(variables[i]);
+		}
+
+		reals = IntStream.range(0, variables.length)
+				.filter(i -> variables[i].getType() == Type.REAL).toArray();
+
+		// Objectives followed by the sides of each constraint
+		Expression[] expressions = new Expression[objectives.length + 2
+				* constraints.length];
+
+		for (int i = 0; i < objectives.length; i++)
+		{
+			expressions[i] = Operations.compile(objectives[i].getExpression(),
+					variables.length).simplify();
+		}
+
+		for (int i = 0; i < constraints.length; i++)
+		{
+			expressions[objectives.length + 2 * i] = Operations.compile(
+					constraints[i].getLhs(), variables.length).simplify();
+			expressions[objectives.length + 2 * i + 1] = Operations.compile(
+					constraints[i].getRhs(), variables.length).simplify();
+		}
+
+		Expression[] shared = new SubexpressionEliminator(variables.length)
+				.eliminate(expressions);
+
+		// Generates the classes of all expressions in a single compilation
+		final Expression[] generated = ExpressionGenerator.generate(concat(shared,
+				expressions));
+		shared = Arrays.copyOfRange(generated, 0, shared.length);
+		expressions = Arrays.copyOfRange(generated, shared.length, generated.length);
+
+		this.shared = shared;
+		this.objectives = Arrays.copyOf(expressions, objectives.length);
+		lhs = new Expression[constraints.length];
+		rhs = new Expression[constraints.length];
+
+		for (int i = 0; i < constraints.length; i++)
+		{
+			lhs[i] = expressions[objectives.length + 2 * i];
+			rhs[i] = expressions[objectives.length + 2 * i + 1];
+		}
+
+		// Variables each shared sub-expression depends on, including through
+		// the shared sub-expressions it references
+		final BitSet[] depends = new BitSet[shared.length];
+
+		for (int i = 0; i < shared.length; i++)
+		{
+			depends[i] = getDependencies(shared[i], depends, variables.length);
+		}
+
+		sharedDependents = getDependents(depends, variables.length);
+
+		final BitSet[] expressionDepends = new BitSet[expressions.length];
+
+		for (int i = 0; i < expressions.length; i++)
+		{
+			expressionDepends[i] = getDependencies(expressions[i], depends,
+					variables.length);
+		}
+
+		dependents = getDependents(expressionDepends, variables.length);
+
+		values = ThreadLocal.withInitial(() -> new double[variables.length
+				+ this.shared.length]);
+	}
+
+	/**
+	 * Returns an array containing the elements of both specified arrays.
+	 *
+	 * @param first
+	 *            : Elements at the start of the array.
+	 * @param second
+	 *            : Elements at the end of the array.
+	 * @return Array containing the elements of both arrays.
+	 */
+	private static Expression[] concat(Expression[] first, Expression[] second)
+	{
+		final Expression[] result = Arrays.copyOf(first, first.length + second.length);
+		System.arraycopy(second, 0, result, first.length, second.length);
+		return result;
+	}
+
+	/**
+	 * Returns the function decoding the value of the specified decision
+	 * variable.
+	 *
+	 * @param variable
+	 *            : Template of the decision variable.
+	 * @return Function decoding the value of the variable.
+	 */
+	private static ToDoubleFunction<Variable> getDecoder(VariableTemplate variable)
+	{
+		switch (variable.getType())
+		{
+			case BINARY:
+				return x -> EncodingUtils.getBoolean(x) ? 1.0 : 0.0;
+			case INTEGER:
+				return EncodingUtils::getInt;
+			case REAL:
+				return EncodingUtils::getReal;
+			default:
+				return x -> 0.0;
+		}
+	}
+
+	/**
+	 * Decodes the values of the decision variables of the specified solution
+	 * and evaluates the shared sub-expressions, the returned array is reused by
+	 * subsequent calls from the same thread.
+	 *
+	 * @param solution
+	 *            : Solution object to take the values from.
+	 * @return Array containing the value of variable x(i) at index i - 1,
+	 *         followed by the values of the shared sub-expressions.
+	 */
+	public double[] decode(Solution solution)
+	{
+		final double[] result = values.get();
+
+		for (int i = 0; i < decoders.length; i++)
+		{
+			result[i] = decoders[i].applyAsDouble(solution.getVariable(i));
+		}
+
+		evaluateShared(result);
+		return result;
+	}
+
+	/**
+	 * Decodes the values of the decision variables of the specified range of
+	 * solutions into columns, and evaluates the shared sub-expressions for all
+	 * of them.
+	 *
+	 * @param solutions
+	 *            : Solution objects to take the values from.
+	 * @param from
+	 *            : Index of the first solution, inclusive.
+	 * @param to
+	 *            : Index of the last solution, exclusive.
+	 * @return Array containing the column of values of variable x(i) at index
+	 *         i - 1, followed by the columns of the shared sub-expressions.
+	 */
+	public double[][] decode(Solution[] solutions, int from, int to)
+	{
+		final int length = to - from;
+		final double[][] columns = new double[decoders.length + shared.length][length];
+
+		for (int i = 0; i < decoders.length; i++)
+		{
+			final ToDoubleFunction<Variable> decoder = decoders[i];
+			final double[] column = columns[i];
+
+			for (int j = 0; j < length; j++)
+			{
+				column[j] = decoder.applyAsDouble(solutions[from + j].getVariable(i));
+			}
+		}
+
+		for (int i = 0; i < shared.length; i++)
+		{
+			final boolean[] failed = new boolean[length];
+			final double[] column = shared[i].evaluate(columns, length, failed);
+
+			for (int j = 0; j < length; j++)
+			{
+				columns[decoders.length + i][j] = failed[j] ? Expression.FAILED
+						: column[j];
+			}
+		}
+
+		return columns;
+	}
+
+	/**
+	 * Decodes the values of the decision variables of the specified solution
+	 * into a new array, without evaluating the shared sub-expressions.
+	 *
+	 * @param solution
+	 *            : Solution object to take the values from.
+	 * @return Array containing the value of variable x(i) at index i - 1.
+	 */
+	public double[] decodeVariables(Solution solution)
+	{
+		final double[] result = new double[decoders.length];
+
+		for (int i = 0; i < decoders.length; i++)
+		{
+			result[i] = decoders[i].applyAsDouble(solution.getVariable(i));
+		}
+
+		return result;
+	}
+
+	/**
+	 * Evaluates the objectives and both sides of each constraint for the
+	 * specified solution, together with their gradients with respect to the
+	 * decision variables of type REAL.
+	 *
+	 * @param solution
+	 *            : Solution object to take the values from.
+	 * @return Array containing the gradients of the objectives followed by
+	 *         those of the left-hand and right-hand sides of each constraint,
+	 *         where the partial derivatives are in the order of
+	 *         getRealVariables(). The gradient of an expression whose
+	 *         evaluation fails is null.
+	 */
+	public double[][] differentiate(Solution solution)
+	{
+		final double[] values = decode(solution);
+		final Dual[] duals = new Dual[values.length];
+
+		for (int i = 0; i < decoders.length; i++)
+		{
+			duals[i] = new Dual(values[i], new double[reals.length]);
+		}
+
+		for (int i = 0; i < reals.length; i++)
+		{
+			duals[reals[i]].derivatives[i] = 1.0;
+		}
+
+		for (int i = 0; i < shared.length; i++)
+		{
+			duals[decoders.length + i] = differentiate(shared[i], duals);
+		}
+
+		final double[][] gradients = new double[objectives.length + 2 * lhs.length][];
+
+		for (int i = 0; i < objectives.length; i++)
+		{
+			gradients[i] = getDerivatives(differentiate(objectives[i], duals));
+		}
+
+		for (int i = 0; i < lhs.length; i++)
+		{
+			gradients[objectives.length + 2 * i] = getDerivatives(differentiate(lhs[i],
+					duals));
+			gradients[objectives.length + 2 * i + 1] = getDerivatives(differentiate(
+					rhs[i], duals));
+		}
+
+		return gradients;
+	}
+
+	/**
+	 * Differentiates the specified expression, returning null if its
+	 * evaluation fails by throwing an exception.
+	 *
+	 * @param expression
+	 *            : Expression to be differentiated.
+	 * @param values
+	 *            : Values of the decision variables and shared
+	 *            sub-expressions, together with their partial derivatives.
+	 * @return Result of evaluation and its partial derivatives, or null.
+	 */
+	private static Dual differentiate(Expression expression, Dual[] values)
+	{
+		try
+		{
+			return expression.differentiate(values);
+		}
+		catch (final IllegalArgumentException e)
+		{
+			return null;
+		}
+	}
+
+	/**
+	 * Returns enclosures of the results of the objectives and both sides of
+	 * each constraint for all values of the decision variables within the
+	 * specified box, computed by means of interval arithmetic. Results are
+	 * those of floating-point evaluation, see {@link Interval}.
+	 *
+	 * @param lower
+	 *            : Lower bounds of the decision variables.
+	 * @param upper
+	 *            : Upper bounds of the decision variables.
+	 * @return Array containing the enclosures of the objectives followed by
+	 *         those of the left-hand and right-hand sides of each constraint,
+	 *         each one holding its lower bound at index 0 and its upper bound
+	 *         at index 1. The enclosure of an expression whose evaluation fails
+	 *         throughout the box is null.
+	 */
+	public double[][] enclose(double[] lower, double[] upper)
+	{
+		final Interval[] intervals = new Interval[decoders.length + shared.length];
+
+		for (int i = 0; i < decoders.length; i++)
+		{
+			intervals[i] = new Interval(lower[i], upper[i]);
+		}
+
+		for (int i = 0; i < shared.length; i++)
+		{
+			intervals[decoders.length + i] = enclose(shared[i], intervals);
+		}
+
+		final double[][] enclosures = new double[objectives.length + 2 * lhs.length][];
+
+		for (int i = 0; i < objectives.length; i++)
+		{
+			enclosures[i] = getBounds(enclose(objectives[i], intervals));
+		}
+
+		for (int i = 0; i < lhs.length; i++)
+		{
+			enclosures[objectives.length + 2 * i] = getBounds(enclose(lhs[i],
+					intervals));
+			enclosures[objectives.length + 2 * i + 1] = getBounds(enclose(rhs[i],
+					intervals));
+		}
+
+		return enclosures;
+	}
+
+	/**
+	 * Encloses the specified expression, returning null if its evaluation
+	 * fails throughout the box.
+	 *
+	 * @param expression
+	 *            : Expression to be enclosed.
+	 * @param values
+	 *            : Intervals of the decision variables and shared
+	 *            sub-expressions.
+	 * @return Interval enclosing the results of evaluation, or null.
+	 */
+	private static Interval enclose(Expression expression, Interval[] values)
+	{
+		try
+		{
+			return expression.enclose(values);
+		}
+		catch (final IllegalArgumentException e)
+		{
+			return null;
+		}
+	}
+
+	/**
+	 * Returns a new incremental evaluation of the expressions of this problem
+	 * for the specified values of the decision variables.
+	 *
+	 * @param variables
+	 *            : Array containing the value of variable x(i) at index i - 1.
+	 * @return Incremental evaluation of the expressions.
+	 */
+	public IncrementalEvaluation evaluateIncrementally(double[] variables)
+	{
+		return new IncrementalEvaluation(this, variables);
+	}
+
+	/**
+	 * Evaluates the shared sub-expressions, storing their values after the
+	 * values of the decision variables. The value of a sub-expression whose
+	 * evaluation fails is marked, so that the expressions referencing it fail
+	 * as well.
+	 *
+	 * @param values
+	 *            : Array containing the values of the decision variables,
+	 *            with room for the values of the shared sub-expressions.
+	 */
+	public void evaluateShared(double[] values)
+	{
+		for (int i = 0; i < shared.length; i++)
+		{
+			try
+			{
+				values[decoders.length + i] = shared[i].evaluate(values);
+			}
+			catch (final IllegalArgumentException e)
+			{
+				values[decoders.length + i] = Expression.FAILED;
+			}
+		}
+	}
+
+	/**
+	 * Returns the bounds of the specified interval.
+	 *
+	 * @param interval
+	 *            : Interval, which may be null.
+	 * @return Array containing the lower and upper bounds of the interval, or
+	 *         null if it is null.
+	 */
+	private static double[] getBounds(Interval interval)
+	{
+		return interval == null ? null : new double[] { interval.lower, interval.upper };
+	}
+
+	/**
+	 * Returns the estimated cost of evaluating each constraint, which is the
+	 * number of nodes of both of its sides. Shared sub-expressions count as a
+	 * single node, as they are evaluated once per solution regardless.
+	 *
+	 * @return Array containing the estimated cost of each constraint.
+	 */
+	public int[] getCosts()
+	{
+		return IntStream.range(0, lhs.length)
+				.map(i -> getSize(lhs[i]) + getSize(rhs[i])).toArray();
+	}
+
+	/**
+	 * Returns the decision variables the specified expression depends on,
+	 * either directly or through the shared sub-expressions it references.
+	 *
+	 * @param expression
+	 *            : Expression to be inspected.
+	 * @param depends
+	 *            : Variables each shared sub-expression referenced depends on.
+	 * @param numberOfVariables
+	 *            : Number of decision variables.
+	 * @return Set of the indexes of the variables.
+	 */
+	private static BitSet getDependencies(Expression expression, BitSet[] depends,
+			int numberOfVariables)
+	{
+		final BitSet slots = new BitSet();
+		expression.addSlots(slots);
+		final BitSet result = slots.get(0, numberOfVariables);
+
+		for (int i = slots.nextSetBit(numberOfVariables); i >= 0; i = slots
+				.nextSetBit(i + 1))
+		{
+			result.or(depends[i - numberOfVariables]);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns, for each decision variable, the indexes of the specified
+	 * dependencies containing it.
+	 *
+	 * @param depends
+	 *            : Variables each expression depends on.
+	 * @param numberOfVariables
+	 *            : Number of decision variables.
+	 * @return Array containing the indexes of the expressions depending on
+	 *         each variable, in ascending order.
+	 */
+	private static int[][] getDependents(BitSet[] depends, int numberOfVariables)
+	{
+		final int[][] result = new int[numberOfVariables][];
+
+		for (int i = 0; i < numberOfVariables; i++)
+		{
+			final int variable = i;
+			result[i] = IntStream.range(0, depends.length)
+					.filter(j -> depends[j].get(variable)).toArray();
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the indexes of the objectives followed by the sides of each
+	 * constraint which depend on the specified decision variable.
+	 *
+	 * @param variable
+	 *            : Index of the decision variable.
+	 * @return Array containing the indexes of the dependent expressions.
+	 */
+	int[] getDependents(int variable)
+	{
+		return dependents[variable];
+	}
+
+	/**
+	 * Returns the parsed expression at the specified index of the objectives
+	 * followed by the sides of each constraint.
+	 *
+	 * @param index
+	 *            : Index of the expression.
+	 * @return Parsed expression.
+	 */
+	Expression getExpression(int index)
+	{
+		if (index < objectives.length)
+		{
+			return objectives[index];
+		}
+
+		index -= objectives.length;
+		return index % 2 == 0 ? lhs[index / 2] : rhs[index / 2];
+	}
+
+	/**
+	 * Returns the number of objectives followed by the sides of each
+	 * constraint.
+	 *
+	 * @return Number of expressions.
+	 */
+	int getNumberOfExpressions()
+	{
+		return objectives.length + 2 * lhs.length;
+	}
+
+	/**
+	 * Returns the number of shared sub-expressions.
+	 *
+	 * @return Number of shared sub-expressions.
+	 */
+	int getNumberOfShared()
+	{
+		return shared.length;
+	}
+
+	/**
+	 * Returns the number of decision variables.
+	 *
+	 * @return Number of decision variables.
+	 */
+	int getNumberOfVariables()
+	{
+		return decoders.length;
+	}
+
+	/**
+	 * Returns the partial derivatives of the specified dual number, the
+	 * evaluation failed if it is null or its value is NaN.
+	 *
+	 * @param dual
+	 *            : Dual number, which may be null.
+	 * @return Partial derivatives of the number, or null if evaluation failed.
+	 */
+	private static double[] getDerivatives(Dual dual)
+	{
+		return dual == null || Double.isNaN(dual.value) ? null : dual.derivatives;
+	}
+
+	/**
+	 * Returns the parsed left-hand side expression of the specified
+	 * constraint.
+	 *
+	 * @param index
+	 *            : Index of the constraint.
+	 * @return Parsed left-hand side expression of the constraint.
+	 */
+	public Expression getLhs(int index)
+	{
+		return lhs[index];
+	}
+
+	/**
+	 * Returns the parsed expression of the specified objective.
+	 *
+	 * @param index
+	 *            : Index of the objective.
+	 * @return Parsed expression of the objective.
+	 */
+	public Expression getObjective(int index)
+	{
+		return objectives[index];
+	}
+
+	/**
+	 * Returns the indexes of the decision variables of type REAL, in the order
+	 * of the partial derivatives returned by differentiate().
+	 *
+	 * @return Array containing the indexes of the REAL variables.
+	 */
+	public int[] getRealVariables()
+	{
+		return reals.clone();
+	}
+
+	/**
+	 * Returns the number of nodes of the specified expression.
+	 *
+	 * @param expression
+	 *            : Expression to be measured.
+	 * @return Number of nodes of the expression.
+	 */
+	private static int getSize(Expression expression)
+	{
+		int size = 1;
+
+		for (final Expression operand : expression.getOperands())
+		{
+			size += getSize(operand);
+		}
+
+		return size;
+	}
+
+	/**
+	 * Returns the shared sub-expression at the specified index.
+	 *
+	 * @param index
+	 *            : Index of the shared sub-expression.
+	 * @return Shared sub-expression.
+	 */
+	Expression getShared(int index)
+	{
+		return shared[index];
+	}
+
+	/**
+	 * Returns the indexes of the shared sub-expressions which depend on the
+	 * specified decision variable, in the order they must be evaluated.
+	 *
+	 * @param variable
+	 *            : Index of the decision variable.
+	 * @return Array containing the indexes of the dependent sub-expressions.
+	 */
+	int[] getSharedDependents(int variable)
+	{
+		return sharedDependents[variable];
+	}
+
+	/**
+	 * Returns the parsed right-hand side expression of the specified
+	 * constraint.
+	 *
+	 * @param index
+	 *            : Index of the constraint.
+	 * @return Parsed right-hand side expression of the constraint.
+	 */
+	public Expression getRhs(int index)
+	{
+		return rhs[index];
+	}
+
+	/**
+	 * Returns whether all expressions of the problem always result in the same
+	 * values when evaluated with the same values of the decision variables,
+	 * which is not the case if any of them calls random().
+	 *
+	 * @return True if all expressions are pure, false otherwise.
+	 */
+	public boolean isPure()
+	{
+		return Arrays.stream(objectives).allMatch(Expression::isPure)
+				&& Arrays.stream(lhs).allMatch(Expression::isPure)
+				&& Arrays.stream(rhs).allMatch(Expression::isPure);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,206 @@
+package uk.co.blogspot.rafaelzig.core.parsing;
+
+/**
+ * Class representing a dual number, which holds the value of an expression
+ * together with its partial derivatives with respect to a set of decision
+ * variables, allowing gradients to be computed in forward mode while the
+ * expression is evaluated. Instances of this class are immutable.
+ *
+ * @author Rafael da Silva Costa - BSc Computer Science 3rd Year
+ *
+ */
+final class Dual
+{
+	/**
+	 * Value of the expression.
+	 */
+	final double	value;
+
+	/**
+	 * Partial derivatives of the expression.
+	 */
+	final double[]	derivatives;
+
+	/**
+	 * Constructs a new instance of Dual with the specified value and partial
+	 * derivatives.
+	 *
+	 * @param value
+	 *            : Value of the expression.
+	 * @param derivatives
+	 *            : Partial derivatives of the expression.
+	 */
+	Dual(double value, double[] derivatives)
+	{
+		this.value = value;
+		this.derivatives = derivatives;
+	}
+
+	/**
+	 * Returns the sum of this number and the specified one.
+	 *
+	 * @param other
+	 *            : Number to be added.
+	 * @return Sum of both numbers.
+	 */
+	Dual add(Dual other)
+	{
+		return combine(value + other.value, 1.0, other, 1.0);
+	}
+
+	/**
+	 * Returns a number with the specified value, whose partial derivatives are
+	 * the linear combination of the partial derivatives of this number and the
+	 * specified one.
+	 *
+	 * @param value
+	 *            : Value of the number.
+	 * @param factor
+	 *            : Factor of the partial derivatives of this number.
+	 * @param other
+	 *            : Other number.
+	 * @param otherFactor
+	 *            : Factor of the partial derivatives of the other number.
+	 * @return Number with the combined partial derivatives.
+	 */
+	private Dual combine(double value, double factor, Dual other, double otherFactor)
+	{
+		final double[] result = new double[derivatives.length];
+
+		for (int i = 0; i < result.length; i++)
+		{
+			result[i] = factor * derivatives[i] + otherFactor * other.derivatives[i];
+		}
+
+		return new Dual(value, result);
+	}
+
+	/**
+	 * Returns the quotient of this number and the specified one.
+	 *
+	 * @param other
+	 *            : Divisor.
+	 * @return Quotient of both numbers.
+	 */
+	Dual divide(Dual other)
+	{
+		final double result = value / other.value;
+		return combine(result, 1.0 / other.value, other, -result / other.value);
+	}
+
+	/**
+	 * Returns whether all partial derivatives of this number are zero.
+	 *
+	 * @return True if this number is constant, false otherwise.
+	 */
+	boolean isConstant()
+	{
+		for (final double derivative : derivatives)
+		{
+			if (derivative != 0.0)
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns the composition of a function of a single argument with this
+	 * number, given the value of the function and its derivative at the value
+	 * of this number.
+	 *
+	 * @param result
+	 *            : Value of the function.
+	 * @param derivative
+	 *            : Derivative of the function.
+	 * @return Composition of the function with this number.
+	 */
+	Dual map(double result, double derivative)
+	{
+		final double[] derivatives = new double[this.derivatives.length];
+
+		// Avoids 0 * infinity when the function is constant
+		if (derivative != 0.0)
+		{
+			for (int i = 0; i < derivatives.length; i++)
+			{
+				derivatives[i] = derivative * this.derivatives[i];
+			}
+		}
+
+		return new Dual(result, derivatives);
+	}
+
+	/**
+	 * Returns the remainder of the division of this number by the specified
+	 * one, which is differentiable wherever the quotient is not an integer.
+	 *
+	 * @param other
+	 *            : Divisor.
+	 * @return Remainder of the division.
+	 */
+	Dual modulo(Dual other)
+	{
+		final double quotient = (value - value % other.value) / other.value;
+		return combine(value % other.value, 1.0, other, -quotient);
+	}
+
+	/**
+	 * Returns the product of this number and the specified one.
+	 *
+	 * @param other
+	 *            : Number to be multiplied.
+	 * @return Product of both numbers.
+	 */
+	Dual multiply(Dual other)
+	{
+		return combine(value * other.value, other.value, other, value);
+	}
+
+	/**
+	 * Returns the negation of this number.
+	 *
+	 * @return Negation of this number.
+	 */
+	Dual negate()
+	{
+		return map(-value, -1.0);
+	}
+
+	/**
+	 * Returns this number raised to the power of the specified one. The
+	 * logarithm of the base is only required when the exponent is not
+	 * constant, therefore negative bases may be raised to constant exponents.
+	 *
+	 * @param other
+	 *            : Exponent.
+	 * @return This number raised to the power of the exponent.
+	 */
+	Dual pow(Dual other)
+	{
+		final double result = Math.pow(value, other.value);
+		final double factor = other.value == 0.0 ? 0.0 : other.value
+				* Math.pow(value, other.value - 1.0);
+
+		if (other.isConstant())
+		{
+			return map(result, factor);
+		}
+
+		return combine(result, factor, other, result * Math.log(value));
+	}
+
+	/**
+	 * Returns the difference of this number and the specified one.
+	 *
+	 * @param other
+	 *            : Number to be subtracted.
+	 * @return Difference of both numbers.
+	 */
+	Dual subtract(Dual other)
+	{
+		return combine(value - other.value, 1.0, other, -1.0);
+	}
+}
@@ -0,0 +1,1677 @@
+package uk.co.blogspot.rafaelzig.core.parsing;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+import uk.co.blogspot.rafaelzig.core.datastructure.enumeration.Function;
+import uk.co.blogspot.rafaelzig.core.datastructure.enumeration.Operator;
+
+/**
+ * Abstract class representing a mathematical expression which has been parsed
+ * into a tree of nodes, allowing it to be evaluated several times without
+ * being tokenized and parsed again. Nodes are compared structurally, therefore
+ * equal sub-expressions may be found and shared. Instances of this class are
+ * immutable.
+ *
+ * @author Rafael da Silva Costa - BSc Computer Science 3rd Year
+ *
+ */
+public abstract class Expression
+{
+	/**
+	 * Class representing the application of a binary operator to two
+	 * sub-expressions.
+	 */
+	static final class BinaryOperation extends Expression
+	{
+		/**
+		 * Operator to be applied.
+		 */
+		private final Operator		operator;
+
+		/**
+		 * Left-hand side operand.
+		 */
+		private final Expression	lhs;
+
+		/**
+		 * Right-hand side operand.
+		 */
+		private final Expression	rhs;
+
+		/**
+		 * Hash code of this node, computed once as the node is immutable.
+		 */
+		private final int			hash;
+
+		/**
+		 * Constructs a new instance of BinaryOperation with the specified
+		 * operator and operands.
+		 *
+		 * @param operator
+		 *            : Operator to be applied.
+		 * @param lhs
+		 *            : Left-hand side operand.
+		 * @param rhs
+		 *            : Right-hand side operand.
+		 */
+		BinaryOperation(Operator operator, Expression lhs, Expression rhs)
+		{
+			this.operator = operator;
+			this.lhs = lhs;
+			this.rhs = rhs;
+			hash = Objects.hash(operator, lhs, rhs);
+		}
+
+		@Override
+		void appendSource(StringBuilder builder)
+		{
+			if (operator == Operator.EXPONENTIATION)
+			{
+				builder.append("Math.pow(");
+				lhs.appendSource(builder);
+				builder.append(", ");
+				rhs.appendSource(builder);
+				builder.append(')');
+				return;
+			}
+
+			builder.append('(');
+			lhs.appendSource(builder);
+
+			switch (operator)
+			{
+				case ADDITION:
+					builder.append(" + ");
+					break;
+				case SUBTRACTION:
+					builder.append(" - ");
+					break;
+				case MULTPLICATION:
+					builder.append(" * ");
+					break;
+				case DIVISION:
+					builder.append(" / ");
+					break;
+				case MODULO:
+					builder.append(" % ");
+					break;
+				default:
+					throw new IllegalArgumentException("Unsupported operator " + operator);
+			}
+
+			rhs.appendSource(builder);
+			builder.append(')');
+		}
+
+		@Override
+		public double evaluate(double[] values)
+		{
+			final double left = lhs.evaluate(values);
+			final double right = rhs.evaluate(values);
+
+			switch (operator)
+			{
+				case ADDITION:
+					return left + right;
+				case SUBTRACTION:
+					return left - right;
+				case MULTPLICATION:
+					return left * right;
+				case DIVISION:
+					return left / right;
+				case EXPONENTIATION:
+					return Math.pow(left, right);
+				case MODULO:
+					return left % right;
+				default:
+					throw new IllegalArgumentException("Unsupported operator " + operator);
+			}
+		}
+
+		@Override
+		double[] evaluate(double[][] columns, int length, boolean[] failed)
+		{
+			final double[] left = lhs.evaluate(columns, length, failed);
+			final double[] right = rhs.evaluate(columns, length, failed);
+			final double[] result = new double[length];
+
+			switch (operator)
+			{
+				case ADDITION:
+					for (int i = 0; i < length; i++)
+					{
+						result[i] = left[i] + right[i];
+					}
+					break;
+				case SUBTRACTION:
+					for (int i = 0; i < length; i++)
+					{
+						result[i] = left[i] - right[i];
+					}
+					break;
+				case MULTPLICATION:
+					for (int i = 0; i < length; i++)
+					{
+						result[i] = left[i] * right[i];
+					}
+					break;
+				case DIVISION:
+					for (int i = 0; i < length; i++)
+					{
+						result[i] = left[i] / right[i];
+					}
+					break;
+				case EXPONENTIATION:
+					for (int i = 0; i < length; i++)
+					{
+						result[i] = Math.pow(left[i], right[i]);
+					}
+					break;
+				case MODULO:
+					for (int i = 0; i < length; i++)
+					{
+						result[i] = left[i] % right[i];
+					}
+					break;
+				default:
+					throw new IllegalArgumentException("Unsupported operator " + operator);
+			}
+
+			return result;
+		}
+
+		@Override
+		Dual differentiate(Dual[] values)
+		{
+			final Dual left = lhs.differentiate(values);
+			final Dual right = rhs.differentiate(values);
+
+			switch (operator)
+			{
+				case ADDITION:
+					return left.add(right);
+				case SUBTRACTION:
+					return left.subtract(right);
+				case MULTPLICATION:
+					return left.multiply(right);
+				case DIVISION:
+					return left.divide(right);
+				case EXPONENTIATION:
+					return left.pow(right);
+				case MODULO:
+					return left.modulo(right);
+				default:
+					throw new IllegalArgumentException("Unsupported operator " + operator);
+			}
+		}
+
+		@Override
+		Interval enclose(Interval[] values)
+		{
+			final Interval left = lhs.enclose(values);
+
+			// Both factors take the same value, therefore their product is a
+			// square, which is never negative
+			if (operator == Operator.MULTPLICATION && lhs.equals(rhs) && lhs.isPure())
+			{
+				return left.square();
+			}
+
+			final Interval right = rhs.enclose(values);
+
+			switch (operator)
+			{
+				case ADDITION:
+					return left.add(right);
+				case SUBTRACTION:
+					return left.subtract(right);
+				case MULTPLICATION:
+					return left.multiply(right);
+				case DIVISION:
+					return left.divide(right);
+				case EXPONENTIATION:
+					return left.pow(right);
+				case MODULO:
+					return left.modulo(right);
+				default:
+					throw new IllegalArgumentException("Unsupported operator " + operator);
+			}
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (!(obj instanceof BinaryOperation))
+			{
+				return false;
+			}
+
+			final BinaryOperation other = (BinaryOperation) obj;
+			return hash == other.hash && operator == other.operator
+					&& lhs.equals(other.lhs) && rhs.equals(other.rhs);
+		}
+
+		@Override
+		Expression[] getOperands()
+		{
+			return new Expression[] { lhs, rhs };
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return hash;
+		}
+
+		@Override
+		boolean isPure()
+		{
+			return lhs.isPure() && rhs.isPure();
+		}
+
+		@Override
+		Expression replaceOperands(Expression[] operands)
+		{
+			return new BinaryOperation(operator, operands[0], operands[1]);
+		}
+
+		@Override
+		Expression simplify()
+		{
+			final Expression left = lhs.simplify();
+			final Expression right = rhs.simplify();
+
+			if (left instanceof Value && right instanceof Value)
+			{
+				return fold(new BinaryOperation(operator, left, right));
+			}
+
+			switch (operator)
+			{
+				case ADDITION:
+					if (isValue(right, 0.0))
+					{
+						return left;
+					}
+					if (isValue(left, 0.0))
+					{
+						return right;
+					}
+					break;
+				case SUBTRACTION:
+					if (isValue(right, 0.0))
+					{
+						return left;
+					}
+					break;
+				case MULTPLICATION:
+					if (isValue(right, 1.0))
+					{
+						return left;
+					}
+					if (isValue(left, 1.0))
+					{
+						return right;
+					}
+					break;
+				case DIVISION:
+					if (isValue(right, 1.0))
+					{
+						return left;
+					}
+					break;
+				case EXPONENTIATION:
+					if (isValue(right, 1.0))
+					{
+						return left;
+					}
+					// Duplicating an impure base would change its result
+					if (left.isPure())
+					{
+						for (int exponent = 2; exponent <= MAXIMUM_EXPONENT; exponent++)
+						{
+							if (isValue(right, exponent))
+							{
+								return multiply(left, exponent);
+							}
+						}
+					}
+					break;
+				default:
+					break;
+			}
+
+			return new BinaryOperation(operator, left, right);
+		}
+	}
+
+	/**
+	 * Class representing the call of a mathematical function with a variable
+	 * number of arguments.
+	 */
+	static final class FunctionCall extends Expression
+	{
+		/**
+		 * Function to be called.
+		 */
+		private final Function		function;
+
+		/**
+		 * Name of the function, as typed in the expression.
+		 */
+		private final String		name;
+
+		/**
+		 * Arguments of the function.
+		 */
+		private final Expression[]	arguments;
+
+		/**
+		 * Hash code of this node, computed once as the node is immutable.
+		 */
+		private final int			hash;
+
+		/**
+		 * Constructs a new instance of FunctionCall with the specified
+		 * function, name and arguments.
+		 *
+		 * @param function
+		 *            : Function to be called.
+		 * @param name
+		 *            : Name of the function, as typed in the expression.
+		 * @param arguments
+		 *            : Arguments of the function.
+		 */
+		FunctionCall(Function function, String name, Expression[] arguments)
+		{
+			this.function = function;
+			this.name = name;
+			this.arguments = arguments;
+			hash = 31 * function.hashCode() + Arrays.hashCode(arguments);
+		}
+
+		@Override
+		void appendSource(StringBuilder builder)
+		{
+			builder.append("check(");
+
+			switch (function)
+			{
+				case MINIMUN:
+				case MAXIMUM:
+				{
+					final String method = function == Function.MINIMUN ? "Math.min("
+							: "Math.max(";
+
+					for (int i = 1; i < arguments.length; i++)
+					{
+						builder.append(method);
+					}
+
+					arguments[0].appendSource(builder);
+
+					for (int i = 1; i < arguments.length; i++)
+					{
+						builder.append(", ");
+						arguments[i].appendSource(builder);
+						builder.append(')');
+					}
+					break;
+				}
+				case SUM:
+				case AVERAGE:
+				{
+					builder.append("(0.0");
+
+					for (final Expression argument : arguments)
+					{
+						builder.append(" + ");
+						argument.appendSource(builder);
+					}
+
+					builder.append(')');
+
+					if (function == Function.AVERAGE)
+					{
+						builder.append(" / ").append(arguments.length);
+					}
+					break;
+				}
+				case RANDOM:
+					builder.append("java.util.concurrent.ThreadLocalRandom.current().nextDouble()");
+					break;
+				default:
+					builder.append(getMethod()).append('(');
+					arguments[0].appendSource(builder);
+					builder.append(')');
+			}
+
+			builder.append(", \"").append(name.replace("\\", "\\\\").replace("\"", "\\\""))
+					.append("\")");
+		}
+
+		/**
+		 * Applies the function to its evaluated arguments, without allocating
+		 * an array to hold them.
+		 *
+		 * @param values
+		 *            : Values of the decision variables.
+		 * @return Result of the function.
+		 */
+		private double apply(double[] values)
+		{
+			double result;
+
+			switch (function)
+			{
+				case MINIMUN:
+					result = arguments[0].evaluate(values);
+					for (int i = 1; i < arguments.length; i++)
+					{
+						result = Math.min(result, arguments[i].evaluate(values));
+					}
+					return result;
+				case MAXIMUM:
+					result = arguments[0].evaluate(values);
+					for (int i = 1; i < arguments.length; i++)
+					{
+						result = Math.max(result, arguments[i].evaluate(values));
+					}
+					return result;
+				case SUM:
+				case AVERAGE:
+					result = 0.0;
+					for (final Expression argument : arguments)
+					{
+						result += argument.evaluate(values);
+					}
+					return function == Function.SUM ? result : result / arguments.length;
+				case RANDOM:
+					// Avoids contention on the generator shared by Math.random()
+					return ThreadLocalRandom.current().nextDouble();
+				default:
+					return apply(arguments[0].evaluate(values));
+			}
+		}
+
+		/**
+		 * Applies the function, which takes a single argument, to the
+		 * specified value.
+		 *
+		 * @param value
+		 *            : Evaluated argument.
+		 * @return Result of the function.
+		 */
+		private double apply(double value)
+		{
+			switch (function)
+			{
+				case ABSOLUTE:
+					return Math.abs(value);
+				case CEILING:
+					return Math.ceil(value);
+				case FLOOR:
+					return Math.floor(value);
+				case ROUND:
+					return round(value);
+				case HYPERBOLIC_SINE:
+					return Math.sinh(value);
+				case HYPERBOLIC_COSINE:
+					return Math.cosh(value);
+				case HYPERBOLIC_TANGENT:
+					return Math.tanh(value);
+				case SINE:
+					return Math.sin(value);
+				case COSINE:
+					return Math.cos(value);
+				case TANGENT:
+					return Math.tan(value);
+				case ARC_COSINE:
+					return Math.acos(value);
+				case ARC_SINE:
+					return Math.asin(value);
+				case ARC_TANGENT:
+					return Math.atan(value);
+				case NATURAL_LOGARITHM:
+					return Math.log(value);
+				case BASE10_LOGARITHM:
+					return Math.log10(value);
+				case SQUARE_ROOT:
+					return Math.sqrt(value);
+				case CUBE_ROOT:
+					return Math.cbrt(value);
+				default:
+					throw new IllegalArgumentException("Unsupported function " + name);
+			}
+		}
+
+		/**
+		 * Returns an interval enclosing the results of the function applied
+		 * to values within the specified intervals.
+		 *
+		 * @param operands
+		 *            : Intervals of the arguments.
+		 * @return Interval enclosing the results of the function, or null if
+		 *         it fails for all values within the intervals.
+		 */
+		private Interval bound(Interval[] operands)
+		{
+			switch (function)
+			{
+				case MINIMUN:
+				case MAXIMUM:
+				{
+					double lower = operands[0].lower;
+					double upper = operands[0].upper;
+
+					for (int i = 1; i < operands.length; i++)
+					{
+						lower = function == Function.MINIMUN ? Math.min(lower,
+								operands[i].lower) : Math.max(lower, operands[i].lower);
+						upper = function == Function.MINIMUN ? Math.min(upper,
+								operands[i].upper) : Math.max(upper, operands[i].upper);
+					}
+
+					return new Interval(lower, upper);
+				}
+				case SUM:
+				case AVERAGE:
+				{
+					Interval result = new Interval(0.0, 0.0);
+
+					for (final Interval operand : operands)
+					{
+						result = result.add(operand);
+					}
+
+					return function == Function.SUM ? result : result.divide(new Interval(
+							operands.length, operands.length));
+				}
+				case RANDOM:
+					return new Interval(0.0, 1.0);
+				default:
+					break;
+			}
+
+			final Interval argument = operands[0];
+			Interval domain;
+
+			switch (function)
+			{
+				case ABSOLUTE:
+					return argument.abs();
+				case CEILING:
+					return argument.increasing(Math::ceil);
+				case FLOOR:
+					return argument.increasing(Math::floor);
+				case ROUND:
+				{
+					// Rounding a NaN argument results in zero
+					final Interval result = argument.increasing(Expression::round);
+					return new Interval(Math.min(result.lower, 0.0), Math.max(
+							result.upper, 0.0));
+				}
+				case HYPERBOLIC_SINE:
+					return argument.increasing(Math::sinh).widen();
+				case HYPERBOLIC_COSINE:
+					return argument.abs().increasing(Math::cosh).widen();
+				case HYPERBOLIC_TANGENT:
+					return argument.increasing(Math::tanh).widen();
+				case SINE:
+					return argument.periodic(Math.PI / 2.0, Math::sin);
+				case COSINE:
+					return argument.periodic(0.0, Math::cos);
+				case TANGENT:
+					return argument.tangent();
+				case ARC_COSINE:
+					domain = argument.restrict(-1.0, 1.0);
+					return domain == null ? null : domain.decreasing(Math::acos).widen();
+				case ARC_SINE:
+					domain = argument.restrict(-1.0, 1.0);
+					return domain == null ? null : domain.increasing(Math::asin).widen();
+				case ARC_TANGENT:
+					return argument.increasing(Math::atan).widen();
+				case NATURAL_LOGARITHM:
+					domain = argument.restrict(0.0, Double.POSITIVE_INFINITY);
+					return domain == null ? null : domain.increasing(Math::log).widen();
+				case BASE10_LOGARITHM:
+					domain = argument.restrict(0.0, Double.POSITIVE_INFINITY);
+					return domain == null ? null : domain.increasing(Math::log10).widen();
+				case SQUARE_ROOT:
+					// The square root is correctly rounded
+					domain = argument.restrict(0.0, Double.POSITIVE_INFINITY);
+					return domain == null ? null : domain.increasing(Math::sqrt);
+				case CUBE_ROOT:
+					return argument.increasing(Math::cbrt).widen();
+				default:
+					throw new IllegalArgumentException("Unsupported function " + name);
+			}
+		}
+
+		/**
+		 * Returns the result of the function applied to the specified
+		 * arguments, together with its partial derivatives.
+		 *
+		 * @param operands
+		 *            : Evaluated arguments and their partial derivatives.
+		 * @return Result of the function and its partial derivatives.
+		 */
+		private Dual derive(Dual[] operands)
+		{
+			switch (function)
+			{
+				case MINIMUN:
+				case MAXIMUM:
+				{
+					double result = operands[0].value;
+
+					for (int i = 1; i < operands.length; i++)
+					{
+						result = function == Function.MINIMUN ? Math.min(result,
+								operands[i].value) : Math.max(result, operands[i].value);
+					}
+
+					// The derivatives are those of the selected argument
+					for (final Dual operand : operands)
+					{
+						if (operand.value == result)
+						{
+							return new Dual(result, operand.derivatives);
+						}
+					}
+
+					return constant(result, operands);
+				}
+				case SUM:
+				case AVERAGE:
+				{
+					Dual result = constant(0.0, operands);
+
+					for (final Dual operand : operands)
+					{
+						result = result.add(operand);
+					}
+
+					return function == Function.SUM ? result : result.map(result.value
+							/ operands.length, 1.0 / operands.length);
+				}
+				case RANDOM:
+					return constant(ThreadLocalRandom.current().nextDouble(), operands);
+				default:
+					break;
+			}
+
+			final Dual argument = operands[0];
+			final double x = argument.value;
+			final double result = apply(x);
+			double derivative;
+
+			switch (function)
+			{
+				case ABSOLUTE:
+					derivative = Math.signum(x);
+					break;
+				case HYPERBOLIC_SINE:
+					derivative = Math.cosh(x);
+					break;
+				case HYPERBOLIC_COSINE:
+					derivative = Math.sinh(x);
+					break;
+				case HYPERBOLIC_TANGENT:
+					derivative = 1.0 - result * result;
+					break;
+				case SINE:
+					derivative = Math.cos(x);
+					break;
+				case COSINE:
+					derivative = -Math.sin(x);
+					break;
+				case TANGENT:
+					derivative = 1.0 + result * result;
+					break;
+				case ARC_COSINE:
+					derivative = -1.0 / Math.sqrt(1.0 - x * x);
+					break;
+				case ARC_SINE:
+					derivative = 1.0 / Math.sqrt(1.0 - x * x);
+					break;
+				case ARC_TANGENT:
+					derivative = 1.0 / (1.0 + x * x);
+					break;
+				case NATURAL_LOGARITHM:
+					derivative = 1.0 / x;
+					break;
+				case BASE10_LOGARITHM:
+					derivative = 1.0 / (x * Math.log(10.0));
+					break;
+				case SQUARE_ROOT:
+					derivative = 0.5 / result;
+					break;
+				case CUBE_ROOT:
+					derivative = 1.0 / (3.0 * result * result);
+					break;
+				default:
+					// Ceiling, floor and round are piecewise constant
+					derivative = 0.0;
+			}
+
+			return argument.map(result, derivative);
+		}
+
+		@Override
+		Dual differentiate(Dual[] values)
+		{
+			final Dual[] operands = new Dual[arguments.length];
+
+			for (int i = 0; i < arguments.length; i++)
+			{
+				operands[i] = arguments[i].differentiate(values);
+			}
+
+			final Dual result = derive(operands);
+			check(result.value, name);
+			return result;
+		}
+
+		@Override
+		Interval enclose(Interval[] values)
+		{
+			final Interval[] operands = new Interval[arguments.length];
+
+			for (int i = 0; i < arguments.length; i++)
+			{
+				operands[i] = arguments[i].enclose(values);
+			}
+
+			final Interval result = bound(operands);
+
+			if (result == null)
+			{
+				throw new IllegalArgumentException("Invalid argument passed to " + name);
+			}
+
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (!(obj instanceof FunctionCall))
+			{
+				return false;
+			}
+
+			final FunctionCall other = (FunctionCall) obj;
+			return hash == other.hash && function == other.function
+					&& Arrays.equals(arguments, other.arguments);
+		}
+
+		@Override
+		public double evaluate(double[] values)
+		{
+			return check(apply(values), name);
+		}
+
+		@Override
+		double[] evaluate(double[][] columns, int length, boolean[] failed)
+		{
+			final double[] result = new double[length];
+
+			switch (function)
+			{
+				case MINIMUN:
+				case MAXIMUM:
+				{
+					System.arraycopy(arguments[0].evaluate(columns, length, failed), 0,
+							result, 0, length);
+
+					for (int j = 1; j < arguments.length; j++)
+					{
+						final double[] argument = arguments[j].evaluate(columns, length,
+								failed);
+
+						if (function == Function.MINIMUN)
+						{
+							for (int i = 0; i < length; i++)
+							{
+								result[i] = Math.min(result[i], argument[i]);
+							}
+						}
+						else
+						{
+							for (int i = 0; i < length; i++)
+							{
+								result[i] = Math.max(result[i], argument[i]);
+							}
+						}
+					}
+					break;
+				}
+				case SUM:
+				case AVERAGE:
+				{
+					for (final Expression expression : arguments)
+					{
+						final double[] argument = expression.evaluate(columns, length,
+								failed);
+
+						for (int i = 0; i < length; i++)
+						{
+							result[i] += argument[i];
+						}
+					}
+
+					if (function == Function.AVERAGE)
+					{
+						for (int i = 0; i < length; i++)
+						{
+							result[i] /= arguments.length;
+						}
+					}
+					break;
+				}
+				case RANDOM:
+				{
+					final ThreadLocalRandom random = ThreadLocalRandom.current();
+
+					for (int i = 0; i < length; i++)
+					{
+						result[i] = random.nextDouble();
+					}
+					break;
+				}
+				default:
+				{
+					final double[] argument = arguments[0].evaluate(columns, length, failed);
+
+					for (int i = 0; i < length; i++)
+					{
+						result[i] = apply(argument[i]);
+					}
+				}
+			}
+
+			for (int i = 0; i < length; i++)
+			{
+				failed[i] |= Double.isNaN(result[i]);
+			}
+
+			return result;
+		}
+
+		/**
+		 * Returns the name of the method implementing the function, which
+		 * takes a single argument.
+		 *
+		 * @return Name of the method.
+		 */
+		private String getMethod()
+		{
+			switch (function)
+			{
+				case ABSOLUTE:
+					return "Math.abs";
+				case CEILING:
+					return "Math.ceil";
+				case FLOOR:
+					return "Math.floor";
+				case ROUND:
+					return "round";
+				case HYPERBOLIC_SINE:
+					return "Math.sinh";
+				case HYPERBOLIC_COSINE:
+					return "Math.cosh";
+				case HYPERBOLIC_TANGENT:
+					return "Math.tanh";
+				case SINE:
+					return "Math.sin";
+				case COSINE:
+					return "Math.cos";
+				case TANGENT:
+					return "Math.tan";
+				case ARC_COSINE:
+					return "Math.acos";
+				case ARC_SINE:
+					return "Math.asin";
+				case ARC_TANGENT:
+					return "Math.atan";
+				case NATURAL_LOGARITHM:
+					return "Math.log";
+				case BASE10_LOGARITHM:
+					return "Math.log10";
+				case SQUARE_ROOT:
+					return "Math.sqrt";
+				case CUBE_ROOT:
+					return "Math.cbrt";
+				default:
+					throw new IllegalArgumentException("Unsupported function " + name);
+			}
+		}
+
+		@Override
+		Expression[] getOperands()
+		{
+			return arguments.clone();
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return hash;
+		}
+
+		/**
+		 * Returns false if the function is random, as each of its calls
+		 * results in a different value.
+		 */
+		@Override
+		boolean isPure()
+		{
+			if (function == Function.RANDOM)
+			{
+				return false;
+			}
+
+			for (final Expression argument : arguments)
+			{
+				if (!argument.isPure())
+				{
+					return false;
+				}
+			}
+
+			return true;
+		}
+
+		@Override
+		Expression replaceOperands(Expression[] operands)
+		{
+			return new FunctionCall(function, name, operands);
+		}
+
+		@Override
+		Expression simplify()
+		{
+			final Expression[] operands = new Expression[arguments.length];
+			boolean constant = true;
+
+			for (int i = 0; i < arguments.length; i++)
+			{
+				operands[i] = arguments[i].simplify();
+				constant &= operands[i] instanceof Value;
+			}
+
+			final Expression result = new FunctionCall(function, name, operands);
+			return constant ? fold(result) : result;
+		}
+	}
+
+	/**
+	 * Class representing the negation of a sub-expression.
+	 */
+	static final class Negation extends Expression
+	{
+		/**
+		 * Expression to be negated.
+		 */
+		private final Expression	operand;
+
+		/**
+		 * Constructs a new instance of Negation with the specified operand.
+		 *
+		 * @param operand
+		 *            : Expression to be negated.
+		 */
+		Negation(Expression operand)
+		{
+			this.operand = operand;
+		}
+
+		@Override
+		void appendSource(StringBuilder builder)
+		{
+			builder.append("(-");
+			operand.appendSource(builder);
+			builder.append(')');
+		}
+
+		@Override
+		Dual differentiate(Dual[] values)
+		{
+			return operand.differentiate(values).negate();
+		}
+
+		@Override
+		Interval enclose(Interval[] values)
+		{
+			return operand.enclose(values).negate();
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			return obj instanceof Negation && operand.equals(((Negation) obj).operand);
+		}
+
+		@Override
+		public double evaluate(double[] values)
+		{
+			return -operand.evaluate(values);
+		}
+
+		@Override
+		double[] evaluate(double[][] columns, int length, boolean[] failed)
+		{
+			final double[] values = operand.evaluate(columns, length, failed);
+			final double[] result = new double[length];
+
+			for (int i = 0; i < length; i++)
+			{
+				result[i] = -values[i];
+			}
+
+			return result;
+		}
+
+		@Override
+		Expression[] getOperands()
+		{
+			return new Expression[] { operand };
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return ~operand.hashCode();
+		}
+
+		@Override
+		boolean isPure()
+		{
+			return operand.isPure();
+		}
+
+		@Override
+		Expression replaceOperands(Expression[] operands)
+		{
+			return new Negation(operands[0]);
+		}
+
+		@Override
+		Expression simplify()
+		{
+			final Expression result = operand.simplify();
+
+			if (result instanceof Value)
+			{
+				return new Value(-((Value) result).value);
+			}
+			else if (result instanceof Negation)
+			{
+				return ((Negation) result).operand;
+			}
+
+			return new Negation(result);
+		}
+	}
+
+	/**
+	 * Class representing a numeric literal or a mathematical constant.
+	 */
+	static final class Value extends Expression
+	{
+		/**
+		 * Value of this literal.
+		 */
+		private final double	value;
+
+		/**
+		 * Constructs a new instance of Value with the specified value.
+		 *
+		 * @param value
+		 *            : Value of this literal.
+		 */
+		Value(double value)
+		{
+			this.value = value;
+		}
+
+		@Override
+		void appendSource(StringBuilder builder)
+		{
+			if (Double.isNaN(value))
+			{
+				builder.append("Double.NaN");
+			}
+			else if (Double.isInfinite(value))
+			{
+				builder.append(value > 0 ? "Double.POSITIVE_INFINITY"
+						: "Double.NEGATIVE_INFINITY");
+			}
+			else
+			{
+				// A hexadecimal literal holds exactly the same value, whereas
+				// Double.toString() does not round trip on older releases
+				builder.append('(').append(Double.toHexString(value)).append(')');
+			}
+		}
+
+		@Override
+		Dual differentiate(Dual[] values)
+		{
+			return constant(value, values);
+		}
+
+		@Override
+		Interval enclose(Interval[] values)
+		{
+			if (Double.isNaN(value))
+			{
+				throw new IllegalArgumentException("Invalid expression");
+			}
+
+			return new Interval(value, value);
+		}
+
+		/**
+		 * Compares the bits of both values, therefore NaN is equal to itself
+		 * and 0.0 is not equal to -0.0.
+		 */
+		@Override
+		public boolean equals(Object obj)
+		{
+			return obj instanceof Value
+					&& Double.doubleToLongBits(value) == Double
+							.doubleToLongBits(((Value) obj).value);
+		}
+
+		@Override
+		public double evaluate(double[] values)
+		{
+			return value;
+		}
+
+		@Override
+		double[] evaluate(double[][] columns, int length, boolean[] failed)
+		{
+			final double[] result = new double[length];
+			Arrays.fill(result, value);
+			return result;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return Double.hashCode(value);
+		}
+	}
+
+	/**
+	 * Class representing a decision variable, which has been resolved to the
+	 * index of its value during parsing.
+	 */
+	static final class Variable extends Expression
+	{
+		/**
+		 * Index of the value of the variable.
+		 */
+		private final int	slot;
+
+		/**
+		 * Constructs a new instance of Variable with the specified index.
+		 *
+		 * @param slot
+		 *            : Index of the value of the variable.
+		 */
+		Variable(int slot)
+		{
+			this.slot = slot;
+		}
+
+		@Override
+		void addSlots(BitSet slots)
+		{
+			slots.set(slot);
+		}
+
+		@Override
+		void appendSource(StringBuilder builder)
+		{
+			builder.append("x[").append(slot).append(']');
+		}
+
+		@Override
+		Dual differentiate(Dual[] values)
+		{
+			return values[slot];
+		}
+
+		@Override
+		Interval enclose(Interval[] values)
+		{
+			return values[slot];
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			return obj instanceof Variable && slot == ((Variable) obj).slot;
+		}
+
+		@Override
+		public double evaluate(double[] values)
+		{
+			return values[slot];
+		}
+
+		@Override
+		double[] evaluate(double[][] columns, int length, boolean[] failed)
+		{
+			return columns[slot];
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return slot;
+		}
+	}
+
+	/**
+	 * Class representing a reference to a sub-expression shared by several
+	 * expressions, whose value is evaluated once and stored after the values
+	 * of the decision variables.
+	 */
+	static final class Shared extends Expression
+	{
+		/**
+		 * Index of the value of the shared sub-expression.
+		 */
+		private final int	slot;
+
+		/**
+		 * Constructs a new instance of Shared with the specified index.
+		 *
+		 * @param slot
+		 *            : Index of the value of the shared sub-expression.
+		 */
+		Shared(int slot)
+		{
+			this.slot = slot;
+		}
+
+		@Override
+		void addSlots(BitSet slots)
+		{
+			slots.set(slot);
+		}
+
+		@Override
+		void appendSource(StringBuilder builder)
+		{
+			builder.append("shared(x[").append(slot).append("])");
+		}
+
+		@Override
+		Dual differentiate(Dual[] values)
+		{
+			if (values[slot] == null)
+			{
+				throw new IllegalArgumentException("Invalid shared sub-expression");
+			}
+
+			return values[slot];
+		}
+
+		@Override
+		Interval enclose(Interval[] values)
+		{
+			if (values[slot] == null)
+			{
+				throw new IllegalArgumentException("Invalid shared sub-expression");
+			}
+
+			return values[slot];
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			return obj instanceof Shared && slot == ((Shared) obj).slot;
+		}
+
+		@Override
+		public double evaluate(double[] values)
+		{
+			return shared(values[slot]);
+		}
+
+		@Override
+		double[] evaluate(double[][] columns, int length, boolean[] failed)
+		{
+			final double[] result = columns[slot];
+
+			for (int i = 0; i < length; i++)
+			{
+				failed[i] |= Double.doubleToRawLongBits(result[i]) == Double
+						.doubleToRawLongBits(FAILED);
+			}
+
+			return result;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return ~slot;
+		}
+	}
+
+	/**
+	 * Expression which always evaluates to NaN, utilised in place of
+	 * expressions which could not be parsed.
+	 */
+	static final Expression	INVALID				= new Value(Double.NaN);
+
+	/**
+	 * NaN value, distinguished by its bits from the NaN produced by arithmetic,
+	 * which is stored in place of a shared sub-expression whose evaluation
+	 * failed.
+	 */
+	static final double		FAILED				= Double.longBitsToDouble(0x7ff8000000000001L);
+
+	/**
+	 * Greatest integer exponent which is replaced by multiplications.
+	 */
+	private static final int	MAXIMUM_EXPONENT	= 4;
+
+	/**
+	 * Returns the specified result of a function, mirroring JAVALUATOR which
+	 * rejects functions evaluating to NaN.
+	 *
+	 * @param result
+	 *            : Result of the function.
+	 * @param name
+	 *            : Name of the function, as typed in the expression.
+	 * @return The specified result.
+	 * @throws IllegalArgumentException
+	 *             : If the result is NaN.
+	 */
+	protected static double check(double result, String name)
+	{
+		if (Double.isNaN(result))
+		{
+			throw new IllegalArgumentException("Invalid argument passed to " + name);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns a dual number with the specified value, whose partial derivatives
+	 * are all zero, with respect to the same variables as the specified
+	 * numbers.
+	 *
+	 * @param value
+	 *            : Value of the number.
+	 * @param operands
+	 *            : Numbers whose variables are utilised.
+	 * @return Constant dual number.
+	 */
+	private static Dual constant(double value, Dual[] operands)
+	{
+		for (final Dual operand : operands)
+		{
+			if (operand != null)
+			{
+				return new Dual(value, new double[operand.derivatives.length]);
+			}
+		}
+
+		return new Dual(value, new double[0]);
+	}
+
+	/**
+	 * Returns the specified expression, which has no variables, replaced by
+	 * its value. The expression is returned unchanged if it is impure or its
+	 * evaluation fails, so that it fails when evaluated as it would have done.
+	 *
+	 * @param expression
+	 *            : Expression to be folded.
+	 * @return Folded expression.
+	 */
+	private static Expression fold(Expression expression)
+	{
+		if (!expression.isPure())
+		{
+			return expression;
+		}
+
+		try
+		{
+			return new Value(expression.evaluate(null));
+		}
+		catch (final IllegalArgumentException e)
+		{
+			return expression;
+		}
+	}
+
+	/**
+	 * Returns whether the specified expression is a literal with the specified
+	 * value.
+	 *
+	 * @param expression
+	 *            : Expression to be checked.
+	 * @param value
+	 *            : Value of the literal.
+	 * @return True if the expression is a literal with the value, false
+	 *         otherwise.
+	 */
+	private static boolean isValue(Expression expression, double value)
+	{
+		return expression instanceof Value && ((Value) expression).value == value;
+	}
+
+	/**
+	 * Returns an expression multiplying the specified base by itself as many
+	 * times as the specified exponent, squaring it to halve the number of
+	 * multiplications.
+	 *
+	 * @param base
+	 *            : Base of the power.
+	 * @param exponent
+	 *            : Positive integer exponent of the power.
+	 * @return Expression equivalent to the power.
+	 */
+	private static Expression multiply(Expression base, int exponent)
+	{
+		if (exponent == 1)
+		{
+			return base;
+		}
+
+		final Expression half = multiply(base, exponent / 2);
+		final Expression square = new BinaryOperation(Operator.MULTPLICATION, half, half);
+
+		return exponent % 2 == 0 ? square : new BinaryOperation(Operator.MULTPLICATION,
+				square, base);
+	}
+
+	/**
+	 * Returns the specified value of a shared sub-expression, failing in the
+	 * same manner as its evaluation did.
+	 *
+	 * @param value
+	 *            : Value of the shared sub-expression.
+	 * @return The specified value.
+	 * @throws IllegalArgumentException
+	 *             : If the evaluation of the shared sub-expression failed.
+	 */
+	protected static double shared(double value)
+	{
+		if (Double.doubleToRawLongBits(value) == Double.doubleToRawLongBits(FAILED))
+		{
+			throw new IllegalArgumentException("Invalid shared sub-expression");
+		}
+
+		return value;
+	}
+
+	/**
+	 * Rounds the specified value in the same manner as JAVALUATOR, which
+	 * leaves infinite values unchanged.
+	 *
+	 * @param value
+	 *            : Value to be rounded.
+	 * @return Rounded value.
+	 */
+	protected static double round(double value)
+	{
+		if (Double.isInfinite(value))
+		{
+			return value;
+		}
+
+		return Math.round(value);
+	}
+
+	/**
+	 * Adds the indexes of the values read by this expression, which are those
+	 * of the decision variables and shared sub-expressions it references, to
+	 * the specified set.
+	 *
+	 * @param slots
+	 *            : Set of indexes to be added to.
+	 */
+	void addSlots(BitSet slots)
+	{
+		for (final Expression operand : getOperands())
+		{
+			operand.addSlots(slots);
+		}
+	}
+
+	/**
+	 * Appends the Java source code of this expression to the specified
+	 * builder, where the values of the decision variables are held by an
+	 * array named x.
+	 *
+	 * @param builder
+	 *            : StringBuilder object to append the source code to.
+	 */
+	abstract void appendSource(StringBuilder builder);
+
+	/**
+	 * Evaluates this expression together with its partial derivatives, by
+	 * means of forward mode automatic differentiation. Piecewise constant
+	 * functions have zero derivatives, and non-differentiable points take the
+	 * derivative of one of their sides.
+	 *
+	 * @param values
+	 *            : Values of the decision variables and their partial
+	 *            derivatives, all with respect to the same variables.
+	 * @return Result of evaluation and its partial derivatives.
+	 * @throws IllegalArgumentException
+	 *             : If a function is passed an invalid argument.
+	 */
+	abstract Dual differentiate(Dual[] values);
+
+	/**
+	 * Returns an interval enclosing every result of floating-point evaluation
+	 * for values of the decision variables within the specified intervals, by
+	 * means of interval arithmetic. The interval may be wider than the range of
+	 * the results, but never narrower, whereas the exact real values may lie
+	 * outside of it by the rounding error of evaluation.
+	 *
+	 * @param values
+	 *            : Intervals of the values of the decision variables and of
+	 *            the shared sub-expressions.
+	 * @return Interval enclosing the results of evaluation.
+	 * @throws IllegalArgumentException
+	 *             : If evaluation fails for all values within the intervals.
+	 */
+	abstract Interval enclose(Interval[] values);
+
+	/**
+	 * Returns the operands of this expression, which are empty unless it is
+	 * an operation or a function call.
+	 *
+	 * @return Array containing the operands of this expression.
+	 */
+	Expression[] getOperands()
+	{
+		return new Expression[0];
+	}
+
+	/**
+	 * Returns whether this expression always results in the same value when
+	 * evaluated with the same values of the decision variables.
+	 *
+	 * @return True if this expression is pure, false otherwise.
+	 */
+	boolean isPure()
+	{
+		return true;
+	}
+
+	/**
+	 * Returns an expression equivalent to this one with the specified
+	 * operands, this expression is returned if it has none.
+	 *
+	 * @param operands
+	 *            : Operands of the new expression.
+	 * @return Expression with the specified operands.
+	 */
+	Expression replaceOperands(Expression[] operands)
+	{
+		return this;
+	}
+
+	/**
+	 * Returns an expression equivalent to this one, where constant
+	 * sub-expressions are replaced by their values, identities such as x * 1,
+	 * x + 0 and x ^ 1 are replaced by x, and small integer powers are replaced
+	 * by multiplications. Results are unchanged, except that x ^ n may differ
+	 * by a few units in the last place from Math.pow() and x + 0 keeps the sign
+	 * of a negative zero.
+	 *
+	 * @return Simplified expression.
+	 */
+	Expression simplify()
+	{
+		return this;
+	}
+
+	/**
+	 * Evaluates this expression utilising the specified values of the decision
+	 * variables, where the value of variable x(i) is found at index i - 1.
+	 *
+	 * @param values
+	 *            : Values of the decision variables.
+	 * @return Result of evaluation.
+	 * @throws IllegalArgumentException
+	 *             : If a function is passed an invalid argument.
+	 */
+	public abstract double evaluate(double[] values);
+
+	/**
+	 * Evaluates this expression for a batch of solutions, utilising the values
+	 * of the decision variables stored by column, where the values of variable
+	 * x(i) are found at index i - 1. The returned column may be one of the
+	 * specified columns and must not be modified.
+	 *
+	 * @param columns
+	 *            : Values of the decision variables, one column per variable.
+	 * @param length
+	 *            : Number of solutions in the batch.
+	 * @param failed
+	 *            : Flags which are set for the solutions whose evaluation
+	 *            fails, as evaluate(double[]) would fail for them.
+	 * @return Column containing the result of evaluation for each solution.
+	 */
+	abstract double[] evaluate(double[][] columns, int length, boolean[] failed);
+}
\ No newline at end of file
@@ -0,0 +1,223 @@
+package uk.co.blogspot.rafaelzig.core.parsing;
+
+import java.text.NumberFormat;
+import java.text.ParsePosition;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import uk.co.blogspot.rafaelzig.core.datastructure.enumeration.Function;
+import uk.co.blogspot.rafaelzig.core.datastructure.enumeration.Operator;
+
+import com.fathzer.soft.javaluator.AbstractEvaluator;
+import com.fathzer.soft.javaluator.Constant;
+import com.fathzer.soft.javaluator.DoubleEvaluator;
+
+/**
+ * A subclass of AbstractEvaluator, which is provided by the JAVALUATOR library,
+ * which instead of evaluating an expression builds the corresponding tree of
+ * Expression objects. The same parameters of ExtendedDoubleEvaluator are
+ * utilised, therefore both classes accept exactly the same syntax.
+ *
+ * @author Rafael da Silva Costa - BSc Computer Science 3rd Year
+ */
+class ExpressionCompiler extends AbstractEvaluator<Expression>
+{
+	/**
+	 * Functions supported by ExtendedDoubleEvaluator mapped to their
+	 * corresponding Function constants.
+	 */
+	private static final Map<com.fathzer.soft.javaluator.Function, Function>	FUNCTIONS	= new HashMap<>();
+
+	static
+	{
+		FUNCTIONS.put(DoubleEvaluator.ABS, Function.ABSOLUTE);
+		FUNCTIONS.put(DoubleEvaluator.AVERAGE, Function.AVERAGE);
+		FUNCTIONS.put(DoubleEvaluator.CEIL, Function.CEILING);
+		FUNCTIONS.put(DoubleEvaluator.FLOOR, Function.FLOOR);
+		FUNCTIONS.put(DoubleEvaluator.MAX, Function.MAXIMUM);
+		FUNCTIONS.put(DoubleEvaluator.MIN, Function.MINIMUN);
+		FUNCTIONS.put(DoubleEvaluator.RANDOM, Function.RANDOM);
+		FUNCTIONS.put(DoubleEvaluator.ROUND, Function.ROUND);
+		FUNCTIONS.put(DoubleEvaluator.COSINE, Function.COSINE);
+		FUNCTIONS.put(DoubleEvaluator.ACOSINE, Function.ARC_COSINE);
+		FUNCTIONS.put(DoubleEvaluator.COSINEH, Function.HYPERBOLIC_COSINE);
+		FUNCTIONS.put(DoubleEvaluator.SINE, Function.SINE);
+		FUNCTIONS.put(DoubleEvaluator.ASINE, Function.ARC_SINE);
+		FUNCTIONS.put(DoubleEvaluator.SINEH, Function.HYPERBOLIC_SINE);
+		FUNCTIONS.put(DoubleEvaluator.TANGENT, Function.TANGENT);
+		FUNCTIONS.put(DoubleEvaluator.ATAN, Function.ARC_TANGENT);
+		FUNCTIONS.put(DoubleEvaluator.TANGENTH, Function.HYPERBOLIC_TANGENT);
+		FUNCTIONS.put(DoubleEvaluator.LN, Function.NATURAL_LOGARITHM);
+		FUNCTIONS.put(DoubleEvaluator.LOG, Function.BASE10_LOGARITHM);
+		FUNCTIONS.put(DoubleEvaluator.SUM, Function.SUM);
+		FUNCTIONS.put(ExtendedDoubleEvaluator.SQRT, Function.SQUARE_ROOT);
+		FUNCTIONS.put(ExtendedDoubleEvaluator.CBRT, Function.CUBE_ROOT);
+	}
+
+	/**
+	 * NumberFormat object utilised to parse numeric literals, configured in
+	 * the same manner as the one utilised by DoubleEvaluator.
+	 */
+	private final NumberFormat	formatter	= NumberFormat.getNumberInstance(Locale.US);
+
+	/**
+	 * Number of decision variables of the expression being parsed, variables
+	 * x1 to xN are resolved to their index during parsing.
+	 */
+	private int					numberOfVariables;
+
+	/**
+	 * Constructs a new instance of ExpressionCompiler.
+	 */
+	ExpressionCompiler()
+	{
+		super(ExtendedDoubleEvaluator.PARAMS);
+	}
+
+	/**
+	 * Parses the specified mathematical expression into a tree of Expression
+	 * objects.
+	 *
+	 * @param expression
+	 *            : String object representing a mathematical expression.
+	 * @param numberOfVariables
+	 *            : Number of decision variables which may be referenced by the
+	 *            expression.
+	 * @return Parsed expression.
+	 * @throws IllegalArgumentException
+	 *             : If the expression is not syntactically valid or references
+	 *             an unknown variable.
+	 */
+	Expression compile(String expression, int numberOfVariables)
+	{
+		this.numberOfVariables = numberOfVariables;
+		return evaluate(expression, null);
+	}
+
+	@Override
+	protected Expression evaluate(Constant constant, Object evaluationContext)
+	{
+		if (DoubleEvaluator.PI.equals(constant))
+		{
+			return new Expression.Value(Math.PI);
+		}
+		else if (DoubleEvaluator.E.equals(constant))
+		{
+			return new Expression.Value(Math.E);
+		}
+
+		return super.evaluate(constant, evaluationContext);
+	}
+
+	@Override
+	protected Expression evaluate(com.fathzer.soft.javaluator.Function function,
+			Iterator<Expression> arguments, Object evaluationContext)
+	{
+		final Function type = FUNCTIONS.get(function);
+
+		if (type == null)
+		{
+			return super.evaluate(function, arguments, evaluationContext);
+		}
+
+		final List<Expression> list = new ArrayList<>();
+		arguments.forEachRemaining(list::add);
+
+		return new Expression.FunctionCall(type, function.getName(),
+				list.toArray(new Expression[list.size()]));
+	}
+
+	@Override
+	protected Expression evaluate(com.fathzer.soft.javaluator.Operator operator,
+			Iterator<Expression> operands, Object evaluationContext)
+	{
+		if (DoubleEvaluator.NEGATE.equals(operator)
+				|| DoubleEvaluator.NEGATE_HIGH.equals(operator))
+		{
+			return new Expression.Negation(operands.next());
+		}
+
+		Operator type;
+
+		if (DoubleEvaluator.PLUS.equals(operator))
+		{
+			type = Operator.ADDITION;
+		}
+		else if (DoubleEvaluator.MINUS.equals(operator))
+		{
+			type = Operator.SUBTRACTION;
+		}
+		else if (DoubleEvaluator.MULTIPLY.equals(operator))
+		{
+			type = Operator.MULTPLICATION;
+		}
+		else if (DoubleEvaluator.DIVIDE.equals(operator))
+		{
+			type = Operator.DIVISION;
+		}
+		else if (DoubleEvaluator.EXPONENT.equals(operator))
+		{
+			type = Operator.EXPONENTIATION;
+		}
+		else if (DoubleEvaluator.MODULO.equals(operator))
+		{
+			type = Operator.MODULO;
+		}
+		else
+		{
+			return super.evaluate(operator, operands, evaluationContext);
+		}
+
+		return new Expression.BinaryOperation(type, operands.next(), operands.next());
+	}
+
+	/**
+	 * Returns a numeric literal if the specified literal is a number, otherwise
+	 * the literal is resolved to the index of the decision variable it names.
+	 */
+	@Override
+	protected Expression toValue(String literal, Object evaluationContext)
+	{
+		final ParsePosition position = new ParsePosition(0);
+		final Number number = formatter.parse(literal, position);
+
+		if (position.getIndex() != 0 && position.getIndex() == literal.length())
+		{
+			return new Expression.Value(number.doubleValue());
+		}
+
+		final int slot = getSlot(literal);
+
+		if (slot < 0)
+		{
+			throw new IllegalArgumentException(literal + " is not a number");
+		}
+
+		return new Expression.Variable(slot);
+	}
+
+	/**
+	 * Returns the index of the decision variable named by the specified
+	 * literal, variables are named x1 to xN.
+	 *
+	 * @param literal
+	 *            : Literal to be resolved.
+	 * @return Index of the variable, or -1 if the literal does not name one.
+	 */
+	private int getSlot(String literal)
+	{
+		for (int slot = 0; slot < numberOfVariables; slot++)
+		{
+			if (literal.equals("x" + (slot + 1)))
+			{
+				return slot;
+			}
+		}
+
+		return -1;
+	}
+}
\ No newline at end of file
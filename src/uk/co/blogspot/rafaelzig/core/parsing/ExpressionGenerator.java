@@ -0,0 +1,240 @@
+package uk.co.blogspot.rafaelzig.core.parsing;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+/**
+ * Class which translates parsed expressions into Java source code and compiles
+ * it at runtime, utilising the system Java compiler, into classes which the JIT
+ * compiler is able to optimise as if they had been written by hand. Generation
+ * is enabled by setting the system property "moostudio.bytecode" to true, the
+ * parsed expressions are utilised instead whenever it fails, for example when
+ * running on a JRE which does not provide a compiler.
+ * <p>
+ * The generated code performs the same operations as the parsed expressions
+ * in the same order, without re-associating or fusing any of them. Results
+ * may nonetheless differ by one unit in the last place where a function of
+ * Math is called, whose result is allowed to vary between the interpreter
+ * and the code produced by the JIT compiler.
+ *
+ * @author Rafael da Silva Costa - BSc Computer Science 3rd Year
+ *
+ */
+class ExpressionGenerator
+{
+	/**
+	 * Class loader which defines the classes produced by the compiler.
+	 */
+	private static final class GeneratedClassLoader extends ClassLoader
+	{
+		/**
+		 * Compiled classes indexed by their binary name.
+		 */
+		private final Map<String, ByteArrayOutputStream>	classes;
+
+		/**
+		 * Constructs a new instance of GeneratedClassLoader which defines the
+		 * specified compiled classes.
+		 *
+		 * @param classes
+		 *            : Compiled classes indexed by their binary name.
+		 */
+		GeneratedClassLoader(Map<String, ByteArrayOutputStream> classes)
+		{
+			super(Expression.class.getClassLoader());
+			this.classes = classes;
+		}
+
+		@Override
+		protected Class<?> findClass(String name) throws ClassNotFoundException
+		{
+			final ByteArrayOutputStream bytes = classes.get(name);
+
+			if (bytes == null)
+			{
+				throw new ClassNotFoundException(name);
+			}
+
+			final byte[] code = bytes.toByteArray();
+			return defineClass(name, code, 0, code.length);
+		}
+	}
+
+	/**
+	 * Whether the generation of classes is enabled.
+	 */
+	static final boolean				ENABLED		= Boolean.getBoolean("moostudio.bytecode");
+
+	/**
+	 * Counter utilised to give a unique name to each generated class.
+	 */
+	private static final AtomicInteger	counter		= new AtomicInteger();
+
+	/**
+	 * Package of the generated classes.
+	 */
+	private static final String			PACKAGE		= "uk.co.blogspot.rafaelzig.generated";
+
+	/**
+	 * Generates a class for each of the specified expressions, which are
+	 * compiled together in a single invocation of the compiler.
+	 *
+	 * @param expressions
+	 *            : Parsed expressions to be compiled.
+	 * @return Array containing the generated expressions, or the specified
+	 *         expressions if generation is disabled or fails.
+	 */
+	static Expression[] generate(Expression[] expressions)
+	{
+		if (!ENABLED || expressions.length == 0)
+		{
+			return expressions;
+		}
+
+		try
+		{
+			final Expression[] result = compile(expressions);
+			return result == null ? expressions : result;
+		}
+		catch (final Exception | LinkageError e)
+		{
+			return expressions;
+		}
+	}
+
+	/**
+	 * Compiles the specified expressions into nested classes of a single
+	 * generated class.
+	 *
+	 * @param expressions
+	 *            : Parsed expressions to be compiled.
+	 * @return Array containing the generated expressions, or null if the
+	 *         compiler is unavailable or reports an error.
+	 * @throws ReflectiveOperationException
+	 *             : If a generated class cannot be instantiated.
+	 * @throws URISyntaxException
+	 *             : If the location of the parsed expressions is malformed.
+	 */
+	private static Expression[] compile(Expression[] expressions)
+			throws ReflectiveOperationException, URISyntaxException
+	{
+		final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+
+		if (compiler == null)
+		{
+			return null;
+		}
+
+		final String simpleName = "Problem" + counter.incrementAndGet();
+		final String name = PACKAGE + "." + simpleName;
+		final Map<String, ByteArrayOutputStream> classes = new HashMap<>();
+
+		final JavaFileObject source = new SimpleJavaFileObject(URI.create("string:///"
+				+ name.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE)
+		{
+			@Override
+			public CharSequence getCharContent(boolean ignoreEncodingErrors)
+			{
+				return getSource(simpleName, expressions);
+			}
+		};
+
+		final JavaFileManager fileManager = new ForwardingJavaFileManager<JavaFileManager>(
+				compiler.getStandardFileManager(null, null, null))
+		{
+			@Override
+			public JavaFileObject getJavaFileForOutput(Location location,
+					String className, Kind kind, FileObject sibling)
+			{
+				final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+				classes.put(className, bytes);
+
+				return new SimpleJavaFileObject(URI.create("bytes:///"
+						+ className.replace('.', '/') + kind.extension), kind)
+				{
+					@Override
+					public OutputStream openOutputStream()
+					{
+						return bytes;
+					}
+				};
+			}
+		};
+
+		// The location is a URL, escaping spaces and non-ASCII characters
+		final String classPath = System.getProperty("java.class.path")
+				+ File.pathSeparator
+				+ Paths.get(Expression.class.getProtectionDomain().getCodeSource()
+						.getLocation().toURI());
+
+		if (!compiler.getTask(null, fileManager, null,
+				Arrays.asList("-g:none", "-nowarn", "-classpath", classPath), null,
+				Arrays.asList(source)).call())
+		{
+			return null;
+		}
+
+		final ClassLoader loader = new GeneratedClassLoader(classes);
+		final Expression[] result = new Expression[expressions.length];
+
+		for (int i = 0; i < expressions.length; i++)
+		{
+			result[i] = (Expression) loader.loadClass(name + "$E" + i)
+					.getConstructor(Expression.class).newInstance(expressions[i]);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the source code of a class containing a nested subclass of
+	 * GeneratedExpression for each of the specified expressions.
+	 *
+	 * @param simpleName
+	 *            : Simple name of the generated class.
+	 * @param expressions
+	 *            : Parsed expressions to be translated.
+	 * @return Source code of the generated class.
+	 */
+	private static String getSource(String simpleName, Expression[] expressions)
+	{
+		final StringBuilder builder = new StringBuilder();
+
+		builder.append("package ").append(PACKAGE).append(";\n");
+		builder.append("public final class ").append(simpleName).append(" {\n");
+
+		for (int i = 0; i < expressions.length; i++)
+		{
+			builder.append("public static final class E").append(i)
+					.append(" extends ").append(GeneratedExpression.class.getName())
+					.append(" {\n");
+			builder.append("public E").append(i).append('(')
+					.append(Expression.class.getName())
+					.append(" source) { super(source); }\n");
+			builder.append("public double evaluate(double[] x) { return ");
+			expressions[i].appendSource(builder);
+			builder.append("; }\n");
+			builder.append("}\n");
+		}
+
+		builder.append("}\n");
+		return builder.toString();
+	}
+}
@@ -1,6 +1,9 @@
 package uk.co.blogspot.rafaelzig.core.parsing;
 
+import java.text.NumberFormat;
+import java.text.ParsePosition;
 import java.util.Iterator;
+import java.util.Locale;
 
 import com.fathzer.soft.javaluator.BracketPair;
 import com.fathzer.soft.javaluator.DoubleEvaluator;
@@ -16,10 +19,11 @@ import com.fathzer.soft.javaluator.Parameters;
 class ExtendedDoubleEvaluator extends DoubleEvaluator
 {
 	/** Defines the new function (square root). */
-	private static final Function	SQRT	= new Function("sqrt", 1);
+	static final Function		SQRT	= new Function("sqrt", 1);
 	/** Defines the new function (cube root). */
-	private static final Function	CBRT	= new Function("cbrt", 1);
-	private static final Parameters	PARAMS;
+	static final Function		CBRT	= new Function("cbrt", 1);
+	/** Parameters of this evaluator, shared with ExpressionCompiler. */
+	static final Parameters		PARAMS;
 
 	static
 	{
@@ -34,6 +38,13 @@ class ExtendedDoubleEvaluator extends DoubleEvaluator
 		PARAMS.addExpressionBracket(BracketPair.BRACKETS);
 	}
 
+	/**
+	 * NumberFormat object utilised to parse numeric literals, DoubleEvaluator
+	 * shares a single static instance between all evaluators which is not
+	 * thread-safe.
+	 */
+	private final NumberFormat		formatter	= NumberFormat.getNumberInstance(Locale.US);
+
 	/**
 	 * Constructs a new instance of ExtendedDoubleEvaluator with the specified
 	 * parameters.
@@ -61,4 +72,18 @@ class ExtendedDoubleEvaluator extends DoubleEvaluator
 			return super.evaluate(function, arguments, evaluationContext);
 		}
 	}
+
+	@Override
+	protected Double toValue(String literal, Object evaluationContext)
+	{
+		final ParsePosition position = new ParsePosition(0);
+		final Number number = formatter.parse(literal, position);
+
+		if (position.getIndex() == 0 || position.getIndex() != literal.length())
+		{
+			throw new IllegalArgumentException(literal + " is not a number");
+		}
+
+		return number.doubleValue();
+	}
 }
\ No newline at end of file
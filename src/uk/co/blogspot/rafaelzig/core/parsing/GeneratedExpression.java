@@ -0,0 +1,79 @@
+package uk.co.blogspot.rafaelzig.core.parsing;
+
+import java.util.BitSet;
+
+/**
+ * Abstract class which is extended by the classes generated at runtime by
+ * ExpressionGenerator, these implement the evaluation of the expression from
+ * which they were generated and delegate any other operation to it.
+ *
+ * @author Rafael da Silva Costa - BSc Computer Science 3rd Year
+ *
+ */
+public abstract class GeneratedExpression extends Expression
+{
+	/**
+	 * Parsed expression from which this expression was generated.
+	 */
+	private final Expression	source;
+
+	/**
+	 * Constructs a new instance of GeneratedExpression generated from the
+	 * specified expression.
+	 *
+	 * @param source
+	 *            : Parsed expression from which this expression was generated.
+	 */
+	protected GeneratedExpression(Expression source)
+	{
+		this.source = source;
+	}
+
+	@Override
+	final void addSlots(BitSet slots)
+	{
+		source.addSlots(slots);
+	}
+
+	@Override
+	final void appendSource(StringBuilder builder)
+	{
+		source.appendSource(builder);
+	}
+
+	@Override
+	final Dual differentiate(Dual[] values)
+	{
+		return source.differentiate(values);
+	}
+
+	@Override
+	final Interval enclose(Interval[] values)
+	{
+		return source.enclose(values);
+	}
+
+	@Override
+	final double[] evaluate(double[][] columns, int length, boolean[] failed)
+	{
+		return source.evaluate(columns, length, failed);
+	}
+
+	@Override
+	final Expression[] getOperands()
+	{
+		return source.getOperands();
+	}
+
+	@Override
+	final boolean isPure()
+	{
+		return source.isPure();
+	}
+
+	@Override
+	final Expression replaceOperands(Expression[] operands)
+	{
+		return source.replaceOperands(operands);
+	}
+}
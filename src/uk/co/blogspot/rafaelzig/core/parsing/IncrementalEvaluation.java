@@ -0,0 +1,107 @@
+package uk.co.blogspot.rafaelzig.core.parsing;
+
+/**
+ * Class holding the results of the expressions of a problem for the current
+ * values of its decision variables, which are updated one variable at a time.
+ * Only the shared sub-expressions and expressions depending on the variable
+ * changed are evaluated again, the results of the others being kept.
+ * Instances of this class are not safe to share between threads.
+ *
+ * @author Rafael da Silva Costa - BSc Computer Science 3rd Year
+ *
+ */
+public class IncrementalEvaluation
+{
+	/**
+	 * Parsed expressions of the problem.
+	 */
+	private final CompiledProblem	problem;
+
+	/**
+	 * Array containing the values of the decision variables followed by the
+	 * values of the shared sub-expressions.
+	 */
+	private final double[]			values;
+
+	/**
+	 * Array containing the results of the objectives followed by those of the
+	 * sides of each constraint.
+	 */
+	private final double[]			results;
+
+	/**
+	 * Constructs a new instance of IncrementalEvaluation evaluating every
+	 * expression of the specified problem for the specified values of the
+	 * decision variables.
+	 *
+	 * @param problem
+	 *            : Parsed expressions of the problem.
+	 * @param variables
+	 *            : Array containing the value of variable x(i) at index i - 1.
+	 */
+	IncrementalEvaluation(CompiledProblem problem, double[] variables)
+	{
+		this.problem = problem;
+		values = new double[problem.getNumberOfVariables() + problem.getNumberOfShared()];
+		results = new double[problem.getNumberOfExpressions()];
+		System.arraycopy(variables, 0, values, 0, variables.length);
+		problem.evaluateShared(values);
+
+		for (int i = 0; i < results.length; i++)
+		{
+			results[i] = Operations.evaluate(problem.getExpression(i), values);
+		}
+	}
+
+	/**
+	 * Returns the result of the specified expression, which is NaN if its
+	 * evaluation failed.
+	 *
+	 * @param index
+	 *            : Index of the expression among the objectives followed by
+	 *            the sides of each constraint.
+	 * @return Result of the expression.
+	 */
+	public double getResult(int index)
+	{
+		return results[index];
+	}
+
+	/**
+	 * Sets the value of the specified decision variable, evaluating again the
+	 * shared sub-expressions and expressions depending on it.
+	 *
+	 * @param variable
+	 *            : Index of the decision variable.
+	 * @param value
+	 *            : New value of the decision variable.
+	 */
+	public void set(int variable, double value)
+	{
+		if (Double.doubleToRawLongBits(values[variable]) == Double
+				.doubleToRawLongBits(value))
+		{
+			return;
+		}
+
+		values[variable] = value;
+		final int offset = problem.getNumberOfVariables();
+
+		for (final int i : problem.getSharedDependents(variable))
+		{
+			try
+			{
+				values[offset + i] = problem.getShared(i).evaluate(values);
+			}
+			catch (final IllegalArgumentException e)
+			{
+				values[offset + i] = Expression.FAILED;
+			}
+		}
+
+		for (final int i : problem.getDependents(variable))
+		{
+			results[i] = Operations.evaluate(problem.getExpression(i), values);
+		}
+	}
+}
@@ -0,0 +1,486 @@
+package uk.co.blogspot.rafaelzig.core.parsing;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Class representing a closed interval of the extended real line, which
+ * encloses every result of the floating-point evaluation of an expression for
+ * the values of its decision variables within a box. Values for which the
+ * evaluation of the expression fails are not enclosed, as solutions taking
+ * them are invalidated. Bounds of arithmetic operations are computed with the
+ * same operations as evaluation, rounded to nearest rather than outwards,
+ * which is sound as rounding is monotonic, and only the results of functions
+ * are widened. The exact real value of an expression may therefore lie
+ * outside of its enclosure by its rounding error. Instances of this class are
+ * immutable.
+ *
+ * @author Rafael da Silva Costa - BSc Computer Science 3rd Year
+ *
+ */
+final class Interval
+{
+	/**
+	 * Interval containing every value.
+	 */
+	static final Interval			ENTIRE		= new Interval(Double.NEGATIVE_INFINITY,
+													Double.POSITIVE_INFINITY);
+
+	/**
+	 * Number of units in the last place by which the results of functions
+	 * which are not correctly rounded are widened.
+	 */
+	private static final int		ERROR		= 8;
+
+	/**
+	 * Greatest magnitude of the arguments of periodic functions whose
+	 * extrema are located, beyond which their whole range is returned.
+	 */
+	private static final double		PERIODIC	= 1e6;
+
+	/**
+	 * Distance within which an extremum or pole of a periodic function is
+	 * considered to be contained, so that rounding errors cannot hide it.
+	 */
+	private static final double		TOLERANCE	= 1e-9;
+
+	/**
+	 * Lower bound of the interval.
+	 */
+	final double					lower;
+
+	/**
+	 * Upper bound of the interval.
+	 */
+	final double					upper;
+
+	/**
+	 * Constructs a new instance of Interval with the specified bounds.
+	 *
+	 * @param lower
+	 *            : Lower bound of the interval.
+	 * @param upper
+	 *            : Upper bound of the interval.
+	 */
+	Interval(double lower, double upper)
+	{
+		this.lower = lower;
+		this.upper = upper;
+	}
+
+	/**
+	 * Returns the smallest interval containing the specified values, ignoring
+	 * those which are NaN as they result from evaluation failing.
+	 *
+	 * @param values
+	 *            : Values to be contained.
+	 * @return Smallest interval containing the values, or the entire line if
+	 *         all of them are NaN.
+	 */
+	private static Interval hull(double... values)
+	{
+		double lower = Double.POSITIVE_INFINITY;
+		double upper = Double.NEGATIVE_INFINITY;
+
+		for (final double value : values)
+		{
+			if (!Double.isNaN(value))
+			{
+				lower = Math.min(lower, value);
+				upper = Math.max(upper, value);
+			}
+		}
+
+		return lower > upper ? ENTIRE : new Interval(lower, upper);
+	}
+
+	/**
+	 * Returns the specified bound moved by a few units in the last place in
+	 * the specified direction, leaving infinite bounds unchanged.
+	 *
+	 * @param bound
+	 *            : Bound to be moved.
+	 * @param direction
+	 *            : Direction to move the bound to, either 1 or -1.
+	 * @return Moved bound.
+	 */
+	private static double widen(double bound, double direction)
+	{
+		return Double.isInfinite(bound) ? bound : bound + direction * ERROR
+				* Math.ulp(bound);
+	}
+
+	/**
+	 * Returns the interval containing the absolute values of this interval.
+	 *
+	 * @return Interval of absolute values.
+	 */
+	Interval abs()
+	{
+		if (lower >= 0.0)
+		{
+			return this;
+		}
+		else if (upper <= 0.0)
+		{
+			return negate();
+		}
+
+		return new Interval(0.0, Math.max(-lower, upper));
+	}
+
+	/**
+	 * Returns the interval containing the sums of the values of this interval
+	 * and the specified one.
+	 *
+	 * @param other
+	 *            : Interval to be added.
+	 * @return Interval of sums.
+	 */
+	Interval add(Interval other)
+	{
+		return bounded(lower + other.lower, upper + other.upper);
+	}
+
+	/**
+	 * Returns an interval with the specified bounds, where a bound which is
+	 * NaN, as infinities of opposite signs were added, is replaced by the
+	 * corresponding infinity.
+	 *
+	 * @param lower
+	 *            : Lower bound of the interval.
+	 * @param upper
+	 *            : Upper bound of the interval.
+	 * @return Interval with the specified bounds.
+	 */
+	private static Interval bounded(double lower, double upper)
+	{
+		return new Interval(Double.isNaN(lower) ? Double.NEGATIVE_INFINITY : lower,
+				Double.isNaN(upper) ? Double.POSITIVE_INFINITY : upper);
+	}
+
+	/**
+	 * Returns whether this interval contains the specified value.
+	 *
+	 * @param value
+	 *            : Value to be checked.
+	 * @return True if the value lies within the bounds, false otherwise.
+	 */
+	boolean contains(double value)
+	{
+		return lower <= value && value <= upper;
+	}
+
+	/**
+	 * Returns whether this interval contains a value congruent to the
+	 * specified one modulo the specified period.
+	 *
+	 * @param value
+	 *            : Value to be checked.
+	 * @param period
+	 *            : Period of the congruence.
+	 * @return True if a congruent value lies within the bounds, or within the
+	 *         tolerance outside them, false otherwise.
+	 */
+	private boolean containsPeriodically(double value, double period)
+	{
+		final double nearest = value + period
+				* Math.floor((upper + TOLERANCE - value) / period);
+		return nearest >= lower - TOLERANCE;
+	}
+
+	/**
+	 * Returns the image of this interval by a function which is non-increasing
+	 * over it.
+	 *
+	 * @param function
+	 *            : Function to be applied to the bounds.
+	 * @return Interval of the results of the function.
+	 */
+	Interval decreasing(DoubleUnaryOperator function)
+	{
+		return new Interval(function.applyAsDouble(upper), function.applyAsDouble(lower));
+	}
+
+	/**
+	 * Returns the interval containing the quotients of the values of this
+	 * interval by those of the specified one, which is the entire line if the
+	 * divisor contains zero.
+	 *
+	 * @param other
+	 *            : Divisor.
+	 * @return Interval of quotients.
+	 */
+	Interval divide(Interval other)
+	{
+		if (other.contains(0.0))
+		{
+			return ENTIRE;
+		}
+
+		return hull(lower / other.lower, lower / other.upper, upper / other.lower,
+				upper / other.upper);
+	}
+
+	/**
+	 * Returns the image of this interval by a function which is non-decreasing
+	 * over it.
+	 *
+	 * @param function
+	 *            : Function to be applied to the bounds.
+	 * @return Interval of the results of the function.
+	 */
+	Interval increasing(DoubleUnaryOperator function)
+	{
+		return new Interval(function.applyAsDouble(lower), function.applyAsDouble(upper));
+	}
+
+	/**
+	 * Returns whether both bounds of this interval are finite.
+	 *
+	 * @return True if this interval is bounded, false otherwise.
+	 */
+	boolean isFinite()
+	{
+		return Double.isFinite(lower) && Double.isFinite(upper);
+	}
+
+	/**
+	 * Returns the interval containing the remainders of the division of the
+	 * values of this interval by those of the specified one, whose magnitude
+	 * is less than that of the divisor and whose sign is that of the dividend.
+	 *
+	 * @param other
+	 *            : Divisor.
+	 * @return Interval of remainders.
+	 */
+	Interval modulo(Interval other)
+	{
+		final double magnitude = Math.max(Math.abs(other.lower), Math.abs(other.upper));
+
+		return new Interval(lower >= 0.0 ? 0.0 : Math.max(lower, -magnitude),
+				upper <= 0.0 ? 0.0 : Math.min(upper, magnitude));
+	}
+
+	/**
+	 * Returns the interval containing the products of the values of this
+	 * interval and the specified one.
+	 *
+	 * @param other
+	 *            : Interval to be multiplied.
+	 * @return Interval of products.
+	 */
+	Interval multiply(Interval other)
+	{
+		return hull(lower * other.lower, lower * other.upper, upper * other.lower,
+				upper * other.upper);
+	}
+
+	/**
+	 * Returns the interval containing the negations of the values of this
+	 * interval.
+	 *
+	 * @return Interval of negations.
+	 */
+	Interval negate()
+	{
+		return new Interval(-upper, -lower);
+	}
+
+	/**
+	 * Returns the image of this interval by a function of period 2 * pi whose
+	 * maximum of 1 is located at the specified value and whose minimum of -1
+	 * is located half a period away, such as the sine and cosine.
+	 *
+	 * @param maximum
+	 *            : Location of a maximum of the function.
+	 * @param function
+	 *            : Function to be applied to the bounds.
+	 * @return Interval of the results of the function.
+	 */
+	Interval periodic(double maximum, DoubleUnaryOperator function)
+	{
+		if (!isFinite() || Math.max(-lower, upper) > PERIODIC
+				|| upper - lower >= 2.0 * Math.PI)
+		{
+			return new Interval(-1.0, 1.0);
+		}
+
+		final Interval result = hull(function.applyAsDouble(lower),
+				function.applyAsDouble(upper)).widen();
+
+		return new Interval(containsPeriodically(maximum + Math.PI, 2.0 * Math.PI) ? -1.0
+				: result.lower, containsPeriodically(maximum, 2.0 * Math.PI) ? 1.0
+				: result.upper);
+	}
+
+	/**
+	 * Returns the interval containing the values of this interval raised to
+	 * the power of those of the specified one. Negative bases are only
+	 * enclosed tightly for constant integer exponents, as any other exponent
+	 * either fails or alternates the sign of the result.
+	 *
+	 * @param other
+	 *            : Exponent.
+	 * @return Interval of powers.
+	 */
+	Interval pow(Interval other)
+	{
+		final double exponent = other.lower;
+
+		if (exponent == other.upper && exponent == Math.rint(exponent)
+				&& Math.abs(exponent) < 0x1p53)
+		{
+			return powInteger(exponent).widen();
+		}
+
+		Interval base = this;
+
+		if (exponent == other.upper && Double.isFinite(exponent)
+				&& lower != Double.NEGATIVE_INFINITY)
+		{
+			// Finite negative bases fail for non-integer exponents, which may
+			// only be recovered from by a later exponent of zero
+			base = restrict(0.0, Double.POSITIVE_INFINITY);
+
+			if (base == null)
+			{
+				return ENTIRE;
+			}
+		}
+		else if (Double.compare(lower, 0.0) < 0)
+		{
+			return ENTIRE;
+		}
+
+		// The power is monotonic in each argument on each side of a base of 1
+		// and of an exponent of 0, where it is 1
+		final Interval corners = hull(Math.pow(base.lower, other.lower),
+				Math.pow(base.lower, other.upper), Math.pow(base.upper, other.lower),
+				Math.pow(base.upper, other.upper));
+
+		double from = corners.lower;
+		double to = corners.upper;
+
+		if (base.contains(1.0) || other.contains(0.0))
+		{
+			from = Math.min(from, 1.0);
+			to = Math.max(to, 1.0);
+		}
+
+		// A base of negative zero raised to a negative odd integer results in
+		// negative infinity
+		if (base.lower == 0.0 && other.lower < 0.0)
+		{
+			from = Double.NEGATIVE_INFINITY;
+		}
+
+		return new Interval(from, to).widen();
+	}
+
+	/**
+	 * Returns the interval containing the values of this interval raised to
+	 * the power of the specified integer.
+	 *
+	 * @param exponent
+	 *            : Integer exponent.
+	 * @return Interval of powers.
+	 */
+	private Interval powInteger(double exponent)
+	{
+		final DoubleUnaryOperator power = x -> Math.pow(x, exponent);
+		final boolean even = exponent % 2.0 == 0.0;
+
+		if (exponent == 0.0)
+		{
+			return new Interval(1.0, 1.0);
+		}
+		else if (exponent > 0.0)
+		{
+			return even ? abs().increasing(power) : increasing(power);
+		}
+		else if (lower > 0.0 || upper < 0.0)
+		{
+			return even ? abs().decreasing(power) : decreasing(power);
+		}
+		else if (even)
+		{
+			return new Interval(power.applyAsDouble(Math.max(-lower, upper)),
+					Double.POSITIVE_INFINITY);
+		}
+
+		return ENTIRE;
+	}
+
+	/**
+	 * Returns the intersection of this interval with the domain of a function,
+	 * outside which evaluation fails.
+	 *
+	 * @param lower
+	 *            : Lower bound of the domain.
+	 * @param upper
+	 *            : Upper bound of the domain.
+	 * @return Intersection of both intervals, or null if it is empty.
+	 */
+	Interval restrict(double lower, double upper)
+	{
+		final double from = Math.max(this.lower, lower);
+		final double to = Math.min(this.upper, upper);
+
+		return from > to ? null : new Interval(from, to);
+	}
+
+	/**
+	 * Returns the interval containing the squares of the values of this
+	 * interval, which is tighter than its product by itself as both factors
+	 * are equal.
+	 *
+	 * @return Interval of squares.
+	 */
+	Interval square()
+	{
+		final Interval magnitude = abs();
+		return new Interval(magnitude.lower * magnitude.lower, magnitude.upper
+				* magnitude.upper);
+	}
+
+	/**
+	 * Returns the interval containing the differences of the values of this
+	 * interval and the specified one.
+	 *
+	 * @param other
+	 *            : Interval to be subtracted.
+	 * @return Interval of differences.
+	 */
+	Interval subtract(Interval other)
+	{
+		return bounded(lower - other.upper, upper - other.lower);
+	}
+
+	/**
+	 * Returns the image of this interval by the tangent, which is the entire
+	 * line if the interval contains one of its poles.
+	 *
+	 * @return Interval of tangents.
+	 */
+	Interval tangent()
+	{
+		if (!isFinite() || Math.max(-lower, upper) > PERIODIC
+				|| upper - lower >= Math.PI || containsPeriodically(Math.PI / 2.0, Math.PI))
+		{
+			return ENTIRE;
+		}
+
+		return increasing(Math::tan).widen();
+	}
+
+	/**
+	 * Returns this interval widened by a few units in the last place, to
+	 * account for the error of functions which are not correctly rounded.
+	 *
+	 * @return Widened interval.
+	 */
+	Interval widen()
+	{
+		return new Interval(widen(lower, -1.0), widen(upper, 1.0));
+	}
+}
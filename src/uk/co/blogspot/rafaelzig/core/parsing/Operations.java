@@ -54,10 +54,19 @@ public class Operations
 	public static final String				VALID				= "Valid Expression";
 
 	/**
-	 * DoubleEvaluator object utilised to evaluate mathematical expressions from
-	 * String objects.
+	 * DoubleEvaluator objects utilised to evaluate mathematical expressions
+	 * from String objects, one per thread as they are not thread-safe.
 	 */
-	private static final DoubleEvaluator	evaluator			= new ExtendedDoubleEvaluator();
+	private static final ThreadLocal<DoubleEvaluator>		evaluator			= ThreadLocal
+																					.withInitial(ExtendedDoubleEvaluator::new);
+
+	/**
+	 * ExpressionCompiler objects utilised to parse mathematical expressions
+	 * into reusable Expression objects, one per thread as they are not
+	 * thread-safe.
+	 */
+	private static final ThreadLocal<ExpressionCompiler>	compiler			= ThreadLocal
+																					.withInitial(ExpressionCompiler::new);
 
 	/**
 	 * GsonBuilder object utilised to serialise and deserialise objects from and
@@ -94,7 +103,7 @@ public class Operations
 	{
 		try
 		{
-			evaluator.evaluate(expression, evaluationContext);
+			evaluator.get().evaluate(expression, evaluationContext);
 		}
 		catch (final IllegalArgumentException e)
 		{
@@ -111,6 +120,89 @@ public class Operations
 		return VALID;
 	}
 
+	/**
+	 * Parses the specified mathematical expression into an Expression object
+	 * which may be evaluated several times. Expressions which cannot be parsed
+	 * are replaced by one which always evaluates to NaN, as it would happen if
+	 * they were evaluated directly.
+	 *
+	 * @param expression
+	 *            : String object representing a mathematical expression.
+	 * @param numberOfVariables
+	 *            : Number of decision variables, named x1 to xN, which may be
+	 *            referenced by the expression.
+	 * @return Parsed expression.
+	 */
+	public static Expression compile(String expression, int numberOfVariables)
+	{
+		try
+		{
+			return compiler.get().compile(expression, numberOfVariables);
+		}
+		catch (final IllegalArgumentException e)
+		{
+			return Expression.INVALID;
+		}
+	}
+
+	/**
+	 * Evaluates the specified parsed expression for a batch of solutions,
+	 * utilising the values of the decision variables stored by column.
+	 *
+	 * @param expression
+	 *            : Parsed mathematical expression.
+	 * @param columns
+	 *            : Values of the decision variables, where the values of
+	 *            variable x(i) are found at index i - 1.
+	 * @param length
+	 *            : Number of solutions in the batch.
+	 * @return : Array containing the result of evaluation for each solution,
+	 *         which is NaN for the solutions whose evaluation failed.
+	 */
+	public static double[] evaluate(Expression expression, double[][] columns,
+			int length)
+	{
+		final boolean[] failed = new boolean[length];
+		final double[] result = expression.evaluate(columns, length, failed).clone();
+
+		for (int i = 0; i < length; i++)
+		{
+			if (failed[i])
+			{
+				result[i] = Double.NaN;
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Evaluates the specified parsed expression utilising the values of the
+	 * decision variables.
+	 *
+	 * @param expression
+	 *            : Parsed mathematical expression.
+	 * @param values
+	 *            : Values of the decision variables, where the value of
+	 *            variable x(i) is found at index i - 1.
+	 * @return : Result of evaluation.
+	 */
+	public static double evaluate(Expression expression, double[] values)
+	{
+		double result;
+
+		try
+		{
+			result = expression.evaluate(values);
+		}
+		catch (final IllegalArgumentException e)
+		{
+			result = Double.NaN;
+		}
+
+		return result;
+	}
+
 	/**
 	 * Evaluates the specified mathematical expression utilising the evaluation
 	 * context.
@@ -121,14 +213,14 @@ public class Operations
 	 *            : Evaluation context to be utilised
 	 * @return : Result of evaluation.
 	 */
-	public synchronized static double evaluate(String expression,
+	public static double evaluate(String expression,
 			AbstractVariableSet<Double> evaluationContext)
 	{
 		double result;
 
 		try
 		{
-			result = evaluator.evaluate(expression, evaluationContext);
+			result = evaluator.get().evaluate(expression, evaluationContext);
 		}
 		catch (final IllegalArgumentException e)
 		{
@@ -228,6 +320,9 @@ public class Operations
 				{
 				}.getType();
 				problems = gson.fromJson(reader, type);
+
+				// Parses the expressions of the deserialised problems up front
+				problems.replaceAll((name, problem) -> new ProblemTemplate(problem));
 			}
 			catch (IOException e)
 			{
@@ -238,6 +333,32 @@ public class Operations
 		return problems;
 	}
 
+	/**
+	 * Returns the ProblemTemplate object described by the specified JSON text,
+	 * as produced by {@link #toJson(ProblemTemplate)}.
+	 *
+	 * @param json
+	 *            : JSON text describing the problem.
+	 * @return ProblemTemplate object with its expressions parsed.
+	 */
+	public static ProblemTemplate parseProblem(String json)
+	{
+		return new ProblemTemplate(gson.fromJson(json, ProblemTemplate.class));
+	}
+
+	/**
+	 * Returns the JSON text describing the specified problem, in the format
+	 * the problems are stored on disk.
+	 *
+	 * @param problem
+	 *            : ProblemTemplate object to be described.
+	 * @return JSON text describing the problem.
+	 */
+	public static String toJson(ProblemTemplate problem)
+	{
+		return gson.toJson(problem);
+	}
+
 	/**
 	 * Writes the SavedSolutionSet object to the specified file.
 	 *
@@ -0,0 +1,453 @@
+package uk.co.blogspot.rafaelzig.core.parsing;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.moeaframework.core.NondominatedPopulation;
+import org.moeaframework.core.Solution;
+import org.moeaframework.core.Variable;
+import org.moeaframework.core.variable.EncodingUtils;
+
+import uk.co.blogspot.rafaelzig.core.datastructure.NondominatedArchive;
+import uk.co.blogspot.rafaelzig.core.datastructure.template.BinaryTemplate;
+import uk.co.blogspot.rafaelzig.core.datastructure.template.Constraint;
+import uk.co.blogspot.rafaelzig.core.datastructure.template.Constraint.ConstraintOperator;
+import uk.co.blogspot.rafaelzig.core.datastructure.template.IntegerTemplate;
+import uk.co.blogspot.rafaelzig.core.datastructure.template.Objective;
+import uk.co.blogspot.rafaelzig.core.datastructure.template.ProblemTemplate;
+import uk.co.blogspot.rafaelzig.core.datastructure.template.RealTemplate;
+import uk.co.blogspot.rafaelzig.core.datastructure.template.VariableTemplate;
+import uk.co.blogspot.rafaelzig.core.datastructure.template.VariableTemplate.Type;
+
+/**
+ * Class responsible for reducing a problem before it is given to an
+ * algorithm, and for mapping the solutions of the reduced problem back to the
+ * variables of the original one. Constraints bounding a single variable by a
+ * constant, such as x1 >= 3, are replaced by tightening the bounds of the
+ * variable, variables whose bounds are equal are replaced by their value, and
+ * variables appearing in no expression are removed. The remaining variables
+ * are renumbered in their original order. The feasible solutions of both
+ * problems are therefore the same, while the reduced problem has fewer
+ * dimensions to be searched.
+ *
+ * @author Rafael da Silva Costa - BSc Computer Science 3rd Year
+ *
+ */
+public class Presolve
+{
+	/**
+	 * Pattern matching the names of the decision variables in an expression.
+	 */
+	private static final Pattern		VARIABLE	= Pattern.compile("\\bx(\\d+)\\b");
+
+	/**
+	 * The original problem.
+	 */
+	private final ProblemTemplate		problem;
+
+	/**
+	 * The reduced problem, which is the original problem if it cannot be
+	 * reduced.
+	 */
+	private final ProblemTemplate		reduced;
+
+	/**
+	 * Array containing the index of each original variable in the reduced
+	 * problem, which is -1 for the variables removed.
+	 */
+	private final int[]					index;
+
+	/**
+	 * Array containing the value taken by each removed variable, which is its
+	 * lower bound.
+	 */
+	private final double[]				values;
+
+	/**
+	 * Constructs a new instance of Presolve reducing the specified problem.
+	 *
+	 * @param problem
+	 *            : Problem to be reduced.
+	 */
+	public Presolve(ProblemTemplate problem)
+	{
+		this.problem = problem;
+
+		final VariableTemplate[] variables = problem.getVariables();
+		final int n = variables.length;
+		final List<Constraint> constraints = new ArrayList<>();
+		values = problem.getLowerBounds();
+		final double[] upper = problem.getUpperBounds();
+
+		for (final Constraint constraint : problem.getConstraints())
+		{
+			if (!tighten(constraint, variables, values, upper))
+			{
+				constraints.add(constraint);
+			}
+		}
+
+		final BitSet used = new BitSet(n);
+
+		for (final Objective objective : problem.getObjectives())
+		{
+			Operations.compile(objective.getExpression(), n).addSlots(used);
+		}
+
+		for (final Constraint constraint : constraints)
+		{
+			Operations.compile(constraint.getLhs(), n).addSlots(used);
+			Operations.compile(constraint.getRhs(), n).addSlots(used);
+		}
+
+		index = new int[n];
+		final List<VariableTemplate> kept = new ArrayList<>();
+
+		for (int i = 0; i < n; i++)
+		{
+			// Bounds tightened past each other leave no feasible solution,
+			// which is left for the algorithms to report
+			if (values[i] > upper[i])
+			{
+				reduced = problem;
+				return;
+			}
+
+			index[i] = used.get(i) && values[i] < upper[i] ? kept.size() : -1;
+
+			if (index[i] >= 0)
+			{
+				kept.add(newTemplate(variables[i].getType(), values[i], upper[i]));
+			}
+		}
+
+		if (kept.isEmpty() || kept.size() == n
+				&& constraints.size() == problem.getNumberOfConstraints()
+				&& isUnchanged(variables, kept))
+		{
+			reduced = problem;
+			return;
+		}
+
+		final List<Objective> objectives = new ArrayList<>();
+
+		for (final Objective objective : problem.getObjectives())
+		{
+			objectives.add(new Objective(rewrite(objective.getExpression()), objective
+					.isMaximisation()));
+		}
+
+		constraints.replaceAll(constraint -> new Constraint(constraint.getOperator(),
+				rewrite(constraint.getLhs()), rewrite(constraint.getRhs())));
+
+		reduced = new ProblemTemplate(problem.getName(), kept, objectives, constraints);
+	}
+
+	/**
+	 * Returns the value of the specified variable of the specified type.
+	 *
+	 * @param variable
+	 *            : Variable to be decoded.
+	 * @param type
+	 *            : Type of the variable.
+	 * @return Value of the variable.
+	 */
+	private static double decode(Variable variable, Type type)
+	{
+		switch (type)
+		{
+			case BINARY:
+				return EncodingUtils.getBoolean(variable) ? 1.0 : 0.0;
+			case INTEGER:
+				return EncodingUtils.getInt(variable);
+			default:
+				return EncodingUtils.getReal(variable);
+		}
+	}
+
+	/**
+	 * Sets the specified variable of the specified type to the specified
+	 * value.
+	 *
+	 * @param variable
+	 *            : Variable to be encoded.
+	 * @param type
+	 *            : Type of the variable.
+	 * @param value
+	 *            : Value of the variable.
+	 */
+	private static void encode(Variable variable, Type type, double value)
+	{
+		switch (type)
+		{
+			case BINARY:
+				EncodingUtils.setBoolean(variable, value != 0);
+				break;
+			case INTEGER:
+				EncodingUtils.setInt(variable, (int) value);
+				break;
+			default:
+				EncodingUtils.setReal(variable, value);
+				break;
+		}
+	}
+
+	/**
+	 * Returns the constant value of the specified expression.
+	 *
+	 * @param expression
+	 *            : Parsed expression.
+	 * @param numberOfVariables
+	 *            : Number of decision variables of the problem.
+	 * @return Value of the expression, or NaN if it depends on a variable, is
+	 *         random or does not evaluate to a finite number.
+	 */
+	private static double getConstant(Expression expression, int numberOfVariables)
+	{
+		final BitSet slots = new BitSet();
+		expression.addSlots(slots);
+
+		if (!slots.isEmpty() || !expression.isPure())
+		{
+			return Double.NaN;
+		}
+
+		final double value = Operations.evaluate(expression,
+				new double[numberOfVariables]);
+		return Double.isInfinite(value) ? Double.NaN : value;
+	}
+
+	/**
+	 * Returns the problem to be given to the algorithms.
+	 *
+	 * @return Reduced problem, or the original problem if it cannot be
+	 *         reduced.
+	 */
+	public ProblemTemplate getProblem()
+	{
+		return reduced;
+	}
+
+	/**
+	 * Returns the index of the variable the specified expression consists of.
+	 *
+	 * @param expression
+	 *            : Parsed expression.
+	 * @return Index of the variable, or -1 if the expression is not a single
+	 *         variable.
+	 */
+	private static int getVariable(Expression expression)
+	{
+		final BitSet slots = new BitSet();
+		expression.addSlots(slots);
+
+		if (slots.cardinality() == 1
+				&& expression.equals(new Expression.Variable(slots.nextSetBit(0))))
+		{
+			return slots.nextSetBit(0);
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Returns whether the specified templates have the same bounds as the
+	 * specified original ones.
+	 *
+	 * @param variables
+	 *            : Templates of the original variables.
+	 * @param kept
+	 *            : Templates of the variables of the reduced problem.
+	 * @return True if every bound is the same, false otherwise.
+	 */
+	private static boolean isUnchanged(VariableTemplate[] variables,
+			List<VariableTemplate> kept)
+	{
+		for (int i = 0; i < variables.length; i++)
+		{
+			if (variables[i].getLowerBound().doubleValue() != kept.get(i).getLowerBound()
+					.doubleValue()
+					|| variables[i].getUpperBound().doubleValue() != kept.get(i)
+							.getUpperBound().doubleValue())
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns a new template of the specified type with the specified bounds.
+	 *
+	 * @param type
+	 *            : Type of the variable.
+	 * @param lower
+	 *            : Lower bound of the variable.
+	 * @param upper
+	 *            : Upper bound of the variable.
+	 * @return Template of the variable.
+	 */
+	private static VariableTemplate newTemplate(Type type, double lower, double upper)
+	{
+		switch (type)
+		{
+			case BINARY:
+				return new BinaryTemplate();
+			case INTEGER:
+				return new IntegerTemplate((int) lower, (int) upper);
+			default:
+				return new RealTemplate(lower, upper);
+		}
+	}
+
+	/**
+	 * Returns the solutions of the original problem corresponding to the
+	 * specified solutions of the reduced problem.
+	 *
+	 * @param result
+	 *            : Solutions of the reduced problem.
+	 * @return Solutions of the original problem.
+	 */
+	public NondominatedPopulation restore(NondominatedPopulation result)
+	{
+		if (reduced == problem)
+		{
+			return result;
+		}
+
+		final NondominatedPopulation restored = new NondominatedArchive();
+
+		for (final Solution solution : result)
+		{
+			restored.add(restore(solution));
+		}
+
+		return restored;
+	}
+
+	/**
+	 * Returns the solution of the original problem corresponding to the
+	 * specified solution of the reduced problem, which is evaluated by the
+	 * original problem.
+	 *
+	 * @param solution
+	 *            : Solution of the reduced problem.
+	 * @return Solution of the original problem.
+	 */
+	public Solution restore(Solution solution)
+	{
+		if (reduced == problem)
+		{
+			return solution;
+		}
+
+		final VariableTemplate[] variables = problem.getVariables();
+		final Solution result = problem.newSolution();
+
+		for (int i = 0; i < variables.length; i++)
+		{
+			final Type type = variables[i].getType();
+			encode(result.getVariable(i), type, index[i] < 0 ? values[i] : decode(
+					solution.getVariable(index[i]), type));
+		}
+
+		problem.evaluate(result);
+		return result;
+	}
+
+	/**
+	 * Returns the specified expression of the original problem rewritten for
+	 * the reduced problem, where removed variables are replaced by their
+	 * value and the remaining ones are renumbered.
+	 *
+	 * @param expression
+	 *            : Expression of the original problem.
+	 * @return Expression of the reduced problem.
+	 */
+	private String rewrite(String expression)
+	{
+		final Matcher matcher = VARIABLE.matcher(expression);
+		final StringBuffer buffer = new StringBuffer();
+
+		while (matcher.find())
+		{
+			final int i = Integer.parseInt(matcher.group(1)) - 1;
+
+			if (i >= 0 && i < index.length)
+			{
+				matcher.appendReplacement(buffer, index[i] < 0 ? "("
+						+ BigDecimal.valueOf(values[i]).toPlainString() + ")" : "x"
+						+ (index[i] + 1));
+			}
+		}
+
+		matcher.appendTail(buffer);
+		return buffer.toString();
+	}
+
+	/**
+	 * Tightens the bounds of a variable according to the specified
+	 * constraint, provided that it bounds a single variable by a constant.
+	 * The bounds of INTEGER and BINARY variables are rounded inwards.
+	 *
+	 * @param constraint
+	 *            : Constraint to be applied.
+	 * @param variables
+	 *            : Templates of the variables.
+	 * @param lower
+	 *            : Array containing the lower bound of each variable.
+	 * @param upper
+	 *            : Array containing the upper bound of each variable.
+	 * @return True if the constraint is replaced by the bounds, false if it is
+	 *         to be kept.
+	 */
+	private static boolean tighten(Constraint constraint, VariableTemplate[] variables,
+			double[] lower, double[] upper)
+	{
+		if (constraint.getOperator() == ConstraintOperator.NOT_EQUAL)
+		{
+			return false;
+		}
+
+		final int n = variables.length;
+		final Expression lhs = Operations.compile(constraint.getLhs(), n).simplify();
+		final Expression rhs = Operations.compile(constraint.getRhs(), n).simplify();
+		boolean atLeast = constraint.getOperator() == ConstraintOperator.GREATER_OR_EQUAL;
+		int variable = getVariable(lhs);
+		double bound = getConstant(rhs, n);
+
+		// The constant may equally be on the left-hand side
+		if (variable < 0)
+		{
+			atLeast = !atLeast;
+			variable = getVariable(rhs);
+			bound = getConstant(lhs, n);
+		}
+
+		if (variable < 0 || Double.isNaN(bound))
+		{
+			return false;
+		}
+
+		if (variables[variable].getType() != Type.REAL)
+		{
+			bound = atLeast ? Math.ceil(bound) : Math.floor(bound);
+		}
+
+		if (atLeast)
+		{
+			lower[variable] = Math.max(lower[variable], bound);
+		}
+		else
+		{
+			upper[variable] = Math.min(upper[variable], bound);
+		}
+
+		return true;
+	}
+}
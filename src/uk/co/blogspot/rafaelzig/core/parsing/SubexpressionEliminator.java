@@ -0,0 +1,142 @@
+package uk.co.blogspot.rafaelzig.core.parsing;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class which finds the sub-expressions appearing more than once across all
+ * the expressions of a problem, and replaces them by references to a value
+ * which is evaluated once per solution. Shared sub-expressions are numbered
+ * after the decision variables, therefore their values are stored in the same
+ * array as the values of the variables.
+ *
+ * @author Rafael da Silva Costa - BSc Computer Science 3rd Year
+ *
+ */
+class SubexpressionEliminator
+{
+	/**
+	 * Number of occurrences of each sub-expression.
+	 */
+	private final Map<Expression, Integer>		occurrences	= new HashMap<>();
+
+	/**
+	 * References to the shared sub-expressions, indexed by the sub-expression
+	 * they replace.
+	 */
+	private final Map<Expression, Expression>	references	= new HashMap<>();
+
+	/**
+	 * Shared sub-expressions, in the order they must be evaluated.
+	 */
+	private final List<Expression>				shared		= new ArrayList<>();
+
+	/**
+	 * Number of decision variables, shared sub-expressions are stored after
+	 * them.
+	 */
+	private final int							numberOfVariables;
+
+	/**
+	 * Constructs a new instance of SubexpressionEliminator for a problem with
+	 * the specified number of decision variables.
+	 *
+	 * @param numberOfVariables
+	 *            : Number of decision variables of the problem.
+	 */
+	SubexpressionEliminator(int numberOfVariables)
+	{
+		this.numberOfVariables = numberOfVariables;
+	}
+
+	/**
+	 * Counts the occurrences of the sub-expressions of the specified
+	 * expression. The operands of a sub-expression are not counted again once
+	 * it has been seen, as only the first occurrence will be evaluated.
+	 *
+	 * @param expression
+	 *            : Expression to be counted.
+	 */
+	private void count(Expression expression)
+	{
+		if (occurrences.merge(expression, 1, Integer::sum) == 1)
+		{
+			for (final Expression operand : expression.getOperands())
+			{
+				count(operand);
+			}
+		}
+	}
+
+	/**
+	 * Replaces the sub-expressions of the specified expressions which appear
+	 * more than once by references to their shared values.
+	 *
+	 * @param expressions
+	 *            : Expressions of the problem, which are replaced in place.
+	 * @return Array containing the shared sub-expressions, in the order they
+	 *         must be evaluated, where the value of the i-th one is to be
+	 *         stored at index numberOfVariables + i.
+	 */
+	Expression[] eliminate(Expression[] expressions)
+	{
+		for (final Expression expression : expressions)
+		{
+			count(expression);
+		}
+
+		for (int i = 0; i < expressions.length; i++)
+		{
+			expressions[i] = replace(expressions[i]);
+		}
+
+		return shared.toArray(new Expression[shared.size()]);
+	}
+
+	/**
+	 * Returns the specified expression with its shared sub-expressions
+	 * replaced by references. Leaves are never shared as reading their value
+	 * costs as much as reading a reference, and neither are impure
+	 * sub-expressions, as each occurrence must be evaluated separately.
+	 *
+	 * @param expression
+	 *            : Expression to be replaced.
+	 * @return Expression with shared sub-expressions replaced.
+	 */
+	private Expression replace(Expression expression)
+	{
+		final Expression[] operands = expression.getOperands();
+
+		if (operands.length == 0)
+		{
+			return expression;
+		}
+
+		Expression reference = references.get(expression);
+
+		if (reference != null)
+		{
+			return reference;
+		}
+
+		for (int i = 0; i < operands.length; i++)
+		{
+			operands[i] = replace(operands[i]);
+		}
+
+		final Expression result = expression.replaceOperands(operands);
+
+		if (occurrences.getOrDefault(expression, 0) < 2 || !expression.isPure())
+		{
+			return result;
+		}
+
+		reference = new Expression.Shared(numberOfVariables + shared.size());
+		shared.add(result);
+		references.put(expression, reference);
+
+		return reference;
+	}
+}
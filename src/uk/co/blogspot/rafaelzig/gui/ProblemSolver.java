@@ -48,14 +48,20 @@ import org.moeaframework.Executor;
 import org.moeaframework.core.NondominatedPopulation;
 import org.moeaframework.core.Solution;
 
+import uk.co.blogspot.rafaelzig.core.algorithm.CustomAlgorithms;
+import uk.co.blogspot.rafaelzig.core.datastructure.EpsilonGridArchive;
+import uk.co.blogspot.rafaelzig.core.datastructure.SolutionStore;
 import uk.co.blogspot.rafaelzig.core.datastructure.enumeration.Algorithm;
 import uk.co.blogspot.rafaelzig.core.datastructure.enumeration.Indicator;
 import uk.co.blogspot.rafaelzig.core.datastructure.enumeration.Parameter;
 import uk.co.blogspot.rafaelzig.core.datastructure.template.Constraint;
+import uk.co.blogspot.rafaelzig.core.datastructure.template.EvaluationCache;
+import uk.co.blogspot.rafaelzig.core.datastructure.template.EvaluationCache.Eviction;
 import uk.co.blogspot.rafaelzig.core.datastructure.template.Objective;
 import uk.co.blogspot.rafaelzig.core.datastructure.template.ProblemTemplate;
 import uk.co.blogspot.rafaelzig.core.datastructure.template.VariableTemplate;
 import uk.co.blogspot.rafaelzig.core.parsing.Operations;
+import uk.co.blogspot.rafaelzig.core.parsing.Presolve;
 import uk.co.blogspot.rafaelzig.gui.component.JMetricsPanel;
 import uk.co.blogspot.rafaelzig.gui.component.NumericTextField;
 import uk.co.blogspot.rafaelzig.gui.component.model.ExtendedComboBoxModel;
@@ -326,7 +332,14 @@ public class ProblemSolver extends JFrame implements ActionListener
 		if (isCompatible(problem, algorithm))
 		{
 			final int maxEvaluations = (int) txtMaxEvaluations.getValue();
-			final Executor executor = getExecutor(problem, algorithm, maxEvaluations);
+			final Presolve presolve = new Presolve(problem);
+			final Executor executor = getExecutor(getEvaluatedProblem(presolve
+					.getProblem()), algorithm, maxEvaluations);
+			final int refinementSteps = getParameters().getOrDefault(
+					Parameter.REFINEMENT_STEPS.getCode(), 0).intValue();
+			final Number epsilon = getParameters().get(Parameter.EPSILON.getCode());
+			final int maxSolutions = getParameters().getOrDefault(
+					Parameter.MAX_SOLUTIONS.getCode(), 0).intValue();
 
 			loading = new LoadingWindow(this, "Evaluating...");
 			toggleButtons();
@@ -337,7 +350,21 @@ public class ProblemSolver extends JFrame implements ActionListener
 				public Pair<String, Pair<NondominatedPopulation, Long>> doInBackground()
 				{
 					final long start = System.currentTimeMillis();
-					final NondominatedPopulation result = executor.run();
+					NondominatedPopulation result = presolve.restore(executor.run());
+
+					if (refinementSteps > 0)
+					{
+						result = CustomAlgorithms.refine(problem, result, refinementSteps);
+					}
+
+					// The result is thinned to a single solution per epsilon box
+					if (epsilon != null || maxSolutions > 0)
+					{
+						result = new EpsilonGridArchive(epsilon == null ? null
+								: new double[] { epsilon.doubleValue() }, maxSolutions,
+								result);
+					}
+
 					final long ellapsed = System.currentTimeMillis() - start;
 					return new Pair<>(algorithm.toString(), new Pair<>(result, ellapsed));
 				}
@@ -477,6 +504,33 @@ public class ProblemSolver extends JFrame implements ActionListener
 		return pnlCenter;
 	}
 
+	/**
+	 * Returns the problem to be evaluated for the specified problem, which
+	 * evaluates its constraints before its objectives and caches its
+	 * evaluations if the corresponding parameters are selected.
+	 *
+	 * @param problem
+	 *            : Problem to be evaluated.
+	 * @return Problem to be given to the algorithm.
+	 */
+	private ProblemTemplate getEvaluatedProblem(ProblemTemplate problem)
+	{
+		final Map<String, Number> parameters = getParameters();
+		final boolean feasibilityFirst = parameters.getOrDefault(
+				Parameter.FEASIBILITY_FIRST.getCode(), 0).intValue() == 1;
+		final int cacheSize = parameters.getOrDefault(Parameter.CACHE_SIZE.getCode(), 0)
+				.intValue();
+
+		if (feasibilityFirst || cacheSize > 0)
+		{
+			return new ProblemTemplate(problem, feasibilityFirst, cacheSize > 0
+					? new EvaluationCache(cacheSize, Eviction.LEAST_RECENTLY_USED)
+					: null);
+		}
+
+		return problem;
+	}
+
 	/**
 	 * Returns the Executor object configured for the specified algorithm,
 	 * problem and max evaluations.
@@ -494,13 +548,19 @@ public class ProblemSolver extends JFrame implements ActionListener
 	{
 		final Executor executor = new Executor()
 				.withProblemClass(problem.getClass(), problem)
-				.withAlgorithm(algorithm.name()).distributeOnAllCores();
+				.withAlgorithm(algorithm.name());
 
-		if (algorithm.equals(Algorithm.BruteForce))
+		if (algorithm.isExact())
 		{
+			// Exact algorithms evaluate their own batches, therefore they are
+			// given the problem itself along with the types of its variables
 			maxEvaluations = 1;
 			executor.withProperty(Algorithm.BruteForce.name(), problem.getVariableTypes());
 		}
+		else
+		{
+			executor.distributeOnAllCores();
+		}
 
 		executor.withMaxEvaluations(maxEvaluations);
 
@@ -650,18 +710,27 @@ public class ProblemSolver extends JFrame implements ActionListener
 		{
 			final StringBuilder bdr = new StringBuilder();
 			bdr.append(algorithm.toString() + " average runtime per seed: ");
-			final Executor executor = getExecutor(problem, algorithm, maxEvaluations);
+			final Presolve presolve = new Presolve(problem);
+			final ProblemTemplate evaluated = getEvaluatedProblem(presolve.getProblem());
+			final Executor executor = getExecutor(evaluated, algorithm, maxEvaluations);
 			final long start = System.currentTimeMillis();
-			if (algorithm.equals(Algorithm.BruteForce))
+			final List<NondominatedPopulation> results = executor
+					.runSeeds(algorithm.isExact() ? 1 : seeds);
+			results.replaceAll(presolve::restore);
+			analyzer.addAll(algorithm.toString(), results);
+			bdr.append(Long.toString((System.currentTimeMillis() - start) / seeds)
+					+ "ms\n");
+
+			if (evaluated.getConstraintStatistics() != null)
 			{
-				analyzer.addAll(algorithm.toString(), executor.runSeeds(1));
+				bdr.append(evaluated.getConstraintStatistics().toString());
 			}
-			else
+
+			if (evaluated.getEvaluationCache() != null)
 			{
-				analyzer.addAll(algorithm.toString(), executor.runSeeds(seeds));
+				bdr.append(evaluated.getEvaluationCache().toString());
 			}
-			bdr.append(Long.toString((System.currentTimeMillis() - start) / seeds)
-					+ "ms\n");
+
 			output.write(bdr.toString().getBytes());
 		}
 
@@ -735,7 +804,7 @@ public class ProblemSolver extends JFrame implements ActionListener
 	 */
 	private void loadAlgorithmDetails(Algorithm alg)
 	{
-		if (alg.equals(Algorithm.BruteForce))
+		if (alg.isExact())
 		{
 			txtMaxEvaluations.setValue(1);
 			txtMaxEvaluations.setEnabled(false);
@@ -960,12 +1029,13 @@ public class ProblemSolver extends JFrame implements ActionListener
 								+ " solutions will be displayed");
 			}
 
+			final ProblemTemplate problem = (ProblemTemplate) cbbProblems
+					.getSelectedItem();
 			final List<Solution> solutionList = new ArrayList<>(solutions.size());
-			solutions.forEach(s -> s.clearAttributes());
 			solutions.forEach(s -> solutionList.add(s));
 
-			new SolutionViewer((ProblemTemplate) cbbProblems.getSelectedItem(),
-					solutionList, result.getKey(), result.getValue().getValue());
+			new SolutionViewer(problem, new SolutionStore(problem, solutionList),
+					result.getKey(), result.getValue().getValue());
 		}
 		else
 		{
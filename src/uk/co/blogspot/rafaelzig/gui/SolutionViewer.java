@@ -6,7 +6,6 @@ import java.awt.GridLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.File;
-import java.util.List;
 
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
@@ -38,9 +37,9 @@ import javax.swing.SwingUtilities;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.table.TableModel;
 
-import org.moeaframework.core.Solution;
 
 import uk.co.blogspot.rafaelzig.core.datastructure.SavedSolutionSet;
+import uk.co.blogspot.rafaelzig.core.datastructure.SolutionStore;
 import uk.co.blogspot.rafaelzig.core.datastructure.template.ProblemTemplate;
 import uk.co.blogspot.rafaelzig.core.parsing.Operations;
 import uk.co.blogspot.rafaelzig.gui.component.SolutionSetTable;
@@ -80,7 +79,7 @@ class SolutionViewer extends JFrame implements ActionListener
 	 * Several fields utilised throughout this application.
 	 */
 	private final ProblemTemplate	problem;
-	private final List<Solution>	solutions;
+	private final SolutionStore		store;
 	private final String			algorithmName;
 	private final SolutionSetModel	mdlResults;
 	private final JFXPanel			fxpResults					= new JFXPanel();
@@ -94,23 +93,23 @@ class SolutionViewer extends JFrame implements ActionListener
 	 *
 	 * @param problem
 	 *            : Problem which was evaluated.
-	 * @param solutions
-	 *            : List containing the Pareto Optimal Solutions.
+	 * @param store
+	 *            : Store containing the Pareto Optimal Solutions.
 	 * @param algorithmName
 	 *            : Name of algorithm utilised during evaluation.
 	 * @param elapsed
 	 *            : Elapsed time taken to evaluate the Pareto Optimal Solutions.
 	 */
-	SolutionViewer(ProblemTemplate problem, List<Solution> solutions,
+	SolutionViewer(ProblemTemplate problem, SolutionStore store,
 			String algorithmName, Long elapsed)
 	{
 		super(problem.getName() + " solved with " + algorithmName);
 
 		this.problem = problem;
-		this.solutions = solutions;
+		this.store = store;
 		this.algorithmName = algorithmName;
 		this.elapsed = elapsed;
-		mdlResults = new SolutionSetModel(solutions, problem);
+		mdlResults = new SolutionSetModel(store, problem);
 		Platform.setImplicitExit(false);
 		setIconImage(new ImageIcon(getClass().getResource("res/icon.png")).getImage());
 		setLayout(new BorderLayout(PADDING, PADDING));
@@ -128,7 +127,7 @@ class SolutionViewer extends JFrame implements ActionListener
 	 */
 	SolutionViewer(SavedSolutionSet solutionSet)
 	{
-		this(solutionSet.getProblem(), solutionSet.getSolutions(), solutionSet
+		this(solutionSet.getProblem(), solutionSet.getStore(), solutionSet
 				.getAlgorithm(), solutionSet.getElapsed());
 	}
 
@@ -525,7 +524,7 @@ class SolutionViewer extends JFrame implements ActionListener
 							"Overwrite the existing file?", "Action Required",
 							JOptionPane.OK_CANCEL_OPTION) == JOptionPane.OK_OPTION)
 			{
-				if (Operations.write(selected, new SavedSolutionSet(problem, solutions,
+				if (Operations.write(selected, new SavedSolutionSet(problem, store,
 						algorithmName, elapsed)))
 				{
 					JOptionPane.showMessageDialog(this,
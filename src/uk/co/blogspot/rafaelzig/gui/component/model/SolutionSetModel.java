@@ -1,7 +1,6 @@
 package uk.co.blogspot.rafaelzig.gui.component.model;
 
 import java.util.Arrays;
-import java.util.List;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -10,18 +9,16 @@ import javafx.scene.chart.XYChart.Series;
 
 import javax.swing.table.AbstractTableModel;
 
-import org.moeaframework.core.Solution;
-import org.moeaframework.core.Variable;
-import org.moeaframework.core.variable.BinaryVariable;
-import org.moeaframework.core.variable.EncodingUtils;
-
+import uk.co.blogspot.rafaelzig.core.datastructure.SolutionStore;
 import uk.co.blogspot.rafaelzig.core.datastructure.template.Objective;
 import uk.co.blogspot.rafaelzig.core.datastructure.template.ProblemTemplate;
 import uk.co.blogspot.rafaelzig.core.datastructure.template.VariableTemplate;
 
 /**
  * A subclass of AbstractTableModel, implementing required abstract methods and
- * adding support to generate chart data based on the table data.
+ * adding support to generate chart data based on the table data. The table
+ * data is read from the columns of a SolutionStore object, negating the
+ * evaluations of maximised objectives, rather than copied.
  *
  * @author Rafael da Silva Costa - BSc Computer Science 3rd Year
  *
@@ -31,19 +28,19 @@ public class SolutionSetModel extends AbstractTableModel
 	private static final long	serialVersionUID	= 4706282550136761692L;
 
 	/**
-	 * Table data.
+	 * Solutions from which the table data is read.
 	 */
-	private final double[][]	tableData;
+	private final SolutionStore	store;
 
 	/**
-	 * Column names.
+	 * Whether each objective is maximised.
 	 */
-	private final String[]		colNames;
+	private final boolean[]		maximisation;
 
 	/**
-	 * Row names.
+	 * Column names.
 	 */
-	private final String[]		rowNames;
+	private final String[]		colNames;
 
 	/**
 	 * Lower bounds of objective function evaluations.
@@ -56,15 +53,27 @@ public class SolutionSetModel extends AbstractTableModel
 	private double				objUpperBound;
 
 	/**
-	 * Lower bounds of variables.
+	 * Lower bound of all variables of the problem.
 	 */
 	private double				varLowerBound;
 
 	/**
-	 * Upper bounds of variables.
+	 * Upper bound of all variables of the problem.
 	 */
 	private double				varUpperBound;
 
+	/**
+	 * Lower bounds of each column, which enclose the values of any solution of
+	 * the problem.
+	 */
+	private final double[]		lowerBounds;
+
+	/**
+	 * Upper bounds of each column, which enclose the values of any solution of
+	 * the problem.
+	 */
+	private final double[]		upperBounds;
+
 	/**
 	 * Column offset representing division in the table data between variables
 	 * and objective functions.
@@ -77,29 +86,34 @@ public class SolutionSetModel extends AbstractTableModel
 	private final String		problemName;
 
 	/**
-	 * Constructs a new instance of SolutionSetModel with the specified list of
+	 * Constructs a new instance of SolutionSetModel with the specified store of
 	 * solutions and problem.
 	 *
-	 * @param solutions
-	 *            : List of solutions
+	 * @param store
+	 *            : Solutions to be displayed.
 	 * @param problem
+	 *            : Problem from which the solutions belong.
 	 */
-	public SolutionSetModel(List<Solution> solutions, ProblemTemplate problem)
+	public SolutionSetModel(SolutionStore store, ProblemTemplate problem)
 	{
 		final int numberOfObjectives = problem.getNumberOfObjectives();
+		this.store = store;
 		offset = problem.getNumberOfVariables();
 		problemName = problem.getName();
 
-		tableData = new double[solutions.size()][offset + numberOfObjectives];
+		maximisation = new boolean[numberOfObjectives];
 		colNames = new String[offset + numberOfObjectives];
-		rowNames = new String[solutions.size()];
 
-		buildTableData(solutions, problem.getObjectives(), problem.getVariables());
+		lowerBounds = new double[offset + numberOfObjectives];
+		upperBounds = new double[offset + numberOfObjectives];
+
+		buildTableData(problem.getObjectives(), problem.getVariables());
+		buildBounds(problem);
 
 		objLowerBound = Math.floor(objLowerBound);
 		objUpperBound = Math.ceil(objUpperBound);
-		varLowerBound = Math.floor(varLowerBound);
-		varUpperBound = Math.ceil(varUpperBound);
+		varLowerBound = Math.floor(Arrays.stream(lowerBounds, 0, offset).min().orElse(0));
+		varUpperBound = Math.ceil(Arrays.stream(upperBounds, 0, offset).max().orElse(0));
 	}
 
 	/**
@@ -114,13 +128,13 @@ public class SolutionSetModel extends AbstractTableModel
 		Arrays.stream(colNames).forEach(str -> builder.append(str + ","));
 		builder.append("\n");
 
-		for (int row = 0; row < rowNames.length; row++)
+		for (int row = 0; row < store.size(); row++)
 		{
-			builder.append(rowNames[row] + ",");
+			builder.append(getRowName(row)).append(',');
 
 			for (int col = 0; col < colNames.length; col++)
 			{
-				builder.append(tableData[row][col] + ",");
+				builder.append(getValue(row, col)).append(',');
 			}
 
 			builder.append("\n");
@@ -130,69 +144,82 @@ public class SolutionSetModel extends AbstractTableModel
 	}
 
 	/**
-	 * Builds the table data with the specified solutions, objectives and
-	 * variables.
+	 * Builds the bounds of each column from the bounds of the variables of the
+	 * specified problem, and from the enclosures of its objectives computed by
+	 * means of interval arithmetic. The bounds of an objective whose enclosure
+	 * is unbounded are taken from the table data instead.
 	 *
-	 * @param solutions
-	 *            : List of Solution objects to be stored in the model.
-	 * @param objectives
-	 *            : Array of Objective objects to be used as reference.
-	 * @param variables
-	 *            : Array of VariableTemplate objects to be used as reference.
+	 * @param problem
+	 *            : Problem from which the data belongs.
 	 */
-	private void buildTableData(List<Solution> solutions, Objective[] objectives,
-			VariableTemplate[] variables)
+	private void buildBounds(ProblemTemplate problem)
 	{
-		final int offset = variables.length;
+		final double[] lower = problem.getLowerBounds();
+		final double[] upper = problem.getUpperBounds();
+		final double[][] objectiveBounds = problem.getObjectiveBounds(lower, upper);
 
-		for (int row = 0; row < tableData.length; row++)
-		{
-			final Solution solution = solutions.get(row);
+		System.arraycopy(lower, 0, lowerBounds, 0, offset);
+		System.arraycopy(upper, 0, upperBounds, 0, offset);
 
-			rowNames[row] = "S" + (row + 1);
+		for (int i = 0; i < objectiveBounds.length; i++)
+		{
+			final int col = offset + i;
+			final double[] bounds = objectiveBounds[i];
 
-			for (int col = 0; col < offset; col++)
+			if (bounds != null && Double.isFinite(bounds[0])
+					&& Double.isFinite(bounds[1]))
 			{
-				final Variable variable = solution.getVariable(col);
+				// Evaluations of maximised objectives are negated
+				final boolean maximisation = problem.getObjectives()[i]
+						.isMaximisation();
+				lowerBounds[col] = maximisation ? -bounds[1] : bounds[0];
+				upperBounds[col] = maximisation ? -bounds[0] : bounds[1];
+				continue;
+			}
 
-				colNames[col] = "x" + (col + 1) + " : " + variables[col];
+			lowerBounds[col] = store.size() == 0 ? 0 : getValue(0, col);
+			upperBounds[col] = lowerBounds[col];
 
-				switch (variables[col].getType())
-				{
-					case BINARY:
-						tableData[row][col] = EncodingUtils
-								.decode((BinaryVariable) variable);
-						break;
-					case INTEGER:
-						tableData[row][col] = EncodingUtils.getInt(variable);
-						break;
-					case REAL:
-						tableData[row][col] = EncodingUtils.getReal(variable);
-						break;
-				}
+			for (int row = 1; row < store.size(); row++)
+			{
+				lowerBounds[col] = Math.min(lowerBounds[col], getValue(row, col));
+				upperBounds[col] = Math.max(upperBounds[col], getValue(row, col));
+			}
+		}
+	}
 
-				if (row + col == 0 || tableData[row][col] < varLowerBound)
-				{
-					varLowerBound = tableData[row][col];
-				}
+	/**
+	 * Builds the column names with the specified objectives and variables, and
+	 * the absolute bounds of the objectives from the table data.
+	 *
+	 * @param objectives
+	 *            : Array of Objective objects to be used as reference.
+	 * @param variables
+	 *            : Array of VariableTemplate objects to be used as reference.
+	 */
+	private void buildTableData(Objective[] objectives, VariableTemplate[] variables)
+	{
+		for (int col = 0; col < offset; col++)
+		{
+			colNames[col] = "x" + (col + 1) + " : " + variables[col];
+		}
 
-				if (row + col == 0 || tableData[row][col] > varUpperBound)
-				{
-					varUpperBound = tableData[row][col];
-				}
-			}
+		for (int col = offset; col < colNames.length; col++)
+		{
+			final int realIndex = col - offset;
+			final String type = objectives[realIndex].isMaximisation() ? "Maximisation"
+					: "Minimisation";
 
+			colNames[col] = "f" + (realIndex + 1) + " : " + type;
+			maximisation[realIndex] = objectives[realIndex].isMaximisation();
+		}
+
+		for (int row = 0; row < store.size(); row++)
+		{
 			double subMin = 0, subMax = 0;
-			for (int col = offset; col < tableData[row].length; col++)
+			for (int col = offset; col < colNames.length; col++)
 			{
-				final int realIndex = col - offset;
-				final String type = objectives[realIndex].isMaximisation() ? "Maximisation"
-						: "Minimisation";
-				final double value = objectives[realIndex].isMaximisation() ? -solution
-						.getObjective(realIndex) : solution.getObjective(realIndex);
-
-				colNames[col] = "f" + (realIndex + 1) + " : " + type;
-				tableData[row][col] = value;
+				final double value = getValue(row, col);
 
 				if (value >= 0)
 				{
@@ -256,14 +283,7 @@ public class SolutionSetModel extends AbstractTableModel
 	 */
 	public double getLowerBound(int column)
 	{
-		double min = tableData[0][column];
-
-		for (int row = 1; row < tableData.length; row++)
-		{
-			min = tableData[row][column] < min ? tableData[row][column] : min;
-		}
-
-		return Math.floor(min);
+		return Math.floor(lowerBounds[column]);
 	}
 
 	/**
@@ -282,11 +302,11 @@ public class SolutionSetModel extends AbstractTableModel
 
 			series.setName(colNames[col]);
 
-			for (int row = 0; row < rowNames.length; row++)
+			for (int row = 0; row < store.size(); row++)
 			{
 				series.getData().add(
-						new XYChart.Data<String, Number>(rowNames[row],
-								tableData[row][col]));
+						new XYChart.Data<String, Number>(getRowName(row),
+								getValue(row, col)));
 			}
 
 			objectivesChartData.add(series);
@@ -310,16 +330,30 @@ public class SolutionSetModel extends AbstractTableModel
 	@Override
 	public int getRowCount()
 	{
-		return tableData.length;
+		return store.size();
+	}
+
+	/**
+	 * Returns the name of the specified row of this model.
+	 *
+	 * @param row
+	 *            : Row index to be used.
+	 * @return Name of the specified row of this model.
+	 */
+	private static String getRowName(int row)
+	{
+		return "S" + (row + 1);
 	}
 
 	/**
-	 * Returns the names of the rows of this model.
+	 * Builds and returns the names of the rows of this model.
 	 *
 	 * @return Names of the rows of this model.
 	 */
 	public String[] getRowNames()
 	{
+		final String[] rowNames = new String[store.size()];
+		Arrays.setAll(rowNames, SolutionSetModel::getRowName);
 		return rowNames;
 	}
 
@@ -357,13 +391,13 @@ public class SolutionSetModel extends AbstractTableModel
 		final ObservableList<XYChart.Series<Number, Number>> tradeoffCurveData = FXCollections
 				.<XYChart.Series<Number, Number>> observableArrayList();
 
-		for (int row = 0; row < tableData.length; row++)
+		for (int row = 0; row < store.size(); row++)
 		{
 			final XYChart.Series<Number, Number> series = new XYChart.Series<>();
-			series.setName(rowNames[row]);
+			series.setName(getRowName(row));
 			series.getData().add(
-					new XYChart.Data<Number, Number>(tableData[row][offset],
-							tableData[row][offset + 1], rowNames[row]));
+					new XYChart.Data<Number, Number>(getValue(row, offset), getValue(
+							row, offset + 1), getRowName(row)));
 			tradeoffCurveData.add(series);
 		}
 
@@ -389,20 +423,33 @@ public class SolutionSetModel extends AbstractTableModel
 	 */
 	public double getUpperBound(int column)
 	{
-		double max = tableData[0][column];
+		return Math.ceil(upperBounds[column]);
+	}
 
-		for (int row = 1; row < tableData.length; row++)
+	/**
+	 * Returns the value of the specified cell of the table data.
+	 *
+	 * @param row
+	 *            : Row index to be used.
+	 * @param col
+	 *            : Column index to be used.
+	 * @return Value of the variable or objective of the specified solution.
+	 */
+	private double getValue(int row, int col)
+	{
+		if (col < offset)
 		{
-			max = tableData[row][column] > max ? tableData[row][column] : max;
+			return store.getVariable(row, col);
 		}
 
-		return Math.ceil(max);
+		final double value = store.getObjective(row, col - offset);
+		return maximisation[col - offset] ? -value : value;
 	}
 
 	@Override
 	public Number getValueAt(int row, int col)
 	{
-		return tableData[row][col];
+		return getValue(row, col);
 	}
 
 	/**
@@ -420,11 +467,11 @@ public class SolutionSetModel extends AbstractTableModel
 			final XYChart.Series<String, Number> series = new XYChart.Series<>();
 			series.setName(colNames[col]);
 
-			for (int row = 0; row < rowNames.length; row++)
+			for (int row = 0; row < store.size(); row++)
 			{
 				series.getData().add(
-						new XYChart.Data<String, Number>(rowNames[row],
-								tableData[row][col]));
+						new XYChart.Data<String, Number>(getRowName(row),
+								getValue(row, col)));
 			}
 
 			variablesChartData.add(series);